@@ -0,0 +1,127 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Finds the data the benchmarks run on and sets up the scratch directories 
+ * they write to.  Relative paths are resolved against the working directory,
+ * which is the base directory of the project when the benchmarks are run 
+ * with the benchmark target of build.xml.
+ */
+public class BenchmarkData
+{
+    /**
+     * Resource package the benchmarks use unless they are given another one.
+     */
+    public static final String BIKE_RESOURCE_PACKAGE = "examples/bike_resource_package";
+
+    /**
+     * SCPM of the bike sample, which the generated corpora are made from 
+     * along with the bike resource package.
+     */
+    public static final String BIKE_SCPM = "examples/bike_SCPM/SMC-S1000DBIKE-06RT9-00001-00.xml";
+
+    /**
+     * Returns a file of the project.
+     * 
+     * @param path String that is the path of the file, absolute or relative
+     * to the working directory.
+     * @return File that is the file.
+     * @throws IOException if the file does not exist.
+     */
+    public static File resolve(String path) throws IOException
+    {
+        File file = new File(path);
+        if (!file.isAbsolute())
+        {
+            file = new File(System.getProperty("user.dir"), path);
+        }
+        if (!file.exists())
+        {
+            throw new IOException("The benchmark data " + file + " does not exist");
+        }
+        return file;
+    }
+
+    /**
+     * Returns the XML files of a resource package in file name order.
+     * 
+     * @param resourcePackage File that is the resource package.
+     * @return List<File> of the XML files.
+     */
+    public static List<File> getXmlFiles(File resourcePackage)
+    {
+        File[] files = resourcePackage.listFiles();
+        Arrays.sort(files);
+        List<File> xmlFiles = new ArrayList<File>();
+        for (File file : files)
+        {
+            if (file.isFile() && file.getName().endsWith(".xml"))
+            {
+                xmlFiles.add(file);
+            }
+        }
+        return xmlFiles;
+    }
+
+    /**
+     * Creates an empty scratch directory in the temporary directory.
+     * 
+     * @param prefix String that starts the name of the directory.
+     * @return File that is the directory.
+     * @throws IOException
+     */
+    public static File createScratchDirectory(String prefix) throws IOException
+    {
+        return Files.createTempDirectory(prefix).toFile();
+    }
+
+    /**
+     * Copies the files of a resource package into the resources/s1000d 
+     * directory of a package, the way SCOBuilder finds them.
+     * 
+     * @param resourcePackage File that is the resource package.
+     * @param packageDir File that is the base directory of the package.
+     * @throws IOException
+     */
+    public static void copyToPackage(File resourcePackage, File packageDir) throws IOException
+    {
+        File s1000d = new File(packageDir, "resources" + File.separator + "s1000d");
+        s1000d.mkdirs();
+        for (File file : resourcePackage.listFiles())
+        {
+            if (file.isFile())
+            {
+                Files.copy(file.toPath(), new File(s1000d, file.getName()).toPath());
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     * 
+     * @param file File that is the directory or file to delete.
+     */
+    public static void delete(File file)
+    {
+        File[] files = file.listFiles();
+        if (files != null)
+        {
+            for (File inner : files)
+            {
+                delete(inner);
+            }
+        }
+        file.delete();
+    }
+}
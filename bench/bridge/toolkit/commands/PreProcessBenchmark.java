@@ -0,0 +1,106 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.commands;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+import org.jdom.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bridge.toolkit.BenchmarkData;
+import bridge.toolkit.util.CorpusGenerator;
+import bridge.toolkit.util.Keys;
+
+/**
+ * Measures the conversion of a SCPM to the imsmanifest.xml file on corpora
+ * generated from the bike sample, so that the time and the memory the
+ * dependencies of the SCOs take can be compared between package sizes.
+ * The allocations are reported when the benchmark is run with the JMH
+ * option -prof gc.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+public class PreProcessBenchmark
+{
+    /**
+     * Number of data modules of the generated resource package.
+     */
+    @Param({ "1000", "10000" })
+    public int dmCount;
+
+    /**
+     * Directory the corpus is generated in.
+     */
+    private File corpusDir;
+
+    /**
+     * Path of the generated SCPM.
+     */
+    private String scpm;
+
+    /**
+     * Path of the generated resource package.
+     */
+    private String resourcePackage;
+
+    /**
+     * Generates the corpus.
+     * 
+     * @throws Exception
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        corpusDir = BenchmarkData.createScratchDirectory("preProcessBenchmark");
+        CorpusGenerator generator = new CorpusGenerator(BenchmarkData.resolve(BenchmarkData.BIKE_RESOURCE_PACKAGE),
+                                                        BenchmarkData.resolve(BenchmarkData.BIKE_SCPM));
+        scpm = generator.generate(corpusDir, dmCount).getPath();
+        resourcePackage = CorpusGenerator.getResourcePackage(corpusDir).getPath();
+    }
+
+    /**
+     * Deletes the corpus.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        BenchmarkData.delete(corpusDir);
+    }
+
+    /**
+     * Converts the SCPM to the imsmanifest.xml file.
+     * 
+     * @return Document that is the imsmanifest.xml file.
+     */
+    @Benchmark
+    public Document execute()
+    {
+        Context ctx = new ContextBase();
+        ctx.put(Keys.SCPM_FILE, scpm);
+        ctx.put(Keys.RESOURCE_PACKAGE, resourcePackage);
+        if (new PreProcess().execute(ctx))
+        {
+            throw new IllegalStateException("PreProcess was unsuccessful on " + resourcePackage);
+        }
+        return (Document) ctx.get(Keys.XML_SOURCE);
+    }
+}
@@ -0,0 +1,79 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures zipping a directory into a content package zip file.  The zip
+ * file is written over by each measurement.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class ZipCreatorBenchmark
+{
+    /**
+     * Directory that is zipped.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String directory;
+
+    /**
+     * The directory that is zipped.
+     */
+    private File source;
+
+    /**
+     * Directory the zip file is written to.
+     */
+    private File scratch;
+
+    /**
+     * Creates the directory the zip file is written to.
+     * 
+     * @throws Exception
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        source = BenchmarkData.resolve(directory);
+        scratch = BenchmarkData.createScratchDirectory("zipCreatorBenchmark");
+    }
+
+    /**
+     * Deletes the zip file.
+     */
+    @TearDown
+    public void tearDown()
+    {
+        BenchmarkData.delete(scratch);
+    }
+
+    /**
+     * Zips the directory.
+     * 
+     * @throws Exception
+     */
+    @Benchmark
+    public void zipFiles() throws Exception
+    {
+        new ZipCreator().zipFiles(source, new File(scratch, "package.zip"));
+    }
+}
@@ -0,0 +1,104 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures copying a resource package to a new directory, and copying it 
+ * again onto a copy that is up to date.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class CopyDirectoryBenchmark
+{
+    /**
+     * Resource package that is copied.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String resourcePackage;
+
+    /**
+     * The resource package.
+     */
+    private File source;
+
+    /**
+     * Directory the resource package is copied to.
+     */
+    private File destination;
+
+    /**
+     * Directory that holds an up to date copy of the resource package.
+     */
+    private File upToDate;
+
+    /**
+     * Creates the directories the resource package is copied to.
+     * 
+     * @throws Exception
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception
+    {
+        source = BenchmarkData.resolve(resourcePackage);
+        destination = BenchmarkData.createScratchDirectory("copyDirectoryBenchmark");
+        upToDate = BenchmarkData.createScratchDirectory("copyDirectoryBenchmark");
+        new CopyDirectory().copyDirectory(source, upToDate);
+    }
+
+    /**
+     * Deletes the copies.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown()
+    {
+        BenchmarkData.delete(destination);
+        BenchmarkData.delete(upToDate);
+    }
+
+    /**
+     * Copies the resource package to an empty directory.
+     * 
+     * @throws Exception
+     */
+    @Benchmark
+    public void copyDirectory() throws Exception
+    {
+        new CopyDirectory().copyDirectory(source, destination);
+    }
+
+    /**
+     * Copies the resource package onto a copy that is up to date, so no 
+     * file is copied.
+     * 
+     * @throws Exception
+     */
+    @Benchmark
+    public void copyDirectoryUpToDate() throws Exception
+    {
+        new CopyDirectory().copyDirectory(source, upToDate);
+    }
+}
@@ -0,0 +1,82 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jdom.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures the search for the data module references of the parsed data
+ * modules of a resource package.  The data modules are parsed once, so only
+ * the search is measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DMParserBenchmark
+{
+    /**
+     * Resource package whose data modules are searched.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String resourcePackage;
+
+    /**
+     * Parser that searches the data modules.
+     */
+    private DMParser parser;
+
+    /**
+     * The parsed data modules.
+     */
+    private List<Document> dataModules;
+
+    /**
+     * Parses the data modules of the resource package.
+     * 
+     * @throws Exception
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        parser = new DMParser();
+        parser.setCaching(false);
+        dataModules = new ArrayList<Document>();
+        for (File file : BenchmarkData.getXmlFiles(BenchmarkData.resolve(resourcePackage)))
+        {
+            dataModules.add(parser.getDoc(file));
+        }
+    }
+
+    /**
+     * Searches all of the data modules for the data modules they reference.
+     * 
+     * @param blackhole Blackhole that consumes the references found.
+     */
+    @Benchmark
+    public void searchForDmRefs(Blackhole blackhole)
+    {
+        for (Document dataModule : dataModules)
+        {
+            blackhole.consume(parser.searchForDmRefs(dataModule));
+        }
+    }
+}
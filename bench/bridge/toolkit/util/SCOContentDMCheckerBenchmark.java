@@ -0,0 +1,73 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures checking which data modules of a resource package are SCO 
+ * content data modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SCOContentDMCheckerBenchmark
+{
+    /**
+     * Resource package whose data modules are checked.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String resourcePackage;
+
+    /**
+     * The XML files of the resource package.
+     */
+    private List<File> dataModules;
+
+    /**
+     * Lists the XML files of the resource package.
+     * 
+     * @throws Exception
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        dataModules = BenchmarkData.getXmlFiles(BenchmarkData.resolve(resourcePackage));
+    }
+
+    /**
+     * Checks all of the data modules.
+     * 
+     * @return int the number of SCO content data modules.
+     * @throws Exception
+     */
+    @Benchmark
+    public int isSCOContentDM() throws Exception
+    {
+        int found = 0;
+        for (File dataModule : dataModules)
+        {
+            if (SCOContentDMChecker.isSCOContentDM(dataModule))
+            {
+                found++;
+            }
+        }
+        return found;
+    }
+}
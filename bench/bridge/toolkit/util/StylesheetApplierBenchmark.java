@@ -0,0 +1,88 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures applying the style sheet to the data modules of a package.  The
+ * style sheet is applied in place, so each measurement runs once on a fresh
+ * copy of the data modules.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+public class StylesheetApplierBenchmark
+{
+    /**
+     * Resource package whose data modules get the style sheet.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String resourcePackage;
+
+    /**
+     * Number of threads the style sheet is applied on, 0 for one thread 
+     * for each processor.
+     */
+    @Param({ "1", "0" })
+    public String threads;
+
+    /**
+     * Base directory of the package the data modules are copied to.
+     */
+    private File packageDir;
+
+    /**
+     * Copies the data modules of the resource package into a new package.
+     * 
+     * @throws Exception
+     */
+    @Setup(Level.Iteration)
+    public void setUp() throws Exception
+    {
+        System.setProperty(StylesheetApplier.THREADS_PROPERTY, threads);
+        packageDir = BenchmarkData.createScratchDirectory("stylesheetApplierBenchmark");
+        BenchmarkData.copyToPackage(BenchmarkData.resolve(resourcePackage), packageDir);
+    }
+
+    /**
+     * Deletes the package.
+     */
+    @TearDown(Level.Iteration)
+    public void tearDown()
+    {
+        BenchmarkData.delete(packageDir);
+    }
+
+    /**
+     * Applies the style sheet to all of the data modules of the package.
+     * 
+     * @throws Exception
+     */
+    @Benchmark
+    public void applyStylesheetToDMCs() throws Exception
+    {
+        new StylesheetApplier().applyStylesheetToDMCs(packageDir, "app/dmStylesheet.xsl");
+    }
+}
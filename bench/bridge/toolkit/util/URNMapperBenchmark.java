@@ -0,0 +1,85 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.jdom.Document;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import bridge.toolkit.BenchmarkData;
+
+/**
+ * Measures listing the files of a resource package sorted by URN and 
+ * writing the URN map of the files.  The resource package index is built
+ * before the measurements, so listing the files measures a run on an
+ * unchanged resource package.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class URNMapperBenchmark
+{
+    /**
+     * Resource package that is listed and mapped.
+     */
+    @Param(BenchmarkData.BIKE_RESOURCE_PACKAGE)
+    public String resourcePackage;
+
+    /**
+     * Path of the resource package.
+     */
+    private String srcDir;
+
+    /**
+     * The files of the resource package sorted by URN.
+     */
+    private List<File> srcFiles;
+
+    /**
+     * Builds the index of the resource package and lists its files.
+     * 
+     * @throws Exception
+     */
+    @Setup
+    public void setUp() throws Exception
+    {
+        srcDir = BenchmarkData.resolve(resourcePackage).getPath();
+        srcFiles = URNMapper.getSourceFiles(srcDir);
+    }
+
+    /**
+     * Lists the files of the resource package sorted by URN.
+     * 
+     * @return List<File> of the files.
+     * @throws Exception
+     */
+    @Benchmark
+    public List<File> getSourceFiles() throws Exception
+    {
+        return URNMapper.getSourceFiles(srcDir);
+    }
+
+    /**
+     * Writes the URN map of the files of the resource package.
+     * 
+     * @return Document that is the URN map.
+     */
+    @Benchmark
+    public Document writeURNMap()
+    {
+        return URNMapper.writeURNMap(srcFiles, "");
+    }
+}
@@ -0,0 +1,4 @@
+package bridge.toolkit.commands.jmh_generated;
+public class PreProcessBenchmark_jmhType extends PreProcessBenchmark_jmhType_B3 {
+}
+
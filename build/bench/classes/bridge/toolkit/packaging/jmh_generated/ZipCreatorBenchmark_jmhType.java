@@ -0,0 +1,4 @@
+package bridge.toolkit.packaging.jmh_generated;
+public class ZipCreatorBenchmark_jmhType extends ZipCreatorBenchmark_jmhType_B3 {
+}
+
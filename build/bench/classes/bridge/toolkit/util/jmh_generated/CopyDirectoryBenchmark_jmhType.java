@@ -0,0 +1,4 @@
+package bridge.toolkit.util.jmh_generated;
+public class CopyDirectoryBenchmark_jmhType extends CopyDirectoryBenchmark_jmhType_B3 {
+}
+
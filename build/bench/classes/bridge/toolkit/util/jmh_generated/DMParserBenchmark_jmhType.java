@@ -0,0 +1,4 @@
+package bridge.toolkit.util.jmh_generated;
+public class DMParserBenchmark_jmhType extends DMParserBenchmark_jmhType_B3 {
+}
+
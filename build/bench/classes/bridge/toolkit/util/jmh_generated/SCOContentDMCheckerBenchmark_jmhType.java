@@ -0,0 +1,4 @@
+package bridge.toolkit.util.jmh_generated;
+public class SCOContentDMCheckerBenchmark_jmhType extends SCOContentDMCheckerBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,4 @@
+package bridge.toolkit.util.jmh_generated;
+public class StylesheetApplierBenchmark_jmhType extends StylesheetApplierBenchmark_jmhType_B3 {
+}
+
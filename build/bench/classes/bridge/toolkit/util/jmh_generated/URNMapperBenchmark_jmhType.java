@@ -0,0 +1,4 @@
+package bridge.toolkit.util.jmh_generated;
+public class URNMapperBenchmark_jmhType extends URNMapperBenchmark_jmhType_B3 {
+}
+
@@ -0,0 +1,169 @@
+/*!
+ * jQuery Mobile v1.0b3
+ * http://jquerymobile.com/
+ *
+ * Copyright 2010, jQuery Project
+ * Dual licensed under the MIT or GPL Version 2 licenses.
+ * http://jquery.org/license
+ */
+(function(a,d){if(a.cleanData){var b=a.cleanData;a.cleanData=function(c){for(var e=0,d;(d=c[e])!=null;e++)a(d).triggerHandler("remove");b(c)}}else{var c=a.fn.remove;a.fn.remove=function(b,e){return this.each(function(){e||(!b||a.filter(b,[this]).length)&&a("*",this).add([this]).each(function(){a(this).triggerHandler("remove")});return c.call(a(this),b,e)})}}a.widget=function(c,b,d){var h=c.split(".")[0],j,c=c.split(".")[1];j=h+"-"+c;if(!d)d=b,b=a.Widget;a.expr[":"][j]=function(b){return!!a.data(b,
+c)};a[h]=a[h]||{};a[h][c]=function(a,c){arguments.length&&this._createWidget(a,c)};b=new b;b.options=a.extend(!0,{},b.options);a[h][c].prototype=a.extend(!0,b,{namespace:h,widgetName:c,widgetEventPrefix:a[h][c].prototype.widgetEventPrefix||c,widgetBaseClass:j},d);a.widget.bridge(c,a[h][c])};a.widget.bridge=function(c,b){a.fn[c]=function(g){var h=typeof g==="string",j=Array.prototype.slice.call(arguments,1),l=this,g=!h&&j.length?a.extend.apply(null,[!0,g].concat(j)):g;if(h&&g.charAt(0)==="_")return l;
+h?this.each(function(){var b=a.data(this,c);if(!b)throw"cannot call methods on "+c+" prior to initialization; attempted to call method '"+g+"'";if(!a.isFunction(b[g]))throw"no such method '"+g+"' for "+c+" widget instance";var e=b[g].apply(b,j);if(e!==b&&e!==d)return l=e,!1}):this.each(function(){var d=a.data(this,c);d?d.option(g||{})._init():a.data(this,c,new b(g,this))});return l}};a.Widget=function(a,c){arguments.length&&this._createWidget(a,c)};a.Widget.prototype={widgetName:"widget",widgetEventPrefix:"",
+options:{disabled:!1},_createWidget:function(c,b){a.data(b,this.widgetName,this);this.element=a(b);this.options=a.extend(!0,{},this.options,this._getCreateOptions(),c);var d=this;this.element.bind("remove."+this.widgetName,function(){d.destroy()});this._create();this._trigger("create");this._init()},_getCreateOptions:function(){var c={};a.metadata&&(c=a.metadata.get(element)[this.widgetName]);return c},_create:function(){},_init:function(){},destroy:function(){this.element.unbind("."+this.widgetName).removeData(this.widgetName);
+this.widget().unbind("."+this.widgetName).removeAttr("aria-disabled").removeClass(this.widgetBaseClass+"-disabled ui-state-disabled")},widget:function(){return this.element},option:function(c,b){var g=c;if(arguments.length===0)return a.extend({},this.options);if(typeof c==="string"){if(b===d)return this.options[c];g={};g[c]=b}this._setOptions(g);return this},_setOptions:function(c){var b=this;a.each(c,function(a,c){b._setOption(a,c)});return this},_setOption:function(a,c){this.options[a]=c;a==="disabled"&&
+this.widget()[c?"addClass":"removeClass"](this.widgetBaseClass+"-disabled ui-state-disabled").attr("aria-disabled",c);return this},enable:function(){return this._setOption("disabled",!1)},disable:function(){return this._setOption("disabled",!0)},_trigger:function(c,b,d){var h=this.options[c],b=a.Event(b);b.type=(c===this.widgetEventPrefix?c:this.widgetEventPrefix+c).toLowerCase();d=d||{};if(b.originalEvent)for(var c=a.event.props.length,j;c;)j=a.event.props[--c],b[j]=b.originalEvent[j];this.element.trigger(b,
+d);return!(a.isFunction(h)&&h.call(this.element[0],b,d)===!1||b.isDefaultPrevented())}}})(jQuery);(function(a,d){a.widget("mobile.widget",{_getCreateOptions:function(){var b=this.element,c={};a.each(this.options,function(a){var e=b.jqmData(a.replace(/[A-Z]/g,function(a){return"-"+a.toLowerCase()}));e!==d&&(c[a]=e)});return c}})})(jQuery);
+(function(a){a(window);var d=a("html");a.mobile.media=function(){var b={},c=a("<div id='jquery-mediatest'>"),f=a("<body>").append(c);return function(a){if(!(a in b)){var g=document.createElement("style"),h="@media "+a+" { #jquery-mediatest { position:absolute; } }";g.type="text/css";g.styleSheet?g.styleSheet.cssText=h:g.appendChild(document.createTextNode(h));d.prepend(f).prepend(g);b[a]=c.css("position")==="absolute";f.add(g).remove()}return b[a]}}()})(jQuery);
+(function(a,d){function b(a){var c=a.charAt(0).toUpperCase()+a.substr(1),a=(a+" "+e.join(c+" ")+c).split(" "),b;for(b in a)if(f[a[b]]!==d)return!0}var c=a("<body>").prependTo("html"),f=c[0].style,e=["Webkit","Moz","O"],g="palmGetResource"in window,h=window.blackberry;a.mobile.browser={};a.mobile.browser.ie=function(){for(var a=3,c=document.createElement("div"),b=c.all||[];c.innerHTML="<\!--[if gt IE "+ ++a+"]><br><![endif]--\>",b[0];);return a>4?a:!a}();a.extend(a.support,{orientation:"orientation"in
+window,touch:"ontouchend"in document,cssTransitions:"WebKitTransitionEvent"in window,pushState:"pushState"in history&&"replaceState"in history,mediaquery:a.mobile.media("only all"),cssPseudoElement:!!b("content"),touchOverflow:!!b("overflowScrolling"),boxShadow:!!b("boxShadow")&&!h,scrollTop:("pageXOffset"in window||"scrollTop"in document.documentElement||"scrollTop"in c[0])&&!g,dynamicBaseTag:function(){var b=location.protocol+"//"+location.host+location.pathname+"ui-dir/",d=a("head base"),f=null,
+e="",g;d.length?e=d.attr("href"):d=f=a("<base>",{href:b}).appendTo("head");g=a("<a href='testurl'></a>").prependTo(c)[0].href;d[0].href=e?e:location.pathname;f&&f.remove();return g.indexOf(b)===0}(),eventCapture:"addEventListener"in document});c.remove();g=function(){var a=window.navigator.userAgent;return a.indexOf("Nokia")>-1&&(a.indexOf("Symbian/3")>-1||a.indexOf("Series60/5")>-1)&&a.indexOf("AppleWebKit")>-1&&a.match(/(BrowserNG|NokiaBrowser)\/7\.[0-3]/)}();a.mobile.ajaxBlacklist=window.blackberry&&
+!window.WebKitPoint||window.operamini&&Object.prototype.toString.call(window.operamini)==="[object OperaMini]"||g;g&&a(function(){a("head link[rel=stylesheet]").attr("rel","alternate stylesheet").attr("rel","stylesheet")});a.support.boxShadow||a("html").addClass("ui-mobile-nosupport-boxshadow")})(jQuery);
+(function(a,d,b,c){function f(a){for(;a&&typeof a.originalEvent!=="undefined";)a=a.originalEvent;return a}function e(c){for(var b={},d,f;c;){d=a.data(c,o);for(f in d)if(d[f])b[f]=b.hasVirtualBinding=!0;c=c.parentNode}return b}function g(){v&&(clearTimeout(v),v=0);v=setTimeout(function(){B=v=0;x.length=0;r=!1;z=!0},a.vmouse.resetTimerDuration)}function h(b,d,r){var e,g;if(!(g=r&&r[b])){if(r=!r)a:{for(r=d.target;r;){if((g=a.data(r,o))&&(!b||g[b]))break a;r=r.parentNode}r=null}g=r}if(g){e=d;var r=e.type,
+i,z;e=a.Event(e);e.type=b;g=e.originalEvent;i=a.event.props;if(g)for(z=i.length;z;)b=i[--z],e[b]=g[b];if(r.search(/^touch/)!==-1&&(b=f(g),r=b.touches,b=b.changedTouches,r=r&&r.length?r[0]:b&&b.length?b[0]:c)){g=0;for(len=y.length;g<len;g++)b=y[g],e[b]=r[b]}a(d.target).trigger(e)}return e}function j(c){var b=a.data(c.target,A);if(!r&&(!B||B!==b))if(b=h("v"+c.type,c))b.isDefaultPrevented()&&c.preventDefault(),b.isPropagationStopped()&&c.stopPropagation(),b.isImmediatePropagationStopped()&&c.stopImmediatePropagation()}
+function l(c){var b=f(c).touches,d;if(b&&b.length===1&&(d=c.target,b=e(d),b.hasVirtualBinding))B=G++,a.data(d,A,B),v&&(clearTimeout(v),v=0),w=z=!1,d=f(c).touches[0],t=d.pageX,u=d.pageY,h("vmouseover",c,b),h("vmousedown",c,b)}function n(a){z||(w||h("vmousecancel",a,e(a.target)),w=!0,g())}function s(c){if(!z){var b=f(c).touches[0],d=w,r=a.vmouse.moveDistanceThreshold;w=w||Math.abs(b.pageX-t)>r||Math.abs(b.pageY-u)>r;flags=e(c.target);w&&!d&&h("vmousecancel",c,flags);h("vmousemove",c,flags);g()}}function p(a){if(!z){z=
+!0;var c=e(a.target),b;h("vmouseup",a,c);if(!w&&(b=h("vclick",a,c))&&b.isDefaultPrevented())b=f(a).changedTouches[0],x.push({touchID:B,x:b.clientX,y:b.clientY}),r=!0;h("vmouseout",a,c);w=!1;g()}}function k(c){var c=a.data(c,o),b;if(c)for(b in c)if(c[b])return!0;return!1}function i(){}function m(c){var b=c.substr(1);return{setup:function(){k(this)||a.data(this,o,{});a.data(this,o)[c]=!0;q[c]=(q[c]||0)+1;q[c]===1&&C.bind(b,j);a(this).bind(b,i);if(E)q.touchstart=(q.touchstart||0)+1,q.touchstart===1&&
+C.bind("touchstart",l).bind("touchend",p).bind("touchmove",s).bind("scroll",n)},teardown:function(){--q[c];q[c]||C.unbind(b,j);E&&(--q.touchstart,q.touchstart||C.unbind("touchstart",l).unbind("touchmove",s).unbind("touchend",p).unbind("scroll",n));var d=a(this),r=a.data(this,o);r&&(r[c]=!1);d.unbind(b,i);k(this)||d.removeData(o)}}}var o="virtualMouseBindings",A="virtualTouchID",d="vmouseover vmousedown vmousemove vmouseup vclick vmouseout vmousecancel".split(" "),y="clientX clientY pageX pageY screenX screenY".split(" "),
+q={},v=0,t=0,u=0,w=!1,x=[],r=!1,z=!1,E=a.support.eventCapture,C=a(b),G=1,B=0;a.vmouse={moveDistanceThreshold:10,clickDistanceThreshold:10,resetTimerDuration:1500};for(var D=0;D<d.length;D++)a.event.special[d[D]]=m(d[D]);E&&b.addEventListener("click",function(c){var b=x.length,d=c.target,r,f,e,g,i;if(b){r=c.clientX;f=c.clientY;threshold=a.vmouse.clickDistanceThreshold;for(e=d;e;){for(g=0;g<b;g++)if(i=x[g],e===d&&Math.abs(i.x-r)<threshold&&Math.abs(i.y-f)<threshold||a.data(e,A)===i.touchID){c.preventDefault();
+c.stopPropagation();return}e=e.parentNode}}},!0)})(jQuery,window,document);
+(function(a,d,b){function c(c,b,d){var f=d.type;d.type=b;a.event.handle.call(c,d);d.type=f}a.each("touchstart touchmove touchend orientationchange throttledresize tap taphold swipe swipeleft swiperight scrollstart scrollstop".split(" "),function(c,b){a.fn[b]=function(a){return a?this.bind(b,a):this.trigger(b)};a.attrFn[b]=!0});var f=a.support.touch,e=f?"touchstart":"mousedown",g=f?"touchend":"mouseup",h=f?"touchmove":"mousemove";a.event.special.scrollstart={enabled:!0,setup:function(){function b(a,
+e){f=e;c(d,f?"scrollstart":"scrollstop",a)}var d=this,f,e;a(d).bind("touchmove scroll",function(c){a.event.special.scrollstart.enabled&&(f||b(c,!0),clearTimeout(e),e=setTimeout(function(){b(c,!1)},50))})}};a.event.special.tap={setup:function(){var b=this,d=a(b);d.bind("vmousedown",function(f){function e(){clearTimeout(m)}function g(){e();d.unbind("vclick",h).unbind("vmouseup",e).unbind("vmousecancel",g)}function h(a){g();i==a.target&&c(b,"tap",a)}if(f.which&&f.which!==1)return!1;var i=f.target,m;
+d.bind("vmousecancel",g).bind("vmouseup",e).bind("vclick",h);m=setTimeout(function(){c(b,"taphold",a.Event("taphold"))},750)})}};a.event.special.swipe={scrollSupressionThreshold:10,durationThreshold:1E3,horizontalDistanceThreshold:30,verticalDistanceThreshold:75,setup:function(){var c=a(this);c.bind(e,function(d){function f(c){if(p){var b=c.originalEvent.touches?c.originalEvent.touches[0]:c;k={time:(new Date).getTime(),coords:[b.pageX,b.pageY]};Math.abs(p.coords[0]-k.coords[0])>a.event.special.swipe.scrollSupressionThreshold&&
+c.preventDefault()}}var e=d.originalEvent.touches?d.originalEvent.touches[0]:d,p={time:(new Date).getTime(),coords:[e.pageX,e.pageY],origin:a(d.target)},k;c.bind(h,f).one(g,function(){c.unbind(h,f);p&&k&&k.time-p.time<a.event.special.swipe.durationThreshold&&Math.abs(p.coords[0]-k.coords[0])>a.event.special.swipe.horizontalDistanceThreshold&&Math.abs(p.coords[1]-k.coords[1])<a.event.special.swipe.verticalDistanceThreshold&&p.origin.trigger("swipe").trigger(p.coords[0]>k.coords[0]?"swipeleft":"swiperight");
+p=k=b})})}};(function(a,c){function b(){var a=f();a!==e&&(e=a,d.trigger("orientationchange"))}var d=a(c),f,e;a.event.special.orientationchange={setup:function(){if(a.support.orientation)return!1;e=f();d.bind("throttledresize",b)},teardown:function(){if(a.support.orientation)return!1;d.unbind("throttledresize",b)},add:function(a){var c=a.handler;a.handler=function(a){a.orientation=f();return c.apply(this,arguments)}}};a.event.special.orientationchange.orientation=f=function(){var a=document.documentElement;
+return a&&a.clientWidth/a.clientHeight<1.1?"portrait":"landscape"}})(jQuery,d);(function(){a.event.special.throttledresize={setup:function(){a(this).bind("resize",c)},teardown:function(){a(this).unbind("resize",c)}};var c=function(){f=(new Date).getTime();e=f-b;e>=250?(b=f,a(this).trigger("throttledresize")):(d&&clearTimeout(d),d=setTimeout(c,250-e))},b=0,d,f,e})();a.each({scrollstop:"scrollstart",taphold:"tap",swipeleft:"swipe",swiperight:"swipe"},function(c,b){a.event.special[c]={setup:function(){a(this).bind(b,
+a.noop)}}})})(jQuery,this);
+(function(a,d,b){function c(a){a=a||location.href;return"#"+a.replace(/^[^#]*#?(.*)$/,"$1")}var f="hashchange",e=document,g,h=a.event.special,j=e.documentMode,l="on"+f in d&&(j===b||j>7);a.fn[f]=function(a){return a?this.bind(f,a):this.trigger(f)};a.fn[f].delay=50;h[f]=a.extend(h[f],{setup:function(){if(l)return!1;a(g.start)},teardown:function(){if(l)return!1;a(g.stop)}});g=function(){function g(){var b=c(),e=o(k);if(b!==k)j(k=b,e),a(d).trigger(f);else if(e!==k)location.href=location.href.replace(/#.*/,
+"")+e;p=setTimeout(g,a.fn[f].delay)}var h={},p,k=c(),i=function(a){return a},j=i,o=i;h.start=function(){p||g()};h.stop=function(){p&&clearTimeout(p);p=b};a.browser.msie&&!l&&function(){var b,d;h.start=function(){if(!b)d=(d=a.fn[f].src)&&d+c(),b=a('<iframe tabindex="-1" title="empty"/>').hide().one("load",function(){d||j(c());g()}).attr("src",d||"javascript:0").insertAfter("body")[0].contentWindow,e.onpropertychange=function(){try{if(event.propertyName==="title")b.document.title=e.title}catch(a){}}};
+h.stop=i;o=function(){return c(b.location.href)};j=function(c,d){var g=b.document,i=a.fn[f].domain;if(c!==d)g.title=e.title,g.open(),i&&g.write('<script>document.domain="'+i+'"<\/script>'),g.close(),b.location.hash=c}}();return h}()})(jQuery,this);(function(a){a.widget("mobile.page",a.mobile.widget,{options:{theme:"c",domCache:!1},_create:function(){this._trigger("beforecreate");this.element.attr("tabindex","0").addClass("ui-page ui-body-"+this.options.theme)}})})(jQuery);
+(function(a,d){a.extend(a.mobile,{ns:"",subPageUrlKey:"ui-page",activePageClass:"ui-page-active",activeBtnClass:"ui-btn-active",ajaxEnabled:!0,hashListeningEnabled:!0,defaultPageTransition:"slide",minScrollBack:250,defaultDialogTransition:"pop",loadingMessage:"loading",pageLoadErrorMessage:"Error Loading Page",autoInitializePage:!0,pushStateEnabled:!0,gradeA:function(){return a.support.mediaquery||a.mobile.browser.ie&&a.mobile.browser.ie>=7},keyCode:{ALT:18,BACKSPACE:8,CAPS_LOCK:20,COMMA:188,COMMAND:91,
+COMMAND_LEFT:91,COMMAND_RIGHT:93,CONTROL:17,DELETE:46,DOWN:40,END:35,ENTER:13,ESCAPE:27,HOME:36,INSERT:45,LEFT:37,MENU:93,NUMPAD_ADD:107,NUMPAD_DECIMAL:110,NUMPAD_DIVIDE:111,NUMPAD_ENTER:108,NUMPAD_MULTIPLY:106,NUMPAD_SUBTRACT:109,PAGE_DOWN:34,PAGE_UP:33,PERIOD:190,RIGHT:39,SHIFT:16,SPACE:32,TAB:9,UP:38,WINDOWS:91},silentScroll:function(c){if(a.type(c)!=="number")c=a.mobile.defaultHomeScroll;a.event.special.scrollstart.enabled=!1;setTimeout(function(){d.scrollTo(0,c);a(document).trigger("silentscroll",
+{x:0,y:c})},20);setTimeout(function(){a.event.special.scrollstart.enabled=!0},150)},nsNormalize:function(c){if(c)return a.camelCase(a.mobile.ns+c)}});a.fn.jqmData=function(c,b){return this.data(c?a.mobile.nsNormalize(c):c,b)};a.jqmData=function(c,b,d){return a.data(c,a.mobile.nsNormalize(b),d)};a.fn.jqmRemoveData=function(c){return this.removeData(a.mobile.nsNormalize(c))};a.jqmRemoveData=function(c,b){return a.removeData(c,a.mobile.nsNormalize(b))};a.jqmHasData=function(b,d){return a.hasData(b,a.mobile.nsNormalize(d))};
+var b=a.find;a.find=function(c,d,e,g){c=c.replace(/:jqmData\(([^)]*)\)/g,"[data-"+(a.mobile.ns||"")+"$1]");return b.call(this,c,d,e,g)};a.extend(a.find,b);a.find.matches=function(b,d){return a.find(b,null,null,d)};a.find.matchesSelector=function(b,d){return a.find(d,null,null,[b]).length>0}})(jQuery,this);
+(function(a,d){function b(a){var b=a.find(".ui-title:eq(0)");b.length?b.focus():a.focus()}function c(b){m&&(!m.closest(".ui-page-active").length||b)&&m.removeClass(a.mobile.activeBtnClass);m=null}function f(){y=!1;A.length>0&&a.mobile.changePage.apply(null,A.pop())}function e(c,d,e,f){var i=a.mobile.urlHistory.getActive(),h=a.support.touchOverflow&&a.mobile.touchOverflowEnabled,q=i.lastScroll||(h?0:a.mobile.defaultHomeScroll),i=g();window.scrollTo(0,a.mobile.defaultHomeScroll);d&&d.data("page")._trigger("beforehide",
+null,{nextPage:c});h||c.height(i+q);c.data("page")._trigger("beforeshow",null,{prevPage:d||a("")});a.mobile.hidePageLoadingMsg();h&&q&&(c.addClass("ui-mobile-pre-transition"),b(c),c.is(".ui-native-fixed")?c.find(".ui-content").scrollTop(q):c.scrollTop(q));e=(a.mobile.transitionHandlers[e||"none"]||a.mobile.defaultTransitionHandler)(e,f,c,d);e.done(function(){h||(c.height(""),b(c));h||a.mobile.silentScroll(q);d&&(h||d.height(""),d.data("page")._trigger("hide",null,{nextPage:c}));c.data("page")._trigger("show",
+null,{prevPage:d||a("")})});return e}function g(){var b=jQuery.event.special.orientationchange.orientation()==="portrait",c=b?screen.availHeight:screen.availWidth,b=Math.max(b?480:320,a(window).height());return Math.min(c,b)}function h(){a("."+a.mobile.activePageClass).css("min-height",g())}function j(b,c){c&&b.attr("data-"+a.mobile.ns+"role",c);b.page()}function l(a){for(;a;){if(a.nodeName.toLowerCase()=="a")break;a=a.parentNode}return a}function n(b){var b=a(b).closest(".ui-page").jqmData("url"),
+c=u.hrefNoHash;if(!b||!i.isPath(b))b=c;return i.makeUrlAbsolute(b,c)}var s=a(window),p=a("html"),k=a("head"),i={urlParseRE:/^(((([^:\/#\?]+:)?(?:\/\/((?:(([^:@\/#\?]+)(?:\:([^:@\/#\?]+))?)@)?(([^:\/#\?\]\[]+|\[[^\/\]@#?]+\])(?:\:([0-9]+))?))?)?)?((\/?(?:[^\/\?#]+\/+)*)([^\?#]*)))?(\?[^#]+)?)(#.*)?/,parseUrl:function(b){if(a.type(b)==="object")return b;var b=i.urlParseRE.exec(b),c;b&&(c={href:b[0]||"",hrefNoHash:b[1]||"",hrefNoSearch:b[2]||"",domain:b[3]||"",protocol:b[4]||"",authority:b[5]||"",username:b[7]||
+"",password:b[8]||"",host:b[9]||"",hostname:b[10]||"",port:b[11]||"",pathname:b[12]||"",directory:b[13]||"",filename:b[14]||"",search:b[15]||"",hash:b[16]||""});return c||{}},makePathAbsolute:function(a,b){if(a&&a.charAt(0)==="/")return a;for(var a=a||"",c=(b=b?b.replace(/^\/|(\/[^\/]*|[^\/]+)$/g,""):"")?b.split("/"):[],d=a.split("/"),e=0;e<d.length;e++){var f=d[e];switch(f){case ".":break;case "..":c.length&&c.pop();break;default:c.push(f)}}return"/"+c.join("/")},isSameDomain:function(a,b){return i.parseUrl(a).domain===
+i.parseUrl(b).domain},isRelativeUrl:function(a){return i.parseUrl(a).protocol===""},isAbsoluteUrl:function(a){return i.parseUrl(a).protocol!==""},makeUrlAbsolute:function(a,b){if(!i.isRelativeUrl(a))return a;var c=i.parseUrl(a),d=i.parseUrl(b),e=c.protocol||d.protocol,f=c.authority||d.authority,g=c.pathname!=="",h=i.makePathAbsolute(c.pathname||d.filename,d.pathname);return e+"//"+f+h+(c.search||!g&&d.search||"")+c.hash},addSearchParams:function(b,c){var d=i.parseUrl(b),e=typeof c==="object"?a.param(c):
+c,f=d.search||"?";return d.hrefNoSearch+f+(f.charAt(f.length-1)!=="?"?"&":"")+e+(d.hash||"")},convertUrlToDataUrl:function(a){var b=i.parseUrl(a);if(i.isEmbeddedPage(b))return b.hash.split(q)[0].replace(/^#/,"");else if(i.isSameDomain(b,u))return b.hrefNoHash.replace(u.domain,"");return a},get:function(a){if(a===d)a=location.hash;return i.stripHash(a).replace(/[^\/]*\.[^\/*]+$/,"")},getFilePath:function(b){var c="&"+a.mobile.subPageUrlKey;return b&&b.split(c)[0].split(q)[0]},set:function(a){location.hash=
+a},isPath:function(a){return/\//.test(a)},clean:function(a){return a.replace(u.domain,"")},stripHash:function(a){return a.replace(/^#/,"")},cleanHash:function(a){return i.stripHash(a.replace(/\?.*$/,"").replace(q,""))},isExternal:function(a){a=i.parseUrl(a);return a.protocol&&a.domain!==t.domain?!0:!1},hasProtocol:function(a){return/^(:?\w+:)/.test(a)},isFirstPageUrl:function(b){var b=i.parseUrl(i.makeUrlAbsolute(b,u)),c=a.mobile.firstPage,c=c&&c[0]?c[0].id:d;return(b.hrefNoHash===t.hrefNoHash||w&&
+b.hrefNoHash===u.hrefNoHash)&&(!b.hash||b.hash==="#"||c&&b.hash.replace(/^#/,"")===c)},isEmbeddedPage:function(a){a=i.parseUrl(a);if(a.protocol!=="")return a.hash&&(a.hrefNoHash===t.hrefNoHash||w&&a.hrefNoHash===u.hrefNoHash);return/^#/.test(a.href)}},m=null,o={stack:[],activeIndex:0,getActive:function(){return o.stack[o.activeIndex]},getPrev:function(){return o.stack[o.activeIndex-1]},getNext:function(){return o.stack[o.activeIndex+1]},addNew:function(a,b,c,d,e){o.getNext()&&o.clearForward();o.stack.push({url:a,
+transition:b,title:c,pageUrl:d,role:e});o.activeIndex=o.stack.length-1},clearForward:function(){o.stack=o.stack.slice(0,o.activeIndex+1)},directHashChange:function(b){var c,e,f;this.getActive();a.each(o.stack,function(a,d){b.currentUrl===d.url&&(c=a<o.activeIndex,e=!c,f=a)});this.activeIndex=f!==d?f:this.activeIndex;c?(b.either||b.isBack)(!0):e&&(b.either||b.isForward)(!1)},ignoreNextHashChange:!1},A=[],y=!1,q="&ui-state=dialog",v=k.children("base"),t=i.parseUrl(location.href),u=v.length?i.parseUrl(i.makeUrlAbsolute(v.attr("href"),
+t.href)):t,w=t.hrefNoHash!==u.hrefNoHash,x=a.support.dynamicBaseTag?{element:v.length?v:a("<base>",{href:u.hrefNoHash}).prependTo(k),set:function(a){x.element.attr("href",i.makeUrlAbsolute(a,u))},reset:function(){x.element.attr("href",u.hrefNoHash)}}:d,k=function(b){return function(){if(b){b=!1;var c=a.mobile.urlHistory.getActive(),d=a(".ui-page-active"),e=a(window);a.support.touchOverflow&&a.mobile.touchOverflowEnabled&&(e=d.is(".ui-native-fixed")?d.find(".ui-content"):d);if(c)d=e.scrollTop(),c.lastScroll=
+d<a.mobile.minScrollBack?a.mobile.defaultHomeScroll:d}else b=!0}}(!0);a(document).bind("beforechangepage",k);a(window).bind(a.support.pushState?"popstate":"hashchange",k);a.mobile.getScreenHeight=g;a.fn.animationComplete=function(b){return a.support.cssTransitions?a(this).one("webkitAnimationEnd",b):(setTimeout(b,0),a(this))};a.mobile.updateHash=i.set;a.mobile.path=i;a.mobile.base=x;a.mobile.urlstack=o.stack;a.mobile.urlHistory=o;a.mobile.dialogHashKey=q;a.mobile.noneTransitionHandler=function(b,
+c,d,e){e&&e.removeClass(a.mobile.activePageClass);d.addClass(a.mobile.activePageClass);return a.Deferred().resolve(b,c,d,e).promise()};a.mobile.defaultTransitionHandler=a.mobile.noneTransitionHandler;a.mobile.transitionHandlers={none:a.mobile.defaultTransitionHandler};a.mobile.allowCrossDomainPages=!1;a.mobile.getDocumentUrl=function(b){return b?a.extend({},t):t.href};a.mobile.getDocumentBase=function(b){return b?a.extend({},u):u.href};a.mobile.loadPage=function(b,c){var e=a.Deferred(),f=a.extend({},
+a.mobile.loadPage.defaults,c),g=null,h=null,q=i.makeUrlAbsolute(b,a.mobile.activePage&&n(a.mobile.activePage)||u.hrefNoHash);if(f.data&&f.type==="get")q=i.addSearchParams(q,f.data),f.data=d;var k=i.getFilePath(q),p=i.convertUrlToDataUrl(q);f.pageContainer=f.pageContainer||a.mobile.pageContainer;g=f.pageContainer.children(":jqmData(url='"+p+"')");g.length===0&&a.mobile.firstPage&&i.isFirstPageUrl(q)&&(g=a(a.mobile.firstPage));x&&x.reset();if(g.length){if(!f.reloadPage)return j(g,f.role),e.resolve(q,
+c,g),e.promise();h=g}if(f.showLoadMsg)var o=setTimeout(function(){a.mobile.showPageLoadingMsg()},f.loadMsgDelay);!a.mobile.allowCrossDomainPages&&!i.isSameDomain(t,q)?e.reject(q,c):a.ajax({url:k,type:f.type,data:f.data,dataType:"html",success:function(d){var l=a("<div></div>"),n=d.match(/<title[^>]*>([^<]*)/)&&RegExp.$1,v=RegExp("\\bdata-"+a.mobile.ns+"url=[\"']?([^\"'>]*)[\"']?");RegExp(".*(<[^>]+\\bdata-"+a.mobile.ns+"role=[\"']?page[\"']?[^>]*>).*").test(d)&&RegExp.$1&&v.test(RegExp.$1)&&RegExp.$1&&
+(b=k=i.getFilePath(RegExp.$1));x&&x.set(k);l.get(0).innerHTML=d;g=l.find(":jqmData(role='page'), :jqmData(role='dialog')").first();g.length||(g=a("<div data-"+a.mobile.ns+"role='page'>"+d.split(/<\/?body[^>]*>/gmi)[1]+"</div>"));n&&!g.jqmData("title")&&g.jqmData("title",n);if(!a.support.dynamicBaseTag){var m=i.get(k);g.find("[src], link[href], a[rel='external'], :jqmData(ajax='false'), a[target]").each(function(){var b=a(this).is("[href]")?"href":a(this).is("[src]")?"src":"action",c=a(this).attr(b),
+c=c.replace(location.protocol+"//"+location.host+location.pathname,"");/^(\w+:|#|\/)/.test(c)||a(this).attr(b,m+c)})}g.attr("data-"+a.mobile.ns+"url",i.convertUrlToDataUrl(k)).appendTo(f.pageContainer);g.one("pagecreate",function(){g.data("page").options.domCache||g.bind("pagehide.remove",function(){a(this).remove()})});j(g,f.role);q.indexOf("&"+a.mobile.subPageUrlKey)>-1&&(g=f.pageContainer.children(":jqmData(url='"+p+"')"));f.showLoadMsg&&(clearTimeout(o),a.mobile.hidePageLoadingMsg());e.resolve(q,
+c,g,h)},error:function(){x&&x.set(i.get());f.showLoadMsg&&(clearTimeout(o),a.mobile.hidePageLoadingMsg(),a("<div class='ui-loader ui-overlay-shadow ui-body-e ui-corner-all'><h1>"+a.mobile.pageLoadErrorMessage+"</h1></div>").css({display:"block",opacity:0.96,top:s.scrollTop()+100}).appendTo(f.pageContainer).delay(800).fadeOut(400,function(){a(this).remove()}));e.reject(q,c)}});return e.promise()};a.mobile.loadPage.defaults={type:"get",data:d,reloadPage:!1,role:d,showLoadMsg:!1,pageContainer:d,loadMsgDelay:50};
+a.mobile.changePage=function(b,g){if(typeof g!=="object"){var h=null;if(typeof b==="object"&&b.url&&b.type)h={type:b.type,data:b.data,forcePageLoad:!0},b=b.url;var k=arguments.length;if(k>1){var l=["transition","reverse","changeHash","fromHashChange"],n;for(n=1;n<k;n++){var v=arguments[n];typeof v!=="undefined"&&(h=h||{},h[l[n-1]]=v)}}if(h)return a.mobile.changePage(b,h)}if(y)A.unshift(arguments);else{var m=a.extend({},a.mobile.changePage.defaults,g);m.pageContainer=m.pageContainer||a.mobile.pageContainer;
+m.fromPage=m.fromPage||a.mobile.activePage;var u=m.pageContainer,h=new a.Event("pagebeforechange"),t={toPage:b,options:m};u.trigger(h,t);u.trigger("beforechangepage",t);if(!h.isDefaultPrevented())if(b=t.toPage,y=!0,typeof b=="string")a.mobile.loadPage(b,m).done(function(b,c,d,e){y=!1;c.duplicateCachedPage=e;a.mobile.changePage(d,c)}).fail(function(){y=!1;c(!0);f();m.pageContainer.trigger("pagechangefailed",t);m.pageContainer.trigger("changepagefailed",t)});else{h=m.fromPage;l=k=m.dataUrl&&i.convertUrlToDataUrl(m.dataUrl)||
+b.jqmData("url");i.getFilePath(k);n=o.getActive();var v=o.activeIndex===0,w=0,s=document.title,x=m.role==="dialog"||b.jqmData("role")==="dialog";if(h&&h[0]===b[0])y=!1,u.trigger("pagechange",t),u.trigger("changepage",t);else{j(b,m.role);m.fromHashChange&&o.directHashChange({currentUrl:k,isBack:function(){w=-1},isForward:function(){w=1}});try{a(document.activeElement||"").add("input:focus, textarea:focus, select:focus").blur()}catch(H){}x&&n&&(k=(n.url||"")+q);if(m.changeHash!==!1&&k)o.ignoreNextHashChange=
+!0,i.set(k);var F=b.jqmData("title")||b.children(":jqmData(role='header')").find(".ui-title").text();F&&s==document.title&&(s=F);w||o.addNew(k,m.transition,s,l,m.role);document.title=o.getActive().title;a.mobile.activePage=b;m.transition=m.transition||(w&&!v?n.transition:d)||(x?a.mobile.defaultDialogTransition:a.mobile.defaultPageTransition);m.reverse=m.reverse||w<0;e(b,h,m.transition,m.reverse).done(function(){c();m.duplicateCachedPage&&m.duplicateCachedPage.remove();p.removeClass("ui-mobile-rendering");
+f();u.trigger("pagechange",t);u.trigger("changepage",t)})}}}};a.mobile.changePage.defaults={transition:d,reverse:!1,changeHash:!0,fromHashChange:!1,role:d,duplicateCachedPage:d,pageContainer:d,showLoadMsg:!0,dataUrl:d,fromPage:d};a.mobile._registerInternalEvents=function(){a("form").live("submit",function(b){var c=a(this);if(a.mobile.ajaxEnabled&&!c.is(":jqmData(ajax='false')")){var d=c.attr("method"),e=c.attr("target"),f=c.attr("action");if(!f&&(f=n(c),f===u.hrefNoHash))f=t.hrefNoSearch;f=i.makeUrlAbsolute(f,
+n(c));!i.isExternal(f)&&!e&&(a.mobile.changePage(f,{type:d&&d.length&&d.toLowerCase()||"get",data:c.serialize(),transition:c.jqmData("transition"),direction:c.jqmData("direction"),reloadPage:!0}),b.preventDefault())}});a(document).bind("vclick",function(b){if((b=l(b.target))&&i.parseUrl(b.getAttribute("href")||"#").hash!=="#")c(!0),m=a(b).closest(".ui-btn").not(".ui-disabled"),m.addClass(a.mobile.activeBtnClass),a("."+a.mobile.activePageClass+" .ui-btn").not(b).blur()});a(document).bind("click",function(b){var f=
+l(b.target);if(f){var e=a(f),g=function(){window.setTimeout(function(){c(!0)},200)};if(e.is(":jqmData(rel='back')"))return window.history.back(),!1;if(a.mobile.ajaxEnabled){var h=n(e),f=i.makeUrlAbsolute(e.attr("href")||"#",h);if(f.search("#")!=-1)if(f=f.replace(/[^#]*#/,""))f=i.isPath(f)?i.makeUrlAbsolute(f,h):i.makeUrlAbsolute("#"+f,t.hrefNoHash);else{b.preventDefault();return}var h=e.is("[rel='external']")||e.is(":jqmData(ajax='false')")||e.is("[target]"),q=a.mobile.allowCrossDomainPages&&t.protocol===
+"file:"&&f.search(/^https?:/)!=-1;h||i.isExternal(f)&&!q?g():(g=e.jqmData("transition"),h=(h=e.jqmData("direction"))&&h==="reverse"||e.jqmData("back"),e=e.attr("data-"+a.mobile.ns+"rel")||d,a.mobile.changePage(f,{transition:g,reverse:h,role:e}),b.preventDefault())}else g()}});a(".ui-page").live("pageshow.prefetch",function(){var b=[];a(this).find("a:jqmData(prefetch)").each(function(){var c=a(this).attr("href");c&&a.inArray(c,b)===-1&&(b.push(c),a.mobile.loadPage(c))})});a.mobile._handleHashChange=
+function(b){var c=i.stripHash(b),f={transition:a.mobile.urlHistory.stack.length===0?"none":d,changeHash:!1,fromHashChange:!0};if(!a.mobile.hashListeningEnabled||o.ignoreNextHashChange)o.ignoreNextHashChange=!1;else{if(o.stack.length>1&&c.indexOf(q)>-1)if(a.mobile.activePage.is(".ui-dialog"))o.directHashChange({currentUrl:c,either:function(b){var d=a.mobile.urlHistory.getActive();c=d.pageUrl;a.extend(f,{role:d.role,transition:d.transition,reverse:b})}});else{o.directHashChange({currentUrl:c,isBack:function(){window.history.back()},
+isForward:function(){window.history.forward()}});return}c?(c=typeof c==="string"&&!i.isPath(c)?"#"+c:c,a.mobile.changePage(c,f)):a.mobile.changePage(a.mobile.firstPage,f)}};s.bind("hashchange",function(){a.mobile._handleHashChange(location.hash)});a(document).bind("pageshow",h);a(window).bind("throttledresize",h)}})(jQuery);
+(function(a,d){var b={},c=a(d),f=a.mobile.path.parseUrl(location.href);a.extend(b,{initialFilePath:f.pathname+f.search,initialHref:f.hrefNoHash,hashchangeFired:!1,state:function(){return{hash:location.hash||"#"+b.initialFilePath,title:document.title,initialHref:b.initialHref}},resetUIKeys:function(b){var c="&"+a.mobile.subPageUrlKey,d=b.indexOf(a.mobile.dialogHashKey);d>-1?b=b.slice(0,d)+"#"+b.slice(d):b.indexOf(c)>-1&&(b=b.split(c).join("#"+c));return b},onHashChange:function(){var c,d;b.hashchangeFired=
+!0;a.mobile.path.isPath(location.hash)&&(d=b.state(),c=a.mobile.path.makeUrlAbsolute(d.hash.replace("#",""),location.href),c=b.resetUIKeys(c),history.replaceState(d,document.title,c))},onPopState:function(b){var c=b.originalEvent.state;if(c)a.mobile.urlHistory.ignoreNextHashChange=!0,setTimeout(function(){a.mobile.urlHistory.ignoreNextHashChange=!1;a.mobile._handleHashChange(c.hash)},100)},init:function(){c.bind("hashchange",b.onHashChange);c.bind("popstate",b.onPopState);location.hash===""&&history.replaceState(b.state(),
+document.title,location.href)}});a(function(){a.mobile.pushStateEnabled&&a.support.pushState&&b.init()})})(jQuery,this);
+(function(a){function d(b,c,d,e){var g=new a.Deferred,h=c?" reverse":"",j="ui-mobile-viewport-transitioning viewport-"+b;d.animationComplete(function(){d.add(e).removeClass("out in reverse "+b);e&&e.removeClass(a.mobile.activePageClass);d.parent().removeClass(j);g.resolve(b,c,d,e)});d.parent().addClass(j);e&&e.addClass(b+" out"+h);d.addClass(a.mobile.activePageClass+" "+b+" in"+h);return g.promise()}a.mobile.css3TransitionHandler=d;if(a.mobile.defaultTransitionHandler===a.mobile.noneTransitionHandler)a.mobile.defaultTransitionHandler=
+d})(jQuery,this);
+(function(a){a.mobile.page.prototype.options.degradeInputs={color:!1,date:!1,datetime:!1,"datetime-local":!1,email:!1,month:!1,number:!1,range:"number",search:"text",tel:!1,time:!1,url:!1,week:!1};a.mobile.page.prototype.options.keepNative=":jqmData(role='none'), :jqmData(role='nojs')";a(document).bind("pagecreate enhance",function(d){var b=a(d.target).data("page").options;a(d.target).find("input").not(b.keepNative).each(function(){var c=a(this),d=this.getAttribute("type"),e=b.degradeInputs[d]||"text";
+b.degradeInputs[d]&&c.replaceWith(a("<div>").html(c.clone()).html().replace(/\s+type=["']?\w+['"]?/,' type="'+e+'" data-'+a.mobile.ns+'type="'+d+'" '))})})})(jQuery);
+(function(a,d){a.widget("mobile.dialog",a.mobile.widget,{options:{closeBtnText:"Close",theme:"a",initSelector:":jqmData(role='dialog')"},_create:function(){var b=this.element,c=b.attr("class").match(/ui-body-[a-z]/);c.length&&b.removeClass(c[0]);b.addClass("ui-body-"+this.options.theme);b.attr("role","dialog").addClass("ui-dialog").find(":jqmData(role='header')").addClass("ui-corner-top ui-overlay-shadow").prepend("<a href='#' data-"+a.mobile.ns+"icon='delete' data-"+a.mobile.ns+"rel='back' data-"+
+a.mobile.ns+"iconpos='notext'>"+this.options.closeBtnText+"</a>").end().find(":jqmData(role='content'),:jqmData(role='footer')").last().addClass("ui-corner-bottom ui-overlay-shadow");b.bind("vclick submit",function(b){var b=a(b.target).closest(b.type==="vclick"?"a":"form"),c;b.length&&!b.jqmData("transition")&&(c=a.mobile.urlHistory.getActive()||{},b.attr("data-"+a.mobile.ns+"transition",c.transition||a.mobile.defaultDialogTransition).attr("data-"+a.mobile.ns+"direction","reverse"))}).bind("pagehide",
+function(){a(this).find("."+a.mobile.activeBtnClass).removeClass(a.mobile.activeBtnClass)})},close:function(){d.history.back()}});a(a.mobile.dialog.prototype.options.initSelector).live("pagecreate",function(){a(this).dialog()})})(jQuery,this);
+(function(a){a.mobile.page.prototype.options.backBtnText="Back";a.mobile.page.prototype.options.addBackBtn=!1;a.mobile.page.prototype.options.backBtnTheme=null;a.mobile.page.prototype.options.headerTheme="a";a.mobile.page.prototype.options.footerTheme="a";a.mobile.page.prototype.options.contentTheme=null;a(":jqmData(role='page'), :jqmData(role='dialog')").live("pagecreate",function(){var d=a(this).data("page").options,b=d.theme;a(":jqmData(role='header'), :jqmData(role='footer'), :jqmData(role='content')",
+this).each(function(){var c=a(this),f=c.jqmData("role"),e=c.jqmData("theme"),g,h,j;c.addClass("ui-"+f);if(f==="header"||f==="footer"){e=e||(f==="header"?d.headerTheme:d.footerTheme)||b;c.addClass("ui-bar-"+e);c.attr("role",f==="header"?"banner":"contentinfo");g=c.children("a");h=g.hasClass("ui-btn-left");j=g.hasClass("ui-btn-right");if(!h)h=g.eq(0).not(".ui-btn-right").addClass("ui-btn-left").length;j||g.eq(1).addClass("ui-btn-right");d.addBackBtn&&f==="header"&&a(".ui-page").length>1&&c.jqmData("url")!==
+a.mobile.path.stripHash(location.hash)&&!h&&(f=a("<a href='#' class='ui-btn-left' data-"+a.mobile.ns+"rel='back' data-"+a.mobile.ns+"icon='arrow-l'>"+d.backBtnText+"</a>").prependTo(c),f.attr("data-"+a.mobile.ns+"theme",d.backBtnTheme||e));c.children("h1, h2, h3, h4, h5, h6").addClass("ui-title").attr({tabindex:"0",role:"heading","aria-level":"1"})}else if(f==="content"){if(e||d.contentTheme)c.addClass("ui-body-"+(e||d.contentTheme));c.attr("role","main")}})})})(jQuery);
+(function(a){a.widget("mobile.collapsible",a.mobile.widget,{options:{expandCueText:" click to expand contents",collapseCueText:" click to collapse contents",collapsed:!0,heading:">:header,>legend",theme:null,iconTheme:"d",initSelector:":jqmData(role='collapsible')"},_create:function(){var d=this.element,b=this.options,c=d.addClass("ui-collapsible-contain"),f=d.find(b.heading).eq(0),e=c.wrapInner("<div class='ui-collapsible-content'></div>").find(".ui-collapsible-content"),d=d.closest(":jqmData(role='collapsible-set')").addClass("ui-collapsible-set");
+f.is("legend")&&(f=a("<div role='heading'>"+f.html()+"</div>").insertBefore(f),f.next().remove());f.insertBefore(e).addClass("ui-collapsible-heading").append("<span class='ui-collapsible-heading-status'></span>").wrapInner("<a href='#' class='ui-collapsible-heading-toggle'></a>").find("a:eq(0)").buttonMarkup({shadow:!d.length,corners:!1,iconPos:"left",icon:"plus",theme:b.theme}).find(".ui-icon").removeAttr("class").buttonMarkup({shadow:!0,corners:!0,iconPos:"notext",icon:"plus",theme:b.iconTheme});
+d.length?c.jqmData("collapsible-last")&&f.find("a:eq(0), .ui-btn-inner").addClass("ui-corner-bottom"):f.find("a:eq(0)").addClass("ui-corner-all").find(".ui-btn-inner").addClass("ui-corner-all");c.bind("collapse",function(d){!d.isDefaultPrevented()&&a(d.target).closest(".ui-collapsible-contain").is(c)&&(d.preventDefault(),f.addClass("ui-collapsible-heading-collapsed").find(".ui-collapsible-heading-status").text(b.expandCueText).end().find(".ui-icon").removeClass("ui-icon-minus").addClass("ui-icon-plus"),
+e.addClass("ui-collapsible-content-collapsed").attr("aria-hidden",!0),c.jqmData("collapsible-last")&&f.find("a:eq(0), .ui-btn-inner").addClass("ui-corner-bottom"))}).bind("expand",function(a){a.isDefaultPrevented()||(a.preventDefault(),f.removeClass("ui-collapsible-heading-collapsed").find(".ui-collapsible-heading-status").text(b.collapseCueText),f.find(".ui-icon").removeClass("ui-icon-plus").addClass("ui-icon-minus"),e.removeClass("ui-collapsible-content-collapsed").attr("aria-hidden",!1),c.jqmData("collapsible-last")&&
+f.find("a:eq(0), .ui-btn-inner").removeClass("ui-corner-bottom"))}).trigger(b.collapsed?"collapse":"expand");d.length&&!d.jqmData("collapsiblebound")&&(d.jqmData("collapsiblebound",!0).bind("expand",function(b){a(b.target).closest(".ui-collapsible-contain").siblings(".ui-collapsible-contain").trigger("collapse")}),d=d.children(":jqmData(role='collapsible')"),d.first().find("a:eq(0)").addClass("ui-corner-top").find(".ui-btn-inner").addClass("ui-corner-top"),d.last().jqmData("collapsible-last",!0));
+f.bind("vclick",function(a){var b=f.is(".ui-collapsible-heading-collapsed")?"expand":"collapse";c.trigger(b);a.preventDefault()})}});a(document).bind("pagecreate create",function(d){a(a.mobile.collapsible.prototype.options.initSelector,d.target).collapsible()})})(jQuery);(function(a){a.fn.fieldcontain=function(){return this.addClass("ui-field-contain ui-body ui-br")};a(document).bind("pagecreate create",function(d){a(":jqmData(role='fieldcontain')",d.target).fieldcontain()})})(jQuery);
+(function(a){a.fn.grid=function(d){return this.each(function(){var b=a(this),c=a.extend({grid:null},d),f=b.children(),e={solo:1,a:2,b:3,c:4,d:5},c=c.grid;if(!c)if(f.length<=5)for(var g in e)e[g]===f.length&&(c=g);else c="a";e=e[c];b.addClass("ui-grid-"+c);f.filter(":nth-child("+e+"n+1)").addClass("ui-block-a");e>1&&f.filter(":nth-child("+e+"n+2)").addClass("ui-block-b");e>2&&f.filter(":nth-child(3n+3)").addClass("ui-block-c");e>3&&f.filter(":nth-child(4n+4)").addClass("ui-block-d");e>4&&f.filter(":nth-child(5n+5)").addClass("ui-block-e")})}})(jQuery);
+(function(a,d){a.widget("mobile.navbar",a.mobile.widget,{options:{iconpos:"top",grid:null,initSelector:":jqmData(role='navbar')"},_create:function(){var b=this.element,c=b.find("a"),f=c.filter(":jqmData(icon)").length?this.options.iconpos:d;b.addClass("ui-navbar").attr("role","navigation").find("ul").grid({grid:this.options.grid});f||b.addClass("ui-navbar-noicons");c.buttonMarkup({corners:!1,shadow:!1,iconpos:f});b.delegate("a","vclick",function(){c.not(".ui-state-persist").removeClass(a.mobile.activeBtnClass);
+a(this).addClass(a.mobile.activeBtnClass)})}});a(document).bind("pagecreate create",function(b){a(a.mobile.navbar.prototype.options.initSelector,b.target).navbar()})})(jQuery);
+(function(a){var d={};a.widget("mobile.listview",a.mobile.widget,{options:{theme:"c",countTheme:"c",headerTheme:"b",dividerTheme:"b",splitIcon:"arrow-r",splitTheme:"b",inset:!1,initSelector:":jqmData(role='listview')"},_create:function(){var a=this;a.element.addClass(function(c,d){return d+" ui-listview "+(a.options.inset?" ui-listview-inset ui-corner-all ui-shadow ":"")});a.refresh(!0)},_itemApply:function(b,c){var d=c.find(".ui-li-count");d.length&&c.addClass("ui-li-has-count");d.addClass("ui-btn-up-"+
+(b.jqmData("counttheme")||this.options.countTheme)+" ui-btn-corner-all");c.find("h1, h2, h3, h4, h5, h6").addClass("ui-li-heading").end().find("p, dl").addClass("ui-li-desc").end().find(">img:eq(0), .ui-link-inherit>img:eq(0)").addClass("ui-li-thumb").each(function(){c.addClass(a(this).is(".ui-li-icon")?"ui-li-has-icon":"ui-li-has-thumb")}).end().find(".ui-li-aside").each(function(){var b=a(this);b.prependTo(b.parent())})},_removeCorners:function(a,c){a=a.add(a.find(".ui-btn-inner, .ui-li-link-alt, .ui-li-thumb"));
+c==="top"?a.removeClass("ui-corner-top ui-corner-tr ui-corner-tl"):c==="bottom"?a.removeClass("ui-corner-bottom ui-corner-br ui-corner-bl"):a.removeClass("ui-corner-top ui-corner-tr ui-corner-tl ui-corner-bottom ui-corner-br ui-corner-bl")},_refreshCorners:function(a){var c;this.options.inset&&(c=this.element.children("li"),a=a?c.not(".ui-screen-hidden"):c.filter(":visible"),this._removeCorners(c),c=a.first().addClass("ui-corner-top"),c.add(c.find(".ui-btn-inner")).find(".ui-li-link-alt").addClass("ui-corner-tr").end().find(".ui-li-thumb").addClass("ui-corner-tl"),
+c=a.last().addClass("ui-corner-bottom"),c.add(c.find(".ui-btn-inner")).find(".ui-li-link-alt").addClass("ui-corner-br").end().find(".ui-li-thumb").addClass("ui-corner-bl"))},refresh:function(b){this.parentPage=this.element.closest(".ui-page");this._createSubPages();var c=this.options,d=this.element,e=d.jqmData("dividertheme")||c.dividerTheme,g=d.jqmData("splittheme"),h=d.jqmData("spliticon"),j=d.children("li"),l=a.support.cssPseudoElement||!a.nodeName(d[0],"ol")?0:1,n,s,p,k,i;l&&d.find(".ui-li-dec").remove();
+for(var m=0,o=j.length;m<o;m++){n=j.eq(m);s="ui-li";if(b||!n.hasClass("ui-li"))p=n.jqmData("theme")||c.theme,k=n.children("a"),k.length?(i=n.jqmData("icon"),n.buttonMarkup({wrapperEls:"div",shadow:!1,corners:!1,iconpos:"right",icon:k.length>1||i===!1?!1:i||"arrow-r",theme:p}),i!=!1&&k.length==1&&n.addClass("ui-li-has-arrow"),k.first().addClass("ui-link-inherit"),k.length>1&&(s+=" ui-li-has-alt",k=k.last(),i=g||k.jqmData("theme")||c.splitTheme,k.appendTo(n).attr("title",k.text()).addClass("ui-li-link-alt").empty().buttonMarkup({shadow:!1,
+corners:!1,theme:p,icon:!1,iconpos:!1}).find(".ui-btn-inner").append(a("<span />").buttonMarkup({shadow:!0,corners:!0,theme:i,iconpos:"notext",icon:h||k.jqmData("icon")||c.splitIcon})))):n.jqmData("role")==="list-divider"?(s+=" ui-li-divider ui-btn ui-bar-"+e,n.attr("role","heading"),l&&(l=1)):s+=" ui-li-static ui-body-"+p;l&&s.indexOf("ui-li-divider")<0&&(p=n.is(".ui-li-static:first")?n:n.find(".ui-link-inherit"),p.addClass("ui-li-jsnumbering").prepend("<span class='ui-li-dec'>"+l++ +". </span>"));
+n.add(n.children(".ui-btn-inner")).addClass(s);this._itemApply(d,n)}this._refreshCorners(b)},_idStringEscape:function(a){return a.replace(/[^a-zA-Z0-9]/g,"-")},_createSubPages:function(){var b=this.element,c=b.closest(".ui-page"),f=c.jqmData("url"),e=f||c[0][a.expando],g=b.attr("id"),h=this.options,j="data-"+a.mobile.ns,l=this,n=c.find(":jqmData(role='footer')").jqmData("id"),s;typeof d[e]==="undefined"&&(d[e]=-1);g=g||++d[e];a(b.find("li>ul, li>ol").toArray().reverse()).each(function(c){var d=a(this),
+e=d.attr("id")||g+"-"+c,c=d.parent(),m=a(d.prevAll().toArray().reverse()),m=m.length?m:a("<span>"+a.trim(c.contents()[0].nodeValue)+"</span>"),o=m.first().text(),e=(f||"")+"&"+a.mobile.subPageUrlKey+"="+e,l=d.jqmData("theme")||h.theme,y=d.jqmData("counttheme")||b.jqmData("counttheme")||h.countTheme;s=!0;d.detach().wrap("<div "+j+"role='page' "+j+"url='"+e+"' "+j+"theme='"+l+"' "+j+"count-theme='"+y+"'><div "+j+"role='content'></div></div>").parent().before("<div "+j+"role='header' "+j+"theme='"+h.headerTheme+
+"'><div class='ui-title'>"+o+"</div></div>").after(n?a("<div "+j+"role='footer' "+j+"id='"+n+"'>"):"").parent().appendTo(a.mobile.pageContainer).page();d=c.find("a:first");d.length||(d=a("<a/>").html(m||o).prependTo(c.empty()));d.attr("href","#"+e)}).listview();s&&c.data("page").options.domCache===!1&&c.unbind("pagehide.remove").bind("pagehide.remove",function(b,d){var e=d.nextPage;d.nextPage&&(e=e.jqmData("url"),e.indexOf(f+"&"+a.mobile.subPageUrlKey)!==0&&(l.childPages().remove(),c.remove()))})},
+childPages:function(){var b=this.parentPage.jqmData("url");return a(":jqmData(url^='"+b+"&"+a.mobile.subPageUrlKey+"')")}});a(document).bind("pagecreate create",function(b){a(a.mobile.listview.prototype.options.initSelector,b.target).listview()})})(jQuery);
+(function(a){a.mobile.listview.prototype.options.filter=!1;a.mobile.listview.prototype.options.filterPlaceholder="Filter items...";a.mobile.listview.prototype.options.filterTheme="c";a.mobile.listview.prototype.options.filterCallback=function(a,b){return a.toLowerCase().indexOf(b)===-1};a(":jqmData(role='listview')").live("listviewcreate",function(){var d=a(this),b=d.data("listview");if(b.options.filter){var c=a("<form>",{"class":"ui-listview-filter ui-bar-"+b.options.filterTheme,role:"search"});
+a("<input>",{placeholder:b.options.filterPlaceholder}).attr("data-"+a.mobile.ns+"type","search").jqmData("lastval","").bind("keyup change",function(){var c=a(this),e=this.value.toLowerCase(),g=null,g=c.jqmData("lastval")+"",h=!1,j="";c.jqmData("lastval",e);j=e.replace(RegExp("^"+g),"");g=e.length<g.length||j.length!=e.length-g.length?d.children():d.children(":not(.ui-screen-hidden)");if(e){for(var l=g.length-1;l>=0;l--)c=a(g[l]),j=c.jqmData("filtertext")||c.text(),c.is("li:jqmData(role=list-divider)")?
+(c.toggleClass("ui-filter-hidequeue",!h),h=!1):b.options.filterCallback(j,e)?c.toggleClass("ui-filter-hidequeue",!0):h=!0;g.filter(":not(.ui-filter-hidequeue)").toggleClass("ui-screen-hidden",!1);g.filter(".ui-filter-hidequeue").toggleClass("ui-screen-hidden",!0).toggleClass("ui-filter-hidequeue",!1)}else g.toggleClass("ui-screen-hidden",!1);b._refreshCorners()}).appendTo(c).textinput();a(this).jqmData("inset")&&c.addClass("ui-listview-filter-inset");c.bind("submit",function(){return!1}).insertBefore(d)}})})(jQuery);
+(function(a){a(document).bind("pagecreate create",function(d){a(":jqmData(role='nojs')",d.target).addClass("ui-nojs")})})(jQuery);
+(function(a,d){a.widget("mobile.checkboxradio",a.mobile.widget,{options:{theme:null,initSelector:"input[type='checkbox'],input[type='radio']"},_create:function(){var b=this,c=this.element,f=c.closest("form,fieldset,:jqmData(role='page')").find("label").filter("[for='"+c[0].id+"']"),e=c.attr("type"),g=e+"-on",h=e+"-off",j=c.parents(":jqmData(type='horizontal')").length?d:h;if(!(e!=="checkbox"&&e!=="radio")){a.extend(this,{label:f,inputtype:e,checkedClass:"ui-"+g+(j?"":" "+a.mobile.activeBtnClass),
+uncheckedClass:"ui-"+h,checkedicon:"ui-icon-"+g,uncheckedicon:"ui-icon-"+h});if(!this.options.theme)this.options.theme=this.element.jqmData("theme");f.buttonMarkup({theme:this.options.theme,icon:j,shadow:!1});c.add(f).wrapAll("<div class='ui-"+e+"'></div>");f.bind({vmouseover:function(){if(a(this).parent().is(".ui-disabled"))return!1},vclick:function(a){if(c.is(":disabled"))a.preventDefault();else return b._cacheVals(),c.prop("checked",e==="radio"&&!0||!c.prop("checked")),b._getInputSet().not(c).prop("checked",
+!1),b._updateAll(),!1}});c.bind({vmousedown:function(){this._cacheVals()},vclick:function(){var c=a(this);c.is(":checked")?(c.prop("checked",!0),b._getInputSet().not(c).prop("checked",!1)):c.prop("checked",!1);b._updateAll()},focus:function(){f.addClass("ui-focus")},blur:function(){f.removeClass("ui-focus")}});this.refresh()}},_cacheVals:function(){this._getInputSet().each(function(){var b=a(this);b.jqmData("cacheVal",b.is(":checked"))})},_getInputSet:function(){if(this.inputtype=="checkbox")return this.element;
+return this.element.closest("form,fieldset,:jqmData(role='page')").find("input[name='"+this.element.attr("name")+"'][type='"+this.inputtype+"']")},_updateAll:function(){var b=this;this._getInputSet().each(function(){var c=a(this);(c.is(":checked")||b.inputtype==="checkbox")&&c.trigger("change")}).checkboxradio("refresh")},refresh:function(){var b=this.element,c=this.label,d=c.find(".ui-icon");a(b[0]).prop("checked")?(c.addClass(this.checkedClass).removeClass(this.uncheckedClass),d.addClass(this.checkedicon).removeClass(this.uncheckedicon)):
+(c.removeClass(this.checkedClass).addClass(this.uncheckedClass),d.removeClass(this.checkedicon).addClass(this.uncheckedicon));b.is(":disabled")?this.disable():this.enable()},disable:function(){this.element.prop("disabled",!0).parent().addClass("ui-disabled")},enable:function(){this.element.prop("disabled",!1).parent().removeClass("ui-disabled")}});a(document).bind("pagecreate create",function(b){a(a.mobile.checkboxradio.prototype.options.initSelector,b.target).not(":jqmData(role='none'), :jqmData(role='nojs')").checkboxradio()})})(jQuery);
+(function(a){a.widget("mobile.button",a.mobile.widget,{options:{theme:null,icon:null,iconpos:null,inline:null,corners:!0,shadow:!0,iconshadow:!0,initSelector:"button, [type='button'], [type='submit'], [type='reset'], [type='image']"},_create:function(){var d=this.element,b=this.options;this.button=a("<div></div>").text(d.text()||d.val()).buttonMarkup({theme:b.theme,icon:b.icon,iconpos:b.iconpos,inline:b.inline,corners:b.corners,shadow:b.shadow,iconshadow:b.iconshadow}).insertBefore(d).append(d.addClass("ui-btn-hidden"));
+b=d.attr("type");b!=="button"&&b!=="reset"&&d.bind("vclick",function(){var b=a("<input>",{type:"hidden",name:d.attr("name"),value:d.attr("value")}).insertBefore(d);a(document).submit(function(){b.remove()})});this.refresh()},enable:function(){this.element.attr("disabled",!1);this.button.removeClass("ui-disabled").attr("aria-disabled",!1);return this._setOption("disabled",!1)},disable:function(){this.element.attr("disabled",!0);this.button.addClass("ui-disabled").attr("aria-disabled",!0);return this._setOption("disabled",
+!0)},refresh:function(){this.element.attr("disabled")?this.disable():this.enable()}});a(document).bind("pagecreate create",function(d){a(a.mobile.button.prototype.options.initSelector,d.target).not(":jqmData(role='none'), :jqmData(role='nojs')").button()})})(jQuery);
+(function(a,d){a.widget("mobile.slider",a.mobile.widget,{options:{theme:null,trackTheme:null,disabled:!1,initSelector:"input[type='range'], :jqmData(type='range'), :jqmData(role='slider')"},_create:function(){var b=this,c=this.element,f=c.parents("[class*='ui-bar-'],[class*='ui-body-']").eq(0),f=f.length?f.attr("class").match(/ui-(bar|body)-([a-z])/)[2]:"c",e=this.options.theme?this.options.theme:f,g=this.options.trackTheme?this.options.trackTheme:f,h=c[0].nodeName.toLowerCase(),f=h=="select"?"ui-slider-switch":
+"",j=c.attr("id"),l=j+"-label",j=a("[for='"+j+"']").attr("id",l),n=function(){return h=="input"?parseFloat(c.val()):c[0].selectedIndex},s=h=="input"?parseFloat(c.attr("min")):0,p=h=="input"?parseFloat(c.attr("max")):c.find("option").length-1,k=window.parseFloat(c.attr("step")||1),i=a("<div class='ui-slider "+f+" ui-btn-down-"+g+" ui-btn-corner-all' role='application'></div>"),m=a("<a href='#' class='ui-slider-handle'></a>").appendTo(i).buttonMarkup({corners:!0,theme:e,shadow:!0}).attr({role:"slider",
+"aria-valuemin":s,"aria-valuemax":p,"aria-valuenow":n(),"aria-valuetext":n(),title:n(),"aria-labelledby":l});a.extend(this,{slider:i,handle:m,dragging:!1,beforeStart:null,userModified:!1});h=="select"&&(i.wrapInner("<div class='ui-slider-inneroffset'></div>"),c.find("option"),c.find("option").each(function(b){var c=!b?"b":"a",d=!b?"right":"left",b=!b?" ui-btn-down-"+g:" "+a.mobile.activeBtnClass;a("<div class='ui-slider-labelbg ui-slider-labelbg-"+c+b+" ui-btn-corner-"+d+"'></div>").prependTo(i);
+a("<span class='ui-slider-label ui-slider-label-"+c+b+" ui-btn-corner-"+d+"' role='img'>"+a(this).text()+"</span>").prependTo(m)}));j.addClass("ui-slider");c.addClass(h==="input"?"ui-slider-input":"ui-slider-switch").change(function(){b.refresh(n(),!0)}).keyup(function(){b.refresh(n(),!0,!0)}).blur(function(){b.refresh(n(),!0)});a(document).bind("vmousemove",function(a){if(b.dragging)return b.refresh(a),b.userModified=b.userModified||b.beforeStart!==c[0].selectedIndex,!1});i.bind("vmousedown",function(a){b.dragging=
+!0;b.userModified=!1;if(h==="select")b.beforeStart=c[0].selectedIndex;b.refresh(a);return!1});i.add(document).bind("vmouseup",function(){if(b.dragging)return b.dragging=!1,h==="select"&&!b.userModified&&(m.addClass("ui-slider-handle-snapping"),b.refresh(!b.beforeStart?1:0)),!1});i.insertAfter(c);this.handle.bind("vmousedown",function(){a(this).focus()}).bind("vclick",!1);this.handle.bind("keydown",function(c){var d=n();if(!b.options.disabled){switch(c.keyCode){case a.mobile.keyCode.HOME:case a.mobile.keyCode.END:case a.mobile.keyCode.PAGE_UP:case a.mobile.keyCode.PAGE_DOWN:case a.mobile.keyCode.UP:case a.mobile.keyCode.RIGHT:case a.mobile.keyCode.DOWN:case a.mobile.keyCode.LEFT:if(c.preventDefault(),
+!b._keySliding)b._keySliding=!0,a(this).addClass("ui-state-active")}switch(c.keyCode){case a.mobile.keyCode.HOME:b.refresh(s);break;case a.mobile.keyCode.END:b.refresh(p);break;case a.mobile.keyCode.PAGE_UP:case a.mobile.keyCode.UP:case a.mobile.keyCode.RIGHT:b.refresh(d+k);break;case a.mobile.keyCode.PAGE_DOWN:case a.mobile.keyCode.DOWN:case a.mobile.keyCode.LEFT:b.refresh(d-k)}}}).keyup(function(){if(b._keySliding)b._keySliding=!1,a(this).removeClass("ui-state-active")});this.refresh(d,d,!0)},refresh:function(a,
+c,d){if(!this.options.disabled){var e=this.element,g=e[0].nodeName.toLowerCase(),h=g==="input"?parseFloat(e.attr("min")):0,j=g==="input"?parseFloat(e.attr("max")):e.find("option").length-1;if(typeof a==="object"){if(!this.dragging||a.pageX<this.slider.offset().left-8||a.pageX>this.slider.offset().left+this.slider.width()+8)return;a=Math.round((a.pageX-this.slider.offset().left)/this.slider.width()*100)}else a==null&&(a=g==="input"?parseFloat(e.val()):e[0].selectedIndex),a=(parseFloat(a)-h)/(j-h)*
+100;if(!isNaN(a)){a<0&&(a=0);a>100&&(a=100);var l=Math.round(a/100*(j-h))+h;l<h&&(l=h);l>j&&(l=j);this.handle.css("left",a+"%");this.handle.attr({"aria-valuenow":g==="input"?l:e.find("option").eq(l).attr("value"),"aria-valuetext":g==="input"?l:e.find("option").eq(l).text(),title:l});g==="select"&&(l===0?this.slider.addClass("ui-slider-switch-a").removeClass("ui-slider-switch-b"):this.slider.addClass("ui-slider-switch-b").removeClass("ui-slider-switch-a"));if(!d)g==="input"?e.val(l):e[0].selectedIndex=
+l,c||e.trigger("change")}}},enable:function(){this.element.attr("disabled",!1);this.slider.removeClass("ui-disabled").attr("aria-disabled",!1);return this._setOption("disabled",!1)},disable:function(){this.element.attr("disabled",!0);this.slider.addClass("ui-disabled").attr("aria-disabled",!0);return this._setOption("disabled",!0)}});a(document).bind("pagecreate create",function(b){a(a.mobile.slider.prototype.options.initSelector,b.target).not(":jqmData(role='none'), :jqmData(role='nojs')").slider()})})(jQuery);
+(function(a){a.widget("mobile.textinput",a.mobile.widget,{options:{theme:null,initSelector:"input[type='text'], input[type='search'], :jqmData(type='search'), input[type='number'], :jqmData(type='number'), input[type='password'], input[type='email'], input[type='url'], input[type='tel'], textarea"},_create:function(){var i;var d=this.element,b=this.options,c=b.theme,f,e;c||(c=this.element.closest("[class*='ui-bar-'],[class*='ui-body-']"),i=(c=c.length&&/ui-(bar|body)-([a-z])/.exec(c.attr("class")))&&
+c[2]||"c",c=i);c=" ui-body-"+c;a("label[for='"+d.attr("id")+"']").addClass("ui-input-text");d.addClass("ui-input-text ui-body-"+b.theme);f=d;typeof d[0].autocorrect!=="undefined"&&(d[0].setAttribute("autocorrect","off"),d[0].setAttribute("autocomplete","off"));d.is("[type='search'],:jqmData(type='search')")?(f=d.wrap("<div class='ui-input-search ui-shadow-inset ui-btn-corner-all ui-btn-shadow ui-icon-searchfield"+c+"'></div>").parent(),e=a("<a href='#' class='ui-input-clear' title='clear text'>clear text</a>").tap(function(a){d.val("").focus();
+d.trigger("change");e.addClass("ui-input-clear-hidden");a.preventDefault()}).appendTo(f).buttonMarkup({icon:"delete",iconpos:"notext",corners:!0,shadow:!0}),b=function(){d.val()?e.removeClass("ui-input-clear-hidden"):e.addClass("ui-input-clear-hidden")},b(),d.keyup(b).focus(b)):d.addClass("ui-corner-all ui-shadow-inset"+c);d.focus(function(){f.addClass("ui-focus")}).blur(function(){f.removeClass("ui-focus")});if(d.is("textarea")){var g=function(){var a=d[0].scrollHeight;d[0].clientHeight<a&&d.css({height:a+
+15})},h;d.keyup(function(){clearTimeout(h);h=setTimeout(g,100)})}},disable:function(){(this.element.attr("disabled",!0).is("[type='search'],:jqmData(type='search')")?this.element.parent():this.element).addClass("ui-disabled")},enable:function(){(this.element.attr("disabled",!1).is("[type='search'],:jqmData(type='search')")?this.element.parent():this.element).removeClass("ui-disabled")}});a(document).bind("pagecreate create",function(d){a(a.mobile.textinput.prototype.options.initSelector,d.target).not(":jqmData(role='none'), :jqmData(role='nojs')").textinput()})})(jQuery);
+(function(a){var d=function(b){var c=b.selectID,d=b.label,e=b.select.closest(".ui-page"),g=a("<div>",{"class":"ui-selectmenu-screen ui-screen-hidden"}).appendTo(e),h=b.select.find("option"),j=b.isMultiple=b.select[0].multiple,l=c+"-button",n=c+"-menu",s=a("<div data-"+a.mobile.ns+"role='dialog' data-"+a.mobile.ns+"theme='"+b.options.menuPageTheme+"'><div data-"+a.mobile.ns+"role='header'><div class='ui-title'>"+d.text()+"</div></div><div data-"+a.mobile.ns+"role='content'></div></div>").appendTo(a.mobile.pageContainer).page(),
+p=a("<div>",{"class":"ui-selectmenu ui-selectmenu-hidden ui-overlay-shadow ui-corner-all ui-body-"+b.options.overlayTheme+" "+a.mobile.defaultDialogTransition}).insertAfter(g),k=a("<ul>",{"class":"ui-selectmenu-list",id:n,role:"listbox","aria-labelledby":l}).attr("data-"+a.mobile.ns+"theme",b.options.theme).appendTo(p),i=a("<div>",{"class":"ui-header ui-bar-"+b.options.theme}).prependTo(p),m=a("<h1>",{"class":"ui-title"}).appendTo(i),o=a("<a>",{text:b.options.closeText,href:"#","class":"ui-btn-left"}).attr("data-"+
+a.mobile.ns+"iconpos","notext").attr("data-"+a.mobile.ns+"icon","delete").appendTo(i).buttonMarkup(),A=s.find(".ui-content"),y=s.find(".ui-header a");a.extend(b,{select:b.select,selectID:c,buttonId:l,menuId:n,thisPage:e,menuPage:s,label:d,screen:g,selectOptions:h,isMultiple:j,theme:b.options.theme,listbox:p,list:k,header:i,headerTitle:m,headerClose:o,menuPageContent:A,menuPageClose:y,placeholder:"",build:function(){var b=this;b.refresh();b.select.attr("tabindex","-1").focus(function(){a(this).blur();
+b.button.focus()});b.button.bind("vclick keydown",function(c){if(c.type=="vclick"||c.keyCode&&(c.keyCode===a.mobile.keyCode.ENTER||c.keyCode===a.mobile.keyCode.SPACE))b.open(),c.preventDefault()});b.list.attr("role","listbox").delegate(".ui-li>a","focusin",function(){a(this).attr("tabindex","0")}).delegate(".ui-li>a","focusout",function(){a(this).attr("tabindex","-1")}).delegate("li:not(.ui-disabled, .ui-li-divider)","click",function(c){var d=b.select[0].selectedIndex,e=b.list.find("li:not(.ui-li-divider)").index(this),
+f=b.selectOptions.eq(e)[0];f.selected=b.isMultiple?!f.selected:!0;b.isMultiple&&a(this).find(".ui-icon").toggleClass("ui-icon-checkbox-on",f.selected).toggleClass("ui-icon-checkbox-off",!f.selected);(b.isMultiple||d!==e)&&b.select.trigger("change");b.isMultiple||b.close();c.preventDefault()}).keydown(function(b){var c=a(b.target),d=c.closest("li");switch(b.keyCode){case 38:return b=d.prev(),b.length&&(c.blur().attr("tabindex","-1"),b.find("a").first().focus()),!1;case 40:return b=d.next(),b.length&&
+(c.blur().attr("tabindex","-1"),b.find("a").first().focus()),!1;case 13:case 32:return c.trigger("click"),!1}});b.menuPage.bind("pagehide",function(){b.list.appendTo(b.listbox);b._focusButton()});b.screen.bind("vclick",function(){b.close()});b.headerClose.click(function(){if(b.menuType=="overlay")return b.close(),!1})},refresh:function(b){var c=this,d=this.element;this.selectOptions=d.find("option");this.selected();var e=this.selectedIndices();(b||d[0].options.length!=c.list.find("li").length)&&c._buildList();
+c.setButtonText();c.setButtonCount();c.list.find("li:not(.ui-li-divider)").removeClass(a.mobile.activeBtnClass).attr("aria-selected",!1).each(function(b){a.inArray(b,e)>-1&&(b=a(this),b.attr("aria-selected",!0),c.isMultiple?b.find(".ui-icon").removeClass("ui-icon-checkbox-off").addClass("ui-icon-checkbox-on"):b.addClass(a.mobile.activeBtnClass))})},close:function(){if(!this.options.disabled&&this.isOpen){var b=this;b.menuType=="page"?(b.thisPage.data("page").options.domCache||b.thisPage.bind("pagehide.remove",
+function(){a(b).remove()}),window.history.back()):(b.screen.addClass("ui-screen-hidden"),b.listbox.addClass("ui-selectmenu-hidden").removeAttr("style").removeClass("in"),b.list.appendTo(b.listbox),b._focusButton());b.isOpen=!1}},open:function(){if(!this.options.disabled){var b=this,c=b.list.parent().outerHeight(),d=b.list.parent().outerWidth(),e=a(window).scrollTop(),f=b.button.offset().top,g=window.innerHeight,h=window.innerWidth;b.button.addClass(a.mobile.activeBtnClass);setTimeout(function(){b.button.removeClass(a.mobile.activeBtnClass)},
+300);if(c>g-80||!a.support.scrollTop){b.thisPage.unbind("pagehide.remove");if(e==0&&f>g)b.thisPage.one("pagehide",function(){a(this).jqmData("lastScroll",f)});b.menuPage.one("pageshow",function(){a(window).one("silentscroll",function(){b.list.find(a.mobile.activeBtnClass).focus()});b.isOpen=!0});b.menuType="page";b.menuPageContent.append(b.list);a.mobile.changePage(b.menuPage,{transition:a.mobile.defaultDialogTransition})}else{b.menuType="overlay";b.screen.height(a(document).height()).removeClass("ui-screen-hidden");
+var i=f-e,k=e+g-f,j=c/2,p=parseFloat(b.list.parent().css("max-width")),c=i>c/2&&k>c/2?f+b.button.outerHeight()/2-j:i>k?e+g-c-30:e+30;d<p?p=(h-d)/2:(p=b.button.offset().left+b.button.outerWidth()/2-d/2,p<30?p=30:p+d>h&&(p=h-d-30));b.listbox.append(b.list).removeClass("ui-selectmenu-hidden").css({top:c,left:p}).addClass("in");b.list.find(a.mobile.activeBtnClass).focus();b.isOpen=!0}}},_buildList:function(){var b=this,c=this.options,d=this.placeholder,e=[],f=[],g=b.isMultiple?"checkbox-off":"false";
+b.list.empty().filter(".ui-listview").listview("destroy");b.select.find("option").each(function(h){var i=a(this),k=i.parent(),p=i.text(),j="<a href='#'>"+p+"</a>",m=[],o=[];k.is("optgroup")&&(k=k.attr("label"),a.inArray(k,e)===-1&&(f.push("<li data-"+a.mobile.ns+"role='list-divider'>"+k+"</li>"),e.push(k)));if(!this.getAttribute("value")||p.length==0||i.jqmData("placeholder"))c.hidePlaceholderMenuItems&&m.push("ui-selectmenu-placeholder"),d=b.placeholder=p;this.disabled&&(m.push("ui-disabled"),o.push("aria-disabled='true'"));
+f.push("<li data-"+a.mobile.ns+"option-index='"+h+"' data-"+a.mobile.ns+"icon='"+g+"' class='"+m.join(" ")+"' "+o.join(" ")+">"+j+"</li>")});b.list.html(f.join(" "));b.list.find("li").attr({role:"option",tabindex:"-1"}).first().attr("tabindex","0");this.isMultiple||this.headerClose.hide();!this.isMultiple&&!d.length?this.header.hide():this.headerTitle.text(this.placeholder);b.list.listview()},_button:function(){return a("<a>",{href:"#",role:"button",id:this.buttonId,"aria-haspopup":"true","aria-owns":this.menuId})}})};
+a("select").live("selectmenubeforecreate",function(){var b=a(this).data("selectmenu");b.options.nativeMenu||d(b)})})(jQuery);
+(function(a){a.widget("mobile.selectmenu",a.mobile.widget,{options:{theme:null,disabled:!1,icon:"arrow-d",iconpos:"right",inline:null,corners:!0,shadow:!0,iconshadow:!0,menuPageTheme:"b",overlayTheme:"a",hidePlaceholderMenuItems:!0,closeText:"Close",nativeMenu:!0,initSelector:"select:not(:jqmData(role='slider'))"},_button:function(){return a("<div/>")},_theme:function(){var a;a=this.select.closest("[class*='ui-bar-'], [class*='ui-body-']");return a.length?/ui-(bar|body)-([a-z])/.exec(a.attr("class"))[2]:
+"c"},_setDisabled:function(a){this.element.attr("disabled",a);this.button.attr("aria-disabled",a);return this._setOption("disabled",a)},_focusButton:function(){var a=this;setTimeout(function(){a.button.focus()},40)},_preExtension:function(){this.select=this.element.wrap("<div class='ui-select'>");this.selectID=this.select.attr("id");this.label=a("label[for='"+this.selectID+"']").addClass("ui-select");this.isMultiple=this.select[0].multiple;this.options.theme=this._theme();this.selectOptions=this.select.find("option")},
+_create:function(){this._preExtension();this._trigger("beforeCreate");this.button=this._button();var d=this,b=this.options,c=this.button.text(a(this.select[0].options.item(this.select[0].selectedIndex==-1?0:this.select[0].selectedIndex)).text()).insertBefore(this.select).buttonMarkup({theme:b.theme,icon:b.icon,iconpos:b.iconpos,inline:b.inline,corners:b.corners,shadow:b.shadow,iconshadow:b.iconshadow});b.nativeMenu&&window.opera&&window.opera.version&&this.select.addClass("ui-select-nativeonly");
+if(this.isMultiple)this.buttonCount=a("<span>").addClass("ui-li-count ui-btn-up-c ui-btn-corner-all").hide().appendTo(c);b.disabled&&this.disable();this.select.change(function(){d.refresh()});this.build()},build:function(){var d=this;this.select.appendTo(d.button).bind("vmousedown",function(){d.button.addClass(a.mobile.activeBtnClass)}).bind("focus vmouseover",function(){d.button.trigger("vmouseover")}).bind("vmousemove",function(){d.button.removeClass(a.mobile.activeBtnClass)}).bind("change blur vmouseout",
+function(){d.button.trigger("vmouseout").removeClass(a.mobile.activeBtnClass)}).bind("change blur",function(){d.button.removeClass("ui-btn-down-"+d.options.theme)})},selected:function(){return this.selectOptions.filter(":selected")},selectedIndices:function(){var a=this;return this.selected().map(function(){return a.selectOptions.index(this)}).get()},setButtonText:function(){var d=this,b=this.selected();this.button.find(".ui-btn-text").text(function(){if(!d.isMultiple)return b.text();return b.length?
+b.map(function(){return a(this).text()}).get().join(", "):d.placeholder})},setButtonCount:function(){var a=this.selected();this.isMultiple&&this.buttonCount[a.length>1?"show":"hide"]().text(a.length)},refresh:function(){this.setButtonText();this.setButtonCount()},disable:function(){this._setDisabled(!0);this.button.addClass("ui-disabled")},enable:function(){this._setDisabled(!1);this.button.removeClass("ui-disabled")}});a(document).bind("pagecreate create",function(d){a(a.mobile.selectmenu.prototype.options.initSelector,
+d.target).not(":jqmData(role='none'), :jqmData(role='nojs')").selectmenu()})})(jQuery);
+(function(a){function d(b){for(;b;){var d=a(b);if(d.hasClass("ui-btn")&&!d.hasClass("ui-disabled"))break;b=b.parentNode}return b}a.fn.buttonMarkup=function(c){return this.each(function(){var d=a(this),e=a.extend({},a.fn.buttonMarkup.defaults,d.jqmData(),c),g="ui-btn-inner",h,j;b&&b();if(!e.theme)h=d.closest("[class*='ui-bar-'],[class*='ui-body-']"),e.theme=h.length?/ui-(bar|body)-([a-z])/.exec(h.attr("class"))[2]:"c";h="ui-btn ui-btn-up-"+e.theme;e.inline&&(h+=" ui-btn-inline");if(e.icon)e.icon="ui-icon-"+
+e.icon,e.iconpos=e.iconpos||"left",j="ui-icon "+e.icon,e.iconshadow&&(j+=" ui-icon-shadow");e.iconpos&&(h+=" ui-btn-icon-"+e.iconpos,e.iconpos=="notext"&&!d.attr("title")&&d.attr("title",d.text()));e.corners&&(h+=" ui-btn-corner-all",g+=" ui-btn-corner-all");e.shadow&&(h+=" ui-shadow");d.attr("data-"+a.mobile.ns+"theme",e.theme).addClass(h);e=("<D class='"+g+"'><D class='ui-btn-text'></D>"+(e.icon?"<span class='"+j+"'></span>":"")+"</D>").replace(/D/g,e.wrapperEls);d.wrapInner(e)})};a.fn.buttonMarkup.defaults=
+{corners:!0,shadow:!0,iconshadow:!0,wrapperEls:"span"};var b=function(){a(document).bind({vmousedown:function(b){var b=d(b.target),f;b&&(b=a(b),f=b.attr("data-"+a.mobile.ns+"theme"),b.removeClass("ui-btn-up-"+f).addClass("ui-btn-down-"+f))},"vmousecancel vmouseup":function(b){var b=d(b.target),f;b&&(b=a(b),f=b.attr("data-"+a.mobile.ns+"theme"),b.removeClass("ui-btn-down-"+f).addClass("ui-btn-up-"+f))},"vmouseover focus":function(b){var b=d(b.target),f;b&&(b=a(b),f=b.attr("data-"+a.mobile.ns+"theme"),
+b.removeClass("ui-btn-up-"+f).addClass("ui-btn-hover-"+f))},"vmouseout blur":function(b){var b=d(b.target),f;b&&(b=a(b),f=b.attr("data-"+a.mobile.ns+"theme"),b.removeClass("ui-btn-hover-"+f).addClass("ui-btn-up-"+f))}});b=null};a(document).bind("pagecreate create",function(b){a(":jqmData(role='button'), .ui-bar > a, .ui-header > a, .ui-footer > a, .ui-bar > :jqmData(role='controlgroup') > a",b.target).not(".ui-btn, :jqmData(role='none'), :jqmData(role='nojs')").buttonMarkup()})})(jQuery);
+(function(a){a.fn.controlgroup=function(d){return this.each(function(){function b(a){a.removeClass("ui-btn-corner-all ui-shadow").eq(0).addClass(g[0]).end().filter(":last").addClass(g[1]).addClass("ui-controlgroup-last")}var c=a(this),f=a.extend({direction:c.jqmData("type")||"vertical",shadow:!1,excludeInvisible:!0},d),e=c.find(">legend"),g=f.direction=="horizontal"?["ui-corner-left","ui-corner-right"]:["ui-corner-top","ui-corner-bottom"];c.find("input:eq(0)").attr("type");e.length&&(c.wrapInner("<div class='ui-controlgroup-controls'></div>"),
+a("<div role='heading' class='ui-controlgroup-label'>"+e.html()+"</div>").insertBefore(c.children(0)),e.remove());c.addClass("ui-corner-all ui-controlgroup ui-controlgroup-"+f.direction);b(c.find(".ui-btn"+(f.excludeInvisible?":visible":"")));b(c.find(".ui-btn-inner"));f.shadow&&c.addClass("ui-shadow")})};a(document).bind("pagecreate create",function(d){a(":jqmData(role='controlgroup')",d.target).controlgroup({excludeInvisible:!1})})})(jQuery);(function(a){a(document).bind("pagecreate create",function(d){a(d.target).find("a").not(".ui-btn, .ui-link-inherit, :jqmData(role='none'), :jqmData(role='nojs')").addClass("ui-link")})})(jQuery);
+(function(a,d){a.fn.fixHeaderFooter=function(){if(!a.support.scrollTop)return this;return this.each(function(){var b=a(this);b.jqmData("fullscreen")&&b.addClass("ui-page-fullscreen");b.find(".ui-header:jqmData(position='fixed')").addClass("ui-header-fixed ui-fixed-inline fade");b.find(".ui-footer:jqmData(position='fixed')").addClass("ui-footer-fixed ui-fixed-inline fade")})};a.mobile.fixedToolbars=function(){function b(){!j&&h==="overlay"&&(g||a.mobile.fixedToolbars.hide(!0),a.mobile.fixedToolbars.startShowTimer())}
+function c(a){var b=0,c,d;if(a){d=document.body;c=a.offsetParent;for(b=a.offsetTop;a&&a!=d;){b+=a.scrollTop||0;if(a==c)b+=c.offsetTop,c=a.offsetParent;a=a.parentNode}}return b}function f(b){var d=a(window).scrollTop(),e=c(b[0]),f=b.css("top")=="auto"?0:parseFloat(b.css("top")),g=window.innerHeight,h=b.outerHeight(),j=b.parents(".ui-page:not(.ui-page-fullscreen)").length;return b.is(".ui-header-fixed")?(f=d-e+f,f<e&&(f=0),b.css("top",j?f:d)):b.css("top",j?d+g-h-(e-f):d+g-h)}if(a.support.scrollTop&&
+!a.support.touchOverflow){var e,g,h="inline",j=!1,l=null,n=!1,s=!0;a(function(){var c=a(document),d=a(window);c.bind("vmousedown",function(){s&&(l=h)}).bind("vclick",function(b){s&&!a(b.target).closest("a,input,textarea,select,button,label,.ui-header-fixed,.ui-footer-fixed").length&&!n&&(a.mobile.fixedToolbars.toggle(l),l=null)}).bind("silentscroll",b);(c.scrollTop()===0?d:c).bind("scrollstart",function(){n=!0;l===null&&(l=h);var b=l=="overlay";if(j=b||!!g)a.mobile.fixedToolbars.clearShowTimer(),
+b&&a.mobile.fixedToolbars.hide(!0)}).bind("scrollstop",function(b){a(b.target).closest("a,input,textarea,select,button,label,.ui-header-fixed,.ui-footer-fixed").length||(n=!1,j&&(a.mobile.fixedToolbars.startShowTimer(),j=!1),l=null)});d.bind("resize",b)});a(".ui-page").live("pagebeforeshow",function(b,c){var d=a(b.target).find(":jqmData(role='footer')"),g=d.data("id"),h=c.prevPage,h=h&&h.find(":jqmData(role='footer')"),h=h.length&&h.jqmData("id")===g;g&&h&&(e=d,f(e.removeClass("fade in out").appendTo(a.mobile.pageContainer)))}).live("pageshow",
+function(){var b=a(this);e&&e.length&&setTimeout(function(){f(e.appendTo(b).addClass("fade"));e=null},500);a.mobile.fixedToolbars.show(!0,this)});a(".ui-collapsible-contain").live("collapse expand",b);return{show:function(b,d){a.mobile.fixedToolbars.clearShowTimer();h="overlay";return(d?a(d):a.mobile.activePage?a.mobile.activePage:a(".ui-page-active")).children(".ui-header-fixed:first, .ui-footer-fixed:not(.ui-footer-duplicate):last").each(function(){var d=a(this),e=a(window).scrollTop(),g=c(d[0]),
+h=window.innerHeight,j=d.outerHeight(),e=d.is(".ui-header-fixed")&&e<=g+j||d.is(".ui-footer-fixed")&&g<=e+h;d.addClass("ui-fixed-overlay").removeClass("ui-fixed-inline");!e&&!b&&d.animationComplete(function(){d.removeClass("in")}).addClass("in");f(d)})},hide:function(b){h="inline";return(a.mobile.activePage?a.mobile.activePage:a(".ui-page-active")).children(".ui-header-fixed:first, .ui-footer-fixed:not(.ui-footer-duplicate):last").each(function(){var c=a(this),d=c.css("top"),d=d=="auto"?0:parseFloat(d);
+c.addClass("ui-fixed-inline").removeClass("ui-fixed-overlay");if(d<0||c.is(".ui-header-fixed")&&d!==0)b?c.css("top",0):c.css("top")!=="auto"&&parseFloat(c.css("top"))!==0&&c.animationComplete(function(){c.removeClass("out reverse").css("top",0)}).addClass("out reverse")})},startShowTimer:function(){a.mobile.fixedToolbars.clearShowTimer();var b=[].slice.call(arguments);g=setTimeout(function(){g=d;a.mobile.fixedToolbars.show.apply(null,b)},100)},clearShowTimer:function(){g&&clearTimeout(g);g=d},toggle:function(b){b&&
+(h=b);return h==="overlay"?a.mobile.fixedToolbars.hide():a.mobile.fixedToolbars.show()},setTouchToggleEnabled:function(a){s=a}}}}();a.fixedToolbars=a.mobile.fixedToolbars;a(document).bind("pagecreate create",function(b){a(":jqmData(position='fixed')",b.target).length&&a(b.target).each(function(){if(!a.support.scrollTop||a.support.touchOverflow)return this;var b=a(this);b.jqmData("fullscreen")&&b.addClass("ui-page-fullscreen");b.find(".ui-header:jqmData(position='fixed')").addClass("ui-header-fixed ui-fixed-inline fade");
+b.find(".ui-footer:jqmData(position='fixed')").addClass("ui-footer-fixed ui-fixed-inline fade")})})})(jQuery);
+(function(a){a.mobile.touchOverflowEnabled=!1;a(document).bind("pagecreate",function(d){a.support.touchOverflow&&a.mobile.touchOverflowEnabled&&(d=a(d.target),d.is(":jqmData(role='page')")&&d.each(function(){var b=a(this),c=b.find(":jqmData(role='header'), :jqmData(role='footer')").filter(":jqmData(position='fixed')"),d=b.jqmData("fullscreen"),e=c.length?b.find(".ui-content"):b;b.addClass("ui-mobile-touch-overflow");e.bind("scrollstop",function(){e.scrollTop()>0&&window.scrollTo(0,a.mobile.defaultHomeScroll)});
+c.length&&(b.addClass("ui-native-fixed"),d&&(b.addClass("ui-native-fullscreen"),c.addClass("fade in"),a(document).bind("vclick",function(){c.removeClass("ui-native-bars-hidden").toggleClass("in out").animationComplete(function(){a(this).not(".in").addClass("ui-native-bars-hidden")})})))}))})})(jQuery);
+(function(a){function d(){var d=b.width(),g=[],h=[],j;c.removeClass("min-width-"+f.join("px min-width-")+"px max-width-"+f.join("px max-width-")+"px");a.each(f,function(a,b){d>=b&&g.push("min-width-"+b+"px");d<=b&&h.push("max-width-"+b+"px")});g.length&&(j=g.join(" "));h.length&&(j+=" "+h.join(" "));c.addClass(j)}var b=a(window),c=a("html"),f=[320,480,768,1024];a.mobile.addResolutionBreakpoints=function(b){a.type(b)==="array"?f=f.concat(b):f.push(b);f.sort(function(a,b){return a-b});d()};a(document).bind("mobileinit.htmlclass",
+function(){b.bind("orientationchange.htmlclass throttledresize.htmlclass",function(a){a.orientation&&c.removeClass("portrait landscape").addClass(a.orientation);d()})});a(function(){b.trigger("orientationchange.htmlclass")})})(jQuery);
+(function(a,d){var b=a("html");a("head");var c=a(d);a(d.document).trigger("mobileinit");if(a.mobile.gradeA()){if(a.mobile.ajaxBlacklist)a.mobile.ajaxEnabled=!1;b.addClass("ui-mobile ui-mobile-rendering");var f=a("<div class='ui-loader ui-body-a ui-corner-all'><span class='ui-icon ui-icon-loading spin'></span><h1></h1></div>");a.extend(a.mobile,{showPageLoadingMsg:function(){if(a.mobile.loadingMessage){var d=a("."+a.mobile.activeBtnClass).first();f.find("h1").text(a.mobile.loadingMessage).end().appendTo(a.mobile.pageContainer).css({top:a.support.scrollTop&&
+c.scrollTop()+c.height()/2||d.length&&d.offset().top||100})}b.addClass("ui-loading")},hidePageLoadingMsg:function(){b.removeClass("ui-loading")},pageLoading:function(b){b?a.mobile.hidePageLoadingMsg():a.mobile.showPageLoadingMsg()},initializePage:function(){var b=a(":jqmData(role='page')");b.length||(b=a("body").wrapInner("<div data-"+a.mobile.ns+"role='page'></div>").children(0));b.add(":jqmData(role='dialog')").each(function(){var b=a(this);b.jqmData("url")||b.attr("data-"+a.mobile.ns+"url",b.attr("id")||
+location.pathname+location.search)});a.mobile.firstPage=b.first();a.mobile.pageContainer=b.first().parent().addClass("ui-mobile-viewport");a.mobile.showPageLoadingMsg();!a.mobile.hashListeningEnabled||!a.mobile.path.stripHash(location.hash)?a.mobile.changePage(a.mobile.firstPage,{transition:"none",reverse:!0,changeHash:!1,fromHashChange:!0}):c.trigger("hashchange",[!0])}});a.mobile._registerInternalEvents();a(function(){d.scrollTo(0,1);a.mobile.defaultHomeScroll=!a.support.scrollTop||a(d).scrollTop()===
+1?0:1;a.mobile.autoInitializePage&&a.mobile.initializePage();c.load(a.mobile.silentScroll)})}})(jQuery,this);
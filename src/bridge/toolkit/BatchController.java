@@ -0,0 +1,506 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.chain.Command;
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+
+import bridge.toolkit.util.Keys;
+
+/**
+ * Runs many conversions in one JVM, so the catalog, the compiled style
+ * sheets and the cached documents are loaded once and shared by all of them.
+ *
+ * The conversions come from a job file or from a directory of courses.  A
+ * job file has one conversion on each line with the same arguments as the
+ * Controller: the SCPM file, the resource package and optionally the output
+ * type, the output directory and -incremental.  Values with spaces are put
+ * in double quotes, and empty lines and lines that start with # are skipped.
+ * A directory has a sub directory for each course that holds the SCPM file
+ * (SMC-*.xml) and the resource package directory.  Each course is converted
+ * to every output type given with -type, into the directory of the course
+ * and the output type under the -output directory.
+ *
+ * With -jobs the conversions run at the same time on that many threads.  The
+ * commands of the catalog keep the state of a conversion in a new instance
+ * for each execution, so the conversions share nothing but the caches.
+ *
+ * Usage: BatchController &lt;job file or directory&gt; [-jobs n] [-type option]... [-output directory]
+ */
+public class BatchController
+{
+    /**
+     * Output type of the courses of a directory when no -type is given.
+     */
+    public static final String DEFAULT_TYPE = "-scormflash";
+
+    /**
+     * Controller that provides the catalog shared by all of the jobs.
+     */
+    private Controller controller = new Controller();
+
+    /**
+     * Number of jobs that run at the same time.
+     */
+    private int concurrency;
+
+    /**
+     * Number of nanoseconds taken by the last run.
+     */
+    private long time;
+
+    /**
+     * Constructor
+     *
+     * @param iConcurrency int that is the number of jobs that run at the same
+     * time, 1 runs them one after the other on the calling thread.
+     */
+    public BatchController(int iConcurrency)
+    {
+        concurrency = Math.max(1, iConcurrency);
+    }
+
+    /**
+     * Reads the jobs of a job file.
+     *
+     * @param jobFile File that has one conversion on each line.
+     * @return List<Job> of the jobs in the order of the lines.
+     * @throws IOException
+     */
+    public static List<Job> readJobFile(File jobFile) throws IOException
+    {
+        List<Job> jobs = new ArrayList<Job>();
+        BufferedReader reader = new BufferedReader(new FileReader(jobFile));
+        try
+        {
+            String line;
+            while ((line = reader.readLine()) != null)
+            {
+                String[] args = tokenize(line.trim());
+                if (args.length == 0 || args[0].startsWith("#"))
+                {
+                    continue;
+                }
+                if (args.length < 2)
+                {
+                    throw new IOException("The job \"" + line + "\" needs an SCPM file and a resource package");
+                }
+                jobs.add(new Job(args));
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+        return jobs;
+    }
+
+    /**
+     * Finds the courses in the sub directories of a directory and creates a
+     * job for each course and output type.
+     *
+     * @param directory File that holds a sub directory for each course.
+     * @param types List<String> of the output types, such as -scormflash.
+     * @param output String that is the directory the output goes to, or null
+     * for the working directory.
+     * @return List<Job> of the jobs sorted by course.
+     */
+    public static List<Job> findCourses(File directory, List<String> types, String output)
+    {
+        List<Job> jobs = new ArrayList<Job>();
+        File[] courses = directory.listFiles();
+        if (courses == null)
+        {
+            return jobs;
+        }
+        Arrays.sort(courses);
+        for (File course : courses)
+        {
+            if (!course.isDirectory())
+            {
+                continue;
+            }
+            File scpm = null;
+            File resourcePackage = null;
+            File[] files = course.listFiles();
+            Arrays.sort(files);
+            for (File file : files)
+            {
+                if (scpm == null && file.isFile() && file.getName().startsWith("SMC-") && file.getName().endsWith(".xml"))
+                {
+                    scpm = file;
+                }
+                else if (resourcePackage == null && file.isDirectory())
+                {
+                    resourcePackage = file;
+                }
+            }
+            if (scpm == null || resourcePackage == null)
+            {
+                System.out.println("Skipping " + course + ", it needs an SMC-*.xml file and a resource package directory");
+                continue;
+            }
+            for (String type : types)
+            {
+                File outputDir = new File(output, course.getName() + File.separator + type.substring(1));
+                jobs.add(new Job(new String[] { scpm.getPath(), resourcePackage.getPath(), type, outputDir.getPath() }));
+            }
+        }
+        return jobs;
+    }
+
+    /**
+     * Runs the jobs.  A job that fails does not stop the others.
+     *
+     * @param jobs List<Job> of the jobs to run.
+     * @throws InterruptedException if the run is interrupted.
+     */
+    public void run(List<Job> jobs) throws InterruptedException
+    {
+        long start = System.nanoTime();
+        if (concurrency == 1)
+        {
+            for (Job job : jobs)
+            {
+                job.run(controller);
+            }
+        }
+        else
+        {
+            List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+            for (final Job job : jobs)
+            {
+                tasks.add(new Callable<Object>()
+                {
+                    public Object call()
+                    {
+                        job.run(controller);
+                        return null;
+                    }
+                });
+            }
+            ExecutorService pool = Executors.newFixedThreadPool(Math.min(concurrency, Math.max(1, jobs.size())));
+            try
+            {
+                pool.invokeAll(tasks);
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+        }
+        time = System.nanoTime() - start;
+    }
+
+    /**
+     * Returns a table with the status and time of each job of the last run.
+     *
+     * @param jobs List<Job> of the jobs that were run.
+     * @return String that is the summary table.
+     */
+    public String getSummary(List<Job> jobs)
+    {
+        return summarize(jobs, time);
+    }
+
+    /**
+     * Returns a table with the status and time of each job.
+     *
+     * @param jobs List<Job> of the jobs that were run.
+     * @param wallTime long that is the number of nanoseconds the run took.
+     * @return String that is the summary table.
+     */
+    static String summarize(List<Job> jobs, long wallTime)
+    {
+        StringBuilder summary = new StringBuilder();
+        String format = "%-5s %-8s %9s  %-26s %s%n";
+        summary.append(String.format(format, "Job", "Status", "Seconds", "Output type", "SCPM"));
+        int failed = 0;
+        long total = 0;
+        for (int i = 0; i < jobs.size(); i++)
+        {
+            Job job = jobs.get(i);
+            summary.append(String.format(format, Integer.toString(i + 1), job.getStatus(),
+                    String.format("%.1f", job.getTime() / 1000.0), job.getType(), job.getName()));
+            if (!job.isSuccessful())
+            {
+                failed++;
+            }
+            total += job.getTime();
+        }
+        summary.append(String.format("%d jobs, %d failed, %.1f s wall time, %.1f s job time%n",
+                jobs.size(), failed, wallTime / 1000000000.0, total / 1000.0));
+        return summary.toString();
+    }
+
+    /**
+     * Splits a line of a job file at the white space that is not in double
+     * quotes.
+     *
+     * @param line String that is the line.
+     * @return String[] the values of the line without the quotes.
+     */
+    static String[] tokenize(String line)
+    {
+        List<String> tokens = new ArrayList<String>();
+        StringBuilder token = null;
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++)
+        {
+            char c = line.charAt(i);
+            if (c == '"')
+            {
+                quoted = !quoted;
+                if (token == null)
+                {
+                    token = new StringBuilder();
+                }
+            }
+            else if (Character.isWhitespace(c) && !quoted)
+            {
+                if (token != null)
+                {
+                    tokens.add(token.toString());
+                    token = null;
+                }
+            }
+            else
+            {
+                if (token == null)
+                {
+                    token = new StringBuilder();
+                }
+                token.append(c);
+            }
+        }
+        if (token != null)
+        {
+            tokens.add(token.toString());
+        }
+        return tokens.toArray(new String[tokens.size()]);
+    }
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length == 0)
+        {
+            System.out.println("Usage: BatchController <job file or directory> [-jobs n] [-type option]... [-output directory]");
+            return;
+        }
+        int concurrency = 1;
+        List<String> types = new ArrayList<String>();
+        String output = null;
+        for (int i = 1; i < args.length - 1; i++)
+        {
+            if (args[i].equalsIgnoreCase("-jobs"))
+            {
+                concurrency = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equalsIgnoreCase("-type"))
+            {
+                types.add(args[++i]);
+            }
+            else if (args[i].equalsIgnoreCase("-output"))
+            {
+                output = args[++i];
+            }
+        }
+        if (types.isEmpty())
+        {
+            types.add(DEFAULT_TYPE);
+        }
+
+        try
+        {
+            File source = new File(args[0]);
+            List<Job> jobs = source.isDirectory() ? findCourses(source, types, output) : readJobFile(source);
+            BatchController batch = new BatchController(concurrency);
+            batch.run(jobs);
+            System.out.print(batch.getSummary(jobs));
+            for (Job job : jobs)
+            {
+                if (!job.isSuccessful())
+                {
+                    System.exit(1);
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+
+    /**
+     * A conversion of a batch.
+     */
+    public static class Job
+    {
+        /**
+         * The arguments of the conversion, as given to the Controller.
+         */
+        private String[] args;
+
+        /**
+         * Status of the conversion: WAITING, RUNNING, OK, FAILED when a
+         * command was unsuccessful or ERROR when the chain threw an exception.
+         */
+        private volatile String status = "WAITING";
+
+        /**
+         * Number of milliseconds the conversion took.
+         */
+        private volatile long time;
+
+        /**
+         * Location of what the conversion produced.
+         */
+        private volatile String artifact;
+
+        /**
+         * Constructor
+         *
+         * @param iArgs String[] that holds the arguments of the conversion.
+         */
+        public Job(String[] iArgs)
+        {
+            args = iArgs;
+        }
+
+        /**
+         * Runs the conversion.
+         *
+         * @param controller Controller that provides the catalog.
+         */
+        void run(Controller controller)
+        {
+            Context ctx = new ContextBase();
+            Command toolkit;
+            try
+            {
+                toolkit = controller.configure(ctx, args);
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+                status = "ERROR";
+                return;
+            }
+            execute(toolkit, ctx);
+        }
+
+        /**
+         * Executes the commands of the conversion with a Context that was
+         * already prepared for them.
+         *
+         * @param toolkit Command that is the chain to execute.
+         * @param ctx Context that the conversion is run with.
+         */
+        void execute(Command toolkit, Context ctx)
+        {
+            status = "RUNNING";
+            long start = System.nanoTime();
+            try
+            {
+                toolkit.execute(ctx);
+                artifact = (String) ctx.get(Keys.ARTIFACT);
+                status = Boolean.TRUE.equals(ctx.get(Keys.RUN_COMPLETE)) ? "OK" : "FAILED";
+            }
+            catch (Exception e)
+            {
+                e.printStackTrace();
+                status = "ERROR";
+            }
+            finally
+            {
+                time = (System.nanoTime() - start) / 1000000;
+            }
+        }
+
+        /**
+         * Marks the conversion as failed without running it.
+         */
+        void fail()
+        {
+            status = "FAILED";
+        }
+
+        /**
+         * @return String[] the arguments of the conversion.
+         */
+        public String[] getArgs()
+        {
+            return args;
+        }
+
+        /**
+         * @return String the name of the SCPM file.
+         */
+        public String getName()
+        {
+            return new File(args[0]).getName();
+        }
+
+        /**
+         * @return String the output type of the conversion.
+         */
+        public String getType()
+        {
+            return args.length > 2 ? args[2] : DEFAULT_TYPE;
+        }
+
+        /**
+         * @return String the status of the conversion.
+         */
+        public String getStatus()
+        {
+            return status;
+        }
+
+        /**
+         * @return boolean true if all of the commands of the chain were
+         * successful.
+         */
+        public boolean isSuccessful()
+        {
+            return "OK".equals(status);
+        }
+
+        /**
+         * @return long the number of milliseconds the conversion took.
+         */
+        public long getTime()
+        {
+            return time;
+        }
+
+        /**
+         * @return String the location of the zip file, mobile output
+         * directory or PDF file the conversion produced, or null if it has
+         * not produced one.
+         */
+        public String getArtifact()
+        {
+            return artifact;
+        }
+    }
+}
@@ -0,0 +1,414 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+
+import org.apache.commons.chain.Context;
+
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.Json;
+import bridge.toolkit.util.Keys;
+
+/**
+ * Keeps the metrics of the runs of a chain.  The metrics of each chain are
+ * added up over all of its runs and are available over JMX.  When the
+ * bridge.toolkit.metricsDir system property is set, a JSON summary of each
+ * run is also written to that directory when the run ends.
+ *
+ * Times are in milliseconds.  The CPU time and the allocated bytes are -1
+ * when the JVM does not measure them.
+ */
+public class ChainMetrics implements ChainMetricsMXBean
+{
+    /**
+     * Name of the system property that sets the directory the summaries of
+     * the runs are written to.  The summaries are not written when it is not
+     * set or empty.
+     */
+    public static final String METRICS_DIR_PROPERTY = "bridge.toolkit.metricsDir";
+
+    /**
+     * The metrics of each chain keyed by the name of the chain.
+     */
+    private static final Map<String, ChainMetrics> chains = new LinkedHashMap<String, ChainMetrics>();
+
+    /**
+     * Number that keeps the names of the summaries of runs that end in the
+     * same millisecond apart.
+     */
+    private static final AtomicInteger summaries = new AtomicInteger();
+
+    /**
+     * Name of the chain.
+     */
+    private String name;
+
+    /**
+     * Number of times the chain was run.
+     */
+    private AtomicLong runs = new AtomicLong();
+
+    /**
+     * Number of runs that ended with an exception.
+     */
+    private AtomicLong failures = new AtomicLong();
+
+    /**
+     * Number of nanoseconds the runs took.
+     */
+    private AtomicLong wallTime = new AtomicLong();
+
+    /**
+     * The metrics of the commands added up over all of the runs, in the
+     * order the commands first ran.
+     */
+    private Map<String, CommandMetrics> commands = new LinkedHashMap<String, CommandMetrics>();
+
+    /**
+     * The JSON summary of the last run.
+     */
+    private volatile String lastRun;
+
+    /**
+     * Constructor
+     *
+     * @param iName String that is the name of the chain.
+     */
+    ChainMetrics(String iName)
+    {
+        name = iName;
+    }
+
+    /**
+     * Returns the metrics of a chain, registering them with the platform
+     * MBean server the first time.
+     *
+     * @param name String that is the name of the chain.
+     * @return ChainMetrics of the chain.
+     */
+    public static ChainMetrics getInstance(String name)
+    {
+        synchronized (chains)
+        {
+            ChainMetrics metrics = chains.get(name);
+            if (metrics == null)
+            {
+                metrics = new ChainMetrics(name);
+                chains.put(name, metrics);
+                try
+                {
+                    ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, getObjectName(name));
+                }
+                catch (JMException e)
+                {
+                    System.out.println("The metrics of the chain " + name + " could not be registered: " + e);
+                }
+            }
+            return metrics;
+        }
+    }
+
+    /**
+     * Returns the name the metrics of a chain are registered with.
+     *
+     * @param name String that is the name of the chain.
+     * @return ObjectName of the metrics of the chain.
+     * @throws JMException if the chain name is not allowed in an ObjectName.
+     */
+    public static ObjectName getObjectName(String name) throws JMException
+    {
+        return new ObjectName("bridge.toolkit:type=Chain,name=" + name);
+    }
+
+    /**
+     * Starts a run of the chain.
+     *
+     * @param ctx Context the chain is run with.
+     * @return Run that collects the metrics of the commands of the run.
+     */
+    public Run startRun(Context ctx)
+    {
+        return new Run(ctx);
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getName()
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getRuns()
+     */
+    public long getRuns()
+    {
+        return runs.get();
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getFailures()
+     */
+    public long getFailures()
+    {
+        return failures.get();
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getWallTime()
+     */
+    public long getWallTime()
+    {
+        return wallTime.get() / 1000000;
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getCommands()
+     */
+    public synchronized List<CommandMetrics> getCommands()
+    {
+        return new ArrayList<CommandMetrics>(commands.values());
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#getLastRun()
+     */
+    public String getLastRun()
+    {
+        return lastRun;
+    }
+
+    /**
+     * @see bridge.toolkit.ChainMetricsMXBean#reset()
+     */
+    public synchronized void reset()
+    {
+        runs.set(0);
+        failures.set(0);
+        wallTime.set(0);
+        commands.clear();
+        lastRun = null;
+    }
+
+    /**
+     * Adds the metrics of a run that ended.
+     *
+     * @param run Run that ended.
+     * @param summary String that is the JSON summary of the run.
+     */
+    private synchronized void add(Run run, String summary)
+    {
+        runs.incrementAndGet();
+        if (run.error != null)
+        {
+            failures.incrementAndGet();
+        }
+        wallTime.addAndGet(run.time);
+        for (CommandMetrics command : run.getCommands())
+        {
+            CommandMetrics total = commands.get(command.getName());
+            if (total == null)
+            {
+                total = new CommandMetrics(command.getName());
+                commands.put(command.getName(), total);
+            }
+            total.add(command);
+        }
+        lastRun = summary;
+    }
+
+    /**
+     * Writes the metrics of a command as a JSON object.
+     *
+     * @param metrics CommandMetrics of the command.
+     * @return String the JSON object.
+     */
+    static String toJson(CommandMetrics metrics)
+    {
+        StringBuilder json = new StringBuilder();
+        json.append("{\"name\":").append(Json.quote(metrics.getName()));
+        json.append(",\"invocations\":").append(metrics.getInvocations());
+        json.append(",\"wallTime\":").append(metrics.getWallTime());
+        json.append(",\"cpuTime\":").append(metrics.getCpuTime());
+        json.append(",\"allocatedBytes\":").append(metrics.getAllocatedBytes());
+        json.append(",\"filesParsed\":").append(metrics.getFilesParsed());
+        json.append(",\"bytesRead\":").append(metrics.getBytesRead());
+        json.append(",\"bytesWritten\":").append(metrics.getBytesWritten());
+        json.append(",\"cacheHits\":").append(metrics.getCacheHits());
+        json.append("}");
+        return json.toString();
+    }
+
+    /**
+     * The metrics of one run of the chain.
+     */
+    public class Run
+    {
+        /**
+         * The values of the Context that tell which course was converted.
+         */
+        private Map<String, Object> course = new LinkedHashMap<String, Object>();
+
+        /**
+         * The metrics of the commands of the run in the order they were
+         * added.
+         */
+        private Map<String, CommandMetrics> runCommands = new LinkedHashMap<String, CommandMetrics>();
+
+        /**
+         * Time the run started.
+         */
+        private Date started = new Date();
+
+        /**
+         * Value of System.nanoTime() when the run started.
+         */
+        private long start = System.nanoTime();
+
+        /**
+         * Number of nanoseconds the run took.
+         */
+        private long time;
+
+        /**
+         * The exception the run ended with.
+         */
+        private Throwable error;
+
+        /**
+         * Constructor
+         *
+         * @param ctx Context the chain is run with.
+         */
+        Run(Context ctx)
+        {
+            course.put("scpm", ctx.get(Keys.SCPM_FILE));
+            course.put("resourcePackage", ctx.get(Keys.RESOURCE_PACKAGE));
+            course.put("outputType", ctx.get(Keys.OUTPUT_TYPE));
+            course.put("pdfOutputOption", ctx.get(Keys.PDF_OUTPUT_OPTION));
+            course.put("outputDirectory", ctx.get(Keys.OUTPUT_DIRECTORY));
+        }
+
+        /**
+         * Returns the metrics of a command of the run.  The metrics of the
+         * commands have to be added before the run ends.
+         *
+         * @param commandName String that is the name of the command.
+         * @return CommandMetrics of the command.
+         */
+        public synchronized CommandMetrics getCommand(String commandName)
+        {
+            CommandMetrics metrics = runCommands.get(commandName);
+            if (metrics == null)
+            {
+                metrics = new CommandMetrics(commandName);
+                runCommands.put(commandName, metrics);
+            }
+            return metrics;
+        }
+
+        /**
+         * @return List<CommandMetrics> of the metrics of the commands of the
+         * run.
+         */
+        public synchronized List<CommandMetrics> getCommands()
+        {
+            return new ArrayList<CommandMetrics>(runCommands.values());
+        }
+
+        /**
+         * Ends the run, adding its metrics to the metrics of the chain and
+         * writing its summary to the metrics directory if one is set.
+         *
+         * @param iError Throwable the run ended with, or null.
+         * @return File the summary was written to, or null if it was not
+         * written.
+         */
+        public File finish(Throwable iError)
+        {
+            time = System.nanoTime() - start;
+            error = iError;
+            String summary = toJson();
+            add(this, summary);
+
+            String dir = System.getProperty(METRICS_DIR_PROPERTY, "");
+            if (dir.length() == 0)
+            {
+                return null;
+            }
+            File file = new File(dir, "metrics-" + name + "-" +
+                                 new SimpleDateFormat("yyyyMMdd-HHmmss-SSS").format(started) + "-" +
+                                 summaries.incrementAndGet() + ".json");
+            try
+            {
+                file.getParentFile().mkdirs();
+                OutputStream out = new FileOutputStream(file);
+                try
+                {
+                    out.write(summary.getBytes("UTF-8"));
+                }
+                finally
+                {
+                    out.close();
+                }
+                return file;
+            }
+            catch (IOException e)
+            {
+                System.out.println("The metrics of the run could not be written to " + file + ": " + e);
+                return null;
+            }
+        }
+
+        /**
+         * Writes the run as a JSON object.
+         *
+         * @return String the JSON object.
+         */
+        public String toJson()
+        {
+            CommandMetrics total = new CommandMetrics("total");
+            StringBuilder json = new StringBuilder();
+            json.append("{\n\"chain\":").append(Json.quote(name));
+            for (Map.Entry<String, Object> value : course.entrySet())
+            {
+                String text = value.getValue() == null ? null : value.getValue().toString();
+                json.append(",\n\"").append(value.getKey()).append("\":").append(Json.quote(text));
+            }
+            json.append(",\n\"started\":").append(Json.quote(
+                    new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss.SSSZ").format(started)));
+            json.append(",\n\"wallTime\":").append(time / 1000000);
+            json.append(",\n\"error\":").append(Json.quote(error == null ? null : error.toString()));
+            json.append(",\n\"commands\":[");
+            List<CommandMetrics> list = getCommands();
+            for (int i = 0; i < list.size(); i++)
+            {
+                json.append(i == 0 ? "\n" : ",\n").append(ChainMetrics.toJson(list.get(i)));
+                total.add(list.get(i));
+            }
+            json.append("\n],\n\"total\":").append(ChainMetrics.toJson(total));
+            json.append("\n}\n");
+            return json.toString();
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.util.List;
+
+import bridge.toolkit.util.CommandMetrics;
+
+/**
+ * Management interface of the metrics of a chain, registered with the
+ * platform MBean server as bridge.toolkit:type=Chain,name=<chain name>.
+ */
+public interface ChainMetricsMXBean
+{
+    /**
+     * @return String the name of the chain.
+     */
+    String getName();
+
+    /**
+     * @return long the number of times the chain was run.
+     */
+    long getRuns();
+
+    /**
+     * @return long the number of runs that ended with an exception.
+     */
+    long getFailures();
+
+    /**
+     * @return long the number of milliseconds the runs took.
+     */
+    long getWallTime();
+
+    /**
+     * @return List<CommandMetrics> of the metrics of the commands of the
+     * chain added up over all of the runs.
+     */
+    List<CommandMetrics> getCommands();
+
+    /**
+     * @return String the JSON summary of the last run, or null if the chain
+     * was not run yet.
+     */
+    String getLastRun();
+
+    /**
+     * Sets the metrics back to zero.
+     */
+    void reset();
+}
@@ -53,7 +53,7 @@ public class Controller
      * Creates the Catalog object based off of the configuration file. 
      * @return Catalog object that contains the set of commands to be performed.
      */
-    public Catalog createCatalog()
+    public synchronized Catalog createCatalog()
     {
         if (catalog == null)
         {
@@ -75,58 +75,77 @@ public class Controller
     }
 
     /**
-     * @param args
+     * Returns the chain for the command line arguments and puts the values
+     * of the arguments in the Context.
+     * 
+     * @param ctx Context that the conversion is run with.
+     * @param args String[] that holds the SCPM file, the resource package 
+     * and optionally the output type, the output directory and -incremental.
+     * @return Command that is the chain to execute.
      */
-    public static void main(String[] args)
+    public Command configure(Context ctx, String[] args)
     {
-        Controller loader = new Controller();
-        Catalog sampleCatalog = loader.createCatalog();
+        Catalog sampleCatalog = createCatalog();
         Command toolkit = sampleCatalog.getCommand("SCORM");
-        Context ctx = new ContextBase();
         
         ctx.put(Keys.SCPM_FILE, args[0]);
         ctx.put(Keys.RESOURCE_PACKAGE, args[1]);
-        try
-        {
         
-        	if (args.length > 2)
-        	{
-        		if (args[2] != null && args[2].equalsIgnoreCase("-scormflash"))
-  				{
-        			toolkit = sampleCatalog.getCommand("SCORM");
-        			ctx.put(Keys.OUTPUT_TYPE, null);
-   				}
-        		else if (args[2] != null && args[2].equalsIgnoreCase("-scormhtml"))
-  				{
-        			toolkit = sampleCatalog.getCommand("SCORM");
-        			ctx.put(Keys.OUTPUT_TYPE, "SCORMHTML");
-   				}
-        	    else if(args.length>2 && args[2] != null && (args[2].equalsIgnoreCase("-mobileCourse")))
-        	    {
-        	        toolkit = sampleCatalog.getCommand("Mobile"); 
-        	        ctx.put(Keys.OUTPUT_TYPE, "mobileCourse");
-        	    }
-        	    else if(args.length>2 && args[2] != null && (args[2].equalsIgnoreCase("-mobilePerformanceSupport")))
-        	    {
-        	        toolkit = sampleCatalog.getCommand("Mobile");
-        	    }
-        		else if (args[2] != null && args[2].equalsIgnoreCase("-pdfinstructor"))
-  				{
-        			toolkit = sampleCatalog.getCommand("PDF");
-                    ctx.put(Keys.PDF_OUTPUT_OPTION,"-instructor");
-   				}
-        		else if (args[2] != null && args[2].equalsIgnoreCase("-pdfstudent"))
-  				{
-        			toolkit = sampleCatalog.getCommand("PDF");
-                    ctx.put(Keys.PDF_OUTPUT_OPTION,"-student");
-   				}
-        		
-        		if (args.length > 3 && args[3] != null)
-        		{
-        			ctx.put(Keys.OUTPUT_DIRECTORY, args[3]);
-        		}
-        	}
+    	if (args.length > 2)
+    	{
+    		if (args[2] != null && args[2].equalsIgnoreCase("-scormflash"))
+			{
+    			toolkit = sampleCatalog.getCommand("SCORM");
+    			ctx.put(Keys.OUTPUT_TYPE, null);
+			}
+    		else if (args[2] != null && args[2].equalsIgnoreCase("-scormhtml"))
+			{
+    			toolkit = sampleCatalog.getCommand("SCORM");
+    			ctx.put(Keys.OUTPUT_TYPE, "SCORMHTML");
+			}
+    	    else if(args.length>2 && args[2] != null && (args[2].equalsIgnoreCase("-mobileCourse")))
+    	    {
+    	        toolkit = sampleCatalog.getCommand("Mobile"); 
+    	        ctx.put(Keys.OUTPUT_TYPE, "mobileCourse");
+    	    }
+    	    else if(args.length>2 && args[2] != null && (args[2].equalsIgnoreCase("-mobilePerformanceSupport")))
+    	    {
+    	        toolkit = sampleCatalog.getCommand("Mobile");
+    	    }
+    		else if (args[2] != null && args[2].equalsIgnoreCase("-pdfinstructor"))
+			{
+    			toolkit = sampleCatalog.getCommand("PDF");
+                ctx.put(Keys.PDF_OUTPUT_OPTION,"-instructor");
+			}
+    		else if (args[2] != null && args[2].equalsIgnoreCase("-pdfstudent"))
+			{
+    			toolkit = sampleCatalog.getCommand("PDF");
+                ctx.put(Keys.PDF_OUTPUT_OPTION,"-student");
+			}
+    		
+    		if (args.length > 3 && args[3] != null)
+    		{
+    			ctx.put(Keys.OUTPUT_DIRECTORY, args[3]);
+    		}
+    		
+    		if (args.length > 4 && args[4] != null && args[4].equalsIgnoreCase("-incremental"))
+    		{
+    			ctx.put(Keys.INCREMENTAL, args[0]);
+    		}
+    	}
+    	return toolkit;
+    }
 
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        Controller loader = new Controller();
+        Context ctx = new ContextBase();
+        try
+        {
+            Command toolkit = loader.configure(ctx, args);
             toolkit.execute(ctx);
         }
         catch (Exception e)
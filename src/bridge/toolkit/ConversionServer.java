@@ -0,0 +1,459 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import bridge.toolkit.util.Json;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Runs conversions for other programs on the same machine, so the JVM, the
+ * catalog, the compiled style sheets and the cached documents stay loaded
+ * between them.
+ *
+ * The service listens on the loopback address only and takes JSON requests:
+ * <ul>
+ * <li>POST /jobs with an object that has the "scpm" file, the
+ * "resourcePackage", optionally the output "type" such as "-scormhtml",
+ * which selects the chain like on the command line, the "output" directory
+ * and "incremental": true.  The answer is the job with its "id".</li>
+ * <li>GET /jobs/{id} returns the "status" of the job, the "seconds" it took
+ * and the "artifact" it produced: the zip file, the mobile output directory
+ * or the PDF file.</li>
+ * <li>GET /jobs returns all of the jobs.</li>
+ * </ul>
+ * The jobs wait in a queue of limited size for one of the workers; a job
+ * that does not fit in the queue is refused with 503.
+ *
+ * Usage: ConversionServer [-port n] [-workers n] [-queue n]
+ */
+public class ConversionServer
+{
+    /**
+     * Port the service listens on when no -port is given.
+     */
+    public static final int DEFAULT_PORT = 8765;
+
+    /**
+     * Number of jobs that can wait for a worker when no -queue is given.
+     */
+    public static final int DEFAULT_QUEUE = 100;
+
+    /**
+     * Number of finished jobs that are kept for their status to be read.
+     */
+    private static final int MAX_FINISHED = 1000;
+
+    /**
+     * The output types a job can have.
+     */
+    private static final List<String> TYPES = Arrays.asList("-scormflash", "-scormhtml", "-mobileCourse",
+            "-mobilePerformanceSupport", "-pdfinstructor", "-pdfstudent");
+
+    /**
+     * Controller that provides the catalog shared by all of the jobs.
+     */
+    private Controller controller = new Controller();
+
+    /**
+     * The HTTP server.
+     */
+    private HttpServer server;
+
+    /**
+     * The workers that run the jobs and the queue they take them from.
+     */
+    private ThreadPoolExecutor workers;
+
+    /**
+     * The jobs keyed by id in the order they were submitted.
+     */
+    private Map<Integer, BatchController.Job> jobs = new LinkedHashMap<Integer, BatchController.Job>();
+
+    /**
+     * Id of the next job.
+     */
+    private AtomicInteger nextId = new AtomicInteger(1);
+
+    /**
+     * Constructor
+     *
+     * @param port int that is the port to listen on, 0 for any free port.
+     * @param workerCount int that is the number of jobs that run at the same time.
+     * @param queueSize int that is the number of jobs that can wait for a worker.
+     * @throws IOException if the port cannot be opened.
+     */
+    public ConversionServer(int port, int workerCount, int queueSize) throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getByName("127.0.0.1"), port), 0);
+        server.createContext("/jobs", new JobsHandler());
+        workers = new ThreadPoolExecutor(Math.max(1, workerCount), Math.max(1, workerCount), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(Math.max(1, queueSize)));
+    }
+
+    /**
+     * Starts taking requests.
+     */
+    public void start()
+    {
+        server.start();
+    }
+
+    /**
+     * Stops taking requests.  The jobs that were submitted are still run.
+     */
+    public void stop()
+    {
+        server.stop(0);
+        workers.shutdown();
+    }
+
+    /**
+     * @return int the port the service listens on.
+     */
+    public int getPort()
+    {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Queues a job.
+     *
+     * @param request Map<String, Object> that holds the values of the request.
+     * @return int the id of the job.
+     * @throws IllegalArgumentException if a value of the request is missing
+     * or wrong.
+     * @throws RejectedExecutionException if the queue is full.
+     */
+    public int submit(Map<String, Object> request)
+    {
+        String scpm = getString(request, "scpm");
+        String resourcePackage = getString(request, "resourcePackage");
+        String type = getString(request, "type");
+        String output = getString(request, "output");
+        if (scpm == null || !new File(scpm).isFile())
+        {
+            throw new IllegalArgumentException("The scpm file " + scpm + " does not exist");
+        }
+        if (resourcePackage == null || !new File(resourcePackage).isDirectory())
+        {
+            throw new IllegalArgumentException("The resourcePackage directory " + resourcePackage + " does not exist");
+        }
+        if (type == null)
+        {
+            type = BatchController.DEFAULT_TYPE;
+        }
+        else if (!type.startsWith("-"))
+        {
+            type = "-" + type;
+        }
+        boolean known = false;
+        for (String option : TYPES)
+        {
+            known |= option.equalsIgnoreCase(type);
+        }
+        if (!known)
+        {
+            throw new IllegalArgumentException("The type must be one of " + TYPES);
+        }
+
+        String[] args = new String[] { scpm, resourcePackage, type, output == null ? "" : output,
+                Boolean.TRUE.equals(request.get("incremental")) ? "-incremental" : "" };
+        final BatchController.Job job = new BatchController.Job(args);
+        int id = nextId.getAndIncrement();
+        synchronized (jobs)
+        {
+            workers.execute(new Runnable()
+            {
+                public void run()
+                {
+                    job.run(controller);
+                }
+            });
+            jobs.put(id, job);
+            removeFinished();
+        }
+        return id;
+    }
+
+    /**
+     * Returns a job.
+     *
+     * @param id int that is the id of the job.
+     * @return BatchController.Job the job, or null if there is no job with
+     * the id.
+     */
+    public BatchController.Job getJob(int id)
+    {
+        synchronized (jobs)
+        {
+            return jobs.get(id);
+        }
+    }
+
+    /**
+     * Removes the oldest finished jobs when more than MAX_FINISHED are kept.
+     */
+    private void removeFinished()
+    {
+        int finished = 0;
+        for (BatchController.Job job : jobs.values())
+        {
+            if (isFinished(job))
+            {
+                finished++;
+            }
+        }
+        Iterator<BatchController.Job> iterator = jobs.values().iterator();
+        while (finished > MAX_FINISHED && iterator.hasNext())
+        {
+            if (isFinished(iterator.next()))
+            {
+                iterator.remove();
+                finished--;
+            }
+        }
+    }
+
+    /**
+     * @param job BatchController.Job to check.
+     * @return boolean true if the job is no longer waiting or running.
+     */
+    private static boolean isFinished(BatchController.Job job)
+    {
+        return !job.getStatus().equals("WAITING") && !job.getStatus().equals("RUNNING");
+    }
+
+    /**
+     * Returns a string value of a request.
+     *
+     * @param request Map<String, Object> that holds the values of the request.
+     * @param name String that is the name of the value.
+     * @return String the value, or null if it is missing or empty.
+     */
+    private static String getString(Map<String, Object> request, String name)
+    {
+        Object value = request.get(name);
+        if (value != null && !(value instanceof String))
+        {
+            throw new IllegalArgumentException("The " + name + " must be a string");
+        }
+        return value == null || ((String) value).length() == 0 ? null : (String) value;
+    }
+
+    /**
+     * Writes a job as a JSON object.
+     *
+     * @param id int that is the id of the job.
+     * @param job BatchController.Job to write.
+     * @return String the JSON object.
+     */
+    static String toJson(int id, BatchController.Job job)
+    {
+        String[] args = job.getArgs();
+        StringBuilder json = new StringBuilder();
+        json.append("{\"id\":").append(id);
+        json.append(",\"status\":").append(Json.quote(job.getStatus()));
+        json.append(",\"type\":").append(Json.quote(job.getType()));
+        json.append(",\"scpm\":").append(Json.quote(args[0]));
+        json.append(",\"resourcePackage\":").append(Json.quote(args[1]));
+        json.append(",\"output\":").append(Json.quote(args[3]));
+        json.append(",\"seconds\":").append(job.getTime() / 1000.0);
+        json.append(",\"artifact\":").append(Json.quote(job.getArtifact()));
+        json.append("}");
+        return json.toString();
+    }
+
+    /**
+     * Answers the requests to /jobs.
+     */
+    private class JobsHandler implements HttpHandler
+    {
+        /**
+         * @see com.sun.net.httpserver.HttpHandler#handle(com.sun.net.httpserver.HttpExchange)
+         */
+        public void handle(HttpExchange exchange) throws IOException
+        {
+            try
+            {
+                String path = exchange.getRequestURI().getPath();
+                String method = exchange.getRequestMethod();
+                if (path.equals("/jobs") || path.equals("/jobs/"))
+                {
+                    if (method.equals("POST"))
+                    {
+                        String body = new String(read(exchange.getRequestBody()), "UTF-8");
+                        try
+                        {
+                            int id = submit(Json.parseObject(body));
+                            send(exchange, 202, toJson(id, getJob(id)));
+                        }
+                        catch (IllegalArgumentException e)
+                        {
+                            send(exchange, 400, error(e.getMessage()));
+                        }
+                        catch (RejectedExecutionException e)
+                        {
+                            send(exchange, 503, error("The queue is full"));
+                        }
+                    }
+                    else if (method.equals("GET"))
+                    {
+                        List<String> list = new ArrayList<String>();
+                        synchronized (jobs)
+                        {
+                            for (Map.Entry<Integer, BatchController.Job> entry : jobs.entrySet())
+                            {
+                                list.add(toJson(entry.getKey(), entry.getValue()));
+                            }
+                        }
+                        StringBuilder json = new StringBuilder("{\"jobs\":[");
+                        for (int i = 0; i < list.size(); i++)
+                        {
+                            json.append(i > 0 ? "," : "").append(list.get(i));
+                        }
+                        send(exchange, 200, json.append("]}").toString());
+                    }
+                    else
+                    {
+                        send(exchange, 405, error("Use GET or POST"));
+                    }
+                }
+                else if (method.equals("GET") && path.matches("/jobs/\\d{1,9}"))
+                {
+                    int id = Integer.parseInt(path.substring("/jobs/".length()));
+                    BatchController.Job job = getJob(id);
+                    if (job != null)
+                    {
+                        send(exchange, 200, toJson(id, job));
+                    }
+                    else
+                    {
+                        send(exchange, 404, error("There is no job " + id));
+                    }
+                }
+                else
+                {
+                    send(exchange, 404, error("Unknown request " + method + " " + path));
+                }
+            }
+            finally
+            {
+                exchange.close();
+            }
+        }
+
+        /**
+         * @param message String that describes the error.
+         * @return String the JSON object of the error.
+         */
+        private String error(String message)
+        {
+            return "{\"error\":" + Json.quote(message) + "}";
+        }
+
+        /**
+         * Sends the answer to a request.
+         *
+         * @param exchange HttpExchange of the request.
+         * @param status int that is the HTTP status code.
+         * @param json String that is the JSON of the answer.
+         * @throws IOException
+         */
+        private void send(HttpExchange exchange, int status, String json) throws IOException
+        {
+            byte[] data = json.getBytes("UTF-8");
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=UTF-8");
+            exchange.sendResponseHeaders(status, data.length);
+            OutputStream out = exchange.getResponseBody();
+            out.write(data);
+            out.close();
+        }
+
+        /**
+         * Reads the rest of a stream.
+         *
+         * @param in InputStream to read.
+         * @return byte[] the bytes that were read.
+         * @throws IOException
+         */
+        private byte[] read(InputStream in) throws IOException
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int count;
+            while ((count = in.read(buffer)) != -1)
+            {
+                out.write(buffer, 0, count);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        int port = DEFAULT_PORT;
+        int workerCount = 1;
+        int queueSize = DEFAULT_QUEUE;
+        for (int i = 0; i < args.length - 1; i++)
+        {
+            if (args[i].equalsIgnoreCase("-port"))
+            {
+                port = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equalsIgnoreCase("-workers"))
+            {
+                workerCount = Integer.parseInt(args[++i]);
+            }
+            else if (args[i].equalsIgnoreCase("-queue"))
+            {
+                queueSize = Integer.parseInt(args[++i]);
+            }
+        }
+
+        try
+        {
+            final ConversionServer service = new ConversionServer(port, workerCount, queueSize);
+            Runtime.getRuntime().addShutdownHook(new Thread()
+            {
+                public void run()
+                {
+                    service.stop();
+                }
+            });
+            service.start();
+            System.out.println("Conversion service listening on http://127.0.0.1:" + service.getPort() + "/jobs");
+        }
+        catch (IOException e)
+        {
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,242 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+
+import org.apache.commons.chain.Command;
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.Filter;
+import org.apache.commons.chain.impl.ChainBase;
+
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
+import bridge.toolkit.util.StepGraph;
+
+/**
+ * Chain that runs its commands by what they read and write instead of
+ * strictly one after the other.  It is used by giving its class name to a
+ * chain of the chain-config.xml file.
+ *
+ * A command that implements ContextAccess runs as soon as the commands before
+ * it that write what it reads, or read or write what it writes, are done.  A
+ * command that does not declare what it reads and writes waits for all of the
+ * commands before it, and the commands after it wait for it.  As in a
+ * ChainBase, a command that returns true or throws an exception keeps the
+ * commands that have not started from running.  A chain with a Filter runs
+ * like a ChainBase.
+ *
+ * Each run of the chain measures the commands it runs with CommandMetrics.
+ * The metrics of the runs are added up in the ChainMetrics of the chain name,
+ * which are available over JMX, and a JSON summary of each run is written
+ * when it ends.  A chain that runs as a command of another chain is measured
+ * as that command, and a chain with a Filter is not measured.
+ */
+public class DependencyChain extends ChainBase
+{
+    /**
+     * Name of the chain, set from the name attribute of the chain-config.xml
+     * file.
+     */
+    private String name = "DependencyChain";
+
+    /**
+     * @return String the name of the chain.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @param iName String that is the name of the chain.
+     */
+    public void setName(String iName)
+    {
+        name = iName;
+    }
+
+    /**
+     * @see org.apache.commons.chain.impl.ChainBase#execute(org.apache.commons.chain.Context)
+     */
+    @Override
+    public boolean execute(Context context) throws Exception
+    {
+        if (context == null)
+        {
+            throw new IllegalArgumentException();
+        }
+        frozen = true;
+        for (Command command : commands)
+        {
+            if (command instanceof Filter)
+            {
+                return super.execute(context);
+            }
+        }
+
+        //the commands that run at the same time share the Context
+        final Context shared = new SynchronizedContext(context);
+        final ChainMetrics.Run run = CommandMetrics.current() == null ?
+                ChainMetrics.getInstance(name).startRun(context) : null;
+        StepGraph graph = new StepGraph();
+        for (final Command command : commands)
+        {
+            Collection<String> reads = null;
+            Collection<String> writes = null;
+            if (command instanceof ContextAccess)
+            {
+                reads = ((ContextAccess) command).getReads();
+                writes = ((ContextAccess) command).getWrites();
+            }
+            String commandName = command.getClass().getSimpleName();
+            if (graph.getNames().contains(commandName))
+            {
+                commandName += "#" + (graph.getNames().size() + 1);
+            }
+            final CommandMetrics metrics = run == null ? null : run.getCommand(commandName);
+            graph.add(commandName, reads, writes, new StepGraph.Action()
+            {
+                public boolean run() throws Exception
+                {
+                    if (metrics == null)
+                    {
+                        return command.execute(shared);
+                    }
+                    return metrics.record(new Callable<Boolean>()
+                    {
+                        public Boolean call() throws Exception
+                        {
+                            return Boolean.valueOf(command.execute(shared));
+                        }
+                    }).booleanValue();
+                }
+            });
+        }
+
+        Throwable error = null;
+        try
+        {
+            return graph.run();
+        }
+        catch (Exception e)
+        {
+            error = e;
+            throw e;
+        }
+        catch (Error e)
+        {
+            error = e;
+            throw e;
+        }
+        finally
+        {
+            if (run != null)
+            {
+                run.finish(error);
+            }
+        }
+    }
+
+    /**
+     * Context whose methods are synchronized on it, so the commands that run
+     * at the same time can use it.
+     */
+    @SuppressWarnings({ "rawtypes", "unchecked" })
+    private static class SynchronizedContext implements Context
+    {
+        /**
+         * The synchronized view of the Context of the chain.
+         */
+        private Map map;
+
+        /**
+         * Constructor
+         *
+         * @param context Context of the chain.
+         */
+        SynchronizedContext(Context context)
+        {
+            map = Collections.synchronizedMap(context);
+        }
+
+        public int size()
+        {
+            return map.size();
+        }
+
+        public boolean isEmpty()
+        {
+            return map.isEmpty();
+        }
+
+        public boolean containsKey(Object key)
+        {
+            return map.containsKey(key);
+        }
+
+        public boolean containsValue(Object value)
+        {
+            return map.containsValue(value);
+        }
+
+        public Object get(Object key)
+        {
+            return map.get(key);
+        }
+
+        public Object put(Object key, Object value)
+        {
+            return map.put(key, value);
+        }
+
+        public Object remove(Object key)
+        {
+            return map.remove(key);
+        }
+
+        public void putAll(Map values)
+        {
+            map.putAll(values);
+        }
+
+        public void clear()
+        {
+            map.clear();
+        }
+
+        public Set keySet()
+        {
+            return map.keySet();
+        }
+
+        public Collection values()
+        {
+            return map.values();
+        }
+
+        public Set entrySet()
+        {
+            return map.entrySet();
+        }
+
+        @Override
+        public boolean equals(Object other)
+        {
+            return map.equals(other);
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return map.hashCode();
+        }
+    }
+}
@@ -0,0 +1,263 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.commons.chain.Catalog;
+import org.apache.commons.chain.Command;
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+import org.jdom.Document;
+
+import bridge.toolkit.util.Keys;
+
+/**
+ * Produces several outputs of a course from one conversion of the input.
+ *
+ * The SCPM is converted by the Convert chain and, when a SCORM output is
+ * asked for, turned into the imsmanifest.xml by the SCORMManifest chain
+ * once.  The output chains (SCORMOutput, MobileOutput and PDFOutput) then
+ * run for each output type with a copy of that Context, writing to a
+ * directory named after the output type under the output directory.
+ *
+ * Unless -sequential is given, every output runs on a thread of its own.
+ *
+ * Usage: FanOutController &lt;SCPM file&gt; &lt;resource package&gt; [output directory] [-type option]... [-sequential]
+ */
+public class FanOutController
+{
+    /**
+     * The output types that are produced when no -type is given.
+     */
+    public static final List<String> ALL_TYPES = Arrays.asList("-scormflash", "-scormhtml",
+            "-mobilePerformanceSupport", "-mobileCourse", "-pdfstudent", "-pdfinstructor");
+
+    /**
+     * Controller that provides the catalog and sets the options of each
+     * output type.
+     */
+    private Controller controller = new Controller();
+
+    /**
+     * Indicates if the outputs run at the same time.
+     */
+    private boolean parallel;
+
+    /**
+     * Number of nanoseconds taken by the last run.
+     */
+    private long time;
+
+    /**
+     * Constructor
+     *
+     * @param iParallel boolean that is true to run the outputs at the same
+     * time.
+     */
+    public FanOutController(boolean iParallel)
+    {
+        parallel = iParallel;
+    }
+
+    /**
+     * Produces the outputs of a course.
+     *
+     * @param scpm String that is the location of the SCPM file.
+     * @param resourcePackage String that is the location of the resource package.
+     * @param output String that is the directory the outputs go to, or null
+     * for the working directory.
+     * @param types List<String> of the output types, such as -scormflash.
+     * @return List<BatchController.Job> with the result of each output type.
+     * @throws Exception if the run is interrupted.
+     */
+    public List<BatchController.Job> run(String scpm, String resourcePackage, String output, List<String> types)
+            throws Exception
+    {
+        long start = System.nanoTime();
+        Catalog catalog = controller.createCatalog();
+        final List<BatchController.Job> jobs = new ArrayList<BatchController.Job>();
+        final List<Context> contexts = new ArrayList<Context>();
+        List<String> chains = new ArrayList<String>();
+        for (String type : types)
+        {
+            String outputDir = new File(output, type.substring(1)).getPath();
+            BatchController.Job job = new BatchController.Job(new String[] { scpm, resourcePackage, type, outputDir });
+            Context ctx = new ContextBase();
+            controller.configure(ctx, job.getArgs());
+            jobs.add(job);
+            contexts.add(ctx);
+            chains.add(getChainName(type));
+        }
+
+        //convert the input and create the manifest once
+        Context shared = new ContextBase();
+        shared.put(Keys.SCPM_FILE, scpm);
+        shared.put(Keys.RESOURCE_PACKAGE, resourcePackage);
+        boolean converted = !catalog.getCommand("Convert").execute(shared);
+        boolean manifest = false;
+        if (converted && chains.contains("SCORM"))
+        {
+            manifest = !catalog.getCommand("SCORMManifest").execute(shared);
+        }
+
+        List<Callable<Object>> tasks = new ArrayList<Callable<Object>>();
+        for (int i = 0; i < jobs.size(); i++)
+        {
+            if (!converted || (chains.get(i).equals("SCORM") && !manifest))
+            {
+                jobs.get(i).fail();
+                continue;
+            }
+            copySharedValues(shared, contexts.get(i));
+            final BatchController.Job job = jobs.get(i);
+            final Command chain = catalog.getCommand(chains.get(i) + "Output");
+            final Context ctx = contexts.get(i);
+            tasks.add(new Callable<Object>()
+            {
+                public Object call()
+                {
+                    job.execute(chain, ctx);
+                    return null;
+                }
+            });
+        }
+        if (parallel && tasks.size() > 1)
+        {
+            ExecutorService pool = Executors.newFixedThreadPool(tasks.size());
+            try
+            {
+                pool.invokeAll(tasks);
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+        }
+        else
+        {
+            for (Callable<Object> task : tasks)
+            {
+                task.call();
+            }
+        }
+        time = System.nanoTime() - start;
+        return jobs;
+    }
+
+    /**
+     * Returns a table with the status and time of each output of the last run.
+     *
+     * @param jobs List<BatchController.Job> of the outputs that were produced.
+     * @return String that is the summary table.
+     */
+    public String getSummary(List<BatchController.Job> jobs)
+    {
+        return BatchController.summarize(jobs, time);
+    }
+
+    /**
+     * Returns the name of the chain that produces an output type, without
+     * the Output suffix.
+     *
+     * @param type String that is the output type, such as -scormflash.
+     * @return String SCORM, Mobile or PDF.
+     */
+    static String getChainName(String type)
+    {
+        String option = type.toLowerCase();
+        if (option.startsWith("-mobile"))
+        {
+            return "Mobile";
+        }
+        else if (option.startsWith("-pdf"))
+        {
+            return "PDF";
+        }
+        else if (option.equals("-scormflash") || option.equals("-scormhtml"))
+        {
+            return "SCORM";
+        }
+        throw new IllegalArgumentException("Unknown output type " + type);
+    }
+
+    /**
+     * Puts the values the shared commands produced in the Context of an
+     * output.  The JDOM Documents are copied since the output chains change
+     * them, and the output directory of the output is kept.
+     *
+     * @param shared Context of the shared commands.
+     * @param ctx Context of the output.
+     */
+    @SuppressWarnings("unchecked")
+    private static void copySharedValues(Context shared, Context ctx)
+    {
+        for (Object key : shared.keySet())
+        {
+            if (Keys.OUTPUT_DIRECTORY.equals(key))
+            {
+                continue;
+            }
+            Object value = shared.get(key);
+            if (value instanceof Document)
+            {
+                value = ((Document) value).clone();
+            }
+            ctx.put(key, value);
+        }
+    }
+
+    /**
+     * @param args
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 2)
+        {
+            System.out.println("Usage: FanOutController <SCPM file> <resource package> [output directory] [-type option]... [-sequential]");
+            return;
+        }
+        String output = null;
+        List<String> types = new ArrayList<String>();
+        boolean parallel = true;
+        for (int i = 2; i < args.length; i++)
+        {
+            if (args[i].equalsIgnoreCase("-type") && i < args.length - 1)
+            {
+                types.add(args[++i]);
+            }
+            else if (args[i].equalsIgnoreCase("-sequential"))
+            {
+                parallel = false;
+            }
+            else
+            {
+                output = args[i];
+            }
+        }
+        if (types.isEmpty())
+        {
+            types.addAll(ALL_TYPES);
+        }
+
+        try
+        {
+            FanOutController fanOut = new FanOutController(parallel);
+            List<BatchController.Job> jobs = fanOut.run(args[0], args[1], output, types);
+            System.out.print(fanOut.getSummary(jobs));
+        }
+        catch (Exception e)
+        {
+            e.printStackTrace();
+        }
+    }
+}
@@ -10,7 +10,9 @@ import org.apache.commons.chain.Context;
 
 import java.io.File;
 import java.util.ArrayList;
+import bridge.toolkit.util.DocumentCache;
 import bridge.toolkit.util.Keys;
+import bridge.toolkit.util.TemplatesRegistry;
 
 /**
  * Command that clean out the context object and deletes files if necessary
@@ -26,6 +28,7 @@ public class CleanUp implements Command
 	{
 		System.out.println("Executing Clean Up");
 		ctx.put(Keys.CP_PACKAGE, null);
+		ctx.put(Keys.PACKAGE_TREE, null);
 		ctx.put(Keys.OUTPUT_DIRECTORY, null);
 		
 		if (ctx.get(Keys.MOBLIE_FILES_TO_DELETE) != null)
@@ -39,6 +42,14 @@ public class CleanUp implements Command
 			
 			ctx.put(Keys.MOBLIE_FILES_TO_DELETE,null);
 		}
+		
+		//report how much re-parsing and re-compiling the caches saved so far; the
+		//caches are shared by the runs of the whole process, so their statistics
+		//add up over all of them and are not reset here while other runs may
+		//still be adding to them
+		System.out.println(DocumentCache.getInstance().getStatistics());
+		System.out.println(TemplatesRegistry.getInstance().getStatistics());
+		ctx.put(Keys.RUN_COMPLETE, Boolean.TRUE);
 		System.out.println("Clean Up Complete");
 		return PROCESSING_COMPLETE;
 	}
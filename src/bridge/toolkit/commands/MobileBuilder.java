@@ -12,48 +12,60 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.InputStreamReader;
 import java.io.OutputStream;
 import java.io.Reader;
 import java.io.StringReader;
+import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
+import javax.xml.stream.XMLStreamException;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
+import javax.xml.transform.URIResolver;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.apache.commons.chain.Command;
 import org.apache.commons.chain.Context;
-import org.jdom.Attribute;
-import org.jdom.Document;
-import org.jdom.Element;
 import org.jdom.JDOMException;
 import org.jdom.Namespace;
-import org.jdom.output.Format;
-import org.jdom.output.XMLOutputter;
-import org.jdom.xpath.XPath;
+import org.jdom.transform.JDOMSource;
 
 import bridge.toolkit.packaging.ContentPackageCreator;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.CopyDirectory;
-import bridge.toolkit.util.DMParser;
+import bridge.toolkit.util.ExtractedDirectories;
 import bridge.toolkit.util.Keys;
+import bridge.toolkit.util.ReferenceExtractor;
+import bridge.toolkit.util.URNMap;
+import bridge.toolkit.util.ResourcePackageIndex;
+import bridge.toolkit.util.TemplatesRegistry;
 import bridge.toolkit.util.URNMapper;
 
-
+
 /**
  * Builds a HTML, CSS, and JQueryMobile based mobile web app output from the S1000D SCPM and referenced
  * data modules. 
  */
-public class MobileBuilder implements Command
+public class MobileBuilder implements Command, ContextAccess
 {
 
     /**
@@ -77,53 +89,104 @@ public class MobileBuilder implements Command
     private static final String DM_TRANSFORM_FILE_WITH_ASSESSMENTS = "dmStylesheetCourse.mobile.xsl";
 
     /**
-     * InputStream for the xsl file that is used to transform the SCPM file and data modules
-     * to mobile app html files.
+     * Name of the system property that sets the number of threads used to 
+     * render the mobile app pages.  A value of 0 or less uses one thread for 
+     * each processor and a value of 1 renders the pages on the calling thread.
      */
-    private static InputStream transform;
-    
+    public static final String THREADS_PROPERTY = "bridge.toolkit.mobileThreads";
+
+    /**
+     * URNMap that the style sheets read as the urn_resource_map.xml file and
+     * that is used to look up the files by URN.
+     */
+    private URNMap urn_map;
+
     /**
-     * JDOM Document that is used to create the urn_resource_map.xml file.
+     * Resolves the urn_resource_map.xml file of the style sheets to the 
+     * URNMap of this conversion.
      */
-    private static Document urn_map;
+    private URIResolver urn_resolver;
 
     /**
      * String that represents the location of the resource package.
      */
-    private static String src_dir;
+    private String src_dir;
     
     /**
      * String that represents the location of the SCPM file;
      */
-    private static String scpm_file;
+    private String scpm_file;
     
     /**
      * List of Strings that represent the files generated to produce the mobile app output.
      */
     private List<String> mobileList = new ArrayList<String>();
 
+    /**
+     * Number of milliseconds it took to render each mobile app page of the 
+     * conversion keyed by the name of the page.
+     */
+    private Map<String, Long> pageTimes = new LinkedHashMap<String, Long>();
+
     /**
      * Message that is returned if the MobileBuilder is unsuccessful.
      */
     private static final String MOBILEBUILDER_FAILED = "MobileBuilder processing was unsuccessful";
 
     /**
-     * List of files to delete when processing is complete
+     * The Context keys the MobileBuilder reads.
      */
-    private ArrayList<String> files_to_delete;
-
+    static final List<String> READS = Arrays.asList(Keys.SCPM_FILE, Keys.RESOURCE_PACKAGE, 
+            Keys.OUTPUT_DIRECTORY, Keys.OUTPUT_TYPE);
+
+    /**
+     * The Context keys the MobileBuilder writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.ARTIFACT);
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
+
     /** 
      * The unit of processing work to be performed for the MobileBuilder module.
+     * Each execution is done by a new MobileBuilder, since its fields hold the
+     * state of one conversion and the catalog shares the command between all
+     * of the conversions.
      * 
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
      */
     @Override
     public boolean execute(Context ctx)
+    {
+        return new MobileBuilder().process(ctx);
+    }
+
+    /**
+     * Builds the mobile app output.  This is called on a new MobileBuilder 
+     * for each conversion.
+     * 
+     * @param ctx Context of the conversion.
+     * @return boolean PROCESSING_COMPLETE if the building failed, 
+     * CONTINUE_PROCESSING otherwise.
+     */
+    boolean process(Context ctx)
     {
     	System.out.println("Executing Mobile Builder");
         if ((ctx.get(Keys.SCPM_FILE) != null) && (ctx.get(Keys.RESOURCE_PACKAGE) != null))
         {
-        	CopyDirectory cd = new CopyDirectory();
             src_dir = (String) ctx.get(Keys.RESOURCE_PACKAGE);
             scpm_file = (String) ctx.get(Keys.SCPM_FILE);
 
@@ -151,51 +214,22 @@ public class MobileBuilder implements Command
                 return PROCESSING_COMPLETE;
             }
 
-            urn_map = URNMapper.writeURNMap(src_files, "../media/");
+            urn_map = URNMapper.createURNMap(src_files, "../media/");
+            //the style sheets read the urn map from the ViewerApplication directory, 
+            //it is given to them from memory so conversions that run at the same 
+            //time do not overwrite each others map
+            urn_resolver = new URNMapResolver(urn_map);
             
-            //write urn map file out to the ViewerApplication directory temporarily.  
-            File js = null;
-            File jsviewer = null;
-            File xsldir = null;
+            //the ViewerApplication and xsl directories are copied from the jar when 
+            //they are not in the working directory and deleted when the last 
+            //conversion that uses them is finished.
             try
             {
-            	
-            	jsviewer= new File(System.getProperty("user.dir") + File.separator + "ViewerApplication");
-            	js = new File(System.getProperty("user.dir") + File.separator + "ViewerApplication/app/urn_resource_map.xml");
-            	//check if the directory exists if it does use it and set the file object to null so it will not be deleted
-            	// else copy it from the jar and delete it when finished processing.
-            	if (!(jsviewer.exists()))
-                {
-                	//System.out.println("Path directory creation " + jsapp.getAbsolutePath());
-                	jsviewer.mkdirs();
-                	cd.CopyJarFiles(this.getClass(), "ViewerApplication", jsviewer.getAbsolutePath());
-                }
-                else
-                {
-                	jsviewer = null;
-                }
-            	
-            	//check if the directory exists if it does use it and set the file object to null so it will not be deleted
-            	// else copy it from the jar and delete it when finished processing.
-                xsldir = new File(System.getProperty("user.dir") + File.separator + "xsl");
-                if (!(xsldir.exists()))
+                ExtractedDirectories.acquire(this.getClass(), "ViewerApplication", "xsl");
+                if (!build(ctx, src_files))
                 {
-                	//System.out.println("jsviewer directory creation " + jsviewer.getAbsolutePath());
-                	xsldir.mkdirs();
-                	cd.CopyJarFiles(this.getClass(), "xsl", xsldir.getAbsolutePath());
+                    return PROCESSING_COMPLETE;
                 }
-                else
-                {
-                	xsldir = null;
-                }
-                
-                XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-                FileWriter writer;
-                writer = new FileWriter(js);
-                outputter.output(urn_map, writer);
-                writer.flush();
-                writer.close();
-
             }
             catch (IOException e)
             {
@@ -203,193 +237,177 @@ public class MobileBuilder implements Command
                 e.printStackTrace();
                 return PROCESSING_COMPLETE;
             }
-            
-           String outputPath = "";
-            if (ctx.get(Keys.OUTPUT_DIRECTORY) != null)
+            finally
             {
-            	outputPath = (String)ctx.get(Keys.OUTPUT_DIRECTORY);
-            	if (outputPath.length() > 0)
-            	{
-            		outputPath = outputPath + File.separator;
-            	}
+                ExtractedDirectories.release();
             }
+            System.out.println("MobileBuilder processing was successful");
             
-            //create new directory and folder for mobile_output
-            File newMobApp = createOutputLocation(outputPath);
+        }
+        return CONTINUE_PROCESSING;
 
-            //transform SCPM to main index.htm file
-            try
-            {
-                transformSCPM(newMobApp, ctx.get(Keys.OUTPUT_TYPE));
-            }
-            catch (FileNotFoundException e)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (TransformerConfigurationException e1)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e1.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (TransformerException e)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
+    }
 
-            //parse SCPM for list of files in each scoEntry to create the individual mobile app pages
-            try
-            {
-            		generateMobilePages(newMobApp, (String)ctx.get(Keys.OUTPUT_TYPE));
+    /**
+     * Writes the pages, the list.js file, the mobile app files and the media 
+     * files of the mobile output.
+     * 
+     * @param ctx Context of the conversion.
+     * @param src_files List of the files in the resource package.
+     * @return boolean true if the mobile output was written, false otherwise.
+     */
+    private boolean build(Context ctx, List<File> src_files)
+    {
+        CopyDirectory cd = new CopyDirectory();
+        String outputPath = "";
+        if (ctx.get(Keys.OUTPUT_DIRECTORY) != null)
+        {
+        	outputPath = (String)ctx.get(Keys.OUTPUT_DIRECTORY);
+        	if (outputPath.length() > 0)
+        	{
+        		outputPath = outputPath + File.separator;
+        	}
+        }
+        
+        //create new directory and folder for mobile_output
+        File newMobApp = createOutputLocation(outputPath);
 
-            }
-            catch (TransformerConfigurationException e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (FileNotFoundException e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (JDOMException e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (IOException e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (TransformerFactoryConfigurationError e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            catch (TransformerException e2)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e2.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            
-            //create list.js file
-            try
+        //transform SCPM to main index.htm file
+        try
+        {
+            transformSCPM(newMobApp, ctx.get(Keys.OUTPUT_TYPE));
+        }
+        catch (FileNotFoundException e)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e.printStackTrace();
+            return false;
+        }
+        catch (TransformerConfigurationException e1)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e1.printStackTrace();
+            return false;
+        }
+        catch (TransformerException e)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e.printStackTrace();
+            return false;
+        }
+
+        //parse SCPM for list of files in each scoEntry to create the individual mobile app pages
+        try
+        {
+        		generateMobilePages(newMobApp, (String)ctx.get(Keys.OUTPUT_TYPE));
+
+        }
+        catch (TransformerConfigurationException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (FileNotFoundException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (JDOMException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (IOException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (TransformerFactoryConfigurationError e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (TransformerException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        catch (XMLStreamException e2)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e2.printStackTrace();
+            return false;
+        }
+        
+        //create list.js file
+        try
+        {
+            generateListFile(newMobApp);
+        }
+        catch (IOException e1)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e1.printStackTrace();
+            return false;
+        }
+        catch (JDOMException e1)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e1.printStackTrace();
+            return false;
+        }
+        
+        try
+        {
+            //copy over css and jquery mobile files              
+            File mobiApp_loc = new File(System.getProperty("user.dir") + File.separator + "mobiApp");
+            //check if the directory exists if it does use it else copy it from the jar
+            if (mobiApp_loc.exists())
             {
-                generateListFile(newMobApp);
+            	cd.copyDirectory(mobiApp_loc, newMobApp);
             }
-            catch (IOException e1)
+            else
             {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e1.printStackTrace();
-                return PROCESSING_COMPLETE;
+            	cd.CopyJarFiles(this.getClass(),"mobiApp",newMobApp.getAbsolutePath());
             }
-            catch (JDOMException e1)
+             
+            //copy commonmobile.js
+            File commonmobile_js = new File(System.getProperty("user.dir") + File.separator +   "xsl" + File.separator + "bridge" + File.separator + "toolkit" + File.separator + "commands" + File.separator + "commonmobile.js");
+            //check if the directory exists if it does use it else copy it from the jar
+            if (commonmobile_js.exists())
             {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e1.printStackTrace();
-                return PROCESSING_COMPLETE;
+            	cd.copyDirectory(commonmobile_js, newMobApp);
             }
-            
-            try
-            {
-                //copy over css and jquery mobile files              
-                File mobiApp_loc = new File(System.getProperty("user.dir") + File.separator + "mobiApp");
-                //check if the directory exists if it does use it else copy it from the jar
-                if (mobiApp_loc.exists())
-                {
-                	cd.copyDirectory(mobiApp_loc, newMobApp);
-                }
-                else
-                {
-                	cd.CopyJarFiles(this.getClass(),"mobiApp",newMobApp.getAbsolutePath());
-                }
-                 
-                //copy commonmobile.js
-                File commonmobile_js = new File(System.getProperty("user.dir") + File.separator +   "xsl" + File.separator + "bridge" + File.separator + "toolkit" + File.separator + "commands" + File.separator + "commonmobile.js");
-                //check if the directory exists if it does use it else copy it from the jar
-                if (commonmobile_js.exists())
-                {
-                	cd.copyDirectory(commonmobile_js, newMobApp);
-                }
            
-                //copy over media files           
-                File new_media_loc = new File(newMobApp.getAbsolutePath() + File.separator + "media");
-                new_media_loc.mkdir();
-                Iterator<File> srcIterator = src_files.iterator();
-                while(srcIterator.hasNext())
+            //copy over media files           
+            File new_media_loc = new File(newMobApp.getAbsolutePath() + File.separator + "media");
+            new_media_loc.mkdir();
+            Iterator<File> srcIterator = src_files.iterator();
+            while(srcIterator.hasNext())
+            {
+                File src = srcIterator.next();
+                if(!src.getName().endsWith(".xml") && 
+                   !src.getName().endsWith(".XML"))
                 {
-                    File src = srcIterator.next();
-                    if(!src.getName().endsWith(".xml") && 
-                       !src.getName().endsWith(".XML"))
-                    {
-                        cd.copyDirectory(src, new_media_loc);
-                    }
+                    cd.copyDirectory(src, new_media_loc);
                 }
             }
-            catch (IOException e)
-            {
-                System.out.println(MOBILEBUILDER_FAILED);
-                e.printStackTrace();
-                return PROCESSING_COMPLETE;
-            }
-            
-            //delete the urn map from the ViewerApplication location
-            ArrayList<String> files_to_delete = new ArrayList<String>();
-            if (jsviewer != null)
-            {
-            	DeleteDirectoryOnExit(jsviewer,files_to_delete);
-            }
-            if (js != null)
-            {
-            	files_to_delete.add(js.getAbsolutePath());
-            }
-            if (xsldir != null)
-            {
-            	DeleteDirectoryOnExit(xsldir,files_to_delete);
-            }
-            ctx.put(Keys.MOBLIE_FILES_TO_DELETE,files_to_delete);
-            System.out.println("MobileBuilder processing was successful");
-            
         }
-        return CONTINUE_PROCESSING;
-
-    }
-    
-    /**
-     * Iterates over a directory and sets the files inside to be deleted when processing is complete
-     * @param dir the directory file to delete
-     */
-    private void DeleteDirectoryOnExit(File dir,ArrayList<String> files_to_delete)
-    {
-    	files_to_delete.add(dir.getAbsolutePath());
-    	if (dir.isDirectory())
-    	{
-    		String files[] = dir.list();
-    		for (int f = 0; f < files.length; f++)
-        	{
-        		File innerFile = new File(dir, files[f]);
-        		if (innerFile.isDirectory())
-        		{
-        			DeleteDirectoryOnExit(innerFile,files_to_delete);
-        		}
-        		else
-        		{
-        			files_to_delete.add(innerFile.getAbsolutePath());
-        		}
-        	}
-    	}
+        catch (IOException e)
+        {
+            System.out.println(MOBILEBUILDER_FAILED);
+            e.printStackTrace();
+            return false;
+        }
+        
+        ctx.put(Keys.ARTIFACT, newMobApp.getAbsolutePath());
+        return true;
     }
     
 
@@ -421,14 +439,19 @@ public class MobileBuilder implements Command
                     numberOfPackages = currentNum + 1;
                 }
             }
-            
-            mNewMobApp = new File(mobileLocation +File.separator + newOutput + numberOfPackages);
-            mNewMobApp.mkdirs();
         }
         else
         {
-            mNewMobApp = new File(mobileLocation +File.separator + newOutput + "1");
-            mNewMobApp.mkdirs();
+            numberOfPackages = 1;
+        }
+        
+        //the directory is claimed by creating it, so a conversion that runs at 
+        //the same time into the same location takes the next number
+        mNewMobApp = new File(mobileLocation +File.separator + newOutput + numberOfPackages);
+        while (!mNewMobApp.mkdir() && mobileLocation.isDirectory())
+        {
+            numberOfPackages++;
+            mNewMobApp = new File(mobileLocation +File.separator + newOutput + numberOfPackages);
         }
         
         return mNewMobApp;
@@ -443,90 +466,86 @@ public class MobileBuilder implements Command
      */
     private void transformSCPM(File newMobApp, Object outputType) throws FileNotFoundException, TransformerException
     {
+    	String transform;
     	if (outputType != "mobileCourse")
     	{
-    		transform = this.getClass().getResourceAsStream(SCPM_TRANSFORM_FILE);
+    		transform = SCPM_TRANSFORM_FILE;
     	}		
     	else
     	{
-    		transform = this.getClass().getResourceAsStream(SCPM_TRANSFORM_FILE_WITH_ASSESSMENTS);
+    		transform = SCPM_TRANSFORM_FILE_WITH_ASSESSMENTS;
     	}
         File index = new File(newMobApp +File.separator +"index.htm");
         mobileList.add("index.htm");
-        TransformerFactory tFactory = TransformerFactory.newInstance();
-        Transformer transformer = tFactory.newTransformer(new StreamSource(transform));
-        transformer.transform(new StreamSource(scpm_file), new StreamResult(new FileOutputStream(index)));
+        Transformer transformer = TemplatesRegistry.getInstance().newTransformer(MobileBuilder.class, transform);
+        transformer.setURIResolver(urn_resolver);
+        transformer.transform(new StreamSource(scpm_file), 
+                              new StreamResult(CommandMetrics.countWritten(new FileOutputStream(index))));
+        CommandMetrics.fileParsed(new File(scpm_file));
     }
     
     /**
      * Parse the SCPM file for the list of files in each scoEntry to create the 
-     * individual mobile app pages.
+     * individual mobile app pages.  The pages are rendered by the number of 
+     * threads set by the THREADS_PROPERTY system property and added to the 
+     * list of mobile app pages in the order of the SCPM.
      * 
      * @param newMobApp File object that represents the location of the mobile output.
      * @throws JDOMException
      * @throws TransformerException
      * @throws IOException
+     * @throws XMLStreamException
      */
-    private void generateMobilePages(File newMobApp, String outputType) throws JDOMException, TransformerException, IOException
+    private void generateMobilePages(File newMobApp, String outputType) throws JDOMException, TransformerException, IOException, XMLStreamException
     {
-        DMParser dmp = new DMParser();
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(new File(src_dir));
         
-        XPath xp = XPath.newInstance("//scoEntry[@scoEntryType='scot01']");
-        @SuppressWarnings("unchecked")
+        String transform;
+        if (outputType != "mobileCourse")
+        {
+        	transform = DM_TRANSFORM_FILE;
+        }
+        else
+        {
+        	transform = DM_TRANSFORM_FILE_WITH_ASSESSMENTS;
+        }
         
-        List<Element> scos = xp.selectNodes(dmp.getDoc(new File(scpm_file)));
+        List<MobilePage> pages = new ArrayList<MobilePage>();
+        List<List<String>> scos = ReferenceExtractor.extractSCOEntries(new File(scpm_file), "scot01");
         int folderCount = 1;
-        Iterator<Element> iterator = scos.iterator();
+        Iterator<List<String>> iterator = scos.iterator();
         while(iterator.hasNext())
         {
-            Element sco = iterator.next();
-            sco.detach();
-            Document temp = new Document(sco);
-            List<String> dms = dmp.searchForDmRefs(temp);
+            List<String> dms = iterator.next();
             Iterator<String> childIterator = dms.iterator();
             while(childIterator.hasNext())
             {
                 String urnDM = childIterator.next();
                 //System.out.println(urnDM);
-                xp = XPath.newInstance("//urn[@name='URN:S1000D:"+urnDM+"']");
-                Element urn = (Element)xp.selectSingleNode(urn_map);
+                String target = urn_map.getTargetByCode(urnDM);
                 
-                //System.out.println(urn.getChild("target").getValue());
+                //System.out.println(target);
                 
                 //The mobile output is meant to be performance support material so all assessments will not be included
                 //checks to see if the data module is an overview assessment (post test or pre test) as indicated by the learnEventCode = E
                 //or by the learnCode of T87 (Pre test), T88 (post test) or T28 (Terminal Objective).
                 //T28 data modules were used in the S1000D bike example to indicate the post test assessments
                 //If it an assessment the data module is not transformed and not included in the mobile output
-                File dataModule = new File(src_dir + File.separator + urn.getChild("target").getValue());
-                Document currDM = dmp.getDoc(dataModule);
-                xp = XPath.newInstance("//dmodule/identAndStatusSection/dmAddress/dmIdent/dmCode/@learnEventCode");
-                Attribute learnEventCode = (Attribute)xp.selectSingleNode(currDM);
-                xp = XPath.newInstance("//dmodule/identAndStatusSection/dmAddress/dmIdent/dmCode/@learnCode");
-                Attribute learnCode = (Attribute)xp.selectSingleNode(currDM);
+                File dataModule = new File(src_dir + File.separator + target);
+                ResourcePackageIndex.Entry currDM = index.getEntry(dataModule.getName());
+                String learnEventCode = currDM.getLearnEventCode();
+                String learnCode = currDM.getLearnCode();
                 
-                if(learnEventCode==null || !learnEventCode.getValue().equals("E") || outputType == "mobileCourse")
+                if(learnEventCode==null || !learnEventCode.equals("E") || outputType == "mobileCourse")
                 {
-                    if(learnCode==null ||!learnCode.getValue().equals("T28") || outputType == "mobileCourse")
+                    if(learnCode==null ||!learnCode.equals("T28") || outputType == "mobileCourse")
                     {
                         File newChild = new File(newMobApp + File.separator + Integer.toString(folderCount));
                         newChild.mkdir();
-                        if (outputType != "mobileCourse")
-                        {
-                        	transform = this.getClass().getResourceAsStream(DM_TRANSFORM_FILE);
-                        }
-                        else
-                        {
-                        	transform = this.getClass().getResourceAsStream(DM_TRANSFORM_FILE_WITH_ASSESSMENTS);
-                        }
-                        TransformerFactory tFactory = TransformerFactory.newInstance();
-                        Transformer transformer = tFactory.newTransformer(new StreamSource(transform));
 
-                        String htmName = urn.getChild("target").getValue() + ".htm";
+                        String htmName = target + ".htm";
                         File htmlFile = new File(newChild +File.separator + htmName);
-                        mobileList.add(newChild.getName() + "/" + htmName);
-                        transformer.transform(new StreamSource(dataModule), 
-                                              new StreamResult(new FileOutputStream(htmlFile)));
+                        pages.add(new MobilePage(newChild.getName() + "/" + htmName, dataModule, htmlFile, transform, urn_resolver));
                     }
                 }
              
@@ -534,6 +553,119 @@ public class MobileBuilder implements Command
             
             folderCount++;
         }
+        
+        renderMobilePages(pages);
+    }
+    
+    /**
+     * Renders the mobile app pages, on the calling thread when one thread is 
+     * configured or on a pool of worker threads otherwise, and adds them to 
+     * the list of mobile app pages in the given order.
+     * 
+     * @param pages List of the MobilePages to render in the order of the SCPM.
+     * @throws TransformerException
+     * @throws IOException
+     */
+    private void renderMobilePages(List<MobilePage> pages) throws TransformerException, IOException
+    {
+        Map<String, Long> pageTimes = new LinkedHashMap<String, Long>();
+        int threads = Math.min(getConfiguredThreads(), pages.size());
+        long start = System.nanoTime();
+        if (threads <= 1)
+        {
+            for (MobilePage page : pages)
+            {
+                page.call();
+            }
+        }
+        else
+        {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try
+            {
+                List<Callable<MobilePage>> tasks = new ArrayList<Callable<MobilePage>>();
+                for (MobilePage page : pages)
+                {
+                    tasks.add(CommandMetrics.wrap(page));
+                }
+                for (Future<MobilePage> result : pool.invokeAll(tasks))
+                {
+                    try
+                    {
+                        result.get();
+                    }
+                    catch (ExecutionException e)
+                    {
+                        Throwable cause = e.getCause();
+                        if (cause instanceof TransformerException)
+                        {
+                            throw (TransformerException) cause;
+                        }
+                        if (cause instanceof IOException)
+                        {
+                            throw (IOException) cause;
+                        }
+                        if (cause instanceof RuntimeException)
+                        {
+                            throw (RuntimeException) cause;
+                        }
+                        throw (Error) cause;
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Rendering of the mobile app pages was interrupted", e);
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+        }
+        
+        MobilePage slowest = null;
+        for (MobilePage page : pages)
+        {
+            mobileList.add(page.name);
+            pageTimes.put(page.name, Long.valueOf(page.time / 1000000));
+            if (slowest == null || page.time > slowest.time)
+            {
+                slowest = page;
+            }
+        }
+        if (slowest != null)
+        {
+            System.out.println("Rendered " + pages.size() + " mobile app pages in " + 
+                               (System.nanoTime() - start) / 1000000 + " ms using " + threads + 
+                               " thread(s), slowest page " + slowest.name + " (" + slowest.time / 1000000 + " ms)");
+        }
+        this.pageTimes = pageTimes;
+    }
+    
+    /**
+     * Returns the number of threads used to render the mobile app pages as 
+     * set by the THREADS_PROPERTY system property.
+     * 
+     * @return int the number of threads, the number of processors if the 
+     * property is not set or is 0 or less.
+     */
+    public static int getConfiguredThreads()
+    {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 0).intValue();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Returns the time it took to render each mobile app page of the output 
+     * built by the process method of this MobileBuilder.
+     * 
+     * @return Map of the number of milliseconds keyed by the name of the page 
+     * in the order of the list of mobile app pages.
+     */
+    Map<String, Long> getPageTimes()
+    {
+        return new LinkedHashMap<String, Long>(pageTimes);
     }
     
     /**
@@ -561,5 +693,146 @@ public class MobileBuilder implements Command
         writer.write("function getArray()\n");
         writer.write("{\n return scoPages;\n}");
         writer.close();
+        CommandMetrics.written(js.length());
+    }
+    
+    /**
+     * A data module that is transformed to a mobile app page.  Each page has 
+     * its own Transformer so the pages can be rendered at the same time.
+     */
+    private static class MobilePage implements Callable<MobilePage>
+    {
+        /**
+         * Name of the page in the list of mobile app pages.
+         */
+        String name;
+        
+        /**
+         * The data module that is transformed.
+         */
+        File dataModule;
+        
+        /**
+         * The html file that is written.
+         */
+        File htmlFile;
+        
+        /**
+         * Name of the XSLT transform file used to transform the data module.
+         */
+        String transform;
+        
+        /**
+         * Resolves the urn_resource_map.xml file of the style sheet.
+         */
+        URIResolver resolver;
+        
+        /**
+         * Number of nanoseconds it took to render the page.
+         */
+        long time;
+        
+        /**
+         * Constructor
+         * 
+         * @param iName String that is the name of the page in the list of mobile app pages.
+         * @param iDataModule File that represents the data module.
+         * @param iHtmlFile File that represents the html file to write.
+         * @param iTransform String that is the name of the XSLT transform file.
+         * @param iResolver URIResolver that resolves the urn_resource_map.xml file.
+         */
+        MobilePage(String iName, File iDataModule, File iHtmlFile, String iTransform, URIResolver iResolver)
+        {
+            name = iName;
+            dataModule = iDataModule;
+            htmlFile = iHtmlFile;
+            transform = iTransform;
+            resolver = iResolver;
+        }
+        
+        /**
+         * Transforms the data module to the html file.
+         * 
+         * @return MobilePage this page.
+         * @throws TransformerException
+         * @throws IOException
+         */
+        @Override
+        public MobilePage call() throws TransformerException, IOException
+        {
+            long start = System.nanoTime();
+            //the style sheet is only compiled for the first data module
+            Transformer transformer = TemplatesRegistry.getInstance().newTransformer(MobileBuilder.class, transform);
+            transformer.setURIResolver(resolver);
+            OutputStream out = CommandMetrics.countWritten(new FileOutputStream(htmlFile));
+            try
+            {
+                transformer.transform(new StreamSource(dataModule), new StreamResult(out));
+                CommandMetrics.fileParsed(dataModule);
+            }
+            finally
+            {
+                out.close();
+            }
+            time = System.nanoTime() - start;
+            return this;
+        }
+    }
+    
+    /**
+     * Gives the URNMap of a conversion to the style sheets that read the 
+     * ViewerApplication/app/urn_resource_map.xml file of the working 
+     * directory.  Every other document is resolved as before.
+     */
+    private static class URNMapResolver implements URIResolver
+    {
+        /**
+         * Location of the urn_resource_map.xml file the style sheets read.
+         */
+        private static final URI URN_MAP_LOCATION = new File(System.getProperty("user.dir") + File.separator + 
+                "ViewerApplication" + File.separator + "app" + File.separator + "urn_resource_map.xml").toURI().normalize();
+        
+        /**
+         * The URNMap of the conversion.
+         */
+        private URNMap urn_map;
+        
+        /**
+         * Constructor
+         * 
+         * @param iUrn_map URNMap of the conversion.
+         */
+        URNMapResolver(URNMap iUrn_map)
+        {
+            urn_map = iUrn_map;
+        }
+        
+        /**
+         * @see javax.xml.transform.URIResolver#resolve(java.lang.String, java.lang.String)
+         */
+        @Override
+        public Source resolve(String href, String base)
+        {
+            if (href == null || !href.endsWith("urn_resource_map.xml"))
+            {
+                return null;
+            }
+            try
+            {
+                URI baseURI = (base == null || base.length() == 0) ? 
+                        new File(System.getProperty("user.dir")).toURI() : new URI(base);
+                if (!URN_MAP_LOCATION.equals(baseURI.resolve(href).normalize()))
+                {
+                    return null;
+                }
+            }
+            catch (URISyntaxException e)
+            {
+                return null;
+            }
+            JDOMSource source = new JDOMSource(urn_map.getDocument());
+            source.setSystemId(URN_MAP_LOCATION.toString());
+            return source;
+        }
     }
 }
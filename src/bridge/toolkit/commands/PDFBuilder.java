@@ -10,15 +10,15 @@ import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -36,31 +36,38 @@ import org.xhtmlrenderer.pdf.ITextRenderer;
 import com.itextpdf.text.DocumentException;
 
 import bridge.toolkit.packaging.ContentPackageCreator;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.CopyDirectory;
 import bridge.toolkit.util.DMParser;
 import bridge.toolkit.util.Keys;
+import bridge.toolkit.util.ReferenceExtractor;
+import bridge.toolkit.util.URNMap;
+import bridge.toolkit.util.ResourcePackageIndex;
 import bridge.toolkit.util.StylesheetApplier;
+import bridge.toolkit.util.TemplatesRegistry;
 import bridge.toolkit.util.URNMapper;
 
 /**
  *
  */
-public class PDFBuilder implements Command
+public class PDFBuilder implements Command, ContextAccess
 {
     /**
-     * JDOM Document that is used to create the urn_resource_map.xml file.
+     * URNMap that is used to create the urn_resource_map.xml file and to look
+     * up the files by URN.
      */
-    private static Document urn_map;
+    private URNMap urn_map;
 
     /**
      * File that represents the location of the resource package.
      */
-    private static File src_dir;
+    private File src_dir;
     
     /**
      * String that represents the location of the SCPM file;
      */
-    private static String scpm_file;
+    private String scpm_file;
     
     /**
      * CSS that is applied to the data modules to produce the PDF output
@@ -75,13 +82,7 @@ public class PDFBuilder implements Command
     /**
      * JDOM Document that is used to create the imsmanifest.xml file.
      */
-    private static Document manifest;
-    
-    /**
-     * InputStream for the xsl file that is used to transform the SCPM file to 
-     * an imsmanifest.xml file.
-     */
-    private static InputStream transform;
+    private Document manifest;
     
     /**
      * CSS that is applied to the data modules to produce the PDF output
@@ -93,15 +94,75 @@ public class PDFBuilder implements Command
      */
     private static final String PDFBUILDER_FAILED = "PDFBuilder processing was unsuccessful";
     
+    /**
+     * The Context keys the PDFBuilder reads.
+     */
+    static final List<String> READS = Arrays.asList(Keys.SCPM_FILE, Keys.RESOURCE_PACKAGE, 
+            Keys.OUTPUT_DIRECTORY, Keys.PDF_OUTPUT_OPTION);
+
+    /**
+     * The Context keys the PDFBuilder writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.ARTIFACT);
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
+
     /** 
+     * Each execution is done by a new PDFBuilder, since its fields hold the
+     * state of one conversion and the catalog shares the command between all
+     * of the conversions.
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
      */
     @Override
     public boolean execute(Context ctx) 
+    {
+        return new PDFBuilder().process(ctx);
+    }
+
+    /**
+     * Builds the PDF file from the data modules of the SCPM.
+     * 
+     * @param ctx Context of the conversion.
+     * @return boolean PROCESSING_COMPLETE if the conversion failed, 
+     * CONTINUE_PROCESSING otherwise.
+     */
+    private boolean process(Context ctx) 
     {
     	System.out.println("Executing PDF Builder");
         String resource_dir = (String) ctx.get(Keys.RESOURCE_PACKAGE);
+        String Stylesheet = ""; 
+        String filenameending = "";
+        if (((String)ctx.get(Keys.PDF_OUTPUT_OPTION)) == "-instructor")
+        {
+        	Stylesheet = INSTRUCTORPDFSTYLESHEET;
+        	filenameending = "-instructor";
+        }
+        else
+        {
+        	Stylesheet = STUDENTPDFSTYLESHEET;
+        	filenameending = "-student";
+        }
+        
         ContentPackageCreator cpc = new ContentPackageCreator(resource_dir);
+        if (StylesheetApplier.isStreaming())
+        {
+            //the css is added while the data modules are copied
+            cpc.setStylesheet(Stylesheet, "css", " media='all'");
+        }
         try
         {
             src_dir = cpc.createPackage();
@@ -145,24 +206,14 @@ public class PDFBuilder implements Command
             return PROCESSING_COMPLETE;
         }
 
-        urn_map = URNMapper.writeURNMap(src_files, "");
-        String Stylesheet = ""; 
-        String filenameending = "";
+        urn_map = URNMapper.createURNMap(src_files, "");
         try
         {
-	        //Apply css to the data modules
-	        StylesheetApplier sa = new StylesheetApplier();
-	        if (((String)ctx.get(Keys.PDF_OUTPUT_OPTION)) == "-instructor")
-	        {
-	        	sa.applyStylesheetToDMCs(src_dir, INSTRUCTORPDFSTYLESHEET, "css", " media='all'");
-	        	Stylesheet = INSTRUCTORPDFSTYLESHEET;
-	        	filenameending = "-instructor";
-	        }
-	        else
+	        //Apply css to the data modules unless they were copied with it
+	        if (!cpc.isStylesheetApplied())
 	        {
-	        	sa.applyStylesheetToDMCs(src_dir, STUDENTPDFSTYLESHEET, "css", " media='all'");
-	        	Stylesheet = STUDENTPDFSTYLESHEET;
-	        	filenameending = "-student";
+	        	StylesheetApplier sa = new StylesheetApplier();
+	        	sa.applyStylesheetToDMCs(src_dir, Stylesheet, "css", " media='all'");
 	        }
         }
         catch (JDOMException e)
@@ -208,7 +259,6 @@ public class PDFBuilder implements Command
         
         try
         {
-        	transform = this.getClass().getResourceAsStream(TRANSFORM_FILE);
         	doTransform(scpm_file);
         }
         catch (TransformerException e) 
@@ -239,6 +289,7 @@ public class PDFBuilder implements Command
             imsoutputter.output(manifest, writer);
             writer.flush();
             writer.close();
+            CommandMetrics.written(imsfile.length());
         } 
         catch (java.io.IOException e) 
         {
@@ -282,38 +333,40 @@ public class PDFBuilder implements Command
                 outputDir.mkdirs();
             }
 	        String outputFile = outputDir.getAbsolutePath() +File.separator + FileName.trim() + filenameending + ".pdf";
-	        OutputStream os = new FileOutputStream(outputFile);
+	        OutputStream os = CommandMetrics.countWritten(new FileOutputStream(outputFile));
 	        ITextRenderer renderer = new ITextRenderer();
 	        
 	        DMParser dmp = new DMParser();
+	        ResourcePackageIndex index = ResourcePackageIndex.getIndex(new File(resource_dir));
 	        boolean created = false;
 	        
-	        xp = XPath.newInstance("//scoEntry[@scoEntryType='scot01']");
-	        @SuppressWarnings("unchecked")
-	        List<Element> scos = xp.selectNodes(dmp.getDoc(new File(scpm_file)));
+	        List<List<String>> scos = ReferenceExtractor.extractSCOEntries(new File(scpm_file), "scot01");
 	
-	        Iterator<Element> iterator = scos.iterator();
+	        Iterator<List<String>> iterator = scos.iterator();
 	        while(iterator.hasNext())
 	        {
-	            Element sco = iterator.next();
-	            sco.detach();
-	            Document temp = new Document(sco);
-	            List<String> dms = dmp.searchForDmRefs(temp);
+	            List<String> dms = iterator.next();
 	            Iterator<String> childIterator = dms.iterator();
 	            
 	            while(childIterator.hasNext())
 	            {
 	                String urnDM = childIterator.next();
-	                xp = XPath.newInstance("//urn[@name='URN:S1000D:"+urnDM+"']");
-	                Element urn = (Element)xp.selectSingleNode(urn_map);
+	                String target = urn_map.getTargetByCode(urnDM);
 	
 	                File dataModule = new File(src_dir + File.separator + "resources" + File.separator +
-	                        "s1000d" + File.separator + urn.getChild("target").getValue());
+	                        "s1000d" + File.separator + target);
 	                
-	                xp = XPath.newInstance("//graphic");
-	                Document dmDoc = dmp.getDoc(dataModule);
-	                @SuppressWarnings("unchecked")
-	                List<Element> graphics = xp.selectNodes(dmDoc);
+	                //only data modules that have graphic elements are parsed
+	                List<Element> graphics = new ArrayList<Element>();
+	                Document dmDoc = null;
+	                if (!index.getEntry(dataModule.getName()).getGraphics().isEmpty())
+	                {
+	                    xp = XPath.newInstance("//graphic");
+	                    dmDoc = dmp.getDoc(dataModule);
+	                    @SuppressWarnings("unchecked")
+	                    List<Element> found = xp.selectNodes(dmDoc);
+	                    graphics = found;
+	                }
 	                
 	                Iterator<Element> graphicIterator = graphics.iterator();
 	                while(graphicIterator.hasNext())
@@ -336,10 +389,12 @@ public class PDFBuilder implements Command
 	                    FileWriter writer = new FileWriter(updatedDM);
 	                    outputter.output(dmDoc, writer);
 	                    writer.close();
+	                    CommandMetrics.written(updatedDM.length());
 	                }
 	                
 	
 	                renderer.setDocument(dataModule);
+	                CommandMetrics.fileParsed(dataModule);
 	                renderer.layout();
 	                if(!created)
 	                {
@@ -357,6 +412,7 @@ public class PDFBuilder implements Command
 	        // complete the PDF
 	        renderer.finishPDF();
 	        os.close(); 
+	        ctx.put(Keys.ARTIFACT, outputFile);
 	        System.out.println("Successfully created PDF");
         }
         catch (JDOMException e)
@@ -402,17 +458,17 @@ public class PDFBuilder implements Command
      * @throws JDOMException
      * @throws TransformerException
      */
-    private static void doTransform(String scpm_source) throws IOException, JDOMException, TransformerException
+    private void doTransform(String scpm_source) throws IOException, JDOMException, TransformerException
     {
     	DMParser dmParser = new DMParser();
     	
-        TransformerFactory tFactory = TransformerFactory.newInstance();
-
-        Transformer transformer = tFactory.newTransformer(new StreamSource(transform));
+        Transformer transformer = TemplatesRegistry.getInstance().newTransformer(PDFBuilder.class, TRANSFORM_FILE);
 
         File the_manifest = File.createTempFile("imsmanifest", ".xml");
 
-        transformer.transform(new StreamSource(scpm_source), new StreamResult(new FileOutputStream(the_manifest)));
+        transformer.transform(new StreamSource(scpm_source), 
+                              new StreamResult(CommandMetrics.countWritten(new FileOutputStream(the_manifest))));
+        CommandMetrics.fileParsed(new File(scpm_source));
 
         manifest = dmParser.getDoc(the_manifest);
 
@@ -8,6 +8,9 @@ package bridge.toolkit.commands;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
 
 import org.apache.commons.chain.Command;
 import org.apache.commons.chain.Context;
@@ -18,7 +21,10 @@ import org.jdom.output.Format;
 import org.jdom.output.XMLOutputter;
 import org.jdom.xpath.XPath;
 
+import bridge.toolkit.packaging.PackageTree;
 import bridge.toolkit.packaging.ZipCreator;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.CopyDirectory;
 import bridge.toolkit.util.Keys;
 
@@ -26,8 +32,35 @@ import bridge.toolkit.util.Keys;
  * The last module in the toolkit that applys the SCORM Runtime files and 
  * creates the PIF file.  
  */
-public class PostProcess implements Command
+public class PostProcess implements Command, ContextAccess
 {
+    /**
+     * The Context keys the PostProcess reads.
+     */
+    static final List<String> READS = Arrays.asList(Keys.CP_PACKAGE, Keys.PACKAGE_TREE, 
+            Keys.XML_SOURCE, Keys.OUTPUT_DIRECTORY);
+
+    /**
+     * The Context keys the PostProcess writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.ARTIFACT);
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
+
     /**
      * The unit of processing work to be performed for the PostProcess module.
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
@@ -37,33 +70,52 @@ public class PostProcess implements Command
     {
     	System.out.println("Executing Post Process");
         if ((ctx.get(Keys.XML_SOURCE) != null) &&
-            (ctx.get(Keys.CP_PACKAGE) != null))
+            (ctx.get(Keys.CP_PACKAGE) != null || ctx.get(Keys.PACKAGE_TREE) != null))
         {
             File cpPackage = (File)ctx.get(Keys.CP_PACKAGE);
+            PackageTree tree = (PackageTree)ctx.get(Keys.PACKAGE_TREE);
             
             Document manifest = (Document)ctx.get(Keys.XML_SOURCE);
             
             XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-            File temp = new File(cpPackage + File.separator +"imsmanifest.xml");
+            File xsd_loc = new File(System.getProperty("user.dir") + File.separator + "xsd");
             try 
             {
-                //writes the imsmanfest.xml file out to the content package
-                FileWriter writer = new FileWriter(temp,false);
-                outputter.output(manifest, writer);
-                writer.flush();
-                writer.close();
-                
-                //copies the required xsd files over to the content package
-                CopyDirectory cd = new CopyDirectory();
-                //check if the directory exists if it does use it else copy it from the jar
-                File xsd_loc = new File(System.getProperty("user.dir") + File.separator + "xsd");
-                if (xsd_loc.exists())
+                if (tree != null)
                 {
-                	cd.copyDirectory(xsd_loc, cpPackage);
+                    //adds the imsmanifest.xml file and the required xsd files 
+                    //as entries that are written straight into the zip file
+                    tree.addBuffer("imsmanifest.xml", outputter.outputString(manifest).getBytes());
+                    if (xsd_loc.exists())
+                    {
+                        tree.addContents("", xsd_loc);
+                    }
+                    else
+                    {
+                        tree.addJarContents(this.getClass(), "xsd", "");
+                    }
                 }
                 else
                 {
-                	cd.CopyJarFiles(this.getClass(), "xsd", cpPackage.getAbsolutePath());
+                    //writes the imsmanfest.xml file out to the content package
+                    File temp = new File(cpPackage + File.separator +"imsmanifest.xml");
+                    FileWriter writer = new FileWriter(temp,false);
+                    outputter.output(manifest, writer);
+                    writer.flush();
+                    writer.close();
+                    CommandMetrics.written(temp.length());
+                
+                    //copies the required xsd files over to the content package
+                    CopyDirectory cd = new CopyDirectory();
+                    //check if the directory exists if it does use it else copy it from the jar
+                    if (xsd_loc.exists())
+                    {
+                    	cd.copyDirectory(xsd_loc, cpPackage);
+                    }
+                    else
+                    {
+                    	cd.CopyJarFiles(this.getClass(), "xsd", cpPackage.getAbsolutePath());
+                    }
                 }
             } 
             catch (java.io.IOException e) 
@@ -115,7 +167,14 @@ public class PostProcess implements Command
             ZipCreator zipCreator = new ZipCreator();
             try
             {
-                zipCreator.zipFiles(cpPackage, zip);
+                if (tree != null)
+                {
+                    zipCreator.zipTree(tree, zip);
+                }
+                else
+                {
+                    zipCreator.zipFiles(cpPackage, zip);
+                }
             }
             catch (IOException e)
             {
@@ -124,7 +183,11 @@ public class PostProcess implements Command
                 return PROCESSING_COMPLETE;
             }
             
-            cpPackage.deleteOnExit();
+            if (cpPackage != null)
+            {
+                cpPackage.deleteOnExit();
+            }
+            ctx.put(Keys.ARTIFACT, zip.getAbsolutePath());
             System.out.println("Content Package creation was successful");
         }
         else
@@ -8,18 +8,20 @@ package bridge.toolkit.commands;
 import java.io.File;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Set;
 
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.stream.StreamResult;
 import javax.xml.transform.stream.StreamSource;
 
@@ -33,30 +35,36 @@ import org.jdom.Namespace;
 import org.jdom.xpath.XPath;
 
 import bridge.toolkit.ResourceMapException;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.DMParser;
+import bridge.toolkit.util.DependencyGraph;
 import bridge.toolkit.util.Keys;
+import bridge.toolkit.util.ManifestIndex;
+import bridge.toolkit.util.ResourcePackageIndex;
+import bridge.toolkit.util.TemplatesRegistry;
 import bridge.toolkit.util.URNMapper;
 
 /**
  * Module in the toolkit that transforms the SCPM into a imsmanifest.xml
  * file and generates a urn_resource_map.xml file from the resource package.
  */
-public class PreProcess implements Command
+public class PreProcess implements Command, ContextAccess
 {
     /**
      * Provides a way to parse S1000D files and to find data model codes.
      */
-    private static DMParser dmParser;
+    private DMParser dmParser;
     
     /**
      * JDOM Document that is used to create the imsmanifest.xml file.
      */
-    private static Document manifest;
+    private Document manifest;
     
     /**
      * JDOM Document that is used to create the urn_resource_map.xml file.
      */
-    private static Document urn_map;
+    private Document urn_map;
     
     /**
      * Location of the XSLT transform file.
@@ -64,15 +72,31 @@ public class PreProcess implements Command
     private static final String TRANSFORM_FILE = "preProcessTransform.xsl";
 
     /**
-     * InputStream for the xsl file that is used to transform the SCPM file to 
-     * an imsmanifest.xml file.
+     * String that represents the location of the resource package.
      */
-    private static InputStream transform;
+    private String src_dir;
     
     /**
-     * String that represents the location of the resource package.
+     * Index of the data modules in the resource package.
+     */
+    private ResourcePackageIndex index;
+    
+    /**
+     * Index of the 'resource' elements of the imsmanifest.xml file.
+     */
+    private ManifestIndex manifestIndex;
+    
+    /**
+     * Graph of the references between the data modules and ICNs of the 
+     * resource package, keyed by the identifiers of the 'resource' elements.
+     */
+    private DependencyGraph graph;
+    
+    /**
+     * Number of levels of referenced data modules that are added as 
+     * dependencies of each SCO.
      */
-    private static String src_dir;
+    private int depth;
     
     /**
      * Message that is returned if the conversion from SCPM to imsmanifest.xml 
@@ -88,12 +112,53 @@ public class PreProcess implements Command
         dmParser = new DMParser();
     }
 
+    /**
+     * The Context keys the PreProcess reads.
+     */
+    static final List<String> READS = Arrays.asList(Keys.SCPM_FILE, Keys.RESOURCE_PACKAGE);
+
+    /**
+     * The Context keys the PreProcess writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.XML_SOURCE, Keys.URN_MAP, Keys.MANIFEST_INDEX);
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
+
     /** 
      * The unit of processing work to be performed for the PreProcess module.
+     * Each execution is done by a new PreProcess, since its fields hold the
+     * state of one conversion and the catalog shares the command between all
+     * of the conversions.
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
      */
-    @SuppressWarnings("unchecked")
     public boolean execute(Context ctx)
+    {
+        return new PreProcess().process(ctx);
+    }
+
+    /**
+     * Transforms the SCPM into the imsmanifest.xml file.
+     * 
+     * @param ctx Context of the conversion.
+     * @return boolean PROCESSING_COMPLETE if the conversion failed, 
+     * CONTINUE_PROCESSING otherwise.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean process(Context ctx)
     {
     	System.out.println("Executing PreProcess");
         if ((ctx.get(Keys.SCPM_FILE) != null) && (ctx.get(Keys.RESOURCE_PACKAGE) != null))
@@ -127,14 +192,19 @@ public class PreProcess implements Command
 
             urn_map = URNMapper.writeURNMap(src_files, "");
             
-            transform = this.getClass().getResourceAsStream(TRANSFORM_FILE);
-
             try
             {
+                index = ResourcePackageIndex.getIndex(new File(src_dir));
+                
                 doTransform((String) ctx.get(Keys.SCPM_FILE));
 
                 addResources(urn_map);
                 
+                manifestIndex = new ManifestIndex(manifest);
+                
+                graph = buildDependencyGraph();
+                depth = DependencyGraph.getConfiguredDepth();
+                
                 processDeps(mapDependencies());
             }
             catch (ResourceMapException e)
@@ -164,6 +234,7 @@ public class PreProcess implements Command
 
             ctx.put(Keys.URN_MAP, urn_map);
             ctx.put(Keys.XML_SOURCE, manifest);
+            ctx.put(Keys.MANIFEST_INDEX, manifestIndex);
 
             System.out.println("Conversion of SCPM to IMS Manifest was successful");
         }
@@ -186,15 +257,15 @@ public class PreProcess implements Command
      * @throws JDOMException
      * @throws TransformerException
      */
-    private static void doTransform(String scpm_source) throws IOException, JDOMException, TransformerException
+    private void doTransform(String scpm_source) throws IOException, JDOMException, TransformerException
     {
-        TransformerFactory tFactory = TransformerFactory.newInstance();
-
-        Transformer transformer = tFactory.newTransformer(new StreamSource(transform));
+        Transformer transformer = TemplatesRegistry.getInstance().newTransformer(PreProcess.class, TRANSFORM_FILE);
 
         File the_manifest = File.createTempFile("imsmanifest", ".xml");
 
-        transformer.transform(new StreamSource(scpm_source), new StreamResult(new FileOutputStream(the_manifest)));
+        transformer.transform(new StreamSource(scpm_source), 
+                              new StreamResult(CommandMetrics.countWritten(new FileOutputStream(the_manifest))));
+        CommandMetrics.fileParsed(new File(scpm_source));
 
         manifest = dmParser.getDoc(the_manifest);
 
@@ -211,7 +282,7 @@ public class PreProcess implements Command
      * @throws JDOMException 
      */
     @SuppressWarnings("unchecked")
-    private static void addResources(Document urn_map) throws ResourceMapException, JDOMException, IOException
+    private void addResources(Document urn_map) throws ResourceMapException, JDOMException, IOException
     {
         Element resources = manifest.getRootElement().getChild("resources", null);
         Namespace ns = resources.getNamespace();
@@ -264,36 +335,24 @@ public class PreProcess implements Command
      * @throws IOException 
      * @throws JDOMException 
      */
-    @SuppressWarnings(
-    { "unchecked", "rawtypes" })
-    private static Map<String, List<String>> mapDependencies() throws ResourceMapException, JDOMException, IOException
+    private Map<String, List<String>> mapDependencies() throws ResourceMapException, JDOMException, IOException
     {
-        Namespace ns = Namespace.getNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
         Map<String, List<String>> sco_map = new HashMap<String, List<String>>();
 
-        // get the manifest sco resources
-        XPath xp;
-        xp = XPath.newInstance("//ns:resource[@adlcpNS:scormType='sco']");
-        xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
-        xp.addNamespace("adlcpNS", "http://www.adlnet.org/xsd/adlcp_v1p3");
-        List<Element> scos = (ArrayList) xp.selectNodes(manifest);
-
-        // iterate through the sco list
-        Iterator<Element> iter = scos.iterator();
+        // iterate through the manifest sco resources
+        Iterator<Element> iter = manifestIndex.getSCOResources().iterator();
         while (iter.hasNext())
         {
             Element sco = iter.next();
             String sco_identifier = sco.getAttributeValue("identifier");
             // CHANGED STW 11/16 - get list of sco dependencies vice files - use
             // the identifierref to get the resource identifer/href
-            List<Element> resFiles = sco.getChildren("dependency", ns);
+            Iterator<String> resFiles = manifestIndex.getDependencies(sco_identifier).iterator();
 
             List<String> idrefs = new ArrayList<String>();
-            for (int i = 0; i < resFiles.size(); i++)
+            while (resFiles.hasNext())
             {
-                Element resFile = resFiles.get(i);
-
-                String identifierref = (resFile.getAttributeValue("identifierref"));
+                String identifierref = resFiles.next();
                 if (identifierref != "")
                 {
                     idrefs.add(identifierref);
@@ -322,12 +381,10 @@ public class PreProcess implements Command
      * @throws JDOMException
      * @throws IOException 
      */
-    private static void processDeps(@SuppressWarnings("rawtypes") Map sco_map) throws  ResourceMapException, JDOMException, IOException
+    private void processDeps(@SuppressWarnings("rawtypes") Map sco_map) throws  ResourceMapException, JDOMException, IOException
     {
-        Namespace default_ns = manifest.getRootElement().getChild("resources", null).getNamespace();
         Element sco_resource = null;
-        List<String> dependencies = null;
-        XPath xp = null;
+        Set<String> dependencies = null;
         String sco_key;
 
         // the updated map will track dependency addition to the sco to prevent
@@ -340,32 +397,28 @@ public class PreProcess implements Command
             Map.Entry<String, List<String>> pairs = (Map.Entry<String, List<String>>) iter.next();
             // store the sco identifier
             sco_key = pairs.getKey();
-            xp = XPath.newInstance("//ns:resource[@identifier='" + sco_key + "']");
-            xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
-            sco_resource = (Element) xp.selectSingleNode(manifest);
+            sco_resource = manifestIndex.getResource(sco_key);
 
             Iterator<String> value = pairs.getValue().iterator();
             // store the icn references
-            dependencies = new ArrayList<String>();
+            dependencies = new LinkedHashSet<String>();
             while (value.hasNext())
             {
-                Element resource = null;
                 String str_current = value.next();
-                Document dmDoc = getResourceHref(sco_key, str_current);
-                dependencies = addICNDependencies(dependencies, dmDoc);
+                ResourcePackageIndex.Entry dm = getResourceHref(sco_key, str_current);
+                dependencies = addICNDependencies(dependencies, dm);
 
                 // get the dm refs
-                List<String> dmrefs = searchForDmRefs(dmDoc, sco_resource);
+                List<String> dmrefs = searchForDmRefs(dm, sco_key);
                 Iterator<String> dmref_iter = dmrefs.iterator();
                 while (dmref_iter.hasNext())
                 {
                     String dmref = dmref_iter.next();
-                    if (!dependencies.contains(dmref))
+                    if (dependencies.add(dmref))
                     {
-                        dependencies.add(dmref);
-                        //add dmref icn files as dependencies
-                        Document dmRefDoc = getResourceHref(sco_key, dmref);
-                        dependencies = addICNDependencies(dependencies, dmRefDoc);
+                        //add the dependencies of the dmref up to the configured depth
+                        getResourceHref(sco_key, dmref);
+                        dependencies = addReferencedDependencies(dependencies, dmref, sco_key);
                     }
                 }
             }
@@ -374,12 +427,7 @@ public class PreProcess implements Command
             Iterator<String> dependency_iter = dependencies.iterator();
             while (dependency_iter.hasNext())
             {
-                String identifierref = dependency_iter.next();
-                Element dependency = new Element("dependency");
-
-                dependency.setAttribute("identifierref", identifierref);
-                sco_resource.addContent(dependency);
-                dependency.setNamespace(default_ns);
+                manifestIndex.addDependency(sco_resource, dependency_iter.next());
             }
         }
     }
@@ -388,28 +436,84 @@ public class PreProcess implements Command
      * Adds ICN references from referenced data modules to the list of files
      * to be used as dependencies in the resources section.  
      * 
-     * @param dependencies - List of Strings that will be used as "Dependency" elements for "SCO" resources.
-     * @param dmDoc - Document object that represents the data module file being used. 
-     * @throws JDOMException
+     * @param dependencies - Set of Strings that will be used as "Dependency" elements for "SCO" resources.
+     * @param dm - Index entry of the data module file being used. 
      */
-    private static List<String> addICNDependencies(List<String> dependencies, Document dmDoc) throws JDOMException
+    private Set<String> addICNDependencies(Set<String> dependencies, ResourcePackageIndex.Entry dm)
     {
-        // reach into the dm docs and find ICN references
-        List<String> icnRefs = searchForICN(dmDoc);
+        // the ICN references found in the data module
+        dependencies.addAll(dm.getIcnRefs());
+        
+        return dependencies;
+    }
 
-        Iterator<String> icn_iter = icnRefs.iterator();
-        while (icn_iter.hasNext())
+    /**
+     * Adds the dependencies of a referenced data module from the dependency 
+     * graph to the list of files to be used as dependencies in the resources
+     * section.  The referenced data module's own ICN files are always added, 
+     * the data modules it references only when the configured depth is more
+     * than one level.
+     * 
+     * @param dependencies - Set of Strings that will be used as "Dependency" elements for "SCO" resources.
+     * @param dmref - String that represents the identifier of the referenced data module.
+     * @param sco_key - String that represents the value of 'identifier' attribute of the
+     *                  current SCO 'resource' element.
+     * @return Set<String> the dependencies.
+     * @throws JDOMException
+     * @throws ResourceMapException
+     * @throws IOException
+     */
+    private Set<String> addReferencedDependencies(Set<String> dependencies, String dmref, String sco_key) throws JDOMException, ResourceMapException, IOException
+    {
+        Iterator<String> iterator = graph.getDependencies(dmref, depth - 1).iterator();
+        while (iterator.hasNext())
         {
-            String the_icn = icn_iter.next();
-            if (!dependencies.contains(the_icn))
+            String dependency = iterator.next();
+            if (!graph.isDataModule(dependency))
+            {
+                dependencies.add(dependency);
+            }
+            else if (!isSCODependency(dependency, sco_key) && dependencies.add(dependency))
             {
-                dependencies.add(the_icn);
+                //make sure the data module is a resource of the manifest
+                getResourceHref(sco_key, dependency);
             }
         }
         
         return dependencies;
     }
 
+    /**
+     * Builds the graph of the references between the data modules and ICNs
+     * of the resource package from the 'resource' elements of the 
+     * imsmanifest.xml file.
+     * 
+     * @return DependencyGraph the graph of the resource package.
+     */
+    private DependencyGraph buildDependencyGraph()
+    {
+        Map<String, ResourcePackageIndex.Entry> files = new HashMap<String, ResourcePackageIndex.Entry>();
+        Iterator<ResourcePackageIndex.Entry> entries = index.getEntries().iterator();
+        while (entries.hasNext())
+        {
+            ResourcePackageIndex.Entry entry = entries.next();
+            files.put(entry.getFileName(), entry);
+        }
+        
+        DependencyGraph dependencyGraph = new DependencyGraph();
+        Iterator<String> identifiers = manifestIndex.getIdentifiers().iterator();
+        while (identifiers.hasNext())
+        {
+            String identifier = identifiers.next();
+            ResourcePackageIndex.Entry entry = files.get(manifestIndex.getResourceFileName(identifier));
+            if (entry != null && entry.isDataModule())
+            {
+                dependencyGraph.addDataModule(identifier, entry.getDmRefs(), entry.getIcnRefs());
+            }
+        }
+        return dependencyGraph;
+    }
+
     /**
      * Finds the file that is referenced in a 'href' attribute associated with a 
      * given 'resource' element in imsmanifest.xml file. 
@@ -419,76 +523,43 @@ public class PreProcess implements Command
      *                  a 'dependency' element.  
      * @param str_current - String that represents the value of 'identifier' attribute of a
      *                  'resource' element being retrieved. 
-     * @return - Document object that represents the file in the 'resource' element. 
+     * @return - Index entry of the file in the 'resource' element. 
      * @throws JDOMException
      * @throws ResourceMapException
      * @throws IOException
      */
-    private static Document getResourceHref(String sco_key, String str_current) throws JDOMException, ResourceMapException, IOException
+    private ResourcePackageIndex.Entry getResourceHref(String sco_key, String str_current) throws JDOMException, ResourceMapException, IOException
     {
-        XPath xp;
-        Element resource;
-        xp = XPath.newInstance("//ns:resource[@identifier='" + str_current + "']");
-        xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
-        resource = (Element) xp.selectSingleNode(manifest);
-        
-        String[] split;
-        String src_href = "";
-        try
-        {
-            split = resource.getAttributeValue("href").split("/");
-            src_href = split[split.length - 1];
-        }
-        catch (NullPointerException npe)
+        String src_href = manifestIndex.getResourceFileName(str_current);
+        if (src_href == null)
         {
             throw new ResourceMapException(str_current, sco_key);
         }
         
-        String resource_path = src_dir + "//" + src_href;
-        File file = new File(resource_path);
-        Document dmDoc = dmParser.getDoc(file);
-        return dmDoc;
+        return index.getEntry(src_href);
     }
 
     /**
      * Searches through a data module file for referenced data modules.
      * 
-     * @param dmDoc JDOM Document that represents the data module being searched
-     * for dmRef instances.
-     * @param sco_resource JDOM Element that represents the current SCO 
-     * 'resource' element.
+     * @param dm Index entry of the data module being searched for dmRef 
+     * instances.
+     * @param sco_key String that represents the value of 'identifier' 
+     * attribute of the current SCO 'resource' element.
      * @return List<String> List of all of the referenced data modules found in
      * the specified data module.
      */
-    @SuppressWarnings(
-    { "unchecked" })
-    private static List<String> searchForDmRefs(Document dmDoc, Element sco_resource)
+    private List<String> searchForDmRefs(ResourcePackageIndex.Entry dm, String sco_key)
     {
-        Namespace ns = Namespace.getNamespace("http://www.imsglobal.org/xsd/imscp_v1p1");
         List<String> referencedDMs = new ArrayList<String>();
 
-        Iterator<String> referencedDMsIterator = dmParser.searchForDmRefs(dmDoc).iterator();
+        Iterator<String> referencedDMsIterator = dm.getDmRefs().iterator();
         while(referencedDMsIterator.hasNext())
         {
             String dmc = referencedDMsIterator.next(); 
-            boolean found = false;
     
-            // CHANGED STW 11/16
-            List<Element> sco_resources = sco_resource.getChildren("dependency", ns);
-            Iterator<Element> iter = sco_resources.iterator();
-            String identifierref = "";
-            while (iter.hasNext())
-            {
-                Element current_el = iter.next();
-    
-                identifierref = current_el.getAttributeValue("identifierref");
-                
-                if (identifierref.contains(dmc))
-                {
-                    found = true;
-                }
-            }
-            if (!referencedDMs.contains(dmc) && found == false && identifierref != "")
+            //the referenced data modules of the index are already unique
+            if (!isSCODependency(dmc, sco_key) && !manifestIndex.getDependencies(sco_key).isEmpty())
             {
                 referencedDMs.add(dmc);
             }
@@ -499,36 +570,34 @@ public class PreProcess implements Command
     }
 
     /**
-     * Searches through a data module file for referenced media (ICN) files .
+     * Checks if a data module is already a dependency of a SCO 'resource' 
+     * element.
      * 
-     * @param doc JDOM Document that represents the data module being searched
-     * for dmRef instances.
-     * @return List<String> List of all of the referenced media (ICN) files 
-     * found in the specified data module.
-     * @throws JDOMException 
+     * @param dmc String that is the data module code of the data module.
+     * @param sco_key String that represents the value of 'identifier' 
+     * attribute of the SCO 'resource' element.
+     * @return boolean true if the SCO has a dependency on the data module.
      */
-    @SuppressWarnings(
-    { "unchecked", "rawtypes" })
-    private static List<String> searchForICN(Document doc) throws JDOMException
+    private boolean isSCODependency(String dmc, String sco_key)
     {
-        List<String> icnRefs = new ArrayList<String>();
-        List<Element> els = (ArrayList) XPath.selectNodes(doc, "//*[@infoEntityIdent]");
-
-        for (int i = 0; i < els.size(); i++)
+        Set<String> sco_dependencies = manifestIndex.getDependencies(sco_key);
+        
+        // CHANGED STW 11/16
+        // an exact match is the common case, otherwise look for a 
+        // dependency that contains the data module code
+        if (sco_dependencies.contains(dmc))
+        {
+            return true;
+        }
+        Iterator<String> iter = sco_dependencies.iterator();
+        while (iter.hasNext())
         {
-            Element e = (Element) els.get(i);
-            String icn = null;
-            if (e.getAttribute("infoEntityIdent") != null)
+            if (iter.next().contains(dmc))
             {
-                icn = e.getAttributeValue("infoEntityIdent");
-
-                if (!icnRefs.contains(icn))
-                {
-                    icnRefs.add(icn);
-                }
+                return true;
             }
         }
-        return icnRefs;
+        return false;
     }
 
 }
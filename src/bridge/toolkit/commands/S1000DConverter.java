@@ -9,12 +9,15 @@ import java.io.BufferedWriter;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.FileOutputStream;
+import java.io.FilenameFilter;
 import java.io.IOException;
 import java.io.PrintWriter;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.nio.channels.FileChannel;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 import javax.xml.parsers.DocumentBuilder;
@@ -30,6 +33,8 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.w3c.dom.Element;
 
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.Keys;
 
 import com.sun.org.apache.xpath.internal.NodeSet;
@@ -39,44 +44,86 @@ import com.sun.org.apache.xpath.internal.XPathAPI;
  *  Converts S1000D 4.1 learning data into S1000D 4.0 learning data so that 
  *  it can be processed by the toolkit. 
  */
-public class S1000DConverter implements Command
+public class S1000DConverter implements Command, ContextAccess
 {
 
     /**
      * modelic SCPM
      */
-    public static String modelic;
+    private String modelic;
     /**
      * Package Issuer SCPM
      */
-    public static String PackageIssuer;
+    private String PackageIssuer;
     /**
      * package number
      */
-    public static String PackageNumber;
+    private String PackageNumber;
     /**
      * Package volume
      */
-    public static String PackageVolume;
+    private String PackageVolume;
     /**
      * Security classification
      */
-    public static String securityClassification;
+    private String securityClassification;
     /**
      * qualityAssurance
      */
-    public static Node qualityAssurance;
+    private Node qualityAssurance;
 
     /**
      * 
      */
-    public static String resourcepack;
+    private String resourcepack;
+
+    /**
+     * The Context keys the S1000DConverter reads.
+     */
+    static final List<String> READS = Arrays.asList(Keys.SCPM_FILE, Keys.RESOURCE_PACKAGE, 
+            Keys.OUTPUT_DIRECTORY);
+
+    /**
+     * The Context keys the S1000DConverter writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.SCPM_FILE, Keys.OUTPUT_DIRECTORY);
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
 
     /** 
      * The unit of processing work to be performed for the S1000DConverter module.
+     * Each execution is done by a new S1000DConverter, since its fields hold
+     * the state of one conversion and the catalog shares the command between
+     * all of the conversions.
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
      */
     public boolean execute(Context ctx)
+    {
+        return new S1000DConverter().process(ctx);
+    }
+
+    /**
+     * Converts a S1000D 4.1 SCPM to a S1000D 4.0 SCPM in a temporary file.
+     * 
+     * @param ctx Context of the conversion.
+     * @return boolean PROCESSING_COMPLETE if the conversion failed, 
+     * CONTINUE_PROCESSING otherwise.
+     */
+    private boolean process(Context ctx)
     {
     	System.out.println("Executing S1000D Converter");
         if ((ctx.get(Keys.SCPM_FILE) != null) && (ctx.get(Keys.RESOURCE_PACKAGE) != null))
@@ -199,7 +246,7 @@ public class S1000DConverter implements Command
      * @param nodes
      * @throws Exception
      */
-    private static void walkingthrough(Node nodes, org.w3c.dom.Document document) throws Exception
+    private void walkingthrough(Node nodes, org.w3c.dom.Document document) throws Exception
     {
 
         changeScoEntry(nodes, document);
@@ -234,12 +281,12 @@ public class S1000DConverter implements Command
                     // content to be show in the lesson
                     if (node.getChildNodes().item(lom) != null && node.getChildNodes().item(lom).getNodeName().equals("dmRef"))
                     {
-                        String filename = resourcepack + "\\" + gettingDmfilename(node.getChildNodes().item(lom)) + ".xml";
-                        if (new File(filename).exists())
+                        File filename = findDmFile(new File(resourcepack), gettingDmfilename(node.getChildNodes().item(lom)));
+                        if (filename != null)
                         {
                             // if the data module is a scoContent will copy each
                             // dmref in the scoEntry
-                            org.w3c.dom.Document dm41 = getDoc(new File(filename));
+                            org.w3c.dom.Document dm41 = getDoc(filename);
 
                             if (processXPathSingleNode("dmodule/content/scoContent", dm41) != null)
                                 ;
@@ -276,7 +323,7 @@ public class S1000DConverter implements Command
      * @param node
      * @param document
      */
-    public static void changeScoEntry(Node node, org.w3c.dom.Document document)
+    public void changeScoEntry(Node node, org.w3c.dom.Document document)
     {
         if (node.getNodeName().equals("scoEntry"))
         {
@@ -447,6 +494,36 @@ public class S1000DConverter implements Command
         return dmc + modelIdentCode + systemDiffCode + systemCode + subSystemCode + subSubSystemCode + assyCode + disassyCode + disassyCodeVariant + infoCode + infoCodeVariant + itemLocationCode + learnCode + learnEventCode + issueinfo + inwork + languageIsoCode + countryIsoCode;
     }
 
+    /**
+     * Finds the file of a data module in the resource package. The case of the
+     * file name is ignored, as the language of a dmRef is in lower case while
+     * the file names of the resource package have it in upper case.
+     * 
+     * @param resourcepack File that is the resource package directory.
+     * @param dmFilename String that is the file name built from the dmRef.
+     * @return File that is the data module or null if it was not found.
+     */
+    private static File findDmFile(File resourcepack, final String dmFilename)
+    {
+        File file = new File(resourcepack, dmFilename + ".xml");
+        if (file.exists())
+        {
+            return file;
+        }
+        File[] files = resourcepack.listFiles(new FilenameFilter()
+        {
+            public boolean accept(File dir, String name)
+            {
+                return name.equalsIgnoreCase(dmFilename + ".xml");
+            }
+        });
+        if (files == null || files.length == 0)
+        {
+            return null;
+        }
+        return files[0];
+    }
+
     /**
      * Receive the node, the DOM object and the new name of the node
      * 
@@ -530,7 +607,9 @@ public class S1000DConverter implements Command
         factory.setExpandEntityReferences(false);
         DocumentBuilder builder = factory.newDocumentBuilder();
 
-        return builder.parse(filetempXML);
+        org.w3c.dom.Document doc = builder.parse(filetempXML);
+        CommandMetrics.fileParsed(filetempXML);
+        return doc;
     }
 
     /**
@@ -832,7 +911,9 @@ public class S1000DConverter implements Command
 
             FileChannel sourceChannel = new FileInputStream(from_).getChannel();
             FileChannel destinationChannel = new FileOutputStream(to_).getChannel();
-            sourceChannel.transferTo(0, sourceChannel.size(), destinationChannel);
+            long length = sourceChannel.transferTo(0, sourceChannel.size(), destinationChannel);
+            CommandMetrics.read(length);
+            CommandMetrics.written(length);
             sourceChannel.close();
             destinationChannel.close();
 
@@ -7,10 +7,16 @@ package bridge.toolkit.commands;
 
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
 
@@ -30,16 +36,23 @@ import org.jdom.output.XMLOutputter;
 import org.jdom.xpath.XPath;
 
 import bridge.toolkit.packaging.ContentPackageCreator;
+import bridge.toolkit.packaging.IncrementalPackageCreator;
+import bridge.toolkit.packaging.PackageTree;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.ContextAccess;
 import bridge.toolkit.util.CopyDirectory;
+import bridge.toolkit.util.ExtractedDirectories;
 import bridge.toolkit.util.DMParser;
 import bridge.toolkit.util.Keys;
+import bridge.toolkit.util.ManifestIndex;
+import bridge.toolkit.util.StepGraph;
 import bridge.toolkit.util.StylesheetApplier;
 
 /**
  * Builds the launchable learning resources (SCOs) from the DMs found in the 
  * SCPM.
  */
-public class SCOBuilder implements Command
+public class SCOBuilder implements Command, ContextAccess
 {
 
     /**
@@ -47,9 +60,15 @@ public class SCOBuilder implements Command
      */
     File cpPackage; 
     
+    /**
+     * Describes the content package when it is built straight into the ZIP 
+     * file, otherwise null.
+     */
+    PackageTree tree;
+    
     /**
      * List of Strings that represent the file found in the Viewer Application
-     * directory. 
+     * directory, relative to the content package. 
      */
     List<String> commonFiles;
     
@@ -58,6 +77,11 @@ public class SCOBuilder implements Command
      */
     Document manifest;
     
+    /**
+     * Index of the 'resource' elements of the imsmanifest.xml file.
+     */
+    ManifestIndex manifestIndex;
+    
     /**
      * JDOM Document that is used for the S1000D SCPM file.
      */
@@ -68,6 +92,18 @@ public class SCOBuilder implements Command
      */
     DMParser dmp; 
     
+    /**
+     * Creates the content package directory when the build is incremental,
+     * otherwise null.
+     */
+    IncrementalPackageCreator workspace;
+    
+    /**
+     * Indicates if the style sheet was added to the data modules while they
+     * were copied to the content package directory.
+     */
+    boolean stylesheetApplied;
+    
     /**
      * Message that is returned if the building of the SCOs is unsuccessful.
      */
@@ -83,13 +119,72 @@ public class SCOBuilder implements Command
      */
     final String CPHTMLSTYLESHEET = "app/s1000d_4html.xslt";
     
+    /**
+     * Names of the files the SCOBuilder generates in the Viewer Application 
+     * 'app' directory.
+     */
+    final List<String> GENERATED_FILES = Arrays.asList("list.js", "urn_resource_map.xml");
+    
+    /**
+     * Location of the list.js file in the content package.
+     */
+    final String LIST_FILE = "resources/s1000d/app/list.js";
+    
+    /**
+     * Location of the urn_resource_map.xml file in the content package.
+     */
+    final String URN_MAP_FILE = "resources/s1000d/app/urn_resource_map.xml";
+    
+    /**
+     * The Context keys the SCOBuilder reads.
+     */
+    static final List<String> READS = Arrays.asList(Keys.XML_SOURCE, Keys.RESOURCE_PACKAGE, Keys.SCPM_FILE, 
+            Keys.OUTPUT_TYPE, Keys.INCREMENTAL, Keys.CP_PACKAGE, Keys.URN_MAP, Keys.MANIFEST_INDEX);
+    
+    /**
+     * The Context keys the SCOBuilder writes.
+     */
+    static final List<String> WRITES = Arrays.asList(Keys.CP_PACKAGE, Keys.PACKAGE_TREE, Keys.MANIFEST_INDEX, 
+            Keys.XML_SOURCE);
+    
     /**
      * The unit of processing work to be performed for the SCOBuilder module.
+     * Each execution is done by a new SCOBuilder, since its fields hold the
+     * state of one conversion and the catalog shares the command between all
+     * of the conversions.
      * 
      * @see org.apache.commons.chain.Command#execute(org.apache.commons.chain.Context)
      */
     @Override
     public boolean execute(Context ctx)
+    {
+        return new SCOBuilder().process(ctx);
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getReads()
+     */
+    public Collection<String> getReads()
+    {
+        return READS;
+    }
+
+    /**
+     * @see bridge.toolkit.util.ContextAccess#getWrites()
+     */
+    public Collection<String> getWrites()
+    {
+        return WRITES;
+    }
+
+    /**
+     * Builds the SCOs in the content package.
+     * 
+     * @param ctx Context of the conversion.
+     * @return boolean PROCESSING_COMPLETE if the building failed, 
+     * CONTINUE_PROCESSING otherwise.
+     */
+    private boolean process(Context ctx)
     {
     	System.out.println("Executing SCOBuilder");
     	commonFiles = new ArrayList<String>();
@@ -99,14 +194,48 @@ public class SCOBuilder implements Command
             (ctx.get(Keys.RESOURCE_PACKAGE) != null) &&
             (ctx.get(Keys.SCPM_FILE) != null))
         {
+            String styleSheet = CPSTYLESHEET;
+            if (ctx.get(Keys.OUTPUT_TYPE) == "SCORMHTML")
+            {
+                styleSheet = CPHTMLSTYLESHEET;
+            }
+            
             //check to see if a cp_package directory exist yet
+            workspace = null;
+            tree = null;
+            stylesheetApplied = false;
             if(ctx.get(Keys.CP_PACKAGE)== null)
             {
                 
-                ContentPackageCreator cpc = new ContentPackageCreator((String) ctx.get(Keys.RESOURCE_PACKAGE));
+                ContentPackageCreator cpc;
                 try
                 {
-                    cpPackage = cpc.createPackage();
+                    if (ctx.get(Keys.INCREMENTAL) != null)
+                    {
+                        workspace = new IncrementalPackageCreator((String) ctx.get(Keys.RESOURCE_PACKAGE),
+                                (String) ctx.get(Keys.INCREMENTAL), styleSheet);
+                        cpc = workspace;
+                    }
+                    else
+                    {
+                        cpc = new ContentPackageCreator((String) ctx.get(Keys.RESOURCE_PACKAGE));
+                    }
+                    if (StylesheetApplier.isStreaming() || (PackageTree.isDirect() && workspace == null))
+                    {
+                        //the style sheet is added while the data modules are copied
+                        cpc.setStylesheet(styleSheet, "xsl", "");
+                        stylesheetApplied = true;
+                    }
+                    if (PackageTree.isDirect() && workspace == null)
+                    {
+                        //the PostProcess writes the package straight into the zip file
+                        tree = cpc.createPackageTree();
+                        cpPackage = null;
+                    }
+                    else
+                    {
+                        cpPackage = cpc.createPackage();
+                    }
                 }
                 catch (IOException e)
                 {
@@ -121,6 +250,7 @@ public class SCOBuilder implements Command
                     return PROCESSING_COMPLETE;  
                 }
                 ctx.put(Keys.CP_PACKAGE, cpPackage);
+                ctx.put(Keys.PACKAGE_TREE, tree);
             }
             else
             {
@@ -129,45 +259,26 @@ public class SCOBuilder implements Command
             
             try
             {
-                //copy necessary files over to CP folder
-                copyViewerAppFiles();
-                
-                //apply the SCORM CP XSLT StyleSheet to the data modules
-                StylesheetApplier sa = new StylesheetApplier();
-                if (ctx.get(Keys.OUTPUT_TYPE) == "SCORMHTML")
-                {
-                	sa.applyStylesheetToDMCs(cpPackage, CPHTMLSTYLESHEET);
-                }
-                else
-                {
-                	sa.applyStylesheetToDMCs(cpPackage, CPSTYLESHEET);
-                }
-                
-                //create list.js, add to CP
                 dmp = new DMParser();
                 manifest = (Document)ctx.get(Keys.XML_SOURCE);
+                manifestIndex = (ManifestIndex)ctx.get(Keys.MANIFEST_INDEX);
+                if (manifestIndex == null || manifestIndex.getManifest() != manifest)
+                {
+                    manifestIndex = new ManifestIndex(manifest);
+                    ctx.put(Keys.MANIFEST_INDEX, manifestIndex);
+                }
                 File scpmFile = new File((String)ctx.get(Keys.SCPM_FILE));
                 scpm = dmp.getDoc(scpmFile);
-            
-                generateListFile();
-            
-                //write urn map to cp app location
-                Document urn_map = (Document)ctx.get(Keys.URN_MAP);
-                File js = new File(cpPackage + File.separator + "resources/s1000d/app/urn_resource_map.xml");
-            
-                XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-                FileWriter writer = new FileWriter(js);
-                outputter.output(urn_map, writer);
-                writer.flush();
-                writer.close();
-                //System.out.println("A " + js.getAbsolutePath());
-                commonFiles.add(js.getAbsolutePath());
                 
-                //add as a common resource element
-                generateCommonResource();
-            
-                //build launchable htm files and add to manifest
-                generateLaunchableFile();
+                //the steps that touch different files of the content package 
+                //run at the same time
+                StepGraph steps = createSteps(styleSheet, (Document)ctx.get(Keys.URN_MAP));
+                steps.run();
+                
+                if (workspace != null)
+                {
+                    workspace.save();
+                }
             }
             catch (JDOMException e)
             {
@@ -181,6 +292,12 @@ public class SCOBuilder implements Command
                 ioe.printStackTrace();
                 return PROCESSING_COMPLETE;  
             }
+            catch (Exception e)
+            {
+                System.out.println(SCOBUILDER_FAILED);
+                e.printStackTrace();
+                return PROCESSING_COMPLETE;  
+            }
           
             ctx.put(Keys.XML_SOURCE, manifest);
             System.out.println("SCOBuilder processing was successful");
@@ -196,22 +313,205 @@ public class SCOBuilder implements Command
         return CONTINUE_PROCESSING;
     }
 
+    /**
+     * Creates the steps that build the SCOs in the content package.  Each step
+     * declares the files of the content package it reads and writes, so the 
+     * style sheet is applied to the data modules while the Viewer Application 
+     * files are copied and the list.js and urn_resource_map.xml files are 
+     * written.  The steps that change the imsmanifest.xml run one after the 
+     * other, and all of the steps that add to the package tree do too.
+     * 
+     * @param styleSheet String that is the style sheet for the data modules.
+     * @param urn_map Document that is the urn_resource_map.xml file.
+     * @return StepGraph with the steps.
+     */
+    private StepGraph createSteps(final String styleSheet, final Document urn_map)
+    {
+        StepGraph steps = new StepGraph();
+        List<String> none = Collections.emptyList();
+        //the names of the Viewer Application are only known from a directory
+        final List<String> viewerApp = getViewerAppNames();
+        List<String> viewerAppPaths = null;
+        if (viewerApp != null)
+        {
+            viewerAppPaths = toPaths(viewerApp, tree != null);
+        }
+        
+        //copy necessary files over to CP folder
+        steps.add("copyViewerAppFiles", none, viewerAppPaths, new StepGraph.Action()
+        {
+            public boolean run() throws IOException
+            {
+                copyViewerAppFiles(viewerApp);
+                return false;
+            }
+        });
+        
+        //apply the SCORM CP XSLT StyleSheet to the data modules
+        //unless they were copied with it
+        if (!stylesheetApplied)
+        {
+            final List<String> dataModules;
+            if (workspace != null)
+            {
+                //the rest of the workspace has it from the last run
+                dataModules = workspace.getChangedFiles();
+            }
+            else
+            {
+                dataModules = Arrays.asList(new File(cpPackage + File.separator + "resources" + 
+                                                     File.separator + "s1000d").list());
+            }
+            List<String> dataModulePaths = toPaths(dataModules, false);
+            steps.add("applyStylesheetToDMCs", dataModulePaths, dataModulePaths, new StepGraph.Action()
+            {
+                public boolean run() throws JDOMException, IOException
+                {
+                    StylesheetApplier sa = new StylesheetApplier();
+                    sa.applyStylesheetToDMCs(cpPackage, styleSheet, dataModules);
+                    return false;
+                }
+            });
+        }
+        
+        //create list.js, add to CP
+        steps.add("generateListFile", Arrays.asList(Keys.SCPM_FILE, Keys.XML_SOURCE, Keys.MANIFEST_INDEX), 
+                  toPaths(Arrays.asList(LIST_FILE), tree != null), new StepGraph.Action()
+        {
+            public boolean run() throws JDOMException, IOException
+            {
+                generateListFile();
+                return false;
+            }
+        });
+        
+        //write urn map to cp app location
+        steps.add("writeURNMap", Arrays.asList(Keys.URN_MAP), toPaths(Arrays.asList(URN_MAP_FILE), tree != null), 
+                  new StepGraph.Action()
+        {
+            public boolean run() throws IOException
+            {
+                XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
+                writeGenerated(URN_MAP_FILE, outputter.outputString(urn_map));
+                return false;
+            }
+        });
+        
+        //add as a common resource element
+        List<String> commonResourceReads = null;
+        if (viewerAppPaths != null)
+        {
+            commonResourceReads = new ArrayList<String>(viewerAppPaths);
+            commonResourceReads.add(LIST_FILE);
+            commonResourceReads.add(URN_MAP_FILE);
+        }
+        steps.add("generateCommonResource", commonResourceReads, Arrays.asList(Keys.XML_SOURCE, Keys.MANIFEST_INDEX), 
+                  new StepGraph.Action()
+        {
+            public boolean run() throws JDOMException
+            {
+                commonFiles.add(LIST_FILE);
+                commonFiles.add(URN_MAP_FILE);
+                generateCommonResource();
+                return false;
+            }
+        });
+        
+        //build launchable htm files and add to manifest
+        List<String> launchableWrites = toPaths(Arrays.asList("resources/scos/"), tree != null);
+        launchableWrites.add(Keys.XML_SOURCE);
+        launchableWrites.add(Keys.MANIFEST_INDEX);
+        steps.add("generateLaunchableFile", none, launchableWrites, new StepGraph.Action()
+        {
+            public boolean run() throws JDOMException, IOException
+            {
+                generateLaunchableFile();
+                return false;
+            }
+        });
+        return steps;
+    }
+    
+    /**
+     * Returns the locations of files in the data module directory of the 
+     * content package as the names a step of the StepGraph writes.
+     * 
+     * @param names List<String> of the names relative to the data module 
+     * directory, or of the locations in the content package when they start 
+     * with resources/.
+     * @param toTree boolean that is true when the files are added to the 
+     * package tree, which is added to the names.
+     * @return List<String> of the locations in the content package.
+     */
+    private List<String> toPaths(List<String> names, boolean toTree)
+    {
+        List<String> paths = new ArrayList<String>();
+        for (String name : names)
+        {
+            paths.add(name.startsWith("resources/") ? name : "resources/s1000d/" + name);
+        }
+        if (toTree)
+        {
+            paths.add(Keys.PACKAGE_TREE);
+        }
+        return paths;
+    }
+    
+    /**
+     * Returns the names of the files and directories at the top of the 
+     * Viewer Application directory, with a "/" at the end of the directories.
+     * 
+     * @return List<String> of the names, or null if the Viewer Application 
+     * is copied from the jar.
+     */
+    private List<String> getViewerAppNames()
+    {
+        File trainingContent = new File(System.getProperty("user.dir") + File.separator + "ViewerApplication");
+        if (!trainingContent.exists() || ExtractedDirectories.isExtracted(trainingContent))
+        {
+            return null;
+        }
+        List<String> names = new ArrayList<String>();
+        for (File file : trainingContent.listFiles())
+        {
+            names.add(file.isDirectory() ? file.getName() + "/" : file.getName());
+        }
+        return names;
+    }
+    
     /**
      * Copies the Viewer Application files to the content package directory 
      * location.
      * 
+     * @param viewerApp List<String> of the names at the top of the Viewer 
+     * Application directory, or null if it is copied from the jar.
      * @throws IOException
      */
-    private void copyViewerAppFiles() throws IOException
+    private void copyViewerAppFiles(List<String> viewerApp) throws IOException
     {
     	//.out.println("at copyViewerAppFiles");
         File trainingContent = new File(System.getProperty("user.dir") + File.separator + "ViewerApplication");
+        //a directory the MobileBuilder copied from the jar can be deleted while it is read
+        boolean shared = viewerApp != null;
+        if (tree != null)
+        {
+            if (shared)
+            {
+                tree.addContents("resources/s1000d/", trainingContent);
+            }
+            else
+            {
+                tree.addJarContents(this.getClass(), "ViewerApplication", "resources/s1000d/");
+            }
+            listViewerAppEntries();
+            return;
+        }
         File cpTrainingContent = new File(cpPackage + File.separator + 
                                          "resources" + File.separator + 
                                          "s1000d");
         CopyDirectory cd = new CopyDirectory();
         //check if the directory exists if it does use it else copy it from the jar
-        if (trainingContent.exists())
+        if (shared)
         {
         	cd.copyDirectory(trainingContent, cpTrainingContent);
         }
@@ -221,7 +521,19 @@ public class SCOBuilder implements Command
         }
         //System.out.println("After SCO Copy");
         //System.out.flush();
-        listViewerAppFiles(cpTrainingContent);
+        if (shared)
+        {
+            //the data modules next to the Viewer Application are not listed,
+            //they can be styled at the same time
+            for (String name : viewerApp)
+            {
+                listViewerAppFiles(new File(cpTrainingContent, name));
+            }
+        }
+        else
+        {
+            listViewerAppFiles(cpTrainingContent);
+        }
 
     }
 
@@ -250,14 +562,63 @@ public class SCOBuilder implements Command
         } 
         else 
         {
+            //the files generated by a previous build in the same directory
+            //are added when they are generated again
+            if(GENERATED_FILES.contains(srcFolder.getName()))
+            {
+                return;
+            }
             if(srcFolder.getParent().contains("app") || 
                srcFolder.getParent().contains("Assessment_templates"))
             {
-            	commonFiles.add(srcFolder.getAbsolutePath());          	
+            	commonFiles.add(toHref(srcFolder));          	
+            }
+        }
+    }
+    
+    /**
+     * Adds all of the Viewer Application entries of the package tree to the
+     * List that will be used to generate the common 'resource' element, 
+     * picking the same files as listViewerAppFiles does from a directory.
+     */
+    private void listViewerAppEntries()
+    {
+        for (String name : tree.getNames())
+        {
+            if (!name.startsWith("resources/s1000d/") || name.endsWith("/"))
+            {
+                continue;
+            }
+            String parent = name.substring(0, name.lastIndexOf('/'));
+            //ensures that hidden folders are not included
+            if (parent.substring("resources/".length()).contains("."))
+            {
+                continue;
+            }
+            if (GENERATED_FILES.contains(name.substring(parent.length() + 1)))
+            {
+                continue;
+            }
+            if (parent.contains("app") || parent.contains("Assessment_templates"))
+            {
+                commonFiles.add(name);
             }
         }
     }
     
+    /**
+     * Returns the location of a file in the content package directory 
+     * relative to the content package.
+     * 
+     * @param file File in the content package directory.
+     * @return String that is the 'href' of the file.
+     */
+    private String toHref(File file)
+    {
+        String path = file.getAbsolutePath().replace("\\", "/");
+        return path.split(cpPackage.getName() + "/")[1];
+    }
+    
     /**
      * Generates a JavaScript file that is used to navigate between the data
      * modules inside of each SCO. 
@@ -267,7 +628,7 @@ public class SCOBuilder implements Command
      */
     private void generateListFile() throws IOException, JDOMException
     {
-        File js = new File(cpPackage + File.separator + "resources/s1000d/app/list.js");
+        String js = LIST_FILE;
          
         //parse resource element to find file names...
         List<List<String>> sco_map = new ArrayList<List<String>>();
@@ -298,44 +659,38 @@ public class SCOBuilder implements Command
             Iterator<String> value = scoList.iterator();
             while (value.hasNext())
             {
-                Element resource = null;
                 String str_current = value.next();
-                xp = XPath.newInstance("//ns:resource[@identifier='" + str_current + "']");
-                xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
-                resource = (Element) xp.selectSingleNode(manifest);
+                String resource_file = manifestIndex.getResourceFileName(str_current);
 
-                if(resource!=null)
+                if(manifestIndex.getResource(str_current)!=null)
                 {
-                    String[] resource_path = resource.getAttributeValue("href").split("/");
-                    page.add("../" + resource_path[resource_path.length-1]);
+                    page.add("../" + resource_file);
                 }
             }
             scoPages.add(page);
         }
 
-        FileWriter writer = new FileWriter(js);
+        StringBuffer writer = new StringBuffer();
         int count = 0;
-        writer.write("var scoPages = new Array(" +scoPages.size() + ");\n");
+        writer.append("var scoPages = new Array(" +scoPages.size() + ");\n");
         Iterator<List<String>> pages = scoPages.iterator();
         while(pages.hasNext())
         {
             List<String> nextPg = pages.next();
-            writer.write("scoPages[" + count + "] = new Array(" + nextPg.size() + ");\n");
+            writer.append("scoPages[" + count + "] = new Array(" + nextPg.size() + ");\n");
             Iterator<String> nextPgIterator = nextPg.iterator();
             int numfile = 0;
             while(nextPgIterator.hasNext())
             {
                 String file = nextPgIterator.next();
-                writer.write("scoPages[" + count + "]["+numfile+"] = \""+file+"\";\n");
+                writer.append("scoPages[" + count + "]["+numfile+"] = \""+file+"\";\n");
                 numfile++;
             }
             count++;
         }
-        writer.write("function getArray()\n");
-        writer.write("{\n return scoPages;\n}");
-        writer.close();
-
-        commonFiles.add(js.getAbsolutePath());
+        writer.append("function getArray()\n");
+        writer.append("{\n return scoPages;\n}");
+        writeGenerated(js, writer.toString());
     }
     
     /**
@@ -361,32 +716,27 @@ public class SCOBuilder implements Command
         while(iterator.hasNext())
         {
             String file = iterator.next();
-            file = file.replace("\\", "/");
-            String[] split = file.split(cpPackage.getName()+"/");
             Element fileElement = new Element("file", ns);
-            fileElement.setAttribute(new Attribute("href", split[1]));
+            fileElement.setAttribute(new Attribute("href", file));
             commonResource.addContent(fileElement);
         }
         commonResource.setNamespace(ns);
         resources.addContent(commonResource);
+        manifestIndex.addResource(commonResource);
         
         //add a dependency element for the RES-common-files to all resource 
         //elements that have scormType = 'sco'
         Iterator<Element> scoResIterator = findSCOResources();
         while(scoResIterator.hasNext())
         {
-            Element resource = scoResIterator.next();
-            Element dependency = new Element("dependency");
-            dependency.setAttribute("identifierref", commonFilesID);
-            dependency.setNamespace(ns);
-            resource.addContent(dependency);
+            manifestIndex.addDependency(scoResIterator.next(), commonFilesID);
         }
         
     }    
     
     /**
-     * Searches through the imsmanifest.xml file for all of the 'resource' 
-     * elements that have scormType = 'sco'.
+     * Returns all of the 'resource' elements in the imsmanifest.xml file that
+     * have scormType = 'sco' from the manifest index.
      * 
      * @return Iterator<Element> Iterator of JDOM Elements that are 'resource'
      * elements with scormType = 'sco'.
@@ -394,11 +744,7 @@ public class SCOBuilder implements Command
      */
     private Iterator<Element> findSCOResources() throws JDOMException
     {
-        XPath xp = XPath.newInstance("//ns:resource[@adlcpNS:scormType='sco']");
-        xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
-        xp.addNamespace("adlcpNS", "http://www.adlnet.org/xsd/adlcp_v1p3");
-        
-        return xp.selectNodes(manifest).iterator();
+        return manifestIndex.getSCOResources().iterator();
     }
     
     /**
@@ -413,6 +759,8 @@ public class SCOBuilder implements Command
     private void generateLaunchableFile() throws JDOMException, IOException
     {
         int scoCounter = 0;
+        XPath xp = XPath.newInstance("//ns:file[@href='TODO:ref_to_SCO_goes_here']");
+        xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
         Iterator<Element> scoResIterator = findSCOResources();
         while(scoResIterator.hasNext())
         {
@@ -421,8 +769,6 @@ public class SCOBuilder implements Command
             Namespace ns = manifest.getRootElement().getNamespace();
             resource.setAttribute("href", 
                     "resources/scos/index" + scoCounter +".htm");
-            XPath xp = XPath.newInstance("//ns:file[@href='TODO:ref_to_SCO_goes_here']");
-            xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
             Element file = (Element)xp.selectSingleNode(resource);
             file.setAttribute("href",
                     "resources/scos/index" + scoCounter +".htm");
@@ -430,6 +776,22 @@ public class SCOBuilder implements Command
             buildHTMLFile(scoCounter);
             scoCounter++;
         }
+        
+        //remove the htm files of SCOs that a previous build in the same 
+        //directory had in addition
+        if (tree != null)
+        {
+            return;
+        }
+        File stale = new File(cpPackage + File.separator + 
+                              "resources/scos/index" + scoCounter +".htm");
+        while (stale.exists())
+        {
+            stale.delete();
+            scoCounter++;
+            stale = new File(cpPackage + File.separator + 
+                             "resources/scos/index" + scoCounter +".htm");
+        }
     }
     
     /**
@@ -489,18 +851,84 @@ public class SCOBuilder implements Command
             frameset.addContent(navframe);
         html.addContent(frameset);
         
-        File scoFolder = new File(cpPackage + File.separator + 
-                             "resources/scos/");
-        scoFolder.mkdir();
+        if (tree == null)
+        {
+            File scoFolder = new File(cpPackage + File.separator + 
+                                 "resources/scos/");
+            scoFolder.mkdir();
+        }
         
         XMLOutputter outputter = new XMLOutputter(Format.getPrettyFormat());
-        FileWriter writer = new FileWriter(cpPackage + File.separator + 
-                            "resources/scos/index" + num +".htm");
-        outputter.output(html, writer);
-        writer.flush();
-        writer.close();
-
-        
+        writeGenerated("resources/scos/index" + num +".htm", outputter.outputString(html));
+    }
     
+    /**
+     * Adds a generated file to the content package, either as an entry of 
+     * the package tree or as a file in the content package directory.
+     * 
+     * @param name String that is the location of the file in the content package.
+     * @param content String that is the content of the file.
+     * @throws IOException
+     */
+    private void writeGenerated(String name, String content) throws IOException
+    {
+        if (tree != null)
+        {
+            tree.addBuffer(name, content.getBytes());
+        }
+        else
+        {
+            writeIfChanged(new File(cpPackage + File.separator + name), content);
+        }
+    }
+    
+    /**
+     * Writes a generated file unless the file already has the same content, 
+     * so that the files of an incremental build keep their time stamps when
+     * nothing changed.
+     * 
+     * @param file File to write.
+     * @param content String that is the content of the file.
+     * @throws IOException
+     */
+    private void writeIfChanged(File file, String content) throws IOException
+    {
+        byte[] bytes = content.getBytes();
+        if (file.length() == bytes.length)
+        {
+            byte[] existing = new byte[bytes.length];
+            InputStream in = CommandMetrics.countRead(new FileInputStream(file));
+            try
+            {
+                int read = 0;
+                while (read < existing.length)
+                {
+                    int count = in.read(existing, read, existing.length - read);
+                    if (count < 0)
+                    {
+                        break;
+                    }
+                    read += count;
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+            if (Arrays.equals(bytes, existing))
+            {
+                return;
+            }
+        }
+        
+        OutputStream out = CommandMetrics.countWritten(new FileOutputStream(file));
+        try
+        {
+            out.write(bytes);
+        }
+        finally
+        {
+            out.close();
+        }
     }
 }
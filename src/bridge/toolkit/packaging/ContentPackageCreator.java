@@ -7,11 +7,16 @@ package bridge.toolkit.packaging;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 
 import org.jdom.JDOMException;
 
 import bridge.toolkit.util.CopyDirectory;
 import bridge.toolkit.util.SCOContentDMChecker;
+import bridge.toolkit.util.StylesheetApplier;
 
 /**
  * Creates a directory to place all the files required to build the SCORM 
@@ -20,6 +25,12 @@ import bridge.toolkit.util.SCOContentDMChecker;
  */
 public class ContentPackageCreator
 {
+    /**
+     * Name of the system property that turns on linking the files of the 
+     * resource package that are not rewritten into the package instead of 
+     * copying them.
+     */
+    public static final String LINK_PROPERTY = "bridge.toolkit.linkResources";
 
     /**
      * The location of the resource package that contains
@@ -33,6 +44,40 @@ public class ContentPackageCreator
      */
     String packagesLocation = System.getProperty("java.io.tmpdir") + File.separator + "packages";
     
+    /**
+     * The style sheet that is added to the data modules while they are 
+     * copied, or null if the data modules are copied as they are.
+     */
+    String stylesheet = null;
+    
+    /**
+     * The type of the style sheet that is added to the data modules. Either
+     * 'xsl' or 'css'.
+     */
+    String stylesheetType;
+    
+    /**
+     * The entire media type attribute of the style sheet that is added to the
+     * data modules.
+     */
+    String stylesheetMediaType;
+    
+    /**
+     * Indicates if the files of the resource package that are not rewritten
+     * are hard linked into the package.
+     */
+    boolean linking = Boolean.getBoolean(LINK_PROPERTY);
+    
+    /**
+     * Indicates if linking a file failed, after which the files are copied.
+     */
+    boolean linkFailed = false;
+    
+    /**
+     * Number of files that were linked into the package.
+     */
+    int linkedFiles = 0;
+    
 
     /**
      * Operator that takes in a String object.
@@ -55,6 +100,55 @@ public class ContentPackageCreator
         this.packagesLocation = packagesLocation;
     }
     
+    /**
+     * Sets the style sheet that is added to the data modules while they are
+     * copied, so that each data module is written once and does not have to 
+     * be parsed to add the style sheet afterwards.
+     * 
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     */
+    public void setStylesheet(String iStyleSheet, String iType, String iMediaType)
+    {
+        stylesheet = iStyleSheet;
+        stylesheetType = iType;
+        stylesheetMediaType = iMediaType;
+    }
+    
+    /**
+     * Sets whether the files of the resource package that are not rewritten 
+     * while building the output, the ICNs and entity files, are hard linked 
+     * into the package instead of copied.  The data modules are always 
+     * copied since the style sheet is added to them.  When the file system 
+     * can not link the files they are copied.
+     * 
+     * @param iLinking boolean true to link the files.
+     */
+    public void setLinking(boolean iLinking)
+    {
+        linking = iLinking;
+    }
+    
+    /**
+     * @return int the number of files that were linked into the package.
+     */
+    public int getLinkedFiles()
+    {
+        return linkedFiles;
+    }
+    
+    /**
+     * Checks if the style sheet is added to the data modules while they are
+     * copied.
+     * 
+     * @return boolean true if a style sheet was set.
+     */
+    public boolean isStylesheetApplied()
+    {
+        return stylesheet != null;
+    }
+    
     /**
      * Creates a new folder to act as the root of the Content Package being 
      * created by the toolkit.
@@ -70,15 +164,15 @@ public class ContentPackageCreator
         
         if(!cp.exists())
         {
-            cp.mkdir();
+            cp.mkdirs();
         }
 
         String newPackage = "package";
-        int numberOfPackages = 0;
+        int numberOfPackages = 1;
         String[] cpPackages = cp.list();
-        File newCP;
         if(cpPackages.length >= 1)
         {
+            numberOfPackages = 0;
             for(String name : cpPackages)
             {
                 String temp = name.substring(newPackage.length());
@@ -88,14 +182,19 @@ public class ContentPackageCreator
                     numberOfPackages = currentNum + 1;
                 }
             }
-            
-            newCP = new File(packagesLocation +File.separator + newPackage + numberOfPackages);
-            newCP.mkdirs();
         }
-        else
+        
+        //only one of the conversions that pick the same number at the same
+        //time creates the directory, the others move on to the next number
+        File newCP = new File(packagesLocation +File.separator + newPackage + numberOfPackages);
+        while (!newCP.mkdir())
         {
-            newCP = new File(packagesLocation +File.separator + newPackage + "1");
-            newCP.mkdirs();
+            if (!newCP.exists())
+            {
+                throw new IOException("The package directory " + newCP + " could not be created");
+            }
+            numberOfPackages++;
+            newCP = new File(packagesLocation +File.separator + newPackage + numberOfPackages);
         }
         
         //copy over resource package
@@ -123,6 +222,26 @@ public class ContentPackageCreator
     private void copyResources(File srcDir, File destDir) throws IOException, JDOMException
     {
         CopyDirectory cd = new CopyDirectory();
+        for(File file: listResources(srcDir))
+        {
+            copyResource(cd, file, destDir);
+        }
+        System.out.println(cd.getStatistics() + ", " + linkedFiles + " files linked");
+        
+    }
+    
+    /**
+     * Returns the files of the resource package that go into the Content 
+     * Package: everything except the S1000D 4.1 SCO content data modules.
+     * 
+     * @param srcDir File that represents the location of the resource package.
+     * @return List<File> of the files and directories in the resource package.
+     * @throws IOException
+     * @throws JDOMException
+     */
+    private List<File> listResources(File srcDir) throws IOException, JDOMException
+    {
+        List<File> resources = new ArrayList<File>();
         File[] srcArray = srcDir.listFiles();
         for(File file: srcArray)
         {
@@ -130,15 +249,113 @@ public class ContentPackageCreator
             {    
                 if(!SCOContentDMChecker.isSCOContentDM(file))
                 {
-                    cd.copyDirectory(file, destDir);
+                    resources.add(file);
                 }
             }
             else
             {
-                cd.copyDirectory(file, destDir);
+                resources.add(file);
             }
         }
-        
+        return resources;
+    }
+    
+    /**
+     * Describes the Content Package as a tree of entries instead of copying 
+     * the resource package to a new directory.  The data modules are added 
+     * as entries that get the style sheet while they are written, if a style
+     * sheet was set, and the other files are read from the resource package
+     * when the package is written.
+     * 
+     * @return PackageTree with the resource package under resources/s1000d.
+     * @throws IOException
+     * @throws JDOMException
+     */
+    public PackageTree createPackageTree() throws IOException, JDOMException
+    {
+        PackageTree tree = new PackageTree();
+        String prefix = "resources/s1000d/";
+        for(File file: listResources(new File(mResourcePackage)))
+        {
+            if(stylesheet != null && StylesheetApplier.isStyledFile(file))
+            {
+                tree.addTransformed(prefix + file.getName(), file, new PackageTree.Transformation()
+                {
+                    public void transform(File source, OutputStream out) throws IOException
+                    {
+                        new StylesheetApplier().writeWithStylesheet(source, out, stylesheet, 
+                                stylesheetType, stylesheetMediaType);
+                    }
+                });
+            }
+            else if(file.isDirectory())
+            {
+                tree.addDirectory(prefix + file.getName() + "/", file);
+                tree.addContents(prefix + file.getName() + "/", file);
+            }
+            else
+            {
+                tree.addFile(prefix + file.getName(), file);
+            }
+        }
+        return tree;
+    }
+    
+    /**
+     * Copies a file of the resource package, adding the style sheet to it on
+     * the way if it is a data module and a style sheet was set.
+     * 
+     * @param cd CopyDirectory used to copy the files that do not get the style sheet.
+     * @param file File that represents the file in the resource package.
+     * @param dest File that represents the copy, or the directory to copy it to.
+     * @throws IOException
+     */
+    protected void copyResource(CopyDirectory cd, File file, File dest) throws IOException
+    {
+        if(stylesheet != null && StylesheetApplier.isStyledFile(file))
+        {
+            new StylesheetApplier().copyWithStylesheet(file, dest, stylesheet, stylesheetType, stylesheetMediaType);
+        }
+        else if(linking && !linkFailed && file.isFile() && !StylesheetApplier.isStyledFile(file))
+        {
+            linkResource(cd, file, dest.isDirectory() ? new File(dest, file.getName()) : dest);
+        }
+        else
+        {
+            cd.copyDirectory(file, dest);
+        }
+    }
+    
+    /**
+     * Hard links a file of the resource package into the package, copying it
+     * if the file system can not link it.  Once linking fails the rest of the
+     * files are copied.
+     * 
+     * @param cd CopyDirectory used to copy the file if it can not be linked.
+     * @param file File that represents the file in the resource package.
+     * @param dest File that represents the link to create.
+     * @throws IOException
+     */
+    private void linkResource(CopyDirectory cd, File file, File dest) throws IOException
+    {
+        try
+        {
+            //a copy from an earlier run is replaced
+            Files.deleteIfExists(dest.toPath());
+            Files.createLink(dest.toPath(), file.toPath());
+            linkedFiles++;
+            return;
+        }
+        catch (IOException e)
+        {
+            System.out.println("The resource package files can not be linked, copying them instead: " + e);
+        }
+        catch (UnsupportedOperationException e)
+        {
+            System.out.println("The resource package files can not be linked, copying them instead: " + e);
+        }
+        linkFailed = true;
+        cd.copyDirectory(file, dest);
     }
       
 }
@@ -0,0 +1,357 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+
+import bridge.toolkit.util.CopyDirectory;
+import bridge.toolkit.util.ResourcePackageIndex;
+import bridge.toolkit.util.XMLParser;
+
+/**
+ * Creates the directory used to build the SCORM Content Package the same way
+ * as the ContentPackageCreator, but keeps the directory (the workspace)
+ * between runs for the same SCPM, resource package and style sheet.
+ *
+ * Only the files of the resource package that were added or changed since
+ * the last run are copied into the workspace, and files that were removed
+ * from the resource package are removed from the workspace.  The names of
+ * the copied files are available through getChangedFiles so that only those
+ * files are processed again.
+ */
+public class IncrementalPackageCreator extends ContentPackageCreator
+{
+    /**
+     * Version of the workspace state file format.  Workspaces with another
+     * version are rebuilt.
+     */
+    private static final String STATE_VERSION = "1";
+
+    /**
+     * The directory where the workspaces are stored in the system.
+     */
+    String workspacesLocation = System.getProperty("java.io.tmpdir") + File.separator + "workspaces";
+
+    /**
+     * String that identifies the workspace, made up of the SCPM, the resource
+     * package and the style sheet.
+     */
+    private String mKey;
+
+    /**
+     * The style sheet that is applied to the data modules in the workspace.
+     */
+    private String mStyleSheet;
+
+    /**
+     * The workspace directory.
+     */
+    private File workspace;
+
+    /**
+     * Records of the files copied into the workspace keyed by file name.
+     */
+    private Map<String, Element> files = new TreeMap<String, Element>();
+
+    /**
+     * Names of the files that were copied into the workspace by createPackage.
+     */
+    private List<String> changedFiles = new ArrayList<String>();
+
+    /**
+     * Names of the files that were removed from the workspace by createPackage.
+     */
+    private List<String> removedFiles = new ArrayList<String>();
+
+    /**
+     * Constructor
+     *
+     * @param iResourcePackage String that represents the location of the provided
+     * resource package of S1000D files.
+     * @param iScpm String that represents the location of the SCPM file the
+     * workspace belongs to.
+     * @param iStyleSheet String that represents the style sheet that is applied
+     * to the data modules.
+     * @throws IOException
+     */
+    public IncrementalPackageCreator(String iResourcePackage, String iScpm, String iStyleSheet) throws IOException
+    {
+        super(iResourcePackage);
+        mStyleSheet = iStyleSheet;
+        mKey = new File(iScpm).getCanonicalPath() + "|" +
+               new File(iResourcePackage).getCanonicalPath() + "|" + iStyleSheet;
+    }
+
+    /**
+     * Sets the directory where the workspaces are stored in the system.
+     *
+     * @param workspacesLocation the workspacesLocation to set
+     */
+    public void setWorkspacesLocation(String workspacesLocation)
+    {
+        this.workspacesLocation = workspacesLocation;
+    }
+
+    /**
+     * Opens the workspace of the previous run, or creates a new one, and
+     * brings the copy of the resource package in it up to date.
+     *
+     * Note: S1000D 4.1 SCO content data modules are not copied over.
+     *
+     * @return File that is the location of the workspace directory.
+     * @throws JDOMException
+     * @throws IOException
+     * @see bridge.toolkit.packaging.ContentPackageCreator#createPackage()
+     */
+    @Override
+    public File createPackage() throws IOException, JDOMException
+    {
+        File srcDir = new File(mResourcePackage);
+        String name = srcDir.getCanonicalFile().getName() + "-" + Integer.toHexString(mKey.hashCode());
+        workspace = new File(workspacesLocation + File.separator + name);
+
+        files.clear();
+        changedFiles.clear();
+        removedFiles.clear();
+        if (!loadState())
+        {
+            //nothing is known about the contents so start over
+            files.clear();
+            deleteDirectory(workspace);
+        }
+
+        File resource = new File(workspace.getAbsoluteFile()+ File.separator +
+                                "resources" + File.separator + "s1000d");
+        resource.mkdirs();
+
+        updateResources(srcDir, resource);
+
+        return workspace;
+    }
+
+    /**
+     * Returns the names of the files that were copied into the workspace
+     * because they are new or changed since the last run.
+     *
+     * @return List<String> the names of the copied files.
+     */
+    public List<String> getChangedFiles()
+    {
+        return changedFiles;
+    }
+
+    /**
+     * Returns the names of the files that were removed from the workspace
+     * because they were removed from the resource package.
+     *
+     * @return List<String> the names of the removed files.
+     */
+    public List<String> getRemovedFiles()
+    {
+        return removedFiles;
+    }
+
+    /**
+     * Records the current contents of the workspace so that the next run
+     * only has to copy the files that change in the meantime.  This should
+     * be called once the files in the workspace are completely processed.
+     *
+     * @throws IOException
+     */
+    public void save() throws IOException
+    {
+        Element root = new Element("workspace");
+        root.setAttribute("version", STATE_VERSION);
+        root.setAttribute("key", mKey);
+        root.setAttribute("styleSheet", mStyleSheet);
+        Iterator<Element> iterator = files.values().iterator();
+        while (iterator.hasNext())
+        {
+            root.addContent((Element) iterator.next().clone());
+        }
+
+        File stateFile = getStateFile();
+        File temp = new File(stateFile.getPath() + ".tmp");
+        OutputStream out = new FileOutputStream(temp);
+        try
+        {
+            new XMLOutputter(Format.getPrettyFormat()).output(new Document(root), out);
+        }
+        finally
+        {
+            out.close();
+        }
+        if (stateFile.exists() && !stateFile.delete())
+        {
+            throw new IOException("Unable to replace " + stateFile);
+        }
+        if (!temp.renameTo(stateFile))
+        {
+            throw new IOException("Unable to write " + stateFile);
+        }
+    }
+
+    /**
+     * Returns the file the state of the workspace is kept in.  It is kept
+     * next to the workspace so that it does not become part of the Content
+     * Package.
+     *
+     * @return File that holds the state of the workspace.
+     */
+    File getStateFile()
+    {
+        return new File(workspace.getPath() + ".xml");
+    }
+
+    /**
+     * Loads the state of the workspace recorded by the previous run.
+     *
+     * @return boolean true if the state belongs to the existing workspace and
+     * can be used.
+     */
+    @SuppressWarnings("unchecked")
+    private boolean loadState()
+    {
+        File stateFile = getStateFile();
+        if (!stateFile.exists() || !workspace.isDirectory())
+        {
+            return false;
+        }
+        try
+        {
+            XMLParser parser = new XMLParser();
+            parser.setCaching(false);
+            Element root = parser.getDoc(stateFile).getRootElement();
+            if (!STATE_VERSION.equals(root.getAttributeValue("version")) ||
+                !mKey.equals(root.getAttributeValue("key")))
+            {
+                return false;
+            }
+            Iterator<Element> iterator = root.getChildren("file").iterator();
+            while (iterator.hasNext())
+            {
+                Element file = iterator.next();
+                files.put(file.getAttributeValue("name"), (Element) file.clone());
+            }
+        }
+        catch (Exception e)
+        {
+            //an unreadable state only costs a full rebuild
+            return false;
+        }
+
+        //the state is removed until the workspace is processed again so
+        //that an interrupted run does not leave a state that is out of date
+        stateFile.delete();
+        return true;
+    }
+
+    /**
+     * Copies the data modules and ICN files of the resource package that are
+     * new or changed to the workspace and removes the ones that no longer
+     * exist. A file is changed when its size and modification time differ
+     * from the last run and its content hash differs as well.
+     *
+     * @param srcDir File that represents the location of the resource package.
+     * @param destDir File that represents the location of the in the workspace
+     * where the data modules and ICN files will be copied.
+     * @throws IOException
+     * @throws JDOMException
+     */
+    private void updateResources(File srcDir, File destDir) throws IOException, JDOMException
+    {
+        CopyDirectory cd = new CopyDirectory();
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(srcDir);
+        Set<String> current = new HashSet<String>();
+        File[] srcArray = srcDir.listFiles();
+        for(File file: srcArray)
+        {
+            if(file.isDirectory())
+            {
+                cd.copyDirectory(file, new File(destDir, file.getName()));
+                continue;
+            }
+            if(file.getName().endsWith(".xml") && index.getEntry(file.getName()).isScoContent())
+            {
+                continue;
+            }
+            current.add(file.getName());
+
+            File dest = new File(destDir, file.getName());
+            Element record = files.get(file.getName());
+            String size = Long.toString(file.length());
+            String modified = Long.toString(file.lastModified());
+            if (record != null && dest.exists() &&
+                size.equals(record.getAttributeValue("size")) &&
+                modified.equals(record.getAttributeValue("lastModified")))
+            {
+                continue;
+            }
+
+            String hash = ResourcePackageIndex.computeHash(file);
+            if (record == null || !dest.exists() || !hash.equals(record.getAttributeValue("hash")))
+            {
+                copyResource(cd, file, dest);
+                changedFiles.add(file.getName());
+            }
+            if (record == null)
+            {
+                record = new Element("file");
+                record.setAttribute("name", file.getName());
+                files.put(file.getName(), record);
+            }
+            record.setAttribute("size", size);
+            record.setAttribute("lastModified", modified);
+            record.setAttribute("hash", hash);
+        }
+
+        Iterator<String> names = files.keySet().iterator();
+        while (names.hasNext())
+        {
+            String name = names.next();
+            if (!current.contains(name))
+            {
+                new File(destDir, name).delete();
+                removedFiles.add(name);
+                names.remove();
+            }
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param path File that represents the directory to delete.
+     */
+    private static void deleteDirectory(File path)
+    {
+        File[] children = path.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                deleteDirectory(child);
+            }
+        }
+        path.delete();
+    }
+}
@@ -0,0 +1,572 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.URL;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import bridge.toolkit.util.CommandMetrics;
+
+/**
+ * Describes the content of a package as entries that are only read when the
+ * package is written, so the package can be streamed straight into a ZIP
+ * file without being put together in a directory first.
+ *
+ * Each entry is a file, a buffer in memory, a resource on the class path or
+ * a file that is transformed while it is written.  Entry names use "/" and
+ * the names of directories end with a "/".  The parent directories of an
+ * entry are added with it, and an entry added with the name of an existing
+ * entry replaces it in the same place.
+ */
+public class PackageTree
+{
+    /**
+     * Name of the system property that turns on building the SCORM Content
+     * Package straight into the ZIP file instead of in a directory.
+     */
+    public static final String DIRECT_PROPERTY = "bridge.toolkit.directPackage";
+
+    /**
+     * The entries keyed by name in the order they were added.
+     */
+    private Map<String, Source> entries = new LinkedHashMap<String, Source>();
+
+    /**
+     * Time used for the directories and buffers that have no time of their own.
+     */
+    private long created = System.currentTimeMillis();
+
+    /**
+     * Checks if the SCORM Content Package is built straight into the ZIP file
+     * as set by the DIRECT_PROPERTY system property.
+     *
+     * @return boolean true if no package directory is used.
+     */
+    public static boolean isDirect()
+    {
+        return Boolean.getBoolean(DIRECT_PROPERTY);
+    }
+
+    /**
+     * Adds a file.
+     *
+     * @param name String that is the entry name.
+     * @param file File whose content is written.
+     */
+    public void addFile(String name, File file)
+    {
+        add(name, new FileSource(file));
+    }
+
+    /**
+     * Adds a file whose content is held in memory.
+     *
+     * @param name String that is the entry name.
+     * @param data byte[] that is the content of the file.
+     */
+    public void addBuffer(String name, byte[] data)
+    {
+        add(name, new BufferSource(data, created));
+    }
+
+    /**
+     * Adds a resource on the class path.
+     *
+     * @param name String that is the entry name.
+     * @param url URL of the resource.
+     */
+    public void addResource(String name, URL url)
+    {
+        add(name, new ResourceSource(url, created));
+    }
+
+    /**
+     * Adds a file that is transformed while it is written.
+     *
+     * @param name String that is the entry name.
+     * @param file File that is transformed.
+     * @param transformation Transformation that writes the content of the entry.
+     */
+    public void addTransformed(String name, File file, Transformation transformation)
+    {
+        add(name, new TransformedSource(file, transformation));
+    }
+
+    /**
+     * Adds a directory entry, without the content of the directory.
+     *
+     * @param name String that is the entry name, ending with a "/".
+     * @param directory File that is the directory.
+     */
+    public void addDirectory(String name, File directory)
+    {
+        add(name, new DirectorySource(directory.lastModified()));
+    }
+
+    /**
+     * Adds everything in a directory and its sub directories.
+     *
+     * @param prefix String that is put in front of the entry names, either
+     * empty or ending with a "/".
+     * @param directory File that is the directory whose content is added.
+     */
+    public void addContents(String prefix, File directory)
+    {
+        File[] files = directory.listFiles();
+        if (files == null)
+        {
+            return;
+        }
+        for (File file : files)
+        {
+            if (file.isDirectory())
+            {
+                addDirectory(prefix + file.getName() + "/", file);
+                addContents(prefix + file.getName() + "/", file);
+            }
+            else
+            {
+                addFile(prefix + file.getName(), file);
+            }
+        }
+    }
+
+    /**
+     * Adds the files of a directory in a jar file, using the FileList.txt in
+     * the directory like CopyDirectory.CopyJarFiles does.
+     *
+     * @param owner Class that the directory is relative to.
+     * @param jarDirectory String that is the directory in the jar file.
+     * @param prefix String that is put in front of the entry names, either
+     * empty or ending with a "/".
+     * @throws IOException if the file list or one of the files is missing.
+     */
+    public void addJarContents(Class<?> owner, String jarDirectory, String prefix) throws IOException
+    {
+        InputStream list = owner.getResourceAsStream(jarDirectory + "/FileList.txt");
+        if (list == null)
+        {
+            throw new FileNotFoundException(jarDirectory + "/FileList.txt");
+        }
+        BufferedReader reader = new BufferedReader(new InputStreamReader(list));
+        try
+        {
+            String name;
+            while ((name = reader.readLine()) != null)
+            {
+                URL url = owner.getResource(jarDirectory + "/" + name);
+                if (url == null)
+                {
+                    throw new FileNotFoundException(jarDirectory + "/" + name);
+                }
+                addResource(prefix + name, url);
+            }
+        }
+        finally
+        {
+            reader.close();
+        }
+    }
+
+    /**
+     * Checks if there is an entry with a name.
+     *
+     * @param name String that is the entry name.
+     * @return boolean true if there is an entry with the name.
+     */
+    public boolean contains(String name)
+    {
+        return entries.containsKey(name);
+    }
+
+    /**
+     * Returns an entry.
+     *
+     * @param name String that is the entry name.
+     * @return Source of the entry, or null if there is no entry with the name.
+     */
+    public Source get(String name)
+    {
+        return entries.get(name);
+    }
+
+    /**
+     * Removes an entry.
+     *
+     * @param name String that is the entry name.
+     */
+    public void remove(String name)
+    {
+        entries.remove(name);
+    }
+
+    /**
+     * @return List<String> of the entry names in the order they were added.
+     */
+    public List<String> getNames()
+    {
+        return new ArrayList<String>(entries.keySet());
+    }
+
+    /**
+     * @return int the number of entries.
+     */
+    public int size()
+    {
+        return entries.size();
+    }
+
+    /**
+     * Adds an entry and the parent directories that are not in the tree yet.
+     *
+     * @param name String that is the entry name.
+     * @param source Source of the entry.
+     */
+    private void add(String name, Source source)
+    {
+        int slash = name.indexOf('/');
+        while (slash >= 0 && slash < name.length() - 1)
+        {
+            String parent = name.substring(0, slash + 1);
+            if (!entries.containsKey(parent))
+            {
+                entries.put(parent, new DirectorySource(created));
+            }
+            slash = name.indexOf('/', slash + 1);
+        }
+        entries.put(name, source);
+    }
+
+    /**
+     * Writes the content of an entry that is transformed.
+     */
+    public interface Transformation
+    {
+        /**
+         * Writes the transformed content of a file.
+         *
+         * @param file File that is transformed.
+         * @param out OutputStream the content is written to; it is not closed.
+         * @throws IOException
+         */
+        void transform(File file, OutputStream out) throws IOException;
+    }
+
+    /**
+     * The content of an entry.
+     */
+    public abstract static class Source
+    {
+        /**
+         * @return boolean true if the entry is a directory.
+         */
+        public boolean isDirectory()
+        {
+            return false;
+        }
+
+        /**
+         * @return long the size of the content, or about the size for a
+         * transformed file, or -1 if it is not known.
+         */
+        public abstract long getLength();
+
+        /**
+         * @return long the time the content was last modified in milliseconds.
+         */
+        public abstract long getLastModified();
+
+        /**
+         * Writes the content.
+         *
+         * @param out OutputStream the content is written to; it is not closed.
+         * @throws IOException
+         */
+        public abstract void writeTo(OutputStream out) throws IOException;
+
+        /**
+         * Returns the whole content.
+         *
+         * @return byte[] the content.
+         * @throws IOException
+         */
+        public byte[] getBytes() throws IOException
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(getLength() > 0 ? (int) getLength() : 8192);
+            writeTo(out);
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * A directory entry.
+     */
+    static class DirectorySource extends Source
+    {
+        /**
+         * Time the directory was last modified.
+         */
+        private long lastModified;
+
+        /**
+         * Constructor
+         *
+         * @param iLastModified long that is the time the directory was last modified.
+         */
+        DirectorySource(long iLastModified)
+        {
+            lastModified = iLastModified;
+        }
+
+        @Override
+        public boolean isDirectory()
+        {
+            return true;
+        }
+
+        @Override
+        public long getLength()
+        {
+            return 0;
+        }
+
+        @Override
+        public long getLastModified()
+        {
+            return lastModified;
+        }
+
+        @Override
+        public void writeTo(OutputStream out)
+        {
+        }
+    }
+
+    /**
+     * A file entry.
+     */
+    static class FileSource extends Source
+    {
+        /**
+         * File whose content is written.
+         */
+        private File file;
+
+        /**
+         * Constructor
+         *
+         * @param iFile File whose content is written.
+         */
+        FileSource(File iFile)
+        {
+            file = iFile;
+        }
+
+        @Override
+        public boolean isDirectory()
+        {
+            return file.isDirectory();
+        }
+
+        @Override
+        public long getLength()
+        {
+            return file.isFile() ? file.length() : 0;
+        }
+
+        @Override
+        public long getLastModified()
+        {
+            return file.lastModified();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException
+        {
+            if (file.isFile())
+            {
+                CommandMetrics.read(Files.copy(file.toPath(), out));
+            }
+        }
+
+        @Override
+        public byte[] getBytes() throws IOException
+        {
+            byte[] bytes = file.isFile() ? Files.readAllBytes(file.toPath()) : new byte[0];
+            CommandMetrics.read(bytes.length);
+            return bytes;
+        }
+    }
+
+    /**
+     * A file entry whose content is held in memory.
+     */
+    static class BufferSource extends Source
+    {
+        /**
+         * Content of the file.
+         */
+        private byte[] data;
+
+        /**
+         * Time the content was created.
+         */
+        private long lastModified;
+
+        /**
+         * Constructor
+         *
+         * @param iData byte[] that is the content of the file.
+         * @param iLastModified long that is the time the content was created.
+         */
+        BufferSource(byte[] iData, long iLastModified)
+        {
+            data = iData;
+            lastModified = iLastModified;
+        }
+
+        @Override
+        public long getLength()
+        {
+            return data.length;
+        }
+
+        @Override
+        public long getLastModified()
+        {
+            return lastModified;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException
+        {
+            out.write(data);
+        }
+
+        @Override
+        public byte[] getBytes()
+        {
+            return data;
+        }
+    }
+
+    /**
+     * A file entry that is a resource on the class path.
+     */
+    static class ResourceSource extends Source
+    {
+        /**
+         * URL of the resource.
+         */
+        private URL url;
+
+        /**
+         * Time used for the resource.
+         */
+        private long lastModified;
+
+        /**
+         * Constructor
+         *
+         * @param iUrl URL of the resource.
+         * @param iLastModified long that is the time used for the resource.
+         */
+        ResourceSource(URL iUrl, long iLastModified)
+        {
+            url = iUrl;
+            lastModified = iLastModified;
+        }
+
+        @Override
+        public long getLength()
+        {
+            return -1;
+        }
+
+        @Override
+        public long getLastModified()
+        {
+            return lastModified;
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException
+        {
+            InputStream in = url.openStream();
+            try
+            {
+                byte[] buffer = new byte[8192];
+                int count;
+                while ((count = in.read(buffer)) != -1)
+                {
+                    out.write(buffer, 0, count);
+                }
+            }
+            finally
+            {
+                in.close();
+            }
+        }
+    }
+
+    /**
+     * A file entry that is transformed while it is written.
+     */
+    static class TransformedSource extends Source
+    {
+        /**
+         * File that is transformed.
+         */
+        private File file;
+
+        /**
+         * Transformation that writes the content.
+         */
+        private Transformation transformation;
+
+        /**
+         * Constructor
+         *
+         * @param iFile File that is transformed.
+         * @param iTransformation Transformation that writes the content.
+         */
+        TransformedSource(File iFile, Transformation iTransformation)
+        {
+            file = iFile;
+            transformation = iTransformation;
+        }
+
+        @Override
+        public long getLength()
+        {
+            return file.length();
+        }
+
+        @Override
+        public long getLastModified()
+        {
+            return file.lastModified();
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException
+        {
+            transformation.transform(file, out);
+        }
+    }
+}
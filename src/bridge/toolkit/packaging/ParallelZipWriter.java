@@ -0,0 +1,623 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+import bridge.toolkit.util.CommandMetrics;
+
+/**
+ * Writes a ZIP file whose entries are compressed on several threads.
+ *
+ * Each entry of a PackageTree is read and compressed into its own raw deflate stream together
+ * with its CRC32 on a worker thread, and the compressed entries are then
+ * written one after the other in the order they were given, followed by the
+ * central directory.  Since every entry is compressed on its own the ZIP
+ * file is the same whatever the number of threads.  Files that do not get
+ * smaller are stored, and files larger than the stream threshold are
+ * compressed on the writing thread straight into the ZIP file so they do
+ * not have to be kept in memory.
+ *
+ * ZIP64 is not written, so the files have to fit in a plain ZIP file; see
+ * {@link #fits(PackageTree)}.
+ */
+public class ParallelZipWriter
+{
+    /**
+     * Name of the system property that sets the number of threads used to
+     * compress the entries.  A value of 0 or less uses one thread for each
+     * processor and a value of 1 compresses the entries on the calling thread.
+     */
+    public static final String THREADS_PROPERTY = "bridge.toolkit.zipThreads";
+
+    /**
+     * Size from which a file is compressed while it is written instead of on
+     * a worker thread.
+     */
+    static final long STREAM_THRESHOLD = 8 * 1024 * 1024;
+
+    /**
+     * Number of bytes of files that may be read ahead of the entry that is
+     * being written.
+     */
+    static final long MAX_PENDING_BYTES = 32 * 1024 * 1024;
+
+    /**
+     * Largest number of entries and largest size of a plain ZIP file.
+     */
+    private static final long ZIP_LIMIT = 0xFFFFFFFFL;
+
+    /**
+     * Compression method of an entry that is stored as it is.
+     */
+    private static final int STORED = 0;
+
+    /**
+     * Compression method of a deflated entry.
+     */
+    private static final int DEFLATED = 8;
+
+    /**
+     * Flag set when the CRC and sizes follow the entry data.
+     */
+    private static final int FLAG_DATA_DESCRIPTOR = 0x08;
+
+    /**
+     * Flag set when the entry name is encoded in UTF-8.
+     */
+    private static final int FLAG_UTF8 = 0x800;
+
+    /**
+     * Size of the buffers used to read and compress the files.
+     */
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Number of threads used to compress the entries.
+     */
+    private int threads;
+
+    /**
+     * Size from which a file is compressed while it is written.
+     */
+    long streamThreshold = STREAM_THRESHOLD;
+
+    /**
+     * Entries that were written, kept for the central directory.
+     */
+    private List<Entry> written = new ArrayList<Entry>();
+
+    /**
+     * Number of bytes written to the ZIP file so far.
+     */
+    private long offset;
+
+    /**
+     * Number of bytes of the files that were zipped.
+     */
+    private long bytesRead;
+
+    /**
+     * Number of nanoseconds taken to write the ZIP file.
+     */
+    private long time;
+
+    /**
+     * Constructor
+     *
+     * @param iThreads int that is the number of threads used to compress the
+     * entries, 1 compresses them on the calling thread.
+     */
+    public ParallelZipWriter(int iThreads)
+    {
+        threads = Math.max(1, iThreads);
+    }
+
+    /**
+     * Returns the number of threads used to compress the entries as set by
+     * the THREADS_PROPERTY system property.
+     *
+     * @return int the number of threads.
+     */
+    public static int getConfiguredThreads()
+    {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 0).intValue();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Checks if a package fits in a plain ZIP file: no more than 65535 
+     * entries and no offset or size over 4 GB, even if none of the files 
+     * compress.
+     *
+     * @param tree PackageTree that describes the package.
+     * @return boolean true if the package can be written without ZIP64.
+     */
+    public static boolean fits(PackageTree tree)
+    {
+        if (tree.size() > 0xFFFF)
+        {
+            return false;
+        }
+        long size = 22;
+        for (String name : tree.getNames())
+        {
+            long length = Math.max(0, tree.get(name).getLength());
+            //deflate adds a few bytes for each block of data that does not
+            //compress, and a transformed file may grow a little
+            size += length + length / 1024 + 1024 + 2 * (46 + 16 + name.length() * 3);
+        }
+        return size < ZIP_LIMIT;
+    }
+
+    /**
+     * Writes the entries of a package to a ZIP file in the order they were
+     * added to the tree.
+     *
+     * @param tree PackageTree that describes the package.
+     * @param zipfile File that is the ZIP file to write.
+     * @throws IOException if an entry can not be read or the ZIP file can not
+     * be written.
+     */
+    public void write(PackageTree tree, File zipfile) throws IOException
+    {
+        long start = System.nanoTime();
+        written.clear();
+        offset = 0;
+        bytesRead = 0;
+
+        final List<String> names = tree.getNames();
+        final List<PackageTree.Source> sources = new ArrayList<PackageTree.Source>();
+        //decided once so a file that grows while it is zipped is still found
+        boolean[] streamed = new boolean[names.size()];
+        long[] lengths = new long[names.size()];
+        for (int i = 0; i < names.size(); i++)
+        {
+            sources.add(tree.get(names.get(i)));
+            lengths[i] = Math.max(0, sources.get(i).getLength());
+            streamed[i] = !sources.get(i).isDirectory() && lengths[i] >= streamThreshold;
+        }
+
+        OutputStream out = new BufferedOutputStream(CommandMetrics.countWritten(new FileOutputStream(zipfile)), BUFFER_SIZE);
+        ExecutorService pool = threads > 1 ? Executors.newFixedThreadPool(threads) : null;
+        try
+        {
+            List<Future<Entry>> pending = new ArrayList<Future<Entry>>();
+            long pendingBytes = 0;
+            int next = 0;
+            for (int i = 0; i < names.size(); i++)
+            {
+                //read ahead while the compressed entries fit in memory
+                while (pool != null && next < names.size() && (next == i || pendingBytes < MAX_PENDING_BYTES))
+                {
+                    final int n = next++;
+                    if (streamed[n])
+                    {
+                        pending.add(null);
+                        continue;
+                    }
+                    pending.add(pool.submit(CommandMetrics.wrap(new Callable<Entry>()
+                    {
+                        public Entry call() throws IOException
+                        {
+                            return compress(names.get(n), sources.get(n));
+                        }
+                    })));
+                    pendingBytes += lengths[n];
+                }
+
+                Entry entry;
+                if (streamed[i])
+                {
+                    entry = null;
+                }
+                else if (pool == null)
+                {
+                    entry = compress(names.get(i), sources.get(i));
+                }
+                else
+                {
+                    entry = get(pending.get(i));
+                    pending.set(i, null);
+                    pendingBytes -= lengths[i];
+                }
+
+                if (entry == null)
+                {
+                    writeStreamed(out, names.get(i), sources.get(i));
+                }
+                else
+                {
+                    writeEntry(out, entry);
+                }
+            }
+            writeCentralDirectory(out);
+        }
+        finally
+        {
+            if (pool != null)
+            {
+                pool.shutdownNow();
+            }
+            out.close();
+        }
+        time = System.nanoTime() - start;
+    }
+
+    /**
+     * Returns a one line summary of the last ZIP file that was written.
+     *
+     * @return String that describes the entries, sizes and throughput.
+     */
+    public String getStatistics()
+    {
+        long millis = Math.max(1, time / 1000000);
+        return "Zipped " + written.size() + " entries (" + (bytesRead / 1024) + " KB into " + (offset / 1024) +
+               " KB) in " + millis + " ms on " + threads + " threads, " +
+               (bytesRead * 1000 / 1024 / 1024 / millis) + " MB/s";
+    }
+
+    /**
+     * Waits for an entry that is compressed on a worker thread.
+     *
+     * @param future Future<Entry> of the compressed entry.
+     * @return Entry that is compressed.
+     * @throws IOException if the file could not be read.
+     */
+    private static Entry get(Future<Entry> future) throws IOException
+    {
+        try
+        {
+            return future.get();
+        }
+        catch (ExecutionException e)
+        {
+            if (e.getCause() instanceof Error)
+            {
+                throw (Error) e.getCause();
+            }
+            if (e.getCause() instanceof IOException)
+            {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException(e.getCause());
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IOException("Zipping the files was interrupted", e);
+        }
+    }
+
+    /**
+     * Reads a file and compresses it into a raw deflate stream, storing it
+     * when it does not get smaller.
+     *
+     * @param name String that is the entry name.
+     * @param source Source of the entry.
+     * @return Entry with the compressed data and its CRC.
+     * @throws IOException
+     */
+    static Entry compress(String name, PackageTree.Source source) throws IOException
+    {
+        Entry entry = new Entry(name, source);
+        if (source.isDirectory())
+        {
+            entry.data = new byte[0];
+            return entry;
+        }
+
+        byte[] content = source.getBytes();
+        CRC32 crc = new CRC32();
+        crc.update(content);
+        entry.crc = crc.getValue();
+        entry.size = content.length;
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try
+        {
+            deflater.setInput(content);
+            deflater.finish();
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 64);
+            byte[] buffer = new byte[Math.min(BUFFER_SIZE, content.length + 64)];
+            while (!deflater.finished())
+            {
+                int count = deflater.deflate(buffer);
+                compressed.write(buffer, 0, count);
+            }
+            if (compressed.size() < content.length)
+            {
+                entry.method = DEFLATED;
+                entry.data = compressed.toByteArray();
+            }
+            else
+            {
+                entry.data = content;
+            }
+        }
+        finally
+        {
+            deflater.end();
+        }
+        entry.compressedSize = entry.data.length;
+        return entry;
+    }
+
+    /**
+     * Writes an entry that was compressed before.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @param entry Entry to write.
+     * @throws IOException
+     */
+    private void writeEntry(OutputStream out, Entry entry) throws IOException
+    {
+        entry.offset = offset;
+        writeLocalHeader(out, entry);
+        out.write(entry.data);
+        offset += entry.data.length;
+        bytesRead += entry.size;
+        //the data is not needed for the central directory
+        entry.data = null;
+        written.add(entry);
+    }
+
+    /**
+     * Compresses a large file straight into the ZIP file.  The CRC and sizes
+     * are only known at the end, so they follow the data in a data descriptor.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @param name String that is the entry name.
+     * @param source Source of the entry.
+     * @throws IOException
+     */
+    private void writeStreamed(OutputStream out, String name, PackageTree.Source source) throws IOException
+    {
+        Entry entry = new Entry(name, source);
+        entry.method = DEFLATED;
+        entry.flags |= FLAG_DATA_DESCRIPTOR;
+        entry.offset = offset;
+        writeLocalHeader(out, entry);
+
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        try
+        {
+            DeflaterOutputStream deflated = new DeflaterOutputStream(out, deflater, BUFFER_SIZE);
+            CheckedOutputStream checked = new CheckedOutputStream(deflated, new CRC32());
+            source.writeTo(checked);
+            //finished but not closed, the ZIP file goes on
+            deflated.finish();
+            entry.crc = checked.getChecksum().getValue();
+            entry.size = deflater.getBytesRead();
+            entry.compressedSize = deflater.getBytesWritten();
+        }
+        finally
+        {
+            deflater.end();
+        }
+        offset += entry.compressedSize;
+        bytesRead += entry.size;
+
+        writeInt(out, 0x08074b50L);
+        writeInt(out, entry.crc);
+        writeInt(out, entry.compressedSize);
+        writeInt(out, entry.size);
+        written.add(entry);
+    }
+
+    /**
+     * Writes the local file header of an entry.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @param entry Entry whose header is written.
+     * @throws IOException
+     */
+    private void writeLocalHeader(OutputStream out, Entry entry) throws IOException
+    {
+        writeInt(out, 0x04034b50L);
+        writeShort(out, 20);
+        writeShort(out, entry.flags);
+        writeShort(out, entry.method);
+        writeInt(out, entry.dosTime);
+        if ((entry.flags & FLAG_DATA_DESCRIPTOR) != 0)
+        {
+            writeInt(out, 0);
+            writeInt(out, 0);
+            writeInt(out, 0);
+        }
+        else
+        {
+            writeInt(out, entry.crc);
+            writeInt(out, entry.compressedSize);
+            writeInt(out, entry.size);
+        }
+        writeShort(out, entry.name.length);
+        writeShort(out, 0);
+        out.write(entry.name);
+        offset += entry.name.length;
+    }
+
+    /**
+     * Writes the central directory and the end of central directory record.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @throws IOException
+     */
+    private void writeCentralDirectory(OutputStream out) throws IOException
+    {
+        long start = offset;
+        for (Entry entry : written)
+        {
+            writeInt(out, 0x02014b50L);
+            writeShort(out, 20);
+            writeShort(out, 20);
+            writeShort(out, entry.flags);
+            writeShort(out, entry.method);
+            writeInt(out, entry.dosTime);
+            writeInt(out, entry.crc);
+            writeInt(out, entry.compressedSize);
+            writeInt(out, entry.size);
+            writeShort(out, entry.name.length);
+            writeShort(out, 0);
+            writeShort(out, 0);
+            writeShort(out, 0);
+            writeShort(out, 0);
+            //MS-DOS directory attribute
+            writeInt(out, entry.directory ? 0x10 : 0);
+            writeInt(out, entry.offset);
+            out.write(entry.name);
+            offset += entry.name.length;
+        }
+        long size = offset - start;
+        writeInt(out, 0x06054b50L);
+        writeShort(out, 0);
+        writeShort(out, 0);
+        writeShort(out, written.size());
+        writeShort(out, written.size());
+        writeInt(out, size);
+        writeInt(out, start);
+        writeShort(out, 0);
+    }
+
+    /**
+     * Writes two bytes in little endian order.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @param value int to write.
+     * @throws IOException
+     */
+    private void writeShort(OutputStream out, int value) throws IOException
+    {
+        out.write(value & 0xFF);
+        out.write((value >>> 8) & 0xFF);
+        offset += 2;
+    }
+
+    /**
+     * Writes four bytes in little endian order.
+     *
+     * @param out OutputStream of the ZIP file.
+     * @param value long to write.
+     * @throws IOException
+     */
+    private void writeInt(OutputStream out, long value) throws IOException
+    {
+        writeShort(out, (int) (value & 0xFFFF));
+        writeShort(out, (int) ((value >>> 16) & 0xFFFF));
+    }
+
+    /**
+     * Converts a time to the MS-DOS date and time used in ZIP files.
+     *
+     * @param time long that is the time in milliseconds.
+     * @return long the date in the upper and the time in the lower two bytes.
+     */
+    static long toDosTime(long time)
+    {
+        Calendar calendar = Calendar.getInstance();
+        calendar.setTimeInMillis(time);
+        int year = calendar.get(Calendar.YEAR);
+        if (year < 1980)
+        {
+            return (1 << 21) | (1 << 16);
+        }
+        year = Math.min(year, 2107);
+        return ((long) (year - 1980) << 25) | ((calendar.get(Calendar.MONTH) + 1) << 21) |
+               (calendar.get(Calendar.DAY_OF_MONTH) << 16) | (calendar.get(Calendar.HOUR_OF_DAY) << 11) |
+               (calendar.get(Calendar.MINUTE) << 5) | (calendar.get(Calendar.SECOND) >> 1);
+    }
+
+    /**
+     * An entry of the ZIP file.
+     */
+    static class Entry
+    {
+        /**
+         * Name of the entry in UTF-8.
+         */
+        byte[] name;
+
+        /**
+         * Indicates if the entry is a directory.
+         */
+        boolean directory;
+
+        /**
+         * General purpose flags of the entry.
+         */
+        int flags;
+
+        /**
+         * Compression method of the entry.
+         */
+        int method = STORED;
+
+        /**
+         * MS-DOS date and time the file was last modified.
+         */
+        long dosTime;
+
+        /**
+         * CRC32 of the content of the file.
+         */
+        long crc;
+
+        /**
+         * Size of the file.
+         */
+        long size;
+
+        /**
+         * Size of the entry data.
+         */
+        long compressedSize;
+
+        /**
+         * Entry data, null once it is written.
+         */
+        byte[] data;
+
+        /**
+         * Offset of the local file header in the ZIP file.
+         */
+        long offset;
+
+        /**
+         * Constructor
+         *
+         * @param iName String that is the entry name.
+         * @param source Source of the entry.
+         * @throws IOException
+         */
+        Entry(String iName, PackageTree.Source source) throws IOException
+        {
+            name = iName.getBytes("UTF-8");
+            if (name.length != iName.length())
+            {
+                flags |= FLAG_UTF8;
+            }
+            directory = iName.endsWith("/");
+            dosTime = toDosTime(source.getLastModified());
+        }
+    }
+}
@@ -5,12 +5,11 @@
  */
 package bridge.toolkit.packaging;
 
+import java.io.BufferedOutputStream;
 import java.io.Closeable;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileOutputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.io.OutputStream;
 import java.net.URI;
 import java.util.Deque;
@@ -18,8 +17,13 @@ import java.util.LinkedList;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import bridge.toolkit.util.CommandMetrics;
+
 /**
- * Creates a ZIP file containing all the files in a directory.
+ * Creates a ZIP file containing all the files in a directory or all the 
+ * entries of a PackageTree.  The entries are compressed on several threads 
+ * by the ParallelZipWriter, unless the package is too large for a plain ZIP 
+ * file and ZIP64 is needed.
  */
 public class ZipCreator
 {
@@ -34,82 +38,79 @@ public class ZipCreator
      */
     public void zipFiles(File directory, File zipfile) throws IOException
     {
+        PackageTree tree = new PackageTree();
         URI base = directory.toURI();     
         Deque<File> queue = new LinkedList<File>();     
         queue.push(directory);     
-        OutputStream out = new FileOutputStream(zipfile);     
-        Closeable res = out;     
-        try 
-        {       
-            ZipOutputStream zout = new ZipOutputStream(out);       
-            res = zout;       
-            while (!queue.isEmpty()) 
-            {         
-                directory = queue.pop();         
-                for (File kid : directory.listFiles()) 
-                {           
-                    String name = base.relativize(kid.toURI()).getPath();           
-                    if (kid.isDirectory()) 
-                    {             
-                        queue.push(kid);             
-                        name = name.endsWith("/") ? name : name + "/";             
-                        zout.putNextEntry(new ZipEntry(name));           
-                    } 
-                    else 
-                    {             
-                        zout.putNextEntry(new ZipEntry(name));             
-                        copy(kid, zout);             
-                        zout.closeEntry();           
-                    }         
-                }       
-            }     
-         } 
-         finally 
-         {       
-             res.close();     
-         }   
-
+        while (!queue.isEmpty()) 
+        {         
+            directory = queue.pop();         
+            for (File kid : directory.listFiles()) 
+            {           
+                String name = base.relativize(kid.toURI()).getPath();           
+                if (kid.isDirectory()) 
+                {             
+                    queue.push(kid);             
+                    name = name.endsWith("/") ? name : name + "/";             
+                    tree.addDirectory(name, kid);
+                } 
+                else
+                {
+                    tree.addFile(name, kid);
+                }
+            }       
+        }     
+        zipTree(tree, zipfile);
     }
 
     /**
-     * Copies an InputStream to an OutputSteam.
+     * Writes the entries of a package straight into the zip file.
      * 
-     * @param in InputStream
-     * @param out OutputStream
+     * @param tree PackageTree that describes the content package.
+     * @param zipfile File that will be the zip file name of the content package.
      * @throws IOException
      */
-    private static void copy(InputStream in, OutputStream out) throws IOException
+    public void zipTree(PackageTree tree, File zipfile) throws IOException
     {
-        byte[] buffer = new byte[1024];
-        while (true)
+        if (ParallelZipWriter.fits(tree))
         {
-            int readCount = in.read(buffer);
-            if (readCount < 0)
-            {
-                break;
-            }
-            out.write(buffer, 0, readCount);
+            ParallelZipWriter writer = new ParallelZipWriter(ParallelZipWriter.getConfiguredThreads());
+            writer.write(tree, zipfile);
+            System.out.println(writer.getStatistics());
+        }
+        else
+        {
+            zipEntries(tree, zipfile);
         }
     }
 
     /**
-     * Copies a File object to an OutputStream.
+     * Adds the entries to the zip file one after the other, writing ZIP64 
+     * entries when they are needed.
      * 
-     * @param file File
-     * @param out OutputStream
+     * @param tree PackageTree that describes the content package.
+     * @param zipfile File that will be the zip file name of the content package.
      * @throws IOException
      */
-    private static void copy(File file, OutputStream out) throws IOException
+    private void zipEntries(PackageTree tree, File zipfile) throws IOException
     {
-        InputStream in = new FileInputStream(file);
-        try
-        {
-            copy(in, out);
-        }
-        finally
-        {
-            in.close();
-        }
+        OutputStream out = CommandMetrics.countWritten(new FileOutputStream(zipfile));     
+        Closeable res = out;     
+        try 
+        {       
+            ZipOutputStream zout = new ZipOutputStream(new BufferedOutputStream(out));       
+            res = zout;       
+            for (String name : tree.getNames()) 
+            {         
+                zout.putNextEntry(new ZipEntry(name));
+                tree.get(name).writeTo(zout);             
+                zout.closeEntry();           
+            }     
+        } 
+        finally 
+        {       
+            res.close();     
+        }   
     }
 
 }
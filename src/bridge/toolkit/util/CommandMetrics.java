@@ -0,0 +1,526 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures the work a command does: its wall time, the CPU time and the
+ * bytes allocated by the threads that work for it, the XML files it parses,
+ * the bytes it reads and writes and the number of times a cache saved it
+ * work.
+ *
+ * The metrics of the command that is running on a thread are the current
+ * metrics of the thread.  The utilities of the toolkit report their work to
+ * the current metrics through the static methods, which do nothing on a
+ * thread without current metrics.  Work that is handed to another thread is
+ * wrapped with wrap, so that it is counted for the command that handed it
+ * over, including the CPU time and the allocations of the other thread.
+ */
+public class CommandMetrics
+{
+    /**
+     * The metrics of the command each thread is working for.
+     */
+    private static final ThreadLocal<CommandMetrics> CURRENT = new ThreadLocal<CommandMetrics>();
+
+    /**
+     * Name of the command.
+     */
+    private String name;
+
+    /**
+     * Number of times the command was run.
+     */
+    private AtomicLong invocations = new AtomicLong();
+
+    /**
+     * Number of nanoseconds the command took from start to end.
+     */
+    private AtomicLong wallTime = new AtomicLong();
+
+    /**
+     * Number of nanoseconds of CPU time used for the command, or -1 when
+     * the JVM does not measure it.
+     */
+    private AtomicLong cpuTime = new AtomicLong();
+
+    /**
+     * Number of bytes allocated for the command, or -1 when the JVM does not
+     * measure it.
+     */
+    private AtomicLong allocatedBytes = new AtomicLong();
+
+    /**
+     * Number of XML files parsed.
+     */
+    private AtomicLong filesParsed = new AtomicLong();
+
+    /**
+     * Number of bytes read from files.
+     */
+    private AtomicLong bytesRead = new AtomicLong();
+
+    /**
+     * Number of bytes written to files.
+     */
+    private AtomicLong bytesWritten = new AtomicLong();
+
+    /**
+     * Number of requests that were answered from a cache.
+     */
+    private AtomicLong cacheHits = new AtomicLong();
+
+    /**
+     * Constructor
+     *
+     * @param iName String that is the name of the command.
+     */
+    public CommandMetrics(String iName)
+    {
+        name = iName;
+    }
+
+    /**
+     * Runs work as the command, counting it as one run of the command and
+     * measuring its wall time.
+     *
+     * @param work Callable<T> that does the work of the command.
+     * @return T the result of the work.
+     * @throws Exception the exception of the work.
+     */
+    public <T> T record(Callable<T> work) throws Exception
+    {
+        invocations.incrementAndGet();
+        long start = System.nanoTime();
+        try
+        {
+            return runAs(this, work);
+        }
+        finally
+        {
+            wallTime.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Returns the metrics of the command the current thread is working for.
+     *
+     * @return CommandMetrics of the command, or null if the thread is not
+     * working for a command.
+     */
+    public static CommandMetrics current()
+    {
+        return CURRENT.get();
+    }
+
+    /**
+     * Wraps work so that it is counted for the command the current thread is
+     * working for, whichever thread runs it.
+     *
+     * @param work Callable<T> that is the work.
+     * @return Callable<T> that runs the work, the same work if the current
+     * thread is not working for a command.
+     */
+    public static <T> Callable<T> wrap(final Callable<T> work)
+    {
+        final CommandMetrics metrics = current();
+        if (metrics == null)
+        {
+            return work;
+        }
+        return new Callable<T>()
+        {
+            public T call() throws Exception
+            {
+                return runAs(metrics, work);
+            }
+        };
+    }
+
+    /**
+     * Runs work on the current thread for a command, adding the CPU time and
+     * the bytes allocated by the thread to the metrics of the command.  The
+     * thread goes back to its own command afterwards.  Work that the thread
+     * already does for the same command is not measured twice.
+     *
+     * @param metrics CommandMetrics of the command, or null.
+     * @param work Callable<T> that is the work.
+     * @return T the result of the work.
+     * @throws Exception the exception of the work.
+     */
+    public static <T> T runAs(CommandMetrics metrics, Callable<T> work) throws Exception
+    {
+        CommandMetrics previous = CURRENT.get();
+        if (metrics == null || metrics == previous)
+        {
+            return work.call();
+        }
+        CURRENT.set(metrics);
+        long cpu = getThreadCpuTime();
+        long allocated = getThreadAllocatedBytes();
+        try
+        {
+            return work.call();
+        }
+        finally
+        {
+            metrics.addCpuTime(cpu, getThreadCpuTime());
+            metrics.addAllocatedBytes(allocated, getThreadAllocatedBytes());
+            CURRENT.set(previous);
+        }
+    }
+
+    /**
+     * Runs work on the current thread for a command like the other runAs
+     * does, for work that does not throw checked exceptions.
+     *
+     * @param metrics CommandMetrics of the command, or null.
+     * @param work Runnable that is the work.
+     */
+    public static void runAs(CommandMetrics metrics, Runnable work)
+    {
+        try
+        {
+            runAs(metrics, Executors.callable(work));
+        }
+        catch (RuntimeException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            //a Runnable does not throw checked exceptions
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Counts an XML file that was parsed, and its length as bytes read.
+     *
+     * @param file File that was parsed.
+     */
+    public static void fileParsed(File file)
+    {
+        CommandMetrics metrics = current();
+        if (metrics != null)
+        {
+            metrics.filesParsed.incrementAndGet();
+            metrics.bytesRead.addAndGet(file.length());
+        }
+    }
+
+    /**
+     * Wraps the stream of an XML file that is parsed while it is read, so
+     * that the file is counted as parsed and the bytes read from it are
+     * counted for the command the current thread is working for.
+     *
+     * @param in InputStream that reads the XML file.
+     * @return InputStream that counts the bytes, the same stream if the
+     * current thread is not working for a command.
+     */
+    public static InputStream countParsed(InputStream in)
+    {
+        CommandMetrics metrics = current();
+        if (metrics != null)
+        {
+            metrics.filesParsed.incrementAndGet();
+        }
+        return countRead(in);
+    }
+
+    /**
+     * Counts bytes that were read from files.
+     *
+     * @param bytes long that is the number of bytes.
+     */
+    public static void read(long bytes)
+    {
+        CommandMetrics metrics = current();
+        if (metrics != null)
+        {
+            metrics.bytesRead.addAndGet(bytes);
+        }
+    }
+
+    /**
+     * Counts bytes that were written to files.
+     *
+     * @param bytes long that is the number of bytes.
+     */
+    public static void written(long bytes)
+    {
+        CommandMetrics metrics = current();
+        if (metrics != null)
+        {
+            metrics.bytesWritten.addAndGet(bytes);
+        }
+    }
+
+    /**
+     * Counts a request that was answered from a cache.
+     */
+    public static void cacheHit()
+    {
+        CommandMetrics metrics = current();
+        if (metrics != null)
+        {
+            metrics.cacheHits.incrementAndGet();
+        }
+    }
+
+    /**
+     * Wraps a stream so that the bytes read from it are counted for the
+     * command the current thread is working for.
+     *
+     * @param in InputStream that reads a file.
+     * @return InputStream that counts the bytes, the same stream if the
+     * current thread is not working for a command.
+     */
+    public static InputStream countRead(InputStream in)
+    {
+        final CommandMetrics metrics = current();
+        if (metrics == null)
+        {
+            return in;
+        }
+        return new FilterInputStream(in)
+        {
+            @Override
+            public int read() throws IOException
+            {
+                int b = super.read();
+                if (b >= 0)
+                {
+                    metrics.bytesRead.incrementAndGet();
+                }
+                return b;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException
+            {
+                int count = super.read(b, off, len);
+                if (count > 0)
+                {
+                    metrics.bytesRead.addAndGet(count);
+                }
+                return count;
+            }
+        };
+    }
+
+    /**
+     * Wraps a stream so that the bytes written to it are counted for the
+     * command the current thread is working for.
+     *
+     * @param out OutputStream that writes a file.
+     * @return OutputStream that counts the bytes, the same stream if the
+     * current thread is not working for a command.
+     */
+    public static OutputStream countWritten(OutputStream out)
+    {
+        final CommandMetrics metrics = current();
+        if (metrics == null)
+        {
+            return out;
+        }
+        return new FilterOutputStream(out)
+        {
+            @Override
+            public void write(int b) throws IOException
+            {
+                out.write(b);
+                metrics.bytesWritten.incrementAndGet();
+            }
+
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException
+            {
+                out.write(b, off, len);
+                metrics.bytesWritten.addAndGet(len);
+            }
+        };
+    }
+
+    /**
+     * Adds the metrics of another run of the same command.
+     *
+     * @param other CommandMetrics of the other run.
+     */
+    public void add(CommandMetrics other)
+    {
+        invocations.addAndGet(other.getInvocations());
+        wallTime.addAndGet(other.wallTime.get());
+        addMeasured(cpuTime, other.cpuTime.get());
+        addMeasured(allocatedBytes, other.allocatedBytes.get());
+        filesParsed.addAndGet(other.getFilesParsed());
+        bytesRead.addAndGet(other.getBytesRead());
+        bytesWritten.addAndGet(other.getBytesWritten());
+        cacheHits.addAndGet(other.getCacheHits());
+    }
+
+    /**
+     * @return String the name of the command.
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /**
+     * @return long the number of times the command was run.
+     */
+    public long getInvocations()
+    {
+        return invocations.get();
+    }
+
+    /**
+     * @return long the number of milliseconds the command took.
+     */
+    public long getWallTime()
+    {
+        return wallTime.get() / 1000000;
+    }
+
+    /**
+     * @return long the number of milliseconds of CPU time used for the
+     * command, or -1 when the JVM does not measure it.
+     */
+    public long getCpuTime()
+    {
+        long time = cpuTime.get();
+        return time < 0 ? -1 : time / 1000000;
+    }
+
+    /**
+     * @return long the number of bytes allocated for the command, or -1 when
+     * the JVM does not measure it.
+     */
+    public long getAllocatedBytes()
+    {
+        return allocatedBytes.get();
+    }
+
+    /**
+     * @return long the number of XML files parsed.
+     */
+    public long getFilesParsed()
+    {
+        return filesParsed.get();
+    }
+
+    /**
+     * @return long the number of bytes read from files.
+     */
+    public long getBytesRead()
+    {
+        return bytesRead.get();
+    }
+
+    /**
+     * @return long the number of bytes written to files.
+     */
+    public long getBytesWritten()
+    {
+        return bytesWritten.get();
+    }
+
+    /**
+     * @return long the number of requests that were answered from a cache.
+     */
+    public long getCacheHits()
+    {
+        return cacheHits.get();
+    }
+
+    /**
+     * Adds the CPU time a thread used between two measurements.
+     *
+     * @param start long that is the CPU time at the start, or -1.
+     * @param end long that is the CPU time at the end, or -1.
+     */
+    private void addCpuTime(long start, long end)
+    {
+        addMeasured(cpuTime, start < 0 || end < 0 ? -1 : end - start);
+    }
+
+    /**
+     * Adds the bytes a thread allocated between two measurements.
+     *
+     * @param start long that is the number of allocated bytes at the start,
+     * or -1.
+     * @param end long that is the number of allocated bytes at the end, or -1.
+     */
+    private void addAllocatedBytes(long start, long end)
+    {
+        addMeasured(allocatedBytes, start < 0 || end < 0 ? -1 : end - start);
+    }
+
+    /**
+     * Adds a measurement to a total that becomes -1 for good once a
+     * measurement is missing.
+     *
+     * @param total AtomicLong that is the total.
+     * @param value long that is the measurement, or -1 if it is missing.
+     */
+    private static void addMeasured(AtomicLong total, long value)
+    {
+        while (true)
+        {
+            long old = total.get();
+            long sum = old < 0 || value < 0 ? -1 : old + value;
+            if (total.compareAndSet(old, sum))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     * @return long the CPU time of the current thread in nanoseconds, or -1
+     * when the JVM does not measure it.
+     */
+    private static long getThreadCpuTime()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!threads.isCurrentThreadCpuTimeSupported() || !threads.isThreadCpuTimeEnabled())
+        {
+            return -1;
+        }
+        return threads.getCurrentThreadCpuTime();
+    }
+
+    /**
+     * @return long the number of bytes the current thread allocated, or -1
+     * when the JVM does not measure it.
+     */
+    private static long getThreadAllocatedBytes()
+    {
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        if (!(threads instanceof com.sun.management.ThreadMXBean))
+        {
+            return -1;
+        }
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        if (!allocations.isThreadAllocatedMemorySupported() || !allocations.isThreadAllocatedMemoryEnabled())
+        {
+            return -1;
+        }
+        return allocations.getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+}
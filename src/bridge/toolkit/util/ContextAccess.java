@@ -0,0 +1,28 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.Collection;
+
+/**
+ * Declares the Context keys and workspace paths a command reads and writes,
+ * so the DependencyChain can run the commands that do not depend on each
+ * other at the same time.  The names are matched as described by StepGraph.
+ */
+public interface ContextAccess
+{
+    /**
+     * @return Collection<String> of the Context keys and workspace paths the
+     * command reads, or null if they are not known.
+     */
+    Collection<String> getReads();
+
+    /**
+     * @return Collection<String> of the Context keys and workspace paths the
+     * command writes, or null if they are not known.
+     */
+    Collection<String> getWrites();
+}
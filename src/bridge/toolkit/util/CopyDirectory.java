@@ -5,22 +5,63 @@
  */
 package bridge.toolkit.util;
 
-import java.io.BufferedInputStream;
 import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
-import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Copies all the files from one directory to another.
+ * 
+ * Files are copied by the file system without going through a buffer, and a 
+ * file whose copy already has the same size and modification time is not 
+ * copied again.  The files of large directories are copied on a shared pool 
+ * of threads.
  */
 public class CopyDirectory
 {
+    /**
+     * Pool shared by all of the copiers that copies the files of large
+     * directories.
+     */
+    private static final ForkJoinPool COPY_POOL = new ForkJoinPool();
+
+    /**
+     * Number of files and directories a directory needs to have for them to
+     * be copied on the pool.
+     */
+    private static final int PARALLEL_THRESHOLD = 32;
+
+    /**
+     * Number of files below which a task of the pool copies the files itself.
+     */
+    private static final int COPY_BATCH_SIZE = 8;
+
+    /**
+     * Number of bytes copied.
+     */
+    private AtomicLong bytesCopied = new AtomicLong();
+
+    /**
+     * Number of files copied.
+     */
+    private AtomicLong filesCopied = new AtomicLong();
+
+    /**
+     * Number of files that were not copied because their copy was up to date.
+     */
+    private AtomicLong filesSkipped = new AtomicLong();
 
     /**
      * Moves all the files from the source directory to the destination 
@@ -44,6 +85,11 @@ public class CopyDirectory
                 }
 
                 String[] oChildren = srcFolder.list();
+                if (oChildren.length >= PARALLEL_THRESHOLD)
+                {
+                    copyParallel(srcFolder, destFolder, oChildren);
+                    return;
+                }
                 for (int i=0; i < oChildren.length; i++) 
                 {
                     copyDirectory(new File(srcFolder, oChildren[i]), new File(destFolder, oChildren[i]));
@@ -131,41 +177,253 @@ public class CopyDirectory
     	{
     		Filename = Filename.substring(Filename.lastIndexOf('/'));
     	}
-        FileOutputStream output = new FileOutputStream(OutputDirectory + File.separator + Filename);
-        byte buffer[] = new byte[1024];
-        int length = 0;
-        while((length=input.read(buffer)) > 0)
+        try
+        {
+            long length = Files.copy(input, new File(OutputDirectory + File.separator + Filename).toPath(),
+                                     StandardCopyOption.REPLACE_EXISTING);
+            filesCopied.incrementAndGet();
+            bytesCopied.addAndGet(length);
+            CommandMetrics.written(length);
+        }
+        finally
         {
-        	output.write(buffer,0,length);
+            input.close();
         }
-        input.close();
-        output.close();
         
     }
     
     /**
-     * Moves each individual file to the destination folder or file.
+     * @return long the number of bytes copied by this copier.
+     */
+    public long getBytesCopied()
+    {
+        return bytesCopied.get();
+    }
+    
+    /**
+     * @return long the number of files copied by this copier.
+     */
+    public long getFilesCopied()
+    {
+        return filesCopied.get();
+    }
+    
+    /**
+     * @return long the number of files that were not copied because their 
+     * copy already had the same size and modification time.
+     */
+    public long getFilesSkipped()
+    {
+        return filesSkipped.get();
+    }
+    
+    /**
+     * Returns a one line summary of what this copier copied.
+     * 
+     * @return String that describes the files and bytes copied and the files 
+     * skipped.
+     */
+    public String getStatistics()
+    {
+        return "Copied " + filesCopied.get() + " files (" + (bytesCopied.get() / 1024) + " KB), " + 
+               filesSkipped.get() + " files up to date";
+    }
+    
+    /**
+     * Copies the files and directories of a large directory on the pool.
+     * 
+     * @param srcFolder File that is the source directory.
+     * @param destFolder File that is the destination directory, which exists.
+     * @param oChildren String[] of the names of the files and directories in 
+     * the source directory.
+     * @throws IOException the first exception of the files that could not be
+     * copied.
+     */
+    private void copyParallel(File srcFolder, File destFolder, String[] oChildren) throws IOException
+    {
+        AtomicReference<IOException> failure = new AtomicReference<IOException>();
+        CopyTask task = new CopyTask(srcFolder, destFolder, oChildren, 0, oChildren.length, failure);
+        if (ForkJoinTask.inForkJoinPool())
+        {
+            //a directory inside a directory that is already being copied on the pool
+            task.invoke();
+        }
+        else
+        {
+            COPY_POOL.invoke(task);
+        }
+        if (failure.get() != null)
+        {
+            throw failure.get();
+        }
+    }
+    
+    /**
+     * Moves each individual file to the destination folder or file.  The file
+     * is not copied if the destination already has the same size and 
+     * modification time.  The copy is written to a new file, so it gets the 
+     * default permissions and stays writable even when the file is read only,
+     * and it gets the modification time of the file.
      * 
      * @param srcFile File that is to be copied.
      * @param destFile File that is the destination directory or file that is 
      * being copied to.
      * @throws IOException
      */
-    private static void copyFile(File srcFile, File destFile) throws IOException 
+    private void copyFile(File srcFile, File destFile) throws IOException 
     {
-            InputStream oInStream = new FileInputStream(srcFile);
-            OutputStream oOutStream = new FileOutputStream(destFile);
-     
-            // Transfer bytes from in to out
-            byte[] oBytes = new byte[1024];
-            int nLength;
-            BufferedInputStream oBuffInputStream = new BufferedInputStream( oInStream );
-            while ((nLength = oBuffInputStream.read(oBytes)) > 0) 
+        long length = srcFile.length();
+        if (destFile.isFile() && destFile.length() == length && 
+            destFile.lastModified() == srcFile.lastModified())
+        {
+            filesSkipped.incrementAndGet();
+            return;
+        }
+        //a read only copy left by an older copy can not be opened for writing
+        if (destFile.isFile() && !destFile.canWrite())
+        {
+            Files.delete(destFile.toPath());
+        }
+        FileChannel in = FileChannel.open(srcFile.toPath(), StandardOpenOption.READ);
+        try
+        {
+            FileChannel out = FileChannel.open(destFile.toPath(), StandardOpenOption.WRITE, 
+                                               StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING);
+            try
             {
-                oOutStream.write(oBytes, 0, nLength);
+                long position = 0;
+                while (position < length)
+                {
+                    position += in.transferTo(position, length - position, out);
+                }
+            }
+            finally
+            {
+                out.close();
             }
-            oInStream.close();
-            oOutStream.close();
+        }
+        finally
+        {
+            in.close();
+        }
+        destFile.setLastModified(srcFile.lastModified());
+        filesCopied.incrementAndGet();
+        bytesCopied.addAndGet(length);
+        CommandMetrics.read(length);
+        CommandMetrics.written(length);
+    }
+
+    /**
+     * Task of the pool that copies a range of the files and directories of a
+     * directory, splitting the range in two until it is small.
+     */
+    private class CopyTask extends RecursiveAction
+    {
+        /**
+         * Serial version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * The source directory.
+         */
+        private File srcFolder;
+
+        /**
+         * The destination directory.
+         */
+        private File destFolder;
+
+        /**
+         * Names of all of the files and directories in the source directory.
+         */
+        private String[] children;
+
+        /**
+         * Index of the first name of the range.
+         */
+        private int from;
+
+        /**
+         * Index after the last name of the range.
+         */
+        private int to;
+
+        /**
+         * The first exception of the files that could not be copied.
+         */
+        private AtomicReference<IOException> failure;
+
+        /**
+         * Metrics of the command the task copies for.
+         */
+        private CommandMetrics metrics;
+
+        /**
+         * Constructor
+         *
+         * @param iSrcFolder File that is the source directory.
+         * @param iDestFolder File that is the destination directory.
+         * @param iChildren String[] of the names in the source directory.
+         * @param iFrom int that is the index of the first name of the range.
+         * @param iTo int that is the index after the last name of the range.
+         * @param iFailure AtomicReference that receives the first exception.
+         */
+        CopyTask(File iSrcFolder, File iDestFolder, String[] iChildren, int iFrom, int iTo,
+                 AtomicReference<IOException> iFailure)
+        {
+            srcFolder = iSrcFolder;
+            destFolder = iDestFolder;
+            children = iChildren;
+            from = iFrom;
+            to = iTo;
+            failure = iFailure;
+            metrics = CommandMetrics.current();
+        }
+
+        /**
+         * Copies the files and directories of the range for the command the
+         * task was created for.
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute()
+        {
+            CommandMetrics.runAs(metrics, new Runnable()
+            {
+                public void run()
+                {
+                    copyRange();
+                }
+            });
+        }
+
+        /**
+         * Copies the files and directories of the range, splitting it when it
+         * is large.
+         */
+        private void copyRange()
+        {
+            if (to - from <= COPY_BATCH_SIZE)
+            {
+                for (int i = from; i < to && failure.get() == null; i++)
+                {
+                    try
+                    {
+                        copyDirectory(new File(srcFolder, children[i]), new File(destFolder, children[i]));
+                    }
+                    catch (IOException e)
+                    {
+                        failure.compareAndSet(null, e);
+                    }
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new CopyTask(srcFolder, destFolder, children, from, middle, failure),
+                      new CopyTask(srcFolder, destFolder, children, middle, to, failure));
+        }
     }
 
 }
@@ -0,0 +1,792 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Generates a SCPM and a resource package of a given size from the data
+ * modules, ICNs and SCPM of an existing course, so that the toolkit can be
+ * tested and measured on packages as large as the real ones.
+ *
+ * The data modules of the template resource package are copied as many
+ * times as needed.  Each copy gets its own systemDiffCode, and the dmRef
+ * elements of the copy point to a random copy of the data module they
+ * referenced, so that the references spread over the whole package.  The
+ * ICNs are copied a few times and shared by the data modules, the SCPM
+ * holds the content of the template SCPM once for each copy of the data
+ * modules, and a part of the data modules are SCO content data modules
+ * that point to the other data modules.
+ *
+ * The files are rewritten as text, so the DOCTYPE with the ICN entities of
+ * the data modules is kept.  The same seed always generates the same files.
+ */
+public class CorpusGenerator
+{
+    /**
+     * Name of the directory of the generated resource package.
+     */
+    public static final String RESOURCE_PACKAGE_DIR = "resource_package";
+
+    /**
+     * Name of the directory of the generated SCPM.
+     */
+    public static final String SCPM_DIR = "SCPM";
+
+    /**
+     * The infoCode value that indicates a SCO content data module.
+     */
+    private static final String SCO_CONTENT_INFO_CODE = "960";
+
+    /**
+     * Start of the systemDiffCode of the copies of the data modules and of
+     * the ICNs.
+     */
+    private static final String COPY_PREFIX = "Z";
+
+    /**
+     * Start of the systemDiffCode of the SCO content data modules.
+     */
+    private static final String SCO_CONTENT_PREFIX = "Y";
+
+    /**
+     * Number of base 36 digits that follow the prefix of a systemDiffCode,
+     * which keeps the code at the four characters S1000D allows.
+     */
+    private static final int COPY_DIGITS = 3;
+
+    /**
+     * Highest copy number that fits in the digits of a systemDiffCode.
+     */
+    private static final int MAX_COPY = 36 * 36 * 36 - 1;
+
+    /**
+     * Text encoding the files are read and written with.  Each byte is one
+     * character, so the bytes that are not changed are written back as they
+     * were read whatever the encoding of the file is.
+     */
+    private static final String TEXT_ENCODING = "ISO-8859-1";
+
+    /**
+     * Finds a dmRef element with its content.
+     */
+    private static final Pattern DM_REF = Pattern.compile("<dmRef\\b.*?</dmRef>", Pattern.DOTALL);
+
+    /**
+     * Finds a dmCode element.
+     */
+    private static final Pattern DM_CODE = Pattern.compile("<dmCode\\b[^>]*>");
+
+    /**
+     * Finds an attribute of an element.
+     */
+    private static final Pattern ATTRIBUTE = Pattern.compile("(\\w+)\\s*=\\s*(?:\"([^\"]*)\"|'([^']*)')");
+
+    /**
+     * Finds an ICN name, without its file extension.
+     */
+    private static final Pattern ICN = Pattern.compile("ICN-[A-Za-z0-9]+(?:-[A-Za-z0-9]+)*");
+
+    /**
+     * Resource package the data modules and ICNs are taken from.
+     */
+    private File templatePackage;
+
+    /**
+     * SCPM the content of the generated SCPM is taken from.
+     */
+    private File templateScpm;
+
+    /**
+     * Seed of the random references.
+     */
+    private long seed = 1;
+
+    /**
+     * Percentage of the data modules that are SCO content data modules.
+     */
+    private int scoContentPercent = 5;
+
+    /**
+     * Number of copies of each ICN, 0 for one copy for every four copies of
+     * the data modules.
+     */
+    private int icnCopies;
+
+    /**
+     * The data modules of the template resource package in file name order.
+     */
+    private List<Template> templates;
+
+    /**
+     * Index of each template data module keyed by its data module code.
+     */
+    private Map<String, Integer> templateIndex;
+
+    /**
+     * The ICN files of the template resource package keyed by ICN name.
+     */
+    private Map<String, File> icns;
+
+    /**
+     * The other files of the template resource package.
+     */
+    private List<File> otherFiles;
+
+    /**
+     * Number of data modules that are not SCO content data modules.
+     */
+    private int dataModules;
+
+    /**
+     * Number of copies of the template data modules, the last one of which
+     * may hold only the first template data modules.
+     */
+    private int copies;
+
+    /**
+     * Number of copies of each ICN that are used.
+     */
+    private int icnCopiesUsed;
+
+    /**
+     * Constructor
+     *
+     * @param iTemplatePackage File that is the resource package the data
+     * modules and ICNs are taken from.
+     * @param iTemplateScpm File that is the SCPM that references the data
+     * modules of the template resource package.
+     */
+    public CorpusGenerator(File iTemplatePackage, File iTemplateScpm)
+    {
+        templatePackage = iTemplatePackage;
+        templateScpm = iTemplateScpm;
+    }
+
+    /**
+     * @param iSeed long that is the seed of the random references.
+     */
+    public void setSeed(long iSeed)
+    {
+        seed = iSeed;
+    }
+
+    /**
+     * @param iScoContentPercent int that is the percentage of the data
+     * modules that are SCO content data modules.
+     */
+    public void setScoContentPercent(int iScoContentPercent)
+    {
+        scoContentPercent = iScoContentPercent;
+    }
+
+    /**
+     * @param iIcnCopies int that is the number of copies of each ICN, 0 for
+     * one copy for every four copies of the data modules.
+     */
+    public void setIcnCopies(int iIcnCopies)
+    {
+        icnCopies = iIcnCopies;
+    }
+
+    /**
+     * Returns the directory of the resource package generated in an output
+     * directory.
+     *
+     * @param outputDirectory File that the corpus is generated in.
+     * @return File that is the resource package.
+     */
+    public static File getResourcePackage(File outputDirectory)
+    {
+        return new File(outputDirectory, RESOURCE_PACKAGE_DIR);
+    }
+
+    /**
+     * Generates a SCPM and a resource package with the given number of data
+     * modules.  The resource package is written to the resource_package
+     * directory and the SCPM to the SCPM directory of the output directory.
+     *
+     * @param outputDirectory File that the corpus is generated in.
+     * @param dmCount int that is the number of data modules of the resource
+     * package, SCO content data modules included.
+     * @return File that is the generated SCPM.
+     * @throws IOException if a template could not be read or a file could not
+     * be written.
+     */
+    public File generate(File outputDirectory, int dmCount) throws IOException
+    {
+        readTemplates();
+
+        int scoContent = (int) ((long) dmCount * scoContentPercent / 100);
+        dataModules = dmCount - scoContent;
+        if (dataModules < templates.size())
+        {
+            throw new IllegalArgumentException("The corpus needs at least " + templates.size() +
+                                               " data modules besides the SCO content data modules");
+        }
+        copies = (dataModules + templates.size() - 1) / templates.size();
+        icnCopiesUsed = icnCopies > 0 ? icnCopies : (copies + 3) / 4;
+        if (copies - 1 > MAX_COPY || scoContent > MAX_COPY || icnCopiesUsed - 1 > MAX_COPY)
+        {
+            throw new IllegalArgumentException("The corpus can not have more than " + MAX_COPY +
+                                               " copies of a data module");
+        }
+
+        File resourcePackage = getResourcePackage(outputDirectory);
+        File scpmDir = new File(outputDirectory, SCPM_DIR);
+        resourcePackage.mkdirs();
+        scpmDir.mkdirs();
+
+        Random random = new Random(seed);
+        writeIcns(resourcePackage);
+        for (File file : otherFiles)
+        {
+            Files.copy(file.toPath(), new File(resourcePackage, file.getName()).toPath());
+        }
+        for (int i = 0; i < dataModules; i++)
+        {
+            writeDataModule(resourcePackage, i % templates.size(), i / templates.size(), random);
+        }
+        for (int i = 0; i < scoContent; i++)
+        {
+            writeSCOContentDataModule(resourcePackage, i, random);
+        }
+
+        File scpm = new File(scpmDir, templateScpm.getName());
+        writeScpm(scpm);
+        return scpm;
+    }
+
+    /**
+     * Reads the data modules of the template resource package and sorts
+     * out its ICNs and other files.
+     *
+     * @throws IOException
+     */
+    private void readTemplates() throws IOException
+    {
+        templates = new ArrayList<Template>();
+        templateIndex = new HashMap<String, Integer>();
+        icns = new LinkedHashMap<String, File>();
+        otherFiles = new ArrayList<File>();
+
+        File[] files = templatePackage.listFiles();
+        if (files == null)
+        {
+            throw new IOException("The template resource package " + templatePackage + " does not exist");
+        }
+        Arrays.sort(files);
+        for (File file : files)
+        {
+            String name = file.getName();
+            if (!file.isFile())
+            {
+                continue;
+            }
+            if (name.startsWith("DMC-") && name.toLowerCase().endsWith(".xml"))
+            {
+                Template template = new Template(file);
+                if (template.key != null && !templateIndex.containsKey(template.key))
+                {
+                    templateIndex.put(template.key, Integer.valueOf(templates.size()));
+                    templates.add(template);
+                    continue;
+                }
+            }
+            else if (name.startsWith("ICN-"))
+            {
+                icns.put(name.split("\\.")[0], file);
+                continue;
+            }
+            otherFiles.add(file);
+        }
+        if (templates.isEmpty())
+        {
+            throw new IOException("The template resource package " + templatePackage + " has no data modules");
+        }
+    }
+
+    /**
+     * Writes the copies of the ICNs.  The first copy is a copy of the file,
+     * the others are hard links to it where the file system allows them.
+     *
+     * @param resourcePackage File that is the generated resource package.
+     * @throws IOException
+     */
+    private void writeIcns(File resourcePackage) throws IOException
+    {
+        for (Map.Entry<String, File> icn : icns.entrySet())
+        {
+            String extension = icn.getValue().getName().substring(icn.getKey().length());
+            File first = new File(resourcePackage, icn.getValue().getName());
+            Files.copy(icn.getValue().toPath(), first.toPath());
+            for (int copy = 1; copy < icnCopiesUsed; copy++)
+            {
+                File target = new File(resourcePackage, rename(icn.getKey(), COPY_PREFIX, copy) + extension);
+                try
+                {
+                    Files.createLink(target.toPath(), first.toPath());
+                }
+                catch (IOException e)
+                {
+                    Files.copy(first.toPath(), target.toPath());
+                }
+                catch (UnsupportedOperationException e)
+                {
+                    Files.copy(first.toPath(), target.toPath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a copy of a template data module.
+     *
+     * @param resourcePackage File that is the generated resource package.
+     * @param index int that is the index of the template data module.
+     * @param copy int that is the number of the copy.
+     * @param random Random that picks the copies the references point to.
+     * @throws IOException
+     */
+    private void writeDataModule(File resourcePackage, int index, int copy, Random random) throws IOException
+    {
+        Template template = templates.get(index);
+        String text = template.text;
+        String dmCode = setAttribute(template.dmCode, "systemDiffCode", getSystemDiffCode(template, copy));
+        text = text.substring(0, template.dmCodeStart) + dmCode +
+               text.substring(template.dmCodeStart + template.dmCode.length());
+        text = rewriteDmRefs(text, random);
+        text = rewriteIcns(text, copy % icnCopiesUsed);
+
+        write(new File(resourcePackage, getFileName(template, copy)), text);
+    }
+
+    /**
+     * Writes a SCO content data module with two to nine training steps that
+     * each reference a random data module.  The identification of the data module is taken
+     * from a template data module.
+     *
+     * @param resourcePackage File that is the generated resource package.
+     * @param number int that is the number of the SCO content data module.
+     * @param random Random that picks the referenced data modules.
+     * @throws IOException
+     */
+    private void writeSCOContentDataModule(File resourcePackage, int number, Random random) throws IOException
+    {
+        Template template = templates.get(number % templates.size());
+        Matcher content = Pattern.compile("<content\\b[^>]*>").matcher(template.text);
+        int contentEnd = template.text.lastIndexOf("</content>");
+        if (!content.find(template.dmCodeStart) || contentEnd < content.end())
+        {
+            throw new IOException("The template data module " + template.fileName + " has no content");
+        }
+
+        String dmCode = setAttribute(template.dmCode, "systemDiffCode",
+                                     SCO_CONTENT_PREFIX + toCopyCode(number + 1));
+        dmCode = setAttribute(dmCode, "infoCode", SCO_CONTENT_INFO_CODE);
+
+        StringBuilder text = new StringBuilder();
+        text.append(template.text, 0, template.dmCodeStart).append(dmCode);
+        text.append(template.text, template.dmCodeStart + template.dmCode.length(), content.start());
+        text.append("<content>\n    <scoContent>\n");
+        int steps = 2 + random.nextInt(8);
+        for (int step = 0; step < steps; step++)
+        {
+            int target = random.nextInt(dataModules);
+            Template referenced = templates.get(target % templates.size());
+            text.append("      <trainingStep>\n        <dmRef>\n          <dmRefIdent>\n            ");
+            text.append(setAttribute(referenced.dmCode, "systemDiffCode",
+                                     getSystemDiffCode(referenced, target / templates.size())));
+            text.append("\n          </dmRefIdent>\n        </dmRef>\n      </trainingStep>\n");
+        }
+        text.append("    </scoContent>\n  ");
+        text.append(template.text, contentEnd, template.text.length());
+
+        String fileName = DMParser.formatDmCode(readAttributes(dmCode)) +
+                          template.fileName.substring(template.fileName.indexOf('_'));
+        write(new File(resourcePackage, fileName), text.toString());
+    }
+
+    /**
+     * Writes the SCPM.  The content of the template SCPM is written once
+     * for each copy of the data modules and references that copy.  The
+     * references to data modules that the last copy does not have point to
+     * the first copy.
+     *
+     * @param scpm File that is the generated SCPM.
+     * @throws IOException
+     */
+    private void writeScpm(File scpm) throws IOException
+    {
+        String text = new String(Files.readAllBytes(templateScpm.toPath()), TEXT_ENCODING);
+        Matcher contentStart = Pattern.compile("<content\\b[^>]*>").matcher(text);
+        int contentEnd = text.lastIndexOf("</content>");
+        if (!contentStart.find() || contentEnd < contentStart.end())
+        {
+            throw new IOException("The template SCPM " + templateScpm + " has no content");
+        }
+        String content = text.substring(contentStart.end(), contentEnd);
+
+        Writer out = new OutputStreamWriter(new FileOutputStream(scpm), TEXT_ENCODING);
+        try
+        {
+            out.write(text, 0, contentStart.end());
+            for (int copy = 0; copy < copies; copy++)
+            {
+                StringBuffer rewritten = new StringBuffer();
+                Matcher dmRef = DM_REF.matcher(content);
+                while (dmRef.find())
+                {
+                    String ref = dmRef.group();
+                    Integer index = getReferencedTemplate(ref);
+                    if (index != null)
+                    {
+                        int target = copy * templates.size() + index.intValue() < dataModules ? copy : 0;
+                        ref = retarget(ref, templates.get(index.intValue()), target);
+                    }
+                    dmRef.appendReplacement(rewritten, Matcher.quoteReplacement(ref));
+                }
+                dmRef.appendTail(rewritten);
+                out.write(rewritten.toString());
+            }
+            out.write(text, contentEnd, text.length() - contentEnd);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+
+    /**
+     * Points each dmRef element of a data module that references a template
+     * data module to a random copy of that data module.
+     *
+     * @param text String that is the text of the data module.
+     * @param random Random that picks the copies.
+     * @return String the text with the rewritten references.
+     */
+    private String rewriteDmRefs(String text, Random random)
+    {
+        StringBuffer rewritten = new StringBuffer();
+        Matcher dmRef = DM_REF.matcher(text);
+        while (dmRef.find())
+        {
+            String ref = dmRef.group();
+            Integer index = getReferencedTemplate(ref);
+            if (index != null)
+            {
+                Template template = templates.get(index.intValue());
+                ref = retarget(ref, template, random.nextInt(getCopies(index.intValue())));
+            }
+            dmRef.appendReplacement(rewritten, Matcher.quoteReplacement(ref));
+        }
+        dmRef.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    /**
+     * Points the ICN names of a data module to a copy of the ICNs.
+     *
+     * @param text String that is the text of the data module.
+     * @param copy int that is the number of the copy of the ICNs.
+     * @return String the text with the rewritten ICN names.
+     */
+    private String rewriteIcns(String text, int copy)
+    {
+        if (copy == 0)
+        {
+            return text;
+        }
+        StringBuffer rewritten = new StringBuffer();
+        Matcher icn = ICN.matcher(text);
+        while (icn.find())
+        {
+            String name = icn.group();
+            if (icns.containsKey(name))
+            {
+                name = rename(name, COPY_PREFIX, copy);
+            }
+            icn.appendReplacement(rewritten, Matcher.quoteReplacement(name));
+        }
+        icn.appendTail(rewritten);
+        return rewritten.toString();
+    }
+
+    /**
+     * Finds the template data module a dmRef element references.
+     *
+     * @param ref String that is the dmRef element.
+     * @return Integer the index of the template data module or null if the
+     * referenced data module is not in the template resource package.
+     */
+    private Integer getReferencedTemplate(String ref)
+    {
+        Matcher dmCode = DM_CODE.matcher(ref);
+        if (!dmCode.find())
+        {
+            return null;
+        }
+        return templateIndex.get(DMParser.formatDmCode(readAttributes(dmCode.group())));
+    }
+
+    /**
+     * Points a dmRef element to a copy of the data module it references.
+     * The data module code in the text of the element, such as in an
+     * xlink:href attribute, is changed along with the dmCode element.
+     *
+     * @param ref String that is the dmRef element.
+     * @param template Template that is the referenced data module.
+     * @param copy int that is the number of the copy.
+     * @return String the rewritten dmRef element.
+     */
+    private String retarget(String ref, Template template, int copy)
+    {
+        if (copy == 0)
+        {
+            return ref;
+        }
+        Matcher dmCode = DM_CODE.matcher(ref);
+        dmCode.find();
+        String rewritten = ref.substring(0, dmCode.start()) +
+                           setAttribute(dmCode.group(), "systemDiffCode", getSystemDiffCode(template, copy)) +
+                           ref.substring(dmCode.end());
+        return rewritten.replace(template.key, rename(template.key, COPY_PREFIX, copy));
+    }
+
+    /**
+     * Returns the number of copies of a template data module.
+     *
+     * @param index int that is the index of the template data module.
+     * @return int the number of copies.
+     */
+    private int getCopies(int index)
+    {
+        return (dataModules - index + templates.size() - 1) / templates.size();
+    }
+
+    /**
+     * Returns the systemDiffCode of a copy of a template data module.  The
+     * first copy keeps the code of the template.
+     *
+     * @param template Template that is the data module.
+     * @param copy int that is the number of the copy.
+     * @return String the systemDiffCode.
+     */
+    private static String getSystemDiffCode(Template template, int copy)
+    {
+        return copy == 0 ? readAttributes(template.dmCode).get("systemDiffCode") : COPY_PREFIX + toCopyCode(copy);
+    }
+
+    /**
+     * Returns the file name of a copy of a template data module.
+     *
+     * @param template Template that is the data module.
+     * @param copy int that is the number of the copy.
+     * @return String the file name.
+     */
+    private static String getFileName(Template template, int copy)
+    {
+        String urnName = template.fileName.split("\\.")[0].split("_")[0];
+        return rename(urnName, COPY_PREFIX, copy) + template.fileName.substring(urnName.length());
+    }
+
+    /**
+     * Changes the systemDiffCode of a data module code or ICN name, which is
+     * the third part of the name.  The first copy keeps the name.
+     *
+     * @param name String that is the data module code or ICN name.
+     * @param prefix String that starts the new systemDiffCode.
+     * @param copy int that is the number of the copy.
+     * @return String the name of the copy.
+     */
+    static String rename(String name, String prefix, int copy)
+    {
+        String[] parts = name.split("-", -1);
+        if (copy == 0 || parts.length < 4)
+        {
+            return name;
+        }
+        parts[2] = prefix + toCopyCode(copy);
+        StringBuilder renamed = new StringBuilder(parts[0]);
+        for (int i = 1; i < parts.length; i++)
+        {
+            renamed.append('-').append(parts[i]);
+        }
+        return renamed.toString();
+    }
+
+    /**
+     * Writes a copy number as base 36 digits.
+     *
+     * @param copy int that is the number of the copy.
+     * @return String the digits.
+     */
+    private static String toCopyCode(int copy)
+    {
+        String code = Integer.toString(copy, 36).toUpperCase();
+        while (code.length() < COPY_DIGITS)
+        {
+            code = "0" + code;
+        }
+        return code;
+    }
+
+    /**
+     * Reads the attributes of an element.
+     *
+     * @param element String that is the start tag of the element.
+     * @return Map<String, String> of the attribute values keyed by name in
+     * document order.
+     */
+    private static Map<String, String> readAttributes(String element)
+    {
+        Map<String, String> attributes = new LinkedHashMap<String, String>();
+        Matcher attribute = ATTRIBUTE.matcher(element);
+        while (attribute.find())
+        {
+            attributes.put(attribute.group(1), attribute.group(2) != null ? attribute.group(2) : attribute.group(3));
+        }
+        return attributes;
+    }
+
+    /**
+     * Sets the value of an attribute of an element that already has the
+     * attribute.
+     *
+     * @param element String that is the start tag of the element.
+     * @param name String that is the name of the attribute.
+     * @param value String that is the new value.
+     * @return String the start tag with the new value.
+     */
+    private static String setAttribute(String element, String name, String value)
+    {
+        Matcher attribute = ATTRIBUTE.matcher(element);
+        while (attribute.find())
+        {
+            if (attribute.group(1).equals(name))
+            {
+                int start = attribute.group(2) != null ? attribute.start(2) : attribute.start(3);
+                int end = attribute.group(2) != null ? attribute.end(2) : attribute.end(3);
+                return element.substring(0, start) + value + element.substring(end);
+            }
+        }
+        return element;
+    }
+
+    /**
+     * Writes the text of a generated file.
+     *
+     * @param file File that is written.
+     * @param text String that is the text of the file.
+     * @throws IOException
+     */
+    private static void write(File file, String text) throws IOException
+    {
+        Files.write(file.toPath(), text.getBytes(TEXT_ENCODING));
+    }
+
+    /**
+     * A data module of the template resource package.
+     */
+    private static class Template
+    {
+        /**
+         * Name of the file of the data module.
+         */
+        String fileName;
+
+        /**
+         * Text of the data module.
+         */
+        String text;
+
+        /**
+         * The dmCode element of the data module itself.
+         */
+        String dmCode;
+
+        /**
+         * Position of the dmCode element of the data module itself.
+         */
+        int dmCodeStart;
+
+        /**
+         * Data module code of the data module, or null if the file has no
+         * dmIdent element.
+         */
+        String key;
+
+        /**
+         * Constructor
+         *
+         * @param file File of the data module.
+         * @throws IOException
+         */
+        Template(File file) throws IOException
+        {
+            fileName = file.getName();
+            text = new String(Files.readAllBytes(file.toPath()), TEXT_ENCODING);
+            int dmIdent = text.indexOf("<dmIdent");
+            if (dmIdent < 0)
+            {
+                return;
+            }
+            Matcher matcher = DM_CODE.matcher(text);
+            if (matcher.find(dmIdent))
+            {
+                dmCode = matcher.group();
+                dmCodeStart = matcher.start();
+                key = DMParser.formatDmCode(readAttributes(dmCode));
+            }
+        }
+    }
+
+    /**
+     * Generates a corpus from the bike sample.
+     *
+     * @param args String[] that holds the output directory, the number of
+     * data modules and optionally the seed.
+     */
+    public static void main(String[] args)
+    {
+        if (args.length < 2)
+        {
+            System.out.println("Usage: CorpusGenerator <output directory> <number of data modules> [seed]");
+            return;
+        }
+        CorpusGenerator generator = new CorpusGenerator(
+                new File("examples" + File.separator + "bike_resource_package"),
+                new File("examples" + File.separator + "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml"));
+        if (args.length > 2)
+        {
+            generator.setSeed(Long.parseLong(args[2]));
+        }
+        try
+        {
+            File scpm = generator.generate(new File(args[0]), Integer.parseInt(args[1]));
+            System.out.println("Generated " + scpm + " and " + getResourcePackage(new File(args[0])));
+        }
+        catch (IOException e)
+        {
+            System.out.println("Generation of the corpus was unsuccessful");
+            e.printStackTrace();
+        }
+    }
+}
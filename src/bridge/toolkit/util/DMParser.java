@@ -8,6 +8,7 @@ package bridge.toolkit.util;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -93,93 +94,10 @@ public class DMParser extends XMLParser
         {
             Element e = refdms.next();
             Element theAncestor = (Element) e.getParent().getParent();
-            String dmc;
-            String modelIdentCode="";
-            String systemDiffCode="";
-            String systemCode="";
-            String subSystemCode="";    
-            String subSubSystemCode="";    
-            String assyCode="";    
-            String disassyCode="";    
-            String disassyCodeVariant="";    
-            String infoCode="";    
-            String infoCodeVariant="";    
-            String itemLocationCode="";    
-            String learnCode="";    
-            String learnEventCode="";              
             
             if (theAncestor.getName() == "dmRef")
             {
-            	dmc = "DMC-";
-                List<Attribute> atts = e.getAttributes();
-                for (int i = 0; i < atts.toArray().length; i++)
-                {
-                    if (atts.get(i).getName() == "modelIdentCode")
-                    {
-                    	modelIdentCode=atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "systemDiffCode")
-                    {
-                    	systemDiffCode= atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "systemCode")
-                    {
-                    	systemCode= atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "subSystemCode")
-                    {
-                    	subSystemCode= atts.get(i).getValue();
-                    }
-                    else if (atts.get(i).getName() == "subSubSystemCode")
-                    {
-                    	subSubSystemCode= atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "assyCode")
-                    {
-                    	assyCode= atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "disassyCode")
-                    {
-                    	disassyCode=atts.get(i).getValue();
-                    }
-                    else if (atts.get(i).getName() == "disassyCodeVariant")
-                    {
-                    	disassyCodeVariant=atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "infoCode")
-                    {
-                    	infoCode= atts.get(i).getValue();
-                    }
-                    else if (atts.get(i).getName() == "infoCodeVariant")
-                    {
-                    	infoCodeVariant= atts.get(i).getValue() + "-";
-                    }
-                    else if (atts.get(i).getName() == "itemLocationCode")
-                    {
-                        if (atts.toArray().length > 11)
-                        {
-                        	itemLocationCode= atts.get(i).getValue() + "-";
-                        }
-                        else
-                        {
-                        	learnCode= atts.get(i).getValue();
-                        }
-                    }
-                    else if (atts.get(i).getName() == "learnCode")
-                    {
-                    	learnCode=atts.get(i).getValue();
-                    }
-                    else if (atts.get(i).getName() == "learnEventCode")
-                    {
-                    	learnEventCode=atts.get(i).getValue();
-                    }
-
-                }// end for
-                dmc = dmc +modelIdentCode+systemDiffCode+systemCode+subSystemCode
-                +subSubSystemCode+assyCode+disassyCode+disassyCodeVariant+infoCode+infoCodeVariant
-                +itemLocationCode+learnCode+learnEventCode;    
-                referencedDMs.add(dmc);
-                
+                referencedDMs.add(formatDmCode(e));
             }//end if
             
 
@@ -187,6 +105,124 @@ public class DMParser extends XMLParser
         return referencedDMs;
     }    
     
+    /**
+     * Formats the attributes of a dmCode element in the data module code 
+     * format that is used to name the data module files.
+     * 
+     * @param e Element that is the dmCode element.
+     * @return String The data module code String of the dmCode element.
+     */
+    @SuppressWarnings("unchecked")
+    public String formatDmCode(Element e)
+    {
+        Map<String, String> attributes = new LinkedHashMap<String, String>();
+        List<Attribute> atts = e.getAttributes();
+        for (int i = 0; i < atts.size(); i++)
+        {
+            attributes.put(atts.get(i).getName(), atts.get(i).getValue());
+        }
+        return formatDmCode(attributes);
+    }
+
+    /**
+     * Formats the attributes of a dmCode element in the data module code 
+     * format that is used to name the data module files.
+     * 
+     * @param atts Map<String, String> of the attribute values of the dmCode 
+     * element keyed by attribute name, in document order.
+     * @return String The data module code String of the dmCode element.
+     */
+    public static String formatDmCode(Map<String, String> atts)
+    {
+        String dmc;
+        String modelIdentCode="";
+        String systemDiffCode="";
+        String systemCode="";
+        String subSystemCode="";    
+        String subSubSystemCode="";    
+        String assyCode="";    
+        String disassyCode="";    
+        String disassyCodeVariant="";    
+        String infoCode="";    
+        String infoCodeVariant="";    
+        String itemLocationCode="";    
+        String learnCode="";    
+        String learnEventCode="";              
+        
+        dmc = "DMC-";
+        Iterator<Map.Entry<String, String>> iterator = atts.entrySet().iterator();
+        while (iterator.hasNext())
+        {
+            Map.Entry<String, String> att = iterator.next();
+            String name = att.getKey();
+            if (name.equals("modelIdentCode"))
+            {
+            	modelIdentCode=att.getValue() + "-";
+            }
+            else if (name.equals("systemDiffCode"))
+            {
+            	systemDiffCode= att.getValue() + "-";
+            }
+            else if (name.equals("systemCode"))
+            {
+            	systemCode= att.getValue() + "-";
+            }
+            else if (name.equals("subSystemCode"))
+            {
+            	subSystemCode= att.getValue();
+            }
+            else if (name.equals("subSubSystemCode"))
+            {
+            	subSubSystemCode= att.getValue() + "-";
+            }
+            else if (name.equals("assyCode"))
+            {
+            	assyCode= att.getValue() + "-";
+            }
+            else if (name.equals("disassyCode"))
+            {
+            	disassyCode=att.getValue();
+            }
+            else if (name.equals("disassyCodeVariant"))
+            {
+            	disassyCodeVariant=att.getValue() + "-";
+            }
+            else if (name.equals("infoCode"))
+            {
+            	infoCode= att.getValue();
+            }
+            else if (name.equals("infoCodeVariant"))
+            {
+            	infoCodeVariant= att.getValue() + "-";
+            }
+            else if (name.equals("itemLocationCode"))
+            {
+                if (atts.size() > 11)
+                {
+                	itemLocationCode= att.getValue() + "-";
+                }
+                else
+                {
+                	learnCode= att.getValue();
+                }
+            }
+            else if (name.equals("learnCode"))
+            {
+            	learnCode=att.getValue();
+            }
+            else if (name.equals("learnEventCode"))
+            {
+            	learnEventCode=att.getValue();
+            }
+
+        }// end while
+        dmc = dmc +modelIdentCode+systemDiffCode+systemCode+subSystemCode
+        +subSubSystemCode+assyCode+disassyCode+disassyCodeVariant+infoCode+infoCodeVariant
+        +itemLocationCode+learnCode+learnEventCode;    
+
+        return dmc;
+    }
+
     /**
      * Gets the map of the DMs that reference the ICNs and the list of ICNs
      * that are referenced in each DM.
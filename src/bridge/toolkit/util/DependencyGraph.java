@@ -0,0 +1,383 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Graph of the references between the data modules and ICNs of a resource
+ * package.  The nodes are data module codes and ICNs and the edges are the
+ * dmRefs and ICN references of each data module.
+ *
+ * The transitive dependencies of a data module are worked out once for each
+ * depth and kept, so data modules that are shared by many SCOs are only
+ * followed once.  References back to a data module that is already part of
+ * the dependencies (cycles) are not followed again.
+ */
+public class DependencyGraph
+{
+    /**
+     * Name of the system property that sets the number of levels of
+     * referenced data modules that are added as dependencies of a SCO.
+     * A value of 0 or less means there is no limit.
+     */
+    public static final String DEPTH_PROPERTY = "bridge.toolkit.dependencyDepth";
+
+    /**
+     * Default number of levels of referenced data modules that are added as
+     * dependencies of a SCO.
+     */
+    private static final int DEFAULT_DEPTH = 1;
+
+    /**
+     * Depth that follows all of the references.
+     */
+    public static final int UNLIMITED_DEPTH = Integer.MAX_VALUE;
+
+    /**
+     * Number of each node keyed by its data module code or ICN.
+     */
+    private Map<String, Integer> ids = new HashMap<String, Integer>();
+
+    /**
+     * Data module code or ICN of each node by number.
+     */
+    private String[] names = new String[64];
+
+    /**
+     * Referenced data modules of each node by number, or null if the node
+     * is not a data module of the resource package.
+     */
+    private int[][] dmRefs = new int[64][];
+
+    /**
+     * Referenced ICNs of each node by number, or null if the node is not a
+     * data module of the resource package.
+     */
+    private int[][] icnRefs = new int[64][];
+
+    /**
+     * Number of nodes in the graph.
+     */
+    private int size;
+
+    /**
+     * The dependencies that were worked out for each node keyed by depth.
+     */
+    private Map<Integer, int[][]> closures = new HashMap<Integer, int[][]>();
+
+    /**
+     * Search in which each node was last visited.
+     */
+    private int[] visited = new int[0];
+
+    /**
+     * Remaining depth with which each node was last visited.
+     */
+    private int[] visitedDepth = new int[0];
+
+    /**
+     * Search in which each node was last added to the dependencies.
+     */
+    private int[] added = new int[0];
+
+    /**
+     * Number of the current search, so the marks of the previous searches
+     * do not have to be cleared.
+     */
+    private int search;
+
+    /**
+     * Returns the number of levels of referenced data modules that are added
+     * as dependencies of a SCO as set by the DEPTH_PROPERTY system property.
+     *
+     * @return int the depth, or UNLIMITED_DEPTH if there is no limit.
+     */
+    public static int getConfiguredDepth()
+    {
+        int depth = Integer.getInteger(DEPTH_PROPERTY, DEFAULT_DEPTH).intValue();
+        return depth > 0 ? depth : UNLIMITED_DEPTH;
+    }
+
+    /**
+     * Adds a data module of the resource package to the graph.  When the
+     * same data module code is added more than once the first one is kept.
+     *
+     * @param dmc String that is the data module code of the data module.
+     * @param iDmRefs List<String> of the data module codes of the referenced
+     * data modules in document order.
+     * @param iIcnRefs List<String> of the referenced ICNs in document order.
+     */
+    public synchronized void addDataModule(String dmc, List<String> iDmRefs, List<String> iIcnRefs)
+    {
+        int id = getId(dmc);
+        if (dmRefs[id] != null)
+        {
+            return;
+        }
+        dmRefs[id] = getIds(iDmRefs);
+        icnRefs[id] = getIds(iIcnRefs);
+        closures.clear();
+    }
+
+    /**
+     * Checks if a data module of the resource package was added to the graph.
+     *
+     * @param dmc String that is the data module code.
+     * @return boolean true if the data module was added.
+     */
+    public synchronized boolean isDataModule(String dmc)
+    {
+        Integer id = ids.get(dmc);
+        return id != null && dmRefs[id.intValue()] != null;
+    }
+
+    /**
+     * Returns the dependencies of a data module: the ICNs it references,
+     * followed by each referenced data module and its own dependencies, up to
+     * the given number of levels of referenced data modules.
+     *
+     * @param dmc String that is the data module code.
+     * @param depth int that is the number of levels of referenced data
+     * modules to follow; 0 only returns the referenced ICNs.
+     * @return List<String> of the data module codes and ICNs in the order they
+     * are found without duplicates, empty if the data module is unknown.
+     */
+    public synchronized List<String> getDependencies(String dmc, int depth)
+    {
+        List<String> dependencies = new ArrayList<String>();
+        Integer id = ids.get(dmc);
+        if (id == null)
+        {
+            return dependencies;
+        }
+
+        int[][] closure = closures.get(Integer.valueOf(depth));
+        if (closure == null)
+        {
+            closure = new int[size][];
+            closures.put(Integer.valueOf(depth), closure);
+        }
+        int[] nodes = closure[id.intValue()];
+        if (nodes == null)
+        {
+            nodes = search(id.intValue(), depth);
+            closure[id.intValue()] = nodes;
+        }
+
+        for (int node : nodes)
+        {
+            dependencies.add(names[node]);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Checks if a data module can be reached again by following its
+     * references.
+     *
+     * @param dmc String that is the data module code.
+     * @return boolean true if the data module is part of a cycle.
+     */
+    public synchronized boolean hasCycle(String dmc)
+    {
+        Integer id = ids.get(dmc);
+        if (id == null)
+        {
+            return false;
+        }
+        int root = id.intValue();
+        nextSearch();
+
+        int[] stack = new int[size];
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0)
+        {
+            int[] refs = dmRefs[stack[--top]];
+            if (refs == null)
+            {
+                continue;
+            }
+            for (int ref : refs)
+            {
+                if (ref == root)
+                {
+                    return true;
+                }
+                if (visited[ref] != search)
+                {
+                    visited[ref] = search;
+                    stack[top++] = ref;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return int the number of data modules and ICNs in the graph.
+     */
+    public synchronized int size()
+    {
+        return size;
+    }
+
+    /**
+     * Works out the dependencies of a node with a depth first search.
+     *
+     * @param root int that is the number of the node.
+     * @param depth int that is the number of levels of references to follow.
+     * @return int[] the numbers of the dependencies in the order they are found.
+     */
+    private int[] search(int root, int depth)
+    {
+        nextSearch();
+        //each node is found at most once
+        int[] found = new int[size];
+        int count = 0;
+
+        //the path of the search, with the remaining depth and next reference of each node
+        int[] pathNodes = new int[16];
+        int[] pathDepths = new int[16];
+        int[] pathNext = new int[16];
+        pathNodes[0] = root;
+        pathDepths[0] = depth;
+        pathNext[0] = 0;
+        int top = 1;
+        visited[root] = search;
+        visitedDepth[root] = depth;
+        added[root] = search;
+        count = addICNs(root, found, count);
+
+        while (top > 0)
+        {
+            int node = pathNodes[top - 1];
+            int remaining = pathDepths[top - 1];
+            int[] refs = dmRefs[node];
+            if (remaining == 0 || refs == null || pathNext[top - 1] == refs.length)
+            {
+                top--;
+                continue;
+            }
+
+            int ref = refs[pathNext[top - 1]++];
+            if (added[ref] != search)
+            {
+                added[ref] = search;
+                found[count++] = ref;
+            }
+            //a node that is already on the path or was followed as far is
+            //not followed again
+            if (visited[ref] == search && visitedDepth[ref] >= remaining - 1)
+            {
+                continue;
+            }
+            visited[ref] = search;
+            visitedDepth[ref] = remaining - 1;
+            count = addICNs(ref, found, count);
+
+            if (top == pathNodes.length)
+            {
+                pathNodes = Arrays.copyOf(pathNodes, top * 2);
+                pathDepths = Arrays.copyOf(pathDepths, top * 2);
+                pathNext = Arrays.copyOf(pathNext, top * 2);
+            }
+            pathNodes[top] = ref;
+            pathDepths[top] = remaining - 1;
+            pathNext[top] = 0;
+            top++;
+        }
+        return Arrays.copyOf(found, count);
+    }
+
+    /**
+     * Adds the ICNs referenced by a node that were not found yet.
+     *
+     * @param node int that is the number of the node.
+     * @param found int[] of the dependencies found.
+     * @param count int that is the number of dependencies found.
+     * @return int the new number of dependencies found.
+     */
+    private int addICNs(int node, int[] found, int count)
+    {
+        int[] icns = icnRefs[node];
+        if (icns != null)
+        {
+            for (int icn : icns)
+            {
+                if (added[icn] != search)
+                {
+                    added[icn] = search;
+                    found[count++] = icn;
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Starts a new search, making sure the marks are large enough for all of
+     * the nodes.
+     */
+    private void nextSearch()
+    {
+        if (visited.length < size || search == Integer.MAX_VALUE)
+        {
+            visited = new int[names.length];
+            visitedDepth = new int[names.length];
+            added = new int[names.length];
+            search = 0;
+        }
+        search++;
+    }
+
+    /**
+     * Returns the number of a node, adding the node if it is not in the
+     * graph yet.
+     *
+     * @param name String that is the data module code or ICN.
+     * @return int the number of the node.
+     */
+    private int getId(String name)
+    {
+        Integer id = ids.get(name);
+        if (id != null)
+        {
+            return id.intValue();
+        }
+        if (size == names.length)
+        {
+            names = Arrays.copyOf(names, size * 2);
+            dmRefs = Arrays.copyOf(dmRefs, size * 2);
+            icnRefs = Arrays.copyOf(icnRefs, size * 2);
+        }
+        names[size] = name;
+        ids.put(name, Integer.valueOf(size));
+        return size++;
+    }
+
+    /**
+     * Returns the numbers of a list of nodes, adding the nodes that are not
+     * in the graph yet.
+     *
+     * @param iNames List<String> of data module codes or ICNs.
+     * @return int[] the numbers of the nodes.
+     */
+    private int[] getIds(List<String> iNames)
+    {
+        int[] nodes = new int[iNames.size()];
+        for (int i = 0; i < nodes.length; i++)
+        {
+            nodes[i] = getId(iNames.get(i));
+        }
+        return nodes;
+    }
+}
@@ -0,0 +1,285 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jdom.Document;
+import org.jdom.JDOMException;
+import org.jdom.input.SAXBuilder;
+
+/**
+ * Keeps the JDOM Documents of recently parsed XML files so that files that
+ * are parsed more than once are only read from disk once.
+ *
+ * Documents are kept by the canonical path of the file together with its
+ * modification time and length, so a file that changes is parsed again. The
+ * cache is bounded by the estimated memory retained by the documents, and the
+ * least recently used documents are evicted first. Callers always receive a
+ * copy of the cached document, so they are free to modify it.
+ */
+public class DocumentCache
+{
+    /**
+     * Name of the system property that sets the maximum number of megabytes
+     * the cached documents are estimated to retain.
+     */
+    public static final String MAX_SIZE_PROPERTY = "bridge.toolkit.documentCacheSize";
+
+    /**
+     * Default maximum number of megabytes the cached documents are estimated
+     * to retain.
+     */
+    private static final long DEFAULT_MAX_SIZE = 64;
+
+    /**
+     * Approximate number of bytes a parsed JDOM document retains for each
+     * byte of the XML file.
+     */
+    private static final long BYTES_PER_FILE_BYTE = 8;
+
+    /**
+     * The cache shared by all of the parsers.
+     */
+    private static final DocumentCache instance = new DocumentCache(
+            Long.getLong(MAX_SIZE_PROPERTY, DEFAULT_MAX_SIZE).longValue() * 1024 * 1024);
+
+    /**
+     * Cached documents keyed by canonical path, in least recently used order.
+     */
+    private LinkedHashMap<String, Item> items = new LinkedHashMap<String, Item>(16, 0.75f, true);
+
+    /**
+     * Maximum number of bytes the cached documents may be estimated to retain.
+     */
+    private long maxSize;
+
+    /**
+     * Number of bytes the cached documents are estimated to retain.
+     */
+    private long size;
+
+    /**
+     * Number of requests that were answered from the cache.
+     */
+    private long hits;
+
+    /**
+     * Number of requests that required the file to be parsed.
+     */
+    private long misses;
+
+    /**
+     * Number of documents removed to stay within the maximum size.
+     */
+    private long evictions;
+
+    /**
+     * Constructor
+     *
+     * @param iMaxSize long that is the maximum number of bytes the cached
+     * documents may be estimated to retain.
+     */
+    public DocumentCache(long iMaxSize)
+    {
+        maxSize = iMaxSize;
+    }
+
+    /**
+     * Returns the cache shared by all of the parsers.
+     *
+     * @return DocumentCache the shared cache.
+     */
+    public static DocumentCache getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Returns a copy of the document of an XML file, parsing the file if it
+     * is not cached or changed since it was cached.
+     *
+     * @param anXmlDocFile File object that represents an XML file.
+     * @param parser SAXBuilder used to parse the file when it is not cached.
+     * @return Document JDOM Document object that represents the DOM of the XML
+     * file.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    public Document getDoc(File anXmlDocFile, SAXBuilder parser) throws JDOMException, IOException
+    {
+        String path = anXmlDocFile.getCanonicalPath();
+        long lastModified = anXmlDocFile.lastModified();
+        long length = anXmlDocFile.length();
+
+        synchronized (this)
+        {
+            Item item = items.get(path);
+            if (item != null && item.lastModified == lastModified && item.length == length)
+            {
+                hits++;
+                CommandMetrics.cacheHit();
+                return (Document) item.doc.clone();
+            }
+            misses++;
+        }
+
+        Document doc = parser.build(anXmlDocFile);
+        CommandMetrics.fileParsed(anXmlDocFile);
+        put(path, new Item(lastModified, length, (Document) doc.clone()));
+        return doc;
+    }
+
+    /**
+     * Adds a document to the cache and evicts the least recently used
+     * documents until the cache is within its maximum size.
+     *
+     * @param path String that is the canonical path of the file.
+     * @param item Item that holds the document.
+     */
+    private synchronized void put(String path, Item item)
+    {
+        Item old = items.remove(path);
+        if (old != null)
+        {
+            size -= old.size;
+        }
+        if (item.size > maxSize)
+        {
+            return;
+        }
+
+        items.put(path, item);
+        size += item.size;
+
+        Iterator<Map.Entry<String, Item>> iterator = items.entrySet().iterator();
+        while (size > maxSize && iterator.hasNext())
+        {
+            Item eldest = iterator.next().getValue();
+            iterator.remove();
+            size -= eldest.size;
+            evictions++;
+        }
+    }
+
+    /**
+     * Removes all of the documents from the cache.  The statistics are kept.
+     */
+    public synchronized void clear()
+    {
+        items.clear();
+        size = 0;
+    }
+
+    /**
+     * Sets the statistics back to zero.
+     */
+    public synchronized void resetStatistics()
+    {
+        hits = 0;
+        misses = 0;
+        evictions = 0;
+    }
+
+    /**
+     * @return long the number of requests that were answered from the cache.
+     */
+    public synchronized long getHits()
+    {
+        return hits;
+    }
+
+    /**
+     * @return long the number of requests that required the file to be parsed.
+     */
+    public synchronized long getMisses()
+    {
+        return misses;
+    }
+
+    /**
+     * @return long the number of documents removed to stay within the maximum size.
+     */
+    public synchronized long getEvictions()
+    {
+        return evictions;
+    }
+
+    /**
+     * @return int the number of documents in the cache.
+     */
+    public synchronized int getCount()
+    {
+        return items.size();
+    }
+
+    /**
+     * @return long the number of bytes the cached documents are estimated to retain.
+     */
+    public synchronized long getSize()
+    {
+        return size;
+    }
+
+    /**
+     * Returns a one line summary of the statistics of the cache.
+     *
+     * @return String that describes the hits, misses, evictions and size.
+     */
+    public synchronized String getStatistics()
+    {
+        long requests = hits + misses;
+        long hitRate = requests == 0 ? 0 : hits * 100 / requests;
+        return "Document cache: " + hits + " hits, " + misses + " misses (" + hitRate + "% hit rate), " +
+               evictions + " evictions, " + items.size() + " documents, ~" + (size / 1024) + " KB";
+    }
+
+    /**
+     * A cached document together with the state of the file it was parsed
+     * from.
+     */
+    private static class Item
+    {
+        /**
+         * Modification time of the file when it was parsed.
+         */
+        long lastModified;
+
+        /**
+         * Length of the file when it was parsed.
+         */
+        long length;
+
+        /**
+         * Estimated number of bytes the document retains.
+         */
+        long size;
+
+        /**
+         * The parsed document.  It is never handed out.
+         */
+        Document doc;
+
+        /**
+         * Constructor
+         *
+         * @param iLastModified long that is the modification time of the file.
+         * @param iLength long that is the length of the file.
+         * @param iDoc Document parsed from the file.
+         */
+        Item(long iLastModified, long iLength, Document iDoc)
+        {
+            lastModified = iLastModified;
+            length = iLength;
+            size = iLength * BYTES_PER_FILE_BYTE;
+            doc = iDoc;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps track of the directories that are copied from the jar file into the
+ * working directory, because the style sheets that are compiled from the jar
+ * file find their included style sheets there.
+ *
+ * A directory is only copied when it is not in the working directory yet, and
+ * it is deleted when the last conversion that uses it is finished, so
+ * conversions that run at the same time share the copy instead of deleting it
+ * from under each other.
+ */
+public class ExtractedDirectories
+{
+    /**
+     * Lock that guards the copied directories and the number of users.
+     */
+    private static final Object LOCK = new Object();
+
+    /**
+     * Directories that were copied from the jar file and are deleted when the
+     * last user is finished.
+     */
+    private static final List<File> extracted = new ArrayList<File>();
+
+    /**
+     * Number of conversions that are using the directories.
+     */
+    private static int users;
+
+    /**
+     * Copies the directories of the jar file that are not in the working
+     * directory yet and registers the caller as a user of them.  Each call
+     * has to be followed by a call to release, also when it throws.
+     *
+     * @param owner Class that the directories in the jar file are relative to.
+     * @param names String... of the directory names.
+     * @throws IOException if a directory can not be copied.
+     */
+    public static void acquire(Class<?> owner, String... names) throws IOException
+    {
+        synchronized (LOCK)
+        {
+            users++;
+            CopyDirectory cd = new CopyDirectory();
+            for (String name : names)
+            {
+                File directory = new File(System.getProperty("user.dir") + File.separator + name);
+                if (!directory.exists())
+                {
+                    extracted.add(directory);
+                    directory.mkdirs();
+                    cd.CopyJarFiles(owner, name, directory.getAbsolutePath());
+                }
+            }
+        }
+    }
+
+    /**
+     * Unregisters a user, deleting the copied directories when it was the
+     * last one.
+     */
+    public static void release()
+    {
+        synchronized (LOCK)
+        {
+            users--;
+            if (users > 0)
+            {
+                return;
+            }
+            users = 0;
+            for (File directory : extracted)
+            {
+                delete(directory);
+            }
+            extracted.clear();
+        }
+    }
+
+    /**
+     * Checks if a directory of the working directory was copied from the jar
+     * file.  When a copy is in progress the check waits for it to finish.
+     *
+     * @param directory File that is the directory.
+     * @return boolean true if the directory was copied from the jar file and
+     * is deleted again when the conversions are finished.
+     */
+    public static boolean isExtracted(File directory)
+    {
+        synchronized (LOCK)
+        {
+            return extracted.contains(directory.getAbsoluteFile());
+        }
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param file File that is the directory or file to delete.
+     */
+    private static void delete(File file)
+    {
+        File[] files = file.listFiles();
+        if (files != null)
+        {
+            for (File inner : files)
+            {
+                delete(inner);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,211 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Writes and reads the flat JSON objects of the conversion service and of
+ * the metrics of the chains.
+ */
+public class Json
+{
+    /**
+     * Writes a string as a JSON string.
+     *
+     * @param value String to write, or null.
+     * @return String the JSON string, or null.
+     */
+    public static String quote(String value)
+    {
+        if (value == null)
+        {
+            return "null";
+        }
+        StringBuilder json = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++)
+        {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\')
+            {
+                json.append('\\').append(c);
+            }
+            else if (c < 0x20)
+            {
+                json.append(String.format("\\u%04x", (int) c));
+            }
+            else
+            {
+                json.append(c);
+            }
+        }
+        return json.append('"').toString();
+    }
+
+    /**
+     * Reads a JSON object whose values are strings, numbers, booleans or null.
+     *
+     * @param json String that is the JSON object.
+     * @return Map<String, Object> of the values keyed by name.
+     * @throws IllegalArgumentException if the JSON is not such an object.
+     */
+    public static Map<String, Object> parseObject(String json)
+    {
+        Map<String, Object> values = new LinkedHashMap<String, Object>();
+        int[] position = { skip(json, 0) };
+        expect(json, position, '{');
+        if (json.charAt(position[0]) == '}')
+        {
+            position[0] = skip(json, position[0] + 1);
+        }
+        else
+        {
+            while (true)
+            {
+                String name = parseString(json, position);
+                expect(json, position, ':');
+                values.put(name, parseValue(json, position));
+                if (json.charAt(position[0]) == '}')
+                {
+                    position[0] = skip(json, position[0] + 1);
+                    break;
+                }
+                expect(json, position, ',');
+            }
+        }
+        if (position[0] < json.length())
+        {
+            throw new IllegalArgumentException("Unexpected text after the JSON object");
+        }
+        return values;
+    }
+
+    /**
+     * Reads a string, number, boolean or null value.
+     *
+     * @param json String that is the JSON.
+     * @param position int[] that holds the position of the value and is
+     * moved past it.
+     * @return Object the value as a String, Double, Boolean or null.
+     */
+    private static Object parseValue(String json, int[] position)
+    {
+        char c = position[0] < json.length() ? json.charAt(position[0]) : ' ';
+        if (c == '"')
+        {
+            return parseString(json, position);
+        }
+        int end = position[0];
+        while (end < json.length() && ",}] \t\r\n".indexOf(json.charAt(end)) < 0)
+        {
+            end++;
+        }
+        String token = json.substring(position[0], end);
+        position[0] = skip(json, end);
+        if (token.equals("true") || token.equals("false"))
+        {
+            return Boolean.valueOf(token);
+        }
+        if (token.equals("null"))
+        {
+            return null;
+        }
+        try
+        {
+            return Double.valueOf(token);
+        }
+        catch (NumberFormatException e)
+        {
+            throw new IllegalArgumentException("Unexpected value " + token + " in the JSON object");
+        }
+    }
+
+    /**
+     * Reads a string.
+     *
+     * @param json String that is the JSON.
+     * @param position int[] that holds the position of the opening quote and
+     * is moved past the string.
+     * @return String the value of the string.
+     */
+    private static String parseString(String json, int[] position)
+    {
+        if (position[0] >= json.length() || json.charAt(position[0]) != '"')
+        {
+            throw new IllegalArgumentException("Expected a string at " + position[0] + " in the JSON object");
+        }
+        StringBuilder value = new StringBuilder();
+        int i = position[0] + 1;
+        while (true)
+        {
+            if (i >= json.length())
+            {
+                throw new IllegalArgumentException("Unterminated string in the JSON object");
+            }
+            char c = json.charAt(i++);
+            if (c == '"')
+            {
+                break;
+            }
+            if (c == '\\' && i < json.length())
+            {
+                c = json.charAt(i++);
+                switch (c)
+                {
+                    case 'b': c = '\b'; break;
+                    case 'f': c = '\f'; break;
+                    case 'n': c = '\n'; break;
+                    case 'r': c = '\r'; break;
+                    case 't': c = '\t'; break;
+                    case 'u':
+                        if (i + 4 > json.length())
+                        {
+                            throw new IllegalArgumentException("Unterminated string in the JSON object");
+                        }
+                        c = (char) Integer.parseInt(json.substring(i, i + 4), 16);
+                        i += 4;
+                        break;
+                    default:
+                        break;
+                }
+            }
+            value.append(c);
+        }
+        position[0] = skip(json, i);
+        return value.toString();
+    }
+
+    /**
+     * Reads a character and the white space after it.
+     *
+     * @param json String that is the JSON.
+     * @param position int[] that holds the position of the character.
+     * @param expected char that must be at the position.
+     */
+    private static void expect(String json, int[] position, char expected)
+    {
+        if (position[0] >= json.length() || json.charAt(position[0]) != expected)
+        {
+            throw new IllegalArgumentException("Expected '" + expected + "' at " + position[0] + " in the JSON object");
+        }
+        position[0] = skip(json, position[0] + 1);
+    }
+
+    /**
+     * @param json String that is the JSON.
+     * @param position int to start at.
+     * @return int the position of the next character that is not white space.
+     */
+    private static int skip(String json, int position)
+    {
+        while (position < json.length() && Character.isWhitespace(json.charAt(position)))
+        {
+            position++;
+        }
+        return position;
+    }
+}
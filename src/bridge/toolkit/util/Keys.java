@@ -53,12 +53,45 @@ public class Keys
      */
     public static final String CP_PACKAGE = "cp_package";
     
+    /**
+     * PackageTree that describes the SCORM Content Package when it is built 
+     * straight into the ZIP file instead of in the CP_PACKAGE directory.
+     */
+    public static final String PACKAGE_TREE = "package_tree";
+    
+    /**
+     * The ManifestIndex of the 'resource' elements of the imsmanifest.xml file
+     * that is generated from the SCPM.
+     */
+    public static final String MANIFEST_INDEX = "manifest_index";
+    
     /**
      * The urn_resource_map.xml file that provides a way to map all of the 
      * URN values for the resources to the file names.
      */
     public static final String URN_MAP = "urn_resource_map";
     
+    /**
+     * String that represents the location of the SCPM file the incremental
+     * build workspace belongs to. When it is set the SCORM Content Package is
+     * built in the workspace of the previous run and only the changed files 
+     * are processed again.
+     */
+    public static final String INCREMENTAL = "incremental";
+    
+    /**
+     * Boolean that the CleanUp command sets at the end of a chain, so a run
+     * that has it got through all of the commands before the CleanUp.
+     */
+    public static final String RUN_COMPLETE = "run_complete";
+    
+    /**
+     * String that represents the location of what the chain produced: the 
+     * SCORM Content Package zip file, the mobile output directory or the PDF 
+     * file.
+     */
+    public static final String ARTIFACT = "artifact";
+    
     
     /**
      * String that represents whether or not to render in html
@@ -0,0 +1,212 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.Namespace;
+
+/**
+ * Indexes the 'resource' elements of an imsmanifest.xml file so that they can
+ * be looked up by identifier without searching the whole manifest.
+ *
+ * The index is built once from the manifest and is kept up to date by adding
+ * resources and dependencies through it.  Changes made to the manifest in
+ * any other way are not seen by the index.
+ */
+public class ManifestIndex
+{
+    /**
+     * Namespace of the IMS content packaging elements.
+     */
+    public static final Namespace IMSCP_NS = Namespace.getNamespace("http://www.imsglobal.org/xsd/imscp_v1p1");
+
+    /**
+     * Namespace of the ADL content packaging attributes.
+     */
+    public static final Namespace ADLCP_NS = Namespace.getNamespace("adlcp", "http://www.adlnet.org/xsd/adlcp_v1p3");
+
+    /**
+     * The manifest being indexed.
+     */
+    private Document manifest;
+
+    /**
+     * The 'resource' elements keyed by their 'identifier' attribute.  When
+     * several resources have the same identifier the first one is kept.
+     */
+    private Map<String, Element> resources = new HashMap<String, Element>();
+
+    /**
+     * The 'resource' elements that have scormType = 'sco' in document order.
+     */
+    private List<Element> scoResources = new ArrayList<Element>();
+
+    /**
+     * The 'identifierref' attributes of the 'dependency' children of each
+     * 'resource' element keyed by the 'identifier' of the resource.
+     */
+    private Map<String, Set<String>> dependencies = new HashMap<String, Set<String>>();
+
+    /**
+     * Constructor
+     *
+     * @param iManifest JDOM Document of the imsmanifest.xml file to index.
+     */
+    @SuppressWarnings("unchecked")
+    public ManifestIndex(Document iManifest)
+    {
+        manifest = iManifest;
+        Element resourcesElement = manifest.getRootElement().getChild("resources", IMSCP_NS);
+        if (resourcesElement != null)
+        {
+            Iterator<Element> iterator = resourcesElement.getChildren("resource", IMSCP_NS).iterator();
+            while (iterator.hasNext())
+            {
+                addResource(iterator.next());
+            }
+        }
+    }
+
+    /**
+     * Returns the manifest being indexed.
+     *
+     * @return Document the indexed manifest.
+     */
+    public Document getManifest()
+    {
+        return manifest;
+    }
+
+    /**
+     * Adds a 'resource' element that was added to the manifest to the index.
+     *
+     * @param resource Element that is the 'resource' element.
+     */
+    @SuppressWarnings("unchecked")
+    public void addResource(Element resource)
+    {
+        if ("sco".equals(resource.getAttributeValue("scormType", ADLCP_NS)))
+        {
+            scoResources.add(resource);
+        }
+        String identifier = resource.getAttributeValue("identifier");
+        if (identifier == null || resources.containsKey(identifier))
+        {
+            return;
+        }
+        resources.put(identifier, resource);
+
+        Set<String> refs = new LinkedHashSet<String>();
+        Iterator<Element> iterator = resource.getChildren("dependency", IMSCP_NS).iterator();
+        while (iterator.hasNext())
+        {
+            String identifierref = iterator.next().getAttributeValue("identifierref");
+            if (identifierref != null)
+            {
+                refs.add(identifierref);
+            }
+        }
+        dependencies.put(identifier, refs);
+    }
+
+    /**
+     * Returns the 'resource' element with the given identifier.
+     *
+     * @param identifier String that is the value of the 'identifier' attribute.
+     * @return Element that is the 'resource' element or null if there is none.
+     */
+    public Element getResource(String identifier)
+    {
+        return resources.get(identifier);
+    }
+
+    /**
+     * Returns the identifiers of the indexed 'resource' elements.
+     *
+     * @return Set<String> the values of the 'identifier' attributes.
+     */
+    public Set<String> getIdentifiers()
+    {
+        return Collections.unmodifiableSet(resources.keySet());
+    }
+
+    /**
+     * Returns the name of the file referenced by the 'href' attribute of the
+     * 'resource' element with the given identifier.
+     *
+     * @param identifier String that is the value of the 'identifier' attribute.
+     * @return String that is the last part of the 'href' path or null if there
+     * is no such resource or it has no 'href' attribute.
+     */
+    public String getResourceFileName(String identifier)
+    {
+        Element resource = resources.get(identifier);
+        if (resource == null || resource.getAttributeValue("href") == null)
+        {
+            return null;
+        }
+        String[] split = resource.getAttributeValue("href").split("/");
+        return split[split.length - 1];
+    }
+
+    /**
+     * Returns the 'resource' elements that have scormType = 'sco'.
+     *
+     * @return List<Element> the SCO 'resource' elements in document order.
+     */
+    public List<Element> getSCOResources()
+    {
+        return Collections.unmodifiableList(scoResources);
+    }
+
+    /**
+     * Returns the 'identifierref' attributes of the 'dependency' children of a
+     * 'resource' element.
+     *
+     * @param identifier String that is the value of the 'identifier' attribute.
+     * @return Set<String> the identifierrefs in document order, empty if there
+     * is no such resource.
+     */
+    public Set<String> getDependencies(String identifier)
+    {
+        Set<String> refs = dependencies.get(identifier);
+        if (refs == null)
+        {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(refs);
+    }
+
+    /**
+     * Adds a 'dependency' element to a 'resource' element in the manifest.
+     *
+     * @param resource Element that is an indexed 'resource' element.
+     * @param identifierref String that is the identifier of the resource
+     * depended on.
+     */
+    public void addDependency(Element resource, String identifierref)
+    {
+        Element dependency = new Element("dependency", resource.getNamespace());
+        dependency.setAttribute("identifierref", identifierref);
+        resource.addContent(dependency);
+
+        Set<String> refs = dependencies.get(resource.getAttributeValue("identifier"));
+        if (refs != null)
+        {
+            refs.add(identifierref);
+        }
+    }
+}
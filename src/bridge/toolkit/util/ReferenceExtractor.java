@@ -0,0 +1,424 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+
+/**
+ * Reads the references of a data module in a single streaming pass without
+ * building a document.
+ *
+ * The referenced data module codes (dmCode elements inside a dmRef), the
+ * referenced ICNs (infoEntityIdent attributes) and the ICNs of the graphic
+ * elements are collected in document order without duplicates.  The data
+ * module code and title of the data module itself are read in the same pass.
+ */
+public class ReferenceExtractor
+{
+    /**
+     * Element path (ending with the dmCode element) of the data module code
+     * of the data module itself.
+     */
+    private static final String[] DM_CODE_PATH =
+        { "identAndStatusSection", "dmAddress", "dmIdent", "dmCode" };
+
+    /**
+     * Element path (ending with the dmTitle element) of the title of the
+     * data module.
+     */
+    private static final String[] DM_TITLE_PATH =
+        { "identAndStatusSection", "dmAddress", "dmAddressItems", "dmTitle" };
+
+    /**
+     * Factory for the streaming readers.  DTD processing and entity
+     * resolution are turned off since only elements and attributes are read.
+     */
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
+    /**
+     * Names of the open elements from the root element down.
+     */
+    private List<String> path = new ArrayList<String>();
+
+    /**
+     * Data module codes of the referenced data modules.
+     */
+    private Set<String> dmRefs = new LinkedHashSet<String>();
+
+    /**
+     * infoEntityIdent values of the referenced ICNs.
+     */
+    private Set<String> icnRefs = new LinkedHashSet<String>();
+
+    /**
+     * infoEntityIdent values of the graphic elements.
+     */
+    private Set<String> graphics = new LinkedHashSet<String>();
+
+    /**
+     * Attributes of the data module code of the data module itself.
+     */
+    private Map<String, String> dmCode;
+
+    /**
+     * Text of the techName element of the title, or null if there is none.
+     */
+    private StringBuilder techName;
+
+    /**
+     * Text of the infoName element of the title, or null if there is none.
+     */
+    private StringBuilder infoName;
+
+    /**
+     * Reads the references of an XML file.  The results of the previous file
+     * are discarded.
+     *
+     * @param xmlFile File that represents the XML file being read.
+     * @throws XMLStreamException
+     * @throws IOException
+     */
+    public void extract(File xmlFile) throws XMLStreamException, IOException
+    {
+        path.clear();
+        dmRefs.clear();
+        icnRefs.clear();
+        graphics.clear();
+        dmCode = null;
+        techName = null;
+        infoName = null;
+
+        //depth of the dmTitle element being read and the title part being read
+        int titleDepth = -1;
+        boolean titleRead = false;
+        StringBuilder titlePart = null;
+
+        InputStream in = new BufferedInputStream(CommandMetrics.countParsed(new FileInputStream(xmlFile)));
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext())
+            {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT)
+                {
+                    String name = reader.getLocalName();
+                    int depth = path.size();
+                    if (name.equals("dmCode"))
+                    {
+                        if (depth >= 2 && path.get(depth - 2).equals("dmRef"))
+                        {
+                            dmRefs.add(DMParser.formatDmCode(readAttributes(reader)));
+                        }
+                        else if (dmCode == null && endsWith(DM_CODE_PATH))
+                        {
+                            dmCode = readAttributes(reader);
+                        }
+                    }
+                    else if (name.equals("dmTitle") && !titleRead && endsWith(DM_TITLE_PATH))
+                    {
+                        titleDepth = depth;
+                    }
+                    else if (titleDepth >= 0 && depth == titleDepth + 1)
+                    {
+                        if (name.equals("techName") && techName == null)
+                        {
+                            techName = titlePart = new StringBuilder();
+                        }
+                        else if (name.equals("infoName") && infoName == null)
+                        {
+                            infoName = titlePart = new StringBuilder();
+                        }
+                    }
+
+                    String infoEntityIdent = reader.getAttributeValue(null, "infoEntityIdent");
+                    if (infoEntityIdent != null)
+                    {
+                        icnRefs.add(infoEntityIdent);
+                        if (name.equals("graphic"))
+                        {
+                            graphics.add(infoEntityIdent);
+                        }
+                    }
+                    path.add(name);
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT)
+                {
+                    path.remove(path.size() - 1);
+                    if (titleDepth >= 0 && path.size() == titleDepth + 1)
+                    {
+                        titlePart = null;
+                    }
+                    else if (titleDepth >= 0 && path.size() == titleDepth)
+                    {
+                        //only the first title is read
+                        titleDepth = -1;
+                        titleRead = true;
+                    }
+                }
+                else if (titlePart != null && path.size() == titleDepth + 2 &&
+                         (event == XMLStreamConstants.CHARACTERS ||
+                          event == XMLStreamConstants.CDATA ||
+                          event == XMLStreamConstants.SPACE))
+                {
+                    titlePart.append(reader.getText());
+                }
+            }
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                reader.close();
+            }
+            in.close();
+        }
+    }
+
+    /**
+     * Reads the data module references of each scoEntry of a SCPM file that
+     * has the given scoEntryType.  The references of a scoEntry include the
+     * references of the scoEntry elements inside it.
+     *
+     * @param scpm File that represents the SCPM file.
+     * @param scoEntryType String that is the value of the scoEntryType
+     * attribute of the scoEntry elements to read.
+     * @return List<List<String>> the data module codes referenced in each
+     * scoEntry, in document order without duplicates.
+     * @throws XMLStreamException
+     * @throws IOException
+     */
+    public static List<List<String>> extractSCOEntries(File scpm, String scoEntryType)
+            throws XMLStreamException, IOException
+    {
+        List<Set<String>> entries = new ArrayList<Set<String>>();
+        //depth of each open scoEntry that is read together with its references
+        List<Integer> openDepths = new ArrayList<Integer>();
+        List<Set<String>> openEntries = new ArrayList<Set<String>>();
+        List<String> names = new ArrayList<String>();
+
+        InputStream in = new BufferedInputStream(CommandMetrics.countParsed(new FileInputStream(scpm)));
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+            while (reader.hasNext())
+            {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT)
+                {
+                    String name = reader.getLocalName();
+                    int depth = names.size();
+                    if (name.equals("scoEntry") &&
+                        scoEntryType.equals(reader.getAttributeValue(null, "scoEntryType")))
+                    {
+                        Set<String> entry = new LinkedHashSet<String>();
+                        entries.add(entry);
+                        openEntries.add(entry);
+                        openDepths.add(Integer.valueOf(depth));
+                    }
+                    else if (name.equals("dmCode") && !openEntries.isEmpty() &&
+                             depth >= 2 && names.get(depth - 2).equals("dmRef"))
+                    {
+                        String dmc = DMParser.formatDmCode(readAttributes(reader));
+                        for (Set<String> entry : openEntries)
+                        {
+                            entry.add(dmc);
+                        }
+                    }
+                    names.add(name);
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT)
+                {
+                    names.remove(names.size() - 1);
+                    int last = openDepths.size() - 1;
+                    if (last >= 0 && openDepths.get(last).intValue() == names.size())
+                    {
+                        openDepths.remove(last);
+                        openEntries.remove(last);
+                    }
+                }
+            }
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                reader.close();
+            }
+            in.close();
+        }
+
+        List<List<String>> dmRefs = new ArrayList<List<String>>();
+        for (Set<String> entry : entries)
+        {
+            dmRefs.add(new ArrayList<String>(entry));
+        }
+        return dmRefs;
+    }
+
+    /**
+     * @return List<String> the data module codes of the referenced data
+     * modules in document order.
+     */
+    public List<String> getDmRefs()
+    {
+        return new ArrayList<String>(dmRefs);
+    }
+
+    /**
+     * @return List<String> the infoEntityIdent values of the referenced ICNs
+     * in document order.
+     */
+    public List<String> getIcnRefs()
+    {
+        return new ArrayList<String>(icnRefs);
+    }
+
+    /**
+     * @return List<String> the infoEntityIdent values of the graphic elements
+     * in document order.
+     */
+    public List<String> getGraphics()
+    {
+        return new ArrayList<String>(graphics);
+    }
+
+    /**
+     * @return Map<String, String> the attributes of the data module code of
+     * the data module itself in document order, or null if the file does not
+     * have a data module code.
+     */
+    public Map<String, String> getDmCode()
+    {
+        return dmCode;
+    }
+
+    /**
+     * Returns the title of the data module made up of the normalized text of
+     * the techName and the infoName, the same way as it is shown in the
+     * outputs.
+     *
+     * @return String the title or null if the data module has no techName.
+     */
+    public String getTitle()
+    {
+        if (techName == null)
+        {
+            return null;
+        }
+        String title = normalize(techName);
+        if (infoName != null && normalize(infoName).length() > 0)
+        {
+            title = title + " - " + normalize(infoName);
+        }
+        return title;
+    }
+
+    /**
+     * Checks if the open elements end with the parents of the given element
+     * path.
+     *
+     * @param elementPath String[] of element names ending with the element
+     * being opened.
+     * @return boolean true if the parents of the element being opened match.
+     */
+    private boolean endsWith(String[] elementPath)
+    {
+        int offset = path.size() - (elementPath.length - 1);
+        if (offset < 0)
+        {
+            return false;
+        }
+        for (int i = 0; i < elementPath.length - 1; i++)
+        {
+            if (!elementPath[i].equals(path.get(offset + i)))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the attributes of the current element.
+     *
+     * @param reader XMLStreamReader positioned on a start element.
+     * @return Map<String, String> of the attribute values keyed by local name
+     * in document order.
+     */
+    private static Map<String, String> readAttributes(XMLStreamReader reader)
+    {
+        Map<String, String> attributes = new LinkedHashMap<String, String>();
+        for (int i = 0; i < reader.getAttributeCount(); i++)
+        {
+            attributes.put(reader.getAttributeLocalName(i), reader.getAttributeValue(i));
+        }
+        return attributes;
+    }
+
+    /**
+     * Removes the leading and trailing white space of a text and replaces the
+     * white space inside it with single spaces.
+     *
+     * @param text CharSequence to be normalized.
+     * @return String the normalized text.
+     */
+    private static String normalize(CharSequence text)
+    {
+        StringBuilder normalized = new StringBuilder(text.length());
+        boolean space = false;
+        for (int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+            if (c == ' ' || c == '\t' || c == '\n' || c == '\r')
+            {
+                space = normalized.length() > 0;
+            }
+            else
+            {
+                if (space)
+                {
+                    normalized.append(' ');
+                    space = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * Creates the factory used for the streaming reads.
+     *
+     * @return XMLInputFactory that does not process DTDs or resolve entities.
+     */
+    private static XMLInputFactory createInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        return factory;
+    }
+}
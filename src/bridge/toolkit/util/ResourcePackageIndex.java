@@ -0,0 +1,1143 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.NotDirectoryException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import javax.xml.stream.XMLStreamException;
+
+import org.jdom.Attribute;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.JDOMException;
+import org.jdom.output.Format;
+import org.jdom.output.XMLOutputter;
+
+/**
+ * On-disk index of the data modules in a resource package. For each data
+ * module the index stores the facts that the toolkit modules need (data
+ * module code, info/learn codes, SCO content flag, referenced data modules,
+ * referenced ICNs and title) so that the data modules are only parsed again
+ * when they change.
+ *
+ * A file is considered unchanged when its modification time and size match
+ * the index, or when its content hash matches the hash stored in the index.
+ * One index is shared per resource package by all the chains that run in
+ * the same JVM. The indexes of the least recently used resource packages are
+ * dropped from memory and loaded from disk again when they are requested.
+ * New and changed files are scanned in parallel.
+ */
+public class ResourcePackageIndex
+{
+    /**
+     * Version of the on-disk index format. Indexes with another version are
+     * rebuilt.
+     */
+    private static final String INDEX_VERSION = "2";
+
+    /**
+     * Name of the system property that can be used to set the directory
+     * where the index files are stored.
+     */
+    public static final String INDEX_DIR_PROPERTY = "bridge.toolkit.indexDir";
+
+    /**
+     * Name of the system property that sets the maximum number of indexes
+     * kept in memory.
+     */
+    public static final String MAX_INDEXES_PROPERTY = "bridge.toolkit.indexCacheSize";
+
+    /**
+     * Default maximum number of indexes kept in memory.
+     */
+    private static final int DEFAULT_MAX_INDEXES = 8;
+
+    /**
+     * Pool the new and changed files are scanned on, with a thread for each
+     * processor of the machine.
+     */
+    private static final ForkJoinPool SCAN_POOL = new ForkJoinPool();
+
+    /**
+     * Number of files below which a task of the pool scans the files itself
+     * instead of splitting them up further.
+     */
+    private static final int SCAN_BATCH_SIZE = 4;
+
+    /**
+     * Indexes that have been loaded in this JVM keyed by the canonical path of
+     * the resource package, in least recently used order.
+     */
+    private static final LinkedHashMap<String, ResourcePackageIndex> indexes =
+            new LinkedHashMap<String, ResourcePackageIndex>(16, 0.75f, true);
+
+    /**
+     * The resource package directory.
+     */
+    private File resourcePackage;
+
+    /**
+     * The file the index is stored in.
+     */
+    private File indexFile;
+
+    /**
+     * Entries of the index keyed by file name.
+     */
+    private Map<String, Entry> entries = new TreeMap<String, Entry>();
+
+    /**
+     * Entries of the data modules keyed by data module code.
+     */
+    private Map<String, Entry> dmcEntries = new HashMap<String, Entry>();
+
+    /**
+     * Indicates the index has changes that are not saved to disk.
+     */
+    private boolean dirty;
+
+    /**
+     * Number of files that were parsed since the index was loaded.
+     */
+    private int scanCount;
+
+    /**
+     * Parses the index file.
+     */
+    private DMParser dmParser = new DMParser();
+
+    /**
+     * Reads the facts of the data modules being indexed.
+     */
+    private ReferenceExtractor extractor = new ReferenceExtractor();
+
+    /**
+     * Constructor
+     *
+     * @param iResourcePackage File that is the resource package directory.
+     * @param iIndexFile File where the index is stored.
+     */
+    ResourcePackageIndex(File iResourcePackage, File iIndexFile)
+    {
+        resourcePackage = iResourcePackage;
+        indexFile = iIndexFile;
+        //the index file is only parsed once so it is kept out of the cache
+        dmParser.setCaching(false);
+    }
+
+    /**
+     * Returns the index for a resource package. The index is loaded from disk
+     * when it is not in memory, and on every request the data modules that
+     * were added or changed since the last request are scanned.  Loading an
+     * index drops the least recently used indexes from memory once there are
+     * more than the bridge.toolkit.indexCacheSize system property allows.
+     *
+     * @param iResourcePackage File that is the resource package directory.
+     * @return ResourcePackageIndex the up to date index of the resource package.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    public static ResourcePackageIndex getIndex(File iResourcePackage) throws JDOMException, IOException
+    {
+        File canonical = iResourcePackage.getCanonicalFile();
+        ResourcePackageIndex index;
+        synchronized (indexes)
+        {
+            index = indexes.get(canonical.getPath());
+            if (index == null)
+            {
+                index = new ResourcePackageIndex(canonical, getIndexFile(canonical));
+                index.load();
+                indexes.put(canonical.getPath(), index);
+
+                int maxIndexes = Math.max(1, Integer.getInteger(MAX_INDEXES_PROPERTY, DEFAULT_MAX_INDEXES).intValue());
+                Iterator<ResourcePackageIndex> iterator = indexes.values().iterator();
+                while (indexes.size() > maxIndexes && iterator.hasNext())
+                {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+        }
+        index.refresh();
+        return index;
+    }
+
+    /**
+     * @return int the number of indexes kept in memory.
+     */
+    static int getLoadedCount()
+    {
+        synchronized (indexes)
+        {
+            return indexes.size();
+        }
+    }
+
+    /**
+     * Returns the location of the index file for a resource package.  The
+     * index files are stored in the directory set by the
+     * bridge.toolkit.indexDir system property or in an 'indexes' directory
+     * in the temporary directory.
+     *
+     * @param iResourcePackage File that is the canonical resource package directory.
+     * @return File where the index of the resource package is stored.
+     */
+    static File getIndexFile(File iResourcePackage)
+    {
+        String indexDir = System.getProperty(INDEX_DIR_PROPERTY,
+                System.getProperty("java.io.tmpdir") + File.separator + "indexes");
+        String name = iResourcePackage.getName() + "-" +
+                Integer.toHexString(iResourcePackage.getPath().hashCode()) + ".xml";
+        return new File(indexDir, name);
+    }
+
+    /**
+     * Brings the index up to date with the resource package.  Entries of
+     * files that no longer exist are removed and XML files that are new or
+     * changed are scanned. The index is saved if anything changed.
+     * 
+     * Files that can not be parsed are recorded in the index and the parse
+     * error is reported when the entry of the file is requested.
+     *
+     * @throws JDOMException
+     * @throws IOException
+     */
+    public synchronized void refresh() throws JDOMException, IOException
+    {
+        Map<String, BasicFileAttributes> files = listIndexedFiles();
+
+        //the new and changed files are hashed and scanned on the pool
+        List<Scan> scans = new ArrayList<Scan>();
+        Iterator<Map.Entry<String, BasicFileAttributes>> fileIterator = files.entrySet().iterator();
+        while (fileIterator.hasNext())
+        {
+            Map.Entry<String, BasicFileAttributes> file = fileIterator.next();
+            Entry entry = entries.get(file.getKey());
+            long lastModified = file.getValue().lastModifiedTime().toMillis();
+            long length = file.getValue().size();
+            if (entry == null || entry.lastModified != lastModified || entry.length != length)
+            {
+                scans.add(new Scan(new File(resourcePackage, file.getKey()), lastModified, length, entry));
+            }
+        }
+        //a refresh that finds nothing to scan is one use of the index, so
+        //the files of the index do not each count as a cache hit
+        if (scans.isEmpty())
+        {
+            CommandMetrics.cacheHit();
+        }
+        else if (scans.size() > 1)
+        {
+            SCAN_POOL.invoke(new ScanTask(scans, 0, scans.size()));
+        }
+        else if (scans.size() == 1)
+        {
+            scans.get(0).run(extractor);
+        }
+        //the results are applied in file name order so the index does not
+        //depend on the order the scans finish in
+        for (Scan scan : scans)
+        {
+            applyScan(scan);
+        }
+
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext())
+        {
+            Entry entry = iterator.next();
+            if (!files.containsKey(entry.fileName))
+            {
+                iterator.remove();
+                removeDmc(entry);
+                dirty = true;
+            }
+        }
+
+        if (dirty)
+        {
+            save();
+        }
+    }
+
+    /**
+     * Lists the files of the resource package that are indexed together with
+     * their attributes, which are read once for each file.
+     *
+     * @return Map<String, BasicFileAttributes> of the attributes of the files
+     * keyed by file name in file name order.
+     * @throws IOException
+     */
+    private Map<String, BasicFileAttributes> listIndexedFiles() throws IOException
+    {
+        Map<String, BasicFileAttributes> files = new TreeMap<String, BasicFileAttributes>();
+        DirectoryStream<Path> stream;
+        try
+        {
+            stream = Files.newDirectoryStream(resourcePackage.toPath());
+        }
+        catch (NoSuchFileException e)
+        {
+            throw new FileNotFoundException("Resource package " + resourcePackage + " does not exist");
+        }
+        catch (NotDirectoryException e)
+        {
+            throw new FileNotFoundException("Resource package " + resourcePackage + " does not exist");
+        }
+        try
+        {
+            for (Path path : stream)
+            {
+                String name = path.getFileName().toString();
+                if (!isIndexed(name))
+                {
+                    continue;
+                }
+                BasicFileAttributes attributes = Files.readAttributes(path, BasicFileAttributes.class);
+                if (attributes.isRegularFile())
+                {
+                    files.put(name, attributes);
+                }
+            }
+        }
+        finally
+        {
+            stream.close();
+        }
+        return files;
+    }
+
+    /**
+     * Returns the entry for a file in the resource package.  The file is
+     * scanned if it is not indexed yet or changed since it was indexed.
+     *
+     * @param fileName String that is the name of the file in the resource package.
+     * @return Entry that holds the facts of the file.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    public synchronized Entry getEntry(String fileName) throws JDOMException, IOException
+    {
+        File file = new File(resourcePackage, fileName);
+        if (!file.isFile())
+        {
+            throw new FileNotFoundException("File : " + file + " does not exist in the resource package");
+        }
+        return getEntry(file, true);
+    }
+
+    /**
+     * Returns the entry for a file as it was found by the last refresh,
+     * without checking the file again.
+     *
+     * @param fileName String that is the name of the file in the resource package.
+     * @return Entry that holds the facts of the file or null if the file was
+     * not found by the last refresh.
+     * @throws JDOMException
+     */
+    public synchronized Entry getIndexedEntry(String fileName) throws JDOMException
+    {
+        Entry entry = entries.get(fileName);
+        if (entry != null && entry.error != null)
+        {
+            throw new JDOMException(entry.error);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the entry of a data module by its data module code.
+     *
+     * @param dmc String that is the data module code in the format used by
+     * DMParser.searchForDmRefs.
+     * @return Entry of the data module or null if no data module has the code.
+     */
+    public synchronized Entry getEntryByDmc(String dmc)
+    {
+        return dmcEntries.get(dmc);
+    }
+
+    /**
+     * Returns all of the entries of the index ordered by file name.
+     *
+     * @return List<Entry> List of all of the entries.
+     */
+    public synchronized List<Entry> getEntries()
+    {
+        return new ArrayList<Entry>(entries.values());
+    }
+
+    /**
+     * Returns the number of files that were parsed since the index was
+     * loaded.
+     *
+     * @return int number of files scanned.
+     */
+    public synchronized int getScanCount()
+    {
+        return scanCount;
+    }
+
+    /**
+     * Returns the resource package this index belongs to.
+     *
+     * @return File that is the resource package directory.
+     */
+    public File getResourcePackage()
+    {
+        return resourcePackage;
+    }
+
+    /**
+     * Writes the index out to its index file.
+     *
+     * @throws IOException
+     */
+    public synchronized void save() throws IOException
+    {
+        Element root = new Element("resourceIndex");
+        root.setAttribute("version", INDEX_VERSION);
+        root.setAttribute("resourcePackage", resourcePackage.getPath());
+        Iterator<Entry> iterator = entries.values().iterator();
+        while (iterator.hasNext())
+        {
+            root.addContent(iterator.next().toElement());
+        }
+
+        File dir = indexFile.getParentFile();
+        if (!dir.exists())
+        {
+            dir.mkdirs();
+        }
+        //an index that was dropped from memory may still be saved while the
+        //index loaded again in its place is saved, so each save has its own
+        //temporary file
+        File temp = File.createTempFile(indexFile.getName(), ".tmp", dir);
+        OutputStream out = CommandMetrics.countWritten(new FileOutputStream(temp));
+        try
+        {
+            new XMLOutputter(Format.getPrettyFormat()).output(new Document(root), out);
+        }
+        finally
+        {
+            out.close();
+        }
+        if (!temp.renameTo(indexFile))
+        {
+            indexFile.delete();
+            if (!temp.renameTo(indexFile))
+            {
+                temp.delete();
+                throw new IOException("Unable to write the resource package index " + indexFile);
+            }
+        }
+        dirty = false;
+    }
+
+    /**
+     * Loads the index from its index file.  A missing, unreadable or
+     * out of date index file results in an empty index.
+     */
+    @SuppressWarnings("unchecked")
+    void load()
+    {
+        if (!indexFile.exists())
+        {
+            return;
+        }
+        try
+        {
+            Document doc = dmParser.getDoc(indexFile);
+            Element root = doc.getRootElement();
+            if (!INDEX_VERSION.equals(root.getAttributeValue("version")) ||
+                !resourcePackage.getPath().equals(root.getAttributeValue("resourcePackage")))
+            {
+                return;
+            }
+            Iterator<Element> iterator = root.getChildren("file").iterator();
+            while (iterator.hasNext())
+            {
+                Entry entry = Entry.fromElement(iterator.next());
+                entries.put(entry.fileName, entry);
+                addDmc(entry);
+            }
+        }
+        catch (Exception e)
+        {
+            System.out.println("The resource package index " + indexFile +
+                               " could not be read and will be rebuilt");
+            entries.clear();
+            dmcEntries.clear();
+        }
+    }
+
+    /**
+     * Returns the entry of a file, scanning the file if needed.
+     *
+     * @param file File in the resource package.
+     * @param reportError boolean that indicates if a JDOMException is thrown
+     * when the file could not be parsed.
+     * @return Entry that holds the facts of the file.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    private Entry getEntry(File file, boolean reportError) throws JDOMException, IOException
+    {
+        Entry entry = getCurrentEntry(file);
+        if (reportError && entry.error != null)
+        {
+            throw new JDOMException(entry.error);
+        }
+        return entry;
+    }
+
+    /**
+     * Returns the up to date entry of a file, scanning the file if it is not
+     * indexed yet or has changed.
+     *
+     * @param file File in the resource package.
+     * @return Entry that holds the facts of the file.
+     * @throws IOException
+     */
+    private Entry getCurrentEntry(File file) throws IOException
+    {
+        Entry entry = entries.get(file.getName());
+        BasicFileAttributes attributes = Files.readAttributes(file.toPath(), BasicFileAttributes.class);
+        long lastModified = attributes.lastModifiedTime().toMillis();
+        long length = attributes.size();
+        if (entry != null && entry.lastModified == lastModified && entry.length == length)
+        {
+            return entry;
+        }
+
+        Scan scan = new Scan(file, lastModified, length, entry);
+        scan.run(extractor);
+        return applyScan(scan);
+    }
+
+    /**
+     * Applies the result of a scan to the index.
+     *
+     * @param scan Scan that was run.
+     * @return Entry that holds the facts of the scanned file.
+     * @throws IOException
+     */
+    private Entry applyScan(Scan scan) throws IOException
+    {
+        if (scan.error != null)
+        {
+            throw scan.error;
+        }
+        dirty = true;
+        Entry entry = scan.previous;
+        if (scan.entry == null)
+        {
+            //the content did not change
+            entry.lastModified = scan.lastModified;
+            entry.length = scan.length;
+            return entry;
+        }
+
+        if (entry != null)
+        {
+            removeDmc(entry);
+        }
+        scanCount++;
+        entry = scan.entry;
+        entries.put(entry.fileName, entry);
+        addDmc(entry);
+        return entry;
+    }
+
+    /**
+     * Reads a file in a single streaming pass and collects its facts.
+     *
+     * @param file File to be read.
+     * @param extractor ReferenceExtractor used to read the file.
+     * @return Entry that holds the facts of the file.
+     * @throws IOException
+     */
+    private static Entry scan(File file, ReferenceExtractor extractor) throws IOException
+    {
+        Entry entry = new Entry(file.getName());
+        try
+        {
+            extractor.extract(file);
+        }
+        catch (XMLStreamException e)
+        {
+            entry.error = "File : " + file + " could not be indexed. \n " + e.getMessage();
+            return entry;
+        }
+
+        Map<String, String> dmCode = extractor.getDmCode();
+        if (dmCode != null)
+        {
+            entry.dmc = DMParser.formatDmCode(dmCode);
+            entry.infoCode = dmCode.get("infoCode");
+            entry.learnCode = dmCode.get("learnCode");
+            entry.learnEventCode = dmCode.get("learnEventCode");
+            entry.scoContent = "960".equals(entry.infoCode);
+        }
+        entry.title = extractor.getTitle();
+        entry.dmRefs = extractor.getDmRefs();
+        entry.icnRefs = extractor.getIcnRefs();
+        entry.graphics = extractor.getGraphics();
+        return entry;
+    }
+
+    /**
+     * Adds an entry to the data module code lookup.  The first file found
+     * for a data module code is kept.
+     *
+     * @param entry Entry to be added.
+     */
+    private void addDmc(Entry entry)
+    {
+        if (entry.dmc != null && !dmcEntries.containsKey(entry.dmc))
+        {
+            dmcEntries.put(entry.dmc, entry);
+        }
+    }
+
+    /**
+     * Removes an entry from the data module code lookup.
+     *
+     * @param entry Entry to be removed.
+     */
+    private void removeDmc(Entry entry)
+    {
+        if (entry.dmc != null && dmcEntries.get(entry.dmc) == entry)
+        {
+            dmcEntries.remove(entry.dmc);
+            Iterator<Entry> iterator = entries.values().iterator();
+            while (iterator.hasNext())
+            {
+                Entry other = iterator.next();
+                if (other != entry && entry.dmc.equals(other.dmc))
+                {
+                    dmcEntries.put(other.dmc, other);
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Indicates if a file is scanned when the index is refreshed.
+     *
+     * @param fileName String that is the name of the file.
+     * @return boolean true if the file is an XML file.
+     */
+    private static boolean isIndexed(String fileName)
+    {
+        return fileName.toLowerCase().endsWith(".xml");
+    }
+
+    /**
+     * Computes the SHA-1 hash of the content of a file.
+     *
+     * @param file File to be hashed.
+     * @return String hexadecimal representation of the hash.
+     * @throws IOException
+     */
+    public static String computeHash(File file) throws IOException
+    {
+        MessageDigest digest;
+        try
+        {
+            digest = MessageDigest.getInstance("SHA-1");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            throw new IOException("SHA-1 is not supported : " + e.getMessage());
+        }
+
+        InputStream in = CommandMetrics.countRead(new FileInputStream(file));
+        try
+        {
+            byte[] buffer = new byte[65536];
+            int length;
+            while ((length = in.read(buffer)) > 0)
+            {
+                digest.update(buffer, 0, length);
+            }
+        }
+        finally
+        {
+            in.close();
+        }
+
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest.digest())
+        {
+            hex.append(Character.forDigit((b >> 4) & 0xF, 16));
+            hex.append(Character.forDigit(b & 0xF, 16));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * The hashing and scanning of a new or changed file, which does not
+     * change the index so that it can run on any thread.
+     */
+    private static class Scan
+    {
+        /**
+         * The file to be scanned.
+         */
+        File file;
+
+        /**
+         * Modification time of the file.
+         */
+        long lastModified;
+
+        /**
+         * Size of the file.
+         */
+        long length;
+
+        /**
+         * The entry of the file before the scan, or null if it is a new file.
+         */
+        Entry previous;
+
+        /**
+         * The new entry of the file, or null if the content did not change.
+         */
+        Entry entry;
+
+        /**
+         * The error that occurred while the file was read, if any.
+         */
+        IOException error;
+
+        /**
+         * Constructor
+         *
+         * @param iFile File to be scanned.
+         * @param iLastModified long that is the modification time of the file.
+         * @param iLength long that is the size of the file.
+         * @param iPrevious Entry of the file before the scan or null.
+         */
+        Scan(File iFile, long iLastModified, long iLength, Entry iPrevious)
+        {
+            file = iFile;
+            lastModified = iLastModified;
+            length = iLength;
+            previous = iPrevious;
+        }
+
+        /**
+         * Hashes the file and scans it if the content changed.
+         *
+         * @param extractor ReferenceExtractor used by the current thread.
+         */
+        void run(ReferenceExtractor extractor)
+        {
+            try
+            {
+                String hash = computeHash(file);
+                if (previous != null && previous.hash.equals(hash))
+                {
+                    return;
+                }
+                entry = scan(file, extractor);
+                entry.lastModified = lastModified;
+                entry.length = length;
+                entry.hash = hash;
+            }
+            catch (IOException e)
+            {
+                error = e;
+            }
+        }
+    }
+
+    /**
+     * Task of the pool that runs a range of scans, splitting the range in
+     * two until it is small.
+     */
+    private static class ScanTask extends RecursiveAction
+    {
+        /**
+         * Serial version of the task.
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * All of the scans.
+         */
+        private List<Scan> scans;
+
+        /**
+         * Index of the first scan of the range.
+         */
+        private int from;
+
+        /**
+         * Index after the last scan of the range.
+         */
+        private int to;
+
+        /**
+         * Metrics of the command the task scans for.
+         */
+        private CommandMetrics metrics;
+
+        /**
+         * Constructor
+         *
+         * @param iScans List<Scan> of all of the scans.
+         * @param iFrom int that is the index of the first scan of the range.
+         * @param iTo int that is the index after the last scan of the range.
+         */
+        ScanTask(List<Scan> iScans, int iFrom, int iTo)
+        {
+            scans = iScans;
+            from = iFrom;
+            to = iTo;
+            metrics = CommandMetrics.current();
+        }
+
+        /**
+         * Runs the scans of the range for the command the task was created
+         * for.
+         *
+         * @see java.util.concurrent.RecursiveAction#compute()
+         */
+        @Override
+        protected void compute()
+        {
+            CommandMetrics.runAs(metrics, new Runnable()
+            {
+                public void run()
+                {
+                    scanRange();
+                }
+            });
+        }
+
+        /**
+         * Runs the scans of the range, splitting it when it is large.
+         */
+        private void scanRange()
+        {
+            if (to - from <= SCAN_BATCH_SIZE)
+            {
+                ReferenceExtractor extractor = new ReferenceExtractor();
+                for (int i = from; i < to; i++)
+                {
+                    scans.get(i).run(extractor);
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new ScanTask(scans, from, middle), new ScanTask(scans, middle, to));
+        }
+    }
+
+    /**
+     * The facts of a single file of the resource package.
+     */
+    public static class Entry
+    {
+        /**
+         * Name of the file in the resource package.
+         */
+        private String fileName;
+
+        /**
+         * Modification time of the file when it was indexed.
+         */
+        private long lastModified;
+
+        /**
+         * Size of the file when it was indexed.
+         */
+        private long length;
+
+        /**
+         * SHA-1 hash of the content of the file when it was indexed.
+         */
+        private String hash = "";
+
+        /**
+         * Data module code of the data module.
+         */
+        private String dmc;
+
+        /**
+         * Value of the infoCode attribute of the data module code.
+         */
+        private String infoCode;
+
+        /**
+         * Value of the learnCode attribute of the data module code.
+         */
+        private String learnCode;
+
+        /**
+         * Value of the learnEventCode attribute of the data module code.
+         */
+        private String learnEventCode;
+
+        /**
+         * Message of the error that occurred when the file was parsed, or
+         * null if the file was parsed successfully.
+         */
+        private String error;
+
+        /**
+         * Indicates the data module is a S1000D 4.1 SCO content data module.
+         */
+        private boolean scoContent;
+
+        /**
+         * Title of the data module.
+         */
+        private String title;
+
+        /**
+         * Data module codes of the referenced data modules in document order.
+         */
+        private List<String> dmRefs = Collections.emptyList();
+
+        /**
+         * infoEntityIdent values of the referenced ICNs in document order.
+         */
+        private List<String> icnRefs = Collections.emptyList();
+
+        /**
+         * infoEntityIdent values of the graphic elements in document order.
+         */
+        private List<String> graphics = Collections.emptyList();
+
+        /**
+         * Constructor
+         *
+         * @param iFileName String that is the name of the file.
+         */
+        Entry(String iFileName)
+        {
+            fileName = iFileName;
+        }
+
+        /**
+         * @return the name of the file in the resource package.
+         */
+        public String getFileName()
+        {
+            return fileName;
+        }
+
+        /**
+         * @return the SHA-1 hash of the content of the file.
+         */
+        public String getHash()
+        {
+            return hash;
+        }
+
+        /**
+         * @return true if the file has a data module code.
+         */
+        public boolean isDataModule()
+        {
+            return dmc != null;
+        }
+
+        /**
+         * @return the data module code or null if the file is not a data module.
+         */
+        public String getDmc()
+        {
+            return dmc;
+        }
+
+        /**
+         * @return the infoCode or null if it is not set.
+         */
+        public String getInfoCode()
+        {
+            return infoCode;
+        }
+
+        /**
+         * @return the learnCode or null if it is not set.
+         */
+        public String getLearnCode()
+        {
+            return learnCode;
+        }
+
+        /**
+         * @return the learnEventCode or null if it is not set.
+         */
+        public String getLearnEventCode()
+        {
+            return learnEventCode;
+        }
+
+        /**
+         * @return true if the data module is a S1000D 4.1 SCO content data module.
+         */
+        public boolean isScoContent()
+        {
+            return scoContent;
+        }
+
+        /**
+         * @return the title of the data module or null if it has none.
+         */
+        public String getTitle()
+        {
+            return title;
+        }
+
+        /**
+         * @return the data module codes of the referenced data modules.
+         */
+        public List<String> getDmRefs()
+        {
+            return Collections.unmodifiableList(dmRefs);
+        }
+
+        /**
+         * @return the infoEntityIdent values of the referenced ICNs.
+         */
+        public List<String> getIcnRefs()
+        {
+            return Collections.unmodifiableList(icnRefs);
+        }
+
+        /**
+         * @return the infoEntityIdent values of the graphic elements.
+         */
+        public List<String> getGraphics()
+        {
+            return Collections.unmodifiableList(graphics);
+        }
+
+        /**
+         * Creates the index file element of the entry.
+         *
+         * @return Element that represents the entry.
+         */
+        private Element toElement()
+        {
+            Element file = new Element("file");
+            file.setAttribute(new Attribute("name", fileName));
+            file.setAttribute(new Attribute("lastModified", Long.toString(lastModified)));
+            file.setAttribute(new Attribute("length", Long.toString(length)));
+            file.setAttribute(new Attribute("hash", hash));
+            setAttribute(file, "dmc", dmc);
+            setAttribute(file, "infoCode", infoCode);
+            setAttribute(file, "learnCode", learnCode);
+            setAttribute(file, "learnEventCode", learnEventCode);
+            file.setAttribute(new Attribute("scoContent", Boolean.toString(scoContent)));
+            setAttribute(file, "error", error);
+            if (title != null)
+            {
+                file.addContent(new Element("title").setText(title));
+            }
+            for (String dmRef : dmRefs)
+            {
+                file.addContent(new Element("dmRef").setText(dmRef));
+            }
+            for (String icnRef : icnRefs)
+            {
+                file.addContent(new Element("icn").setText(icnRef));
+            }
+            for (String graphic : graphics)
+            {
+                file.addContent(new Element("graphic").setText(graphic));
+            }
+            return file;
+        }
+
+        /**
+         * Reads an entry from its index file element.
+         *
+         * @param file Element that represents the entry.
+         * @return Entry that was read.
+         */
+        @SuppressWarnings("unchecked")
+        private static Entry fromElement(Element file)
+        {
+            Entry entry = new Entry(file.getAttributeValue("name"));
+            entry.lastModified = Long.parseLong(file.getAttributeValue("lastModified"));
+            entry.length = Long.parseLong(file.getAttributeValue("length"));
+            entry.hash = file.getAttributeValue("hash");
+            entry.dmc = file.getAttributeValue("dmc");
+            entry.infoCode = file.getAttributeValue("infoCode");
+            entry.learnCode = file.getAttributeValue("learnCode");
+            entry.learnEventCode = file.getAttributeValue("learnEventCode");
+            entry.scoContent = Boolean.parseBoolean(file.getAttributeValue("scoContent"));
+            entry.error = file.getAttributeValue("error");
+            entry.title = file.getChildText("title");
+            entry.dmRefs = new ArrayList<String>();
+            Iterator<Element> dmRefs = file.getChildren("dmRef").iterator();
+            while (dmRefs.hasNext())
+            {
+                entry.dmRefs.add(dmRefs.next().getText());
+            }
+            entry.icnRefs = new ArrayList<String>();
+            Iterator<Element> icnRefs = file.getChildren("icn").iterator();
+            while (icnRefs.hasNext())
+            {
+                entry.icnRefs.add(icnRefs.next().getText());
+            }
+            entry.graphics = new ArrayList<String>();
+            Iterator<Element> graphics = file.getChildren("graphic").iterator();
+            while (graphics.hasNext())
+            {
+                entry.graphics.add(graphics.next().getText());
+            }
+            return entry;
+        }
+
+        /**
+         * Sets an attribute on an element if the value is not null.
+         *
+         * @param element Element the attribute is set on.
+         * @param name String that is the name of the attribute.
+         * @param value String that is the value of the attribute.
+         */
+        private static void setAttribute(Element element, String name, String value)
+        {
+            if (value != null)
+            {
+                element.setAttribute(new Attribute(name, value));
+            }
+        }
+    }
+}
@@ -5,8 +5,16 @@
  */
 package bridge.toolkit.util;
 
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.IOException;
+import java.io.InputStream;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 
 import org.jdom.Document;
 import org.jdom.JDOMException;
@@ -18,25 +26,159 @@ import org.jdom.xpath.XPath;
 public class SCOContentDMChecker
 {
 
+    /**
+     * The infoCode value that indicates a SCO content data module.
+     */
+    private static final String SCO_CONTENT_INFO_CODE = "960";
+
+    /**
+     * Element path (ending with the dmCode element) of the data module code
+     * of the data module itself.
+     */
+    private static final String[] DM_CODE_PATH =
+        { "identAndStatusSection", "dmAddress", "dmIdent", "dmCode" };
+
+    /**
+     * Factory for the streaming readers.  DTD processing and entity
+     * resolution are turned off since only the identification section of
+     * the data module is read.
+     */
+    private static final XMLInputFactory INPUT_FACTORY = createInputFactory();
+
     /**
      * Parses a data module to see if the infoCode is 960 which indicates a 
      * SCO content data module.
+     *
+     * The data module is streamed only up to its own dmCode element. If the
+     * streaming read fails the whole document is parsed instead.
+     *
      * @param dataModule File that represents a data module file.
      * @return boolean Boolean that indicates if the data module was a SCO content data module.
      * @throws IOException 
      * @throws JDOMException 
      */
     public static boolean isSCOContentDM(File dataModule) throws JDOMException, IOException 
+    {
+        String infoCode = null;
+        try
+        {
+            infoCode = readInfoCode(dataModule);
+        }
+        catch (XMLStreamException e)
+        {
+            return isSCOContentDMDocument(dataModule);
+        }
+
+        return SCO_CONTENT_INFO_CODE.equals(infoCode);
+    }
+
+    /**
+     * Reads the infoCode of a data module without building a document.
+     * Reading stops as soon as the
+     * identAndStatusSection/dmAddress/dmIdent/dmCode element is reached, or
+     * the identAndStatusSection element is closed.
+     *
+     * @param dataModule File that represents a data module file.
+     * @return String the value of the infoCode attribute or null if the file
+     * does not have a data module code.
+     * @throws XMLStreamException
+     * @throws IOException
+     */
+    public static String readInfoCode(File dataModule) throws XMLStreamException, IOException
+    {
+        InputStream in = new BufferedInputStream(CommandMetrics.countParsed(new FileInputStream(dataModule)));
+        XMLStreamReader reader = null;
+        try
+        {
+            reader = INPUT_FACTORY.createXMLStreamReader(in);
+
+            //number of the leading elements of DM_CODE_PATH that are open
+            int matched = 0;
+            int depth = 0;
+            //depth at which each element of DM_CODE_PATH was opened
+            int[] matchedDepth = new int[DM_CODE_PATH.length];
+            while (reader.hasNext())
+            {
+                int event = reader.next();
+                if (event == XMLStreamConstants.START_ELEMENT)
+                {
+                    depth++;
+                    String name = reader.getLocalName();
+                    if (matched == 0 && name.equals(DM_CODE_PATH[0]))
+                    {
+                        matchedDepth[matched++] = depth;
+                    }
+                    else if (matched > 0 && matchedDepth[matched - 1] == depth - 1 &&
+                             name.equals(DM_CODE_PATH[matched]))
+                    {
+                        if (matched == DM_CODE_PATH.length - 1)
+                        {
+                            return reader.getAttributeValue(null, "infoCode");
+                        }
+                        matchedDepth[matched++] = depth;
+                    }
+                }
+                else if (event == XMLStreamConstants.END_ELEMENT)
+                {
+                    if (matched > 0 && matchedDepth[matched - 1] == depth)
+                    {
+                        matched--;
+                        if (matched == 0)
+                        {
+                            //the identAndStatusSection did not hold a dmCode
+                            return null;
+                        }
+                    }
+                    depth--;
+                }
+            }
+        }
+        finally
+        {
+            if (reader != null)
+            {
+                reader.close();
+            }
+            in.close();
+        }
+
+        return null;
+    }
+
+    /**
+     * Parses the whole data module and searches for the SCO content infoCode.
+     *
+     * @param dataModule File that represents a data module file.
+     * @return boolean Boolean that indicates if the data module was a SCO content data module.
+     * @throws IOException
+     * @throws JDOMException
+     */
+    private static boolean isSCOContentDMDocument(File dataModule) throws JDOMException, IOException
     {
         boolean isSCOContentDM = false;
         XMLParser xp = new XMLParser();
-        
-            Document dmDoc = xp.getDoc(dataModule);
-            XPath xpath = XPath.newInstance("//identAndStatusSection/dmAddress/dmIdent/dmCode[@infoCode='960']");
-            if(xpath.selectSingleNode(dmDoc)!=null)
-                isSCOContentDM = true;
 
+        Document dmDoc = xp.getDoc(dataModule);
+        XPath xpath = XPath.newInstance("//identAndStatusSection/dmAddress/dmIdent/dmCode[@infoCode='" +
+                                        SCO_CONTENT_INFO_CODE + "']");
+        if(xpath.selectSingleNode(dmDoc)!=null)
+            isSCOContentDM = true;
 
         return isSCOContentDM;
     }
+
+    /**
+     * Creates the factory used for the streaming reads.
+     *
+     * @return XMLInputFactory that does not process DTDs or resolve entities.
+     */
+    private static XMLInputFactory createInputFactory()
+    {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_REPLACING_ENTITY_REFERENCES, Boolean.FALSE);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, Boolean.FALSE);
+        return factory;
+    }
 }
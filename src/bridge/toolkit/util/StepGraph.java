@@ -0,0 +1,421 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Runs steps that declare what they read and write, running the steps that do
+ * not depend on each other at the same time on a pool shared by all of the
+ * graphs.
+ *
+ * What a step reads and writes is given as names: Context keys, such as
+ * Keys.XML_SOURCE, and workspace paths relative to the package, such as
+ * resources/s1000d/app/list.js.  A path that ends with a "/" stands for the
+ * directory and everything in it.  A step depends on an earlier step when
+ * one of them writes what the other one reads or writes.  A step that gives
+ * null for what it reads or writes depends on all of the earlier steps and
+ * all of the later steps depend on it, so steps whose dependencies are not
+ * clear keep the order they were added in.
+ *
+ * A step that returns true or throws an exception stops the graph: the steps
+ * that have not started yet are not run, and the steps that are running at
+ * the time are finished.
+ */
+public class StepGraph
+{
+    /**
+     * Name of the system property that sets the number of threads of the
+     * shared pool.  A value of 0 or less uses one thread for each processor
+     * and a value of 1 runs the steps one after the other in the order they
+     * were added.
+     */
+    public static final String THREADS_PROPERTY = "bridge.toolkit.stepThreads";
+
+    /**
+     * The pool shared by all of the graphs, created when it is first needed.
+     */
+    private static ExecutorService pool;
+
+    /**
+     * The steps in the order they were added.
+     */
+    private List<Step> steps = new ArrayList<Step>();
+
+    /**
+     * Adds a step.
+     *
+     * @param name String that is the name of the step.
+     * @param reads Collection<String> of the names the step reads, or null
+     * if they are not known.
+     * @param writes Collection<String> of the names the step writes, or null
+     * if they are not known.
+     * @param action Action that is run for the step.
+     */
+    public void add(String name, Collection<String> reads, Collection<String> writes, Action action)
+    {
+        steps.add(new Step(name, reads, writes, action));
+    }
+
+    /**
+     * @return List<String> of the names of the steps in the order they were
+     * added.
+     */
+    public List<String> getNames()
+    {
+        List<String> names = new ArrayList<String>();
+        for (Step step : steps)
+        {
+            names.add(step.name);
+        }
+        return names;
+    }
+
+    /**
+     * Returns the earlier steps each step depends on.
+     *
+     * @return List<List<Integer>> with the positions of the earlier steps
+     * for the step at each position.
+     */
+    public List<List<Integer>> getDependencies()
+    {
+        List<List<Integer>> dependencies = new ArrayList<List<Integer>>();
+        for (int j = 0; j < steps.size(); j++)
+        {
+            Step later = steps.get(j);
+            List<Integer> earlier = new ArrayList<Integer>();
+            for (int i = 0; i < j; i++)
+            {
+                if (dependsOn(later, steps.get(i)))
+                {
+                    earlier.add(Integer.valueOf(i));
+                }
+            }
+            dependencies.add(earlier);
+        }
+        return dependencies;
+    }
+
+    /**
+     * Runs the steps, at the same time when the shared pool has more than one
+     * thread and one after the other otherwise.
+     *
+     * @return boolean true if a step returned true, false if all of the steps
+     * returned false.
+     * @throws Exception the exception of the first step that threw one.
+     */
+    public boolean run() throws Exception
+    {
+        if (getConfiguredThreads() <= 1 || steps.size() <= 1)
+        {
+            for (Step step : steps)
+            {
+                if (step.action.run())
+                {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        int count = steps.size();
+        List<List<Integer>> dependencies = getDependencies();
+        int[] waiting = new int[count];
+        List<List<Integer>> successors = new ArrayList<List<Integer>>();
+        for (int i = 0; i < count; i++)
+        {
+            successors.add(new ArrayList<Integer>());
+        }
+        TreeSet<Integer> ready = new TreeSet<Integer>();
+        for (int j = 0; j < count; j++)
+        {
+            waiting[j] = dependencies.get(j).size();
+            for (Integer i : dependencies.get(j))
+            {
+                successors.get(i.intValue()).add(Integer.valueOf(j));
+            }
+            if (waiting[j] == 0)
+            {
+                ready.add(Integer.valueOf(j));
+            }
+        }
+
+        BlockingQueue<Integer> finished = new LinkedBlockingQueue<Integer>();
+        StepTask[] tasks = new StepTask[count];
+        Throwable[] failures = new Throwable[count];
+        boolean stopped = false;
+        int running = 0;
+        while (true)
+        {
+            if (!stopped)
+            {
+                for (Integer i : ready)
+                {
+                    tasks[i.intValue()] = new StepTask(i.intValue(), steps.get(i.intValue()).action, finished);
+                    getPool().execute(tasks[i.intValue()]);
+                    running++;
+                }
+            }
+            ready.clear();
+            if (running == 0)
+            {
+                break;
+            }
+
+            //the steps that no thread of the pool has taken yet are run here,
+            //so a step that waits for its own steps never waits for the pool
+            boolean helped = false;
+            for (StepTask task : tasks)
+            {
+                if (task != null && !task.isDone())
+                {
+                    task.run();
+                    if (task.isDone())
+                    {
+                        helped = true;
+                        break;
+                    }
+                }
+            }
+            Integer done = helped ? finished.poll() : finished.take();
+            while (done != null)
+            {
+                running--;
+                int i = done.intValue();
+                try
+                {
+                    if (tasks[i].get().booleanValue())
+                    {
+                        stopped = true;
+                    }
+                }
+                catch (ExecutionException e)
+                {
+                    failures[i] = e.getCause();
+                    stopped = true;
+                }
+                for (Integer j : successors.get(i))
+                {
+                    if (--waiting[j.intValue()] == 0)
+                    {
+                        ready.add(j);
+                    }
+                }
+                done = finished.poll();
+            }
+        }
+
+        for (Throwable failure : failures)
+        {
+            if (failure instanceof Exception)
+            {
+                throw (Exception) failure;
+            }
+            if (failure != null)
+            {
+                throw (Error) failure;
+            }
+        }
+        return stopped;
+    }
+
+    /**
+     * Returns the number of threads of the shared pool as set by the
+     * THREADS_PROPERTY system property.
+     *
+     * @return int the number of threads, the number of processors if the
+     * property is not set or is 0 or less.
+     */
+    public static int getConfiguredThreads()
+    {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 0).intValue();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+
+    /**
+     * Checks if two collections of names have a name in common, where a name
+     * that ends with a "/" also matches the names that start with it.
+     *
+     * @param first Collection<String> of names.
+     * @param second Collection<String> of names.
+     * @return boolean true if a name of the first collection matches a name
+     * of the second.
+     */
+    public static boolean overlaps(Collection<String> first, Collection<String> second)
+    {
+        for (String a : first)
+        {
+            for (String b : second)
+            {
+                if (a == null || b == null)
+                {
+                    if (a == b)
+                    {
+                        return true;
+                    }
+                }
+                else if (a.equals(b) || (a.endsWith("/") && b.startsWith(a)) || (b.endsWith("/") && a.startsWith(b)))
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Checks if a step depends on an earlier step.
+     *
+     * @param later Step that was added later.
+     * @param earlier Step that was added earlier.
+     * @return boolean true if the later step has to wait for the earlier one.
+     */
+    private static boolean dependsOn(Step later, Step earlier)
+    {
+        if (later.reads == null || later.writes == null || earlier.reads == null || earlier.writes == null)
+        {
+            return true;
+        }
+        return overlaps(earlier.writes, later.reads) || overlaps(earlier.writes, later.writes) ||
+               overlaps(earlier.reads, later.writes);
+    }
+
+    /**
+     * Returns the pool shared by all of the graphs.  Its threads are daemon
+     * threads so they do not keep the JVM running.
+     *
+     * @return ExecutorService that is the shared pool.
+     */
+    private static synchronized ExecutorService getPool()
+    {
+        if (pool == null)
+        {
+            final AtomicInteger number = new AtomicInteger();
+            pool = Executors.newFixedThreadPool(getConfiguredThreads(), new ThreadFactory()
+            {
+                public Thread newThread(Runnable runnable)
+                {
+                    Thread thread = new Thread(runnable, "step-" + number.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return pool;
+    }
+
+    /**
+     * The work of a step.
+     */
+    public interface Action
+    {
+        /**
+         * Does the work of the step.
+         *
+         * @return boolean true to stop the graph, false to go on.
+         * @throws Exception
+         */
+        boolean run() throws Exception;
+    }
+
+    /**
+     * A step of the graph.
+     */
+    private static class Step
+    {
+        /**
+         * Name of the step.
+         */
+        String name;
+
+        /**
+         * The names the step reads, or null if they are not known.
+         */
+        Collection<String> reads;
+
+        /**
+         * The names the step writes, or null if they are not known.
+         */
+        Collection<String> writes;
+
+        /**
+         * The work of the step.
+         */
+        Action action;
+
+        /**
+         * Constructor
+         *
+         * @param iName String that is the name of the step.
+         * @param iReads Collection<String> of the names the step reads.
+         * @param iWrites Collection<String> of the names the step writes.
+         * @param iAction Action that is run for the step.
+         */
+        Step(String iName, Collection<String> iReads, Collection<String> iWrites, Action iAction)
+        {
+            name = iName;
+            reads = iReads;
+            writes = iWrites;
+            action = iAction;
+        }
+    }
+
+    /**
+     * Runs a step and reports its position when it is done.  The step is
+     * counted for the command that created the graph.
+     */
+    private static class StepTask extends FutureTask<Boolean>
+    {
+        /**
+         * Position of the step.
+         */
+        int step;
+
+        /**
+         * Queue that the position is put in when the step is done.
+         */
+        BlockingQueue<Integer> finished;
+
+        /**
+         * Constructor
+         *
+         * @param iStep int that is the position of the step.
+         * @param action Action of the step.
+         * @param iFinished BlockingQueue<Integer> that the position is put in
+         * when the step is done.
+         */
+        StepTask(int iStep, final Action action, BlockingQueue<Integer> iFinished)
+        {
+            super(CommandMetrics.wrap(new Callable<Boolean>()
+            {
+                public Boolean call() throws Exception
+                {
+                    return Boolean.valueOf(action.run());
+                }
+            }));
+            step = iStep;
+            finished = iFinished;
+        }
+
+        @Override
+        protected void done()
+        {
+            finished.add(Integer.valueOf(step));
+        }
+    }
+}
@@ -7,12 +7,26 @@ package bridge.toolkit.util;
 
 import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.StringReader;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import org.jdom.DocType;
 import org.jdom.Document;
@@ -27,6 +41,80 @@ import org.jdom.output.XMLOutputter;
  */
 public class StylesheetApplier
 {
+    /**
+     * Name of the system property that sets the number of threads used to 
+     * apply the style sheet.  A value of 0 or less uses one thread for each 
+     * processor and a value of 1 applies the style sheet on the calling thread.
+     */
+    public static final String THREADS_PROPERTY = "bridge.toolkit.stylesheetThreads";
+
+    /**
+     * Name of the system property that turns on adding the style sheet 
+     * processing instruction to the data modules while they are copied to the
+     * package, without parsing them.
+     */
+    public static final String STREAMING_PROPERTY = "bridge.toolkit.streamStylesheets";
+
+    /**
+     * Number of bytes at the start of a file that are read to find the end of
+     * the XML declaration.
+     */
+    private static final int HEAD_SIZE = 8192;
+
+    /**
+     * Byte order mark of UTF-8 files.
+     */
+    private static final byte[] UTF8_BOM = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+
+    /**
+     * Byte order mark of big endian UTF-16 files.
+     */
+    private static final byte[] UTF16BE_BOM = { (byte) 0xFE, (byte) 0xFF };
+
+    /**
+     * Byte order mark of little endian UTF-16 files.
+     */
+    private static final byte[] UTF16LE_BOM = { (byte) 0xFF, (byte) 0xFE };
+
+    /**
+     * Parser of each thread.  Entities are not expanded so the entity 
+     * references are written back to the data modules.
+     */
+    private static final ThreadLocal<SAXBuilder> PARSER = new ThreadLocal<SAXBuilder>()
+    {
+        @Override
+        protected SAXBuilder initialValue()
+        {
+            SAXBuilder parser = new SAXBuilder();
+            parser.setExpandEntities(false);
+            return parser;
+        }
+    };
+
+    /**
+     * Exceptions of the files of the last run that failed keyed by the file.
+     */
+    private Map<File, Exception> failures = new LinkedHashMap<File, Exception>();
+
+    /**
+     * Number of files the style sheet was applied to in the last run.
+     */
+    private int files;
+
+    /**
+     * Number of bytes written in the last run.
+     */
+    private long bytes;
+
+    /**
+     * Number of nanoseconds the last run took.
+     */
+    private long time;
+
+    /**
+     * Number of threads used in the last run.
+     */
+    private int threads;
 
     /**
      * Applies the appropriate XSLT style sheet to the S1000D data modules 
@@ -62,41 +150,452 @@ public class StylesheetApplier
                            File.separator + "s1000d");
         
         File[] resources = dm.listFiles();
-        for(File resource: resources)
-        {
-            if((!resource.isDirectory()) && (!resource.getName().contains("ICN")) && !resource.getName().endsWith(".ent"))
-            {
-                SAXBuilder parser = new SAXBuilder();
-                parser.setExpandEntities(false);
-                Document doc = parser.build(resource);
-                String STYLESHEET = "xml-stylesheet";
-                String STYLEPROCESSINGINSTRUCTION = "type='text/"+iType +"'"+ iMediaType +" href='";
-                
-                ProcessingInstruction stylesheet = new ProcessingInstruction(STYLESHEET, STYLEPROCESSINGINSTRUCTION+iStyleSheet+"'\n");
-                DocType docType = doc.getDocType();
-                if(docType!=null)
+        applyStylesheets(iBaseDir, Arrays.asList(resources), iStyleSheet, iType, iMediaType);
+        
+    }
+    
+    /**
+     * Applies the appropriate XSLT style sheet to the given S1000D data 
+     * modules only.  Used when the rest of the data modules already have the
+     * style sheet applied. 
+     * 
+     * @param iBaseDir File that is the base directory for the data modules.
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iFileNames Collection of Strings that are the names of the files
+     * in the data module directory to apply the style sheet to.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    public void applyStylesheetToDMCs(File iBaseDir, String iStyleSheet, Collection<String> iFileNames) throws JDOMException, IOException
+    {
+        File dm = new File(iBaseDir + File.separator + "resources" +
+                           File.separator + "s1000d");
+        
+        List<File> resources = new ArrayList<File>();
+        for(String name: iFileNames)
+        {
+            resources.add(new File(dm, name));
+        }
+        applyStylesheets(iBaseDir, resources, iStyleSheet, "xsl", "");
+    }
+    
+    /**
+     * Returns the number of threads used to apply the style sheet as set by 
+     * the THREADS_PROPERTY system property.
+     * 
+     * @return int the number of threads, the number of processors if the 
+     * property is not set or is 0 or less.
+     */
+    public static int getConfiguredThreads()
+    {
+        int threads = Integer.getInteger(THREADS_PROPERTY, 0).intValue();
+        return threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+    }
+    
+    /**
+     * Checks if the style sheet processing instruction is added to the data 
+     * modules while they are copied to the package as set by the 
+     * STREAMING_PROPERTY system property.
+     * 
+     * @return boolean true if the data modules are copied with the style sheet.
+     */
+    public static boolean isStreaming()
+    {
+        return Boolean.getBoolean(STREAMING_PROPERTY);
+    }
+    
+    /**
+     * Checks if a file in the data module directory gets the style sheet. 
+     * Directories, ICN files and entity files are skipped.
+     * 
+     * @param resource File in the data module directory.
+     * @return boolean true if the style sheet is applied to the file.
+     */
+    public static boolean isStyledFile(File resource)
+    {
+        return (!resource.isDirectory()) && (!resource.getName().contains("ICN")) && !resource.getName().endsWith(".ent");
+    }
+    
+    /**
+     * Copies a data module and adds the style sheet processing instruction 
+     * right after the XML declaration in the same pass.  The file is not 
+     * parsed, so everything else including the byte order mark and the 
+     * DOCTYPE is copied byte for byte.
+     * 
+     * @param source File that is the data module to copy.
+     * @param dest File that is the copy, or the directory to copy it to.
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     * @return long the number of bytes written.
+     * @throws IOException
+     */
+    public long copyWithStylesheet(File source, File dest, String iStyleSheet, String iType, String iMediaType) throws IOException
+    {
+        if (dest.isDirectory())
+        {
+            dest = new File(dest, source.getName());
+        }
+        OutputStream out = CommandMetrics.countWritten(new FileOutputStream(dest));
+        try
+        {
+            return writeWithStylesheet(source, out, iStyleSheet, iType, iMediaType);
+        }
+        finally
+        {
+            out.close();
+        }
+    }
+    
+    /**
+     * Writes a data module with the style sheet processing instruction added
+     * right after the XML declaration, like copyWithStylesheet does.
+     * 
+     * @param source File that is the data module to write.
+     * @param out OutputStream the data module is written to; it is not closed.
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     * @return long the number of bytes written.
+     * @throws IOException
+     */
+    public long writeWithStylesheet(File source, OutputStream out, String iStyleSheet, String iType, String iMediaType) throws IOException
+    {
+        InputStream in = CommandMetrics.countRead(new FileInputStream(source));
+        try
+        {
+            byte[] head = new byte[HEAD_SIZE];
+            int length = 0;
+            int count;
+            while (length < head.length && (count = in.read(head, length, head.length - length)) != -1)
+            {
+                length += count;
+            }
+            
+            //the byte order mark decides how the processing instruction is encoded
+            int start = 0;
+            Charset charset = Charset.forName("UTF-8");
+            if (startsWith(head, length, 0, UTF8_BOM))
+            {
+                start = UTF8_BOM.length;
+            }
+            else if (startsWith(head, length, 0, UTF16BE_BOM))
+            {
+                start = UTF16BE_BOM.length;
+                charset = Charset.forName("UTF-16BE");
+            }
+            else if (startsWith(head, length, 0, UTF16LE_BOM))
+            {
+                start = UTF16LE_BOM.length;
+                charset = Charset.forName("UTF-16LE");
+            }
+            
+            String stylesheet = "<?xml-stylesheet " + getStylesheetData(iStyleSheet, iType, iMediaType) + "?>";
+            int insert = start;
+            if (startsWith(head, length, start, "<?xml".getBytes(charset)))
+            {
+                int end = indexOf(head, length, "?>".getBytes(charset), start);
+                if (end < 0)
                 {
-                    //The JDOM parser converts the DocType and EntityRef from
-                    //relative paths to absolute paths.  So the docType is remove
-                    //then formated back to a relative path.
-                    doc.removeContent(docType);
-                    doc.setDocType(formatDocType(docType, resource));
+                    throw new IOException("The XML declaration of " + source.getName() + " could not be found");
                 }
-                doc.addContent(0,stylesheet);
-                
-                XMLOutputter outputter = new XMLOutputter(Format.getRawFormat());
-
-                File temp = new File(iBaseDir + File.separator +"resources" + 
-                                   File.separator + "s1000d" + File.separator +
-                                   resource.getName());
-                FileWriter writer = new FileWriter(temp);
+                insert = end + "?>".getBytes(charset).length;
+                //use the line separator of the file after the declaration
+                String lineSeparator = startsWith(head, length, insert, "\r".getBytes(charset)) ? "\r\n" : "\n";
+                stylesheet = lineSeparator + stylesheet;
+            }
+            else
+            {
+                stylesheet = stylesheet + "\n";
+            }
+            byte[] instruction = stylesheet.getBytes(charset);
+            
+            long written = length + instruction.length;
+            out.write(head, 0, insert);
+            out.write(instruction);
+            out.write(head, insert, length - insert);
+            while ((count = in.read(head)) != -1)
+            {
+                out.write(head, 0, count);
+                written += count;
+            }
+            return written;
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+    
+    /**
+     * Returns the files of the last run that the style sheet could not be 
+     * applied to.
+     * 
+     * @return Map of the exception of each file that failed keyed by the file,
+     * in the order the files were given.
+     */
+    public Map<File, Exception> getFailures()
+    {
+        return new LinkedHashMap<File, Exception>(failures);
+    }
+    
+    /**
+     * Returns a one line summary of the throughput of the last run.
+     * 
+     * @return String that describes the number of files and bytes written 
+     * and the files and megabytes per second.
+     */
+    public String getStatistics()
+    {
+        double seconds = Math.max(time, 1) / 1000000000.0;
+        return "Applied style sheet to " + files + " files (" + (bytes / 1024) + " KB) in " + 
+               (time / 1000000) + " ms using " + threads + " thread(s), " + 
+               String.format("%.1f files/s, %.2f MB/s", files / seconds, bytes / seconds / (1024 * 1024));
+    }
+    
+    /**
+     * Applies the style sheet to a list of files in the data module directory,
+     * on the calling thread when one thread is configured or on a pool of 
+     * worker threads otherwise.  A file that fails does not stop the other 
+     * files from being processed.
+     * 
+     * @param iBaseDir File that is the base directory for the data modules.
+     * @param resources List of the Files in the data module directory. 
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     * @throws JDOMException the exception of the first file that failed with 
+     * the exceptions of the other files that failed suppressed.
+     * @throws IOException the exception of the first file that failed with 
+     * the exceptions of the other files that failed suppressed.
+     */
+    private void applyStylesheets(final File iBaseDir, List<File> resources, final String iStyleSheet, 
+                                  final String iType, final String iMediaType) throws JDOMException, IOException
+    {
+        failures.clear();
+        files = 0;
+        bytes = 0;
+        threads = Math.max(1, Math.min(getConfiguredThreads(), resources.size()));
+        long start = System.nanoTime();
+        
+        List<Callable<Long>> tasks = new ArrayList<Callable<Long>>();
+        for (final File resource : resources)
+        {
+            tasks.add(CommandMetrics.wrap(new Callable<Long>()
+            {
+                public Long call() throws JDOMException, IOException
+                {
+                    return Long.valueOf(applyStylesheet(iBaseDir, resource, iStyleSheet, iType, iMediaType));
+                }
+            }));
+        }
+        
+        if (threads == 1)
+        {
+            for (int i = 0; i < tasks.size(); i++)
+            {
+                try
+                {
+                    record(tasks.get(i).call().longValue());
+                }
+                catch (Exception e)
+                {
+                    failures.put(resources.get(i), e);
+                }
+            }
+        }
+        else
+        {
+            ExecutorService pool = Executors.newFixedThreadPool(threads);
+            try
+            {
+                List<Future<Long>> results = pool.invokeAll(tasks);
+                for (int i = 0; i < results.size(); i++)
+                {
+                    try
+                    {
+                        record(results.get(i).get().longValue());
+                    }
+                    catch (ExecutionException e)
+                    {
+                        if (e.getCause() instanceof Error)
+                        {
+                            throw (Error) e.getCause();
+                        }
+                        failures.put(resources.get(i), (Exception) e.getCause());
+                    }
+                }
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IOException("Applying the style sheet was interrupted", e);
+            }
+            finally
+            {
+                pool.shutdownNow();
+            }
+        }
+        time = System.nanoTime() - start;
+        System.out.println(getStatistics());
+        
+        if (!failures.isEmpty())
+        {
+            Exception first = null;
+            for (Map.Entry<File, Exception> failure : failures.entrySet())
+            {
+                System.out.println("The style sheet could not be applied to " + failure.getKey().getName() + 
+                                   ": " + failure.getValue());
+                if (first == null)
+                {
+                    first = failure.getValue();
+                }
+                else
+                {
+                    first.addSuppressed(failure.getValue());
+                }
+            }
+            if (first instanceof JDOMException)
+            {
+                throw (JDOMException) first;
+            }
+            if (first instanceof IOException)
+            {
+                throw (IOException) first;
+            }
+            throw (RuntimeException) first;
+        }
+    }
+    
+    /**
+     * Records a file that the style sheet was applied to.
+     * 
+     * @param length long that is the number of bytes written, or -1 if the 
+     * file was skipped.
+     */
+    private void record(long length)
+    {
+        if (length >= 0)
+        {
+            files++;
+            bytes += length;
+        }
+    }
+    
+    /**
+     * Adds the style sheet processing instruction to a single file in the data
+     * module directory. Directories, ICN files and entity files are skipped.
+     * 
+     * @param iBaseDir File that is the base directory for the data modules.
+     * @param resource File in the data module directory. 
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     * @return long the length of the file written, or -1 if the file was skipped.
+     * @throws JDOMException
+     * @throws IOException
+     */
+    private long applyStylesheet(File iBaseDir, File resource, String iStyleSheet, String iType, String iMediaType) throws JDOMException, IOException
+    {
+        if(isStyledFile(resource))
+        {
+            Document doc = PARSER.get().build(resource);
+            CommandMetrics.fileParsed(resource);
+            String STYLESHEET = "xml-stylesheet";
+            
+            ProcessingInstruction stylesheet = new ProcessingInstruction(STYLESHEET, getStylesheetData(iStyleSheet, iType, iMediaType));
+            DocType docType = doc.getDocType();
+            if(docType!=null)
+            {
+                //The JDOM parser converts the DocType and EntityRef from
+                //relative paths to absolute paths.  So the docType is remove
+                //then formated back to a relative path.
+                doc.removeContent(docType);
+                doc.setDocType(formatDocType(docType, resource));
+            }
+            doc.addContent(0,stylesheet);
+            
+            XMLOutputter outputter = new XMLOutputter(Format.getRawFormat());
+
+            File temp = new File(iBaseDir + File.separator +"resources" + 
+                               File.separator + "s1000d" + File.separator +
+                               resource.getName());
+            FileWriter writer = new FileWriter(temp);
+            try
+            {
                 outputter.output(doc, writer);
+            }
+            finally
+            {
                 writer.close();
             }
+            long length = temp.length();
+            CommandMetrics.written(length);
+            return length;
         }
-        
+        return -1;
+    }
+    
+    
+    /**
+     * Returns the data of the style sheet processing instruction.
+     * 
+     * @param iStyleSheet String that represents the location of the style sheet to be added.
+     * @param iType String that represents the style sheet type. Either 'xsl' or 'css'.
+     * @param iMediaType String that represents the entire media type attribute if needed to be included.
+     * @return String the pseudo attributes of the processing instruction.
+     */
+    private static String getStylesheetData(String iStyleSheet, String iType, String iMediaType)
+    {
+        String STYLEPROCESSINGINSTRUCTION = "type='text/"+iType +"'"+ iMediaType +" href='";
+        return STYLEPROCESSINGINSTRUCTION+iStyleSheet+"'\n";
     }
     
+    /**
+     * Checks if the bytes at a position of a buffer match a pattern.
+     * 
+     * @param buffer byte[] to look in.
+     * @param length int that is the number of bytes used in the buffer.
+     * @param offset int that is the position to check.
+     * @param pattern byte[] to look for.
+     * @return boolean true if the pattern is at the position.
+     */
+    private static boolean startsWith(byte[] buffer, int length, int offset, byte[] pattern)
+    {
+        if (offset + pattern.length > length)
+        {
+            return false;
+        }
+        for (int i = 0; i < pattern.length; i++)
+        {
+            if (buffer[offset + i] != pattern[i])
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Finds the first position of a pattern in a buffer.
+     * 
+     * @param buffer byte[] to look in.
+     * @param length int that is the number of bytes used in the buffer.
+     * @param pattern byte[] to look for.
+     * @param from int that is the position to start looking at.
+     * @return int the position of the pattern, or -1 if it is not found.
+     */
+    private static int indexOf(byte[] buffer, int length, byte[] pattern, int from)
+    {
+        for (int i = from; i + pattern.length <= length; i++)
+        {
+            if (startsWith(buffer, length, i, pattern))
+            {
+                return i;
+            }
+        }
+        return -1;
+    }
     
     /**
      * Formats the internal subset of the DocType of the S1000D data modules
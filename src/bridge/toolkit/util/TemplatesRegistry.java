@@ -0,0 +1,330 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.util.concurrent.ConcurrentHashMap;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.stream.StreamSource;
+
+/**
+ * Keeps the compiled XSLT style sheets of the toolkit so that each style
+ * sheet is only compiled once for the whole process.
+ *
+ * Style sheets are kept by the URL of the resource and are only read when
+ * they are compiled.  A style sheet that is a file is compiled again when the
+ * last modified time of the file changes; one in a jar file is compiled once.
+ * The files the style sheet includes are not checked.
+ * A compiled style sheet is thread safe, but the Transformer handed out for
+ * it is not, so callers ask for a new Transformer for each transformation.
+ */
+public class TemplatesRegistry
+{
+    /**
+     * The registry shared by all of the commands.
+     */
+    private static final TemplatesRegistry instance = new TemplatesRegistry();
+
+    /**
+     * Compiled style sheets keyed by the URL of the resource.
+     */
+    private ConcurrentHashMap<String, Item> items = new ConcurrentHashMap<String, Item>();
+
+    /**
+     * Number of style sheets that were compiled.
+     */
+    private long compiles;
+
+    /**
+     * Number of nanoseconds spent compiling style sheets.
+     */
+    private long compileTime;
+
+    /**
+     * Number of requests that were answered with a style sheet that was
+     * already compiled.
+     */
+    private long reuses;
+
+    /**
+     * Returns the registry shared by all of the commands.
+     *
+     * @return TemplatesRegistry the shared registry.
+     */
+    public static TemplatesRegistry getInstance()
+    {
+        return instance;
+    }
+
+    /**
+     * Returns a new Transformer for a style sheet resource, compiling the
+     * style sheet if it was not compiled yet or its file changed.
+     *
+     * @param owner Class that the resource name is relative to.
+     * @param resourceName String that is the name of the style sheet resource.
+     * @return Transformer that can be used for one transformation at a time.
+     * @throws TransformerConfigurationException if the resource can not be
+     * found or read, or the style sheet can not be compiled.
+     */
+    public Transformer newTransformer(Class<?> owner, String resourceName)
+            throws TransformerConfigurationException
+    {
+        return getTemplates(owner, resourceName).newTransformer();
+    }
+
+    /**
+     * Returns the compiled style sheet of a resource, compiling the style
+     * sheet if it was not compiled yet or its file changed.
+     *
+     * @param owner Class that the resource name is relative to.
+     * @param resourceName String that is the name of the style sheet resource.
+     * @return Templates that is the compiled style sheet.
+     * @throws TransformerConfigurationException if the resource can not be
+     * found or read, or the style sheet can not be compiled.
+     */
+    public Templates getTemplates(Class<?> owner, String resourceName)
+            throws TransformerConfigurationException
+    {
+        URL url = owner.getResource(resourceName);
+        if (url == null)
+        {
+            throw new TransformerConfigurationException("The style sheet " + resourceName + " does not exist");
+        }
+        return getTemplates(url);
+    }
+
+    /**
+     * Returns the compiled style sheet at a URL, compiling the style sheet if
+     * it was not compiled yet or its file changed.
+     *
+     * @param url URL of the style sheet.
+     * @return Templates that is the compiled style sheet.
+     * @throws TransformerConfigurationException if the style sheet can not
+     * be read or compiled.
+     */
+    Templates getTemplates(URL url) throws TransformerConfigurationException
+    {
+        String location = url.toExternalForm();
+        long lastModified = getLastModified(url);
+
+        Item item = items.get(location);
+        if (item == null || item.lastModified != lastModified)
+        {
+            Item newItem = new Item(url, lastModified);
+            if (item == null)
+            {
+                item = items.putIfAbsent(location, newItem);
+                if (item == null)
+                {
+                    item = newItem;
+                }
+            }
+            else if (items.replace(location, item, newItem))
+            {
+                item = newItem;
+            }
+            else
+            {
+                //another thread replaced or removed it first
+                Item current = items.get(location);
+                item = current != null ? current : newItem;
+            }
+        }
+        return item.compile();
+    }
+
+    /**
+     * Removes all of the compiled style sheets.  The statistics are kept.
+     */
+    public void clear()
+    {
+        items.clear();
+    }
+
+    /**
+     * Sets the statistics back to zero.
+     */
+    public synchronized void resetStatistics()
+    {
+        compiles = 0;
+        compileTime = 0;
+        reuses = 0;
+    }
+
+    /**
+     * @return long the number of style sheets that were compiled.
+     */
+    public synchronized long getCompiles()
+    {
+        return compiles;
+    }
+
+    /**
+     * @return long the number of milliseconds spent compiling style sheets.
+     */
+    public synchronized long getCompileTime()
+    {
+        return compileTime / 1000000;
+    }
+
+    /**
+     * @return long the number of requests that were answered with a style
+     * sheet that was already compiled.
+     */
+    public synchronized long getReuses()
+    {
+        return reuses;
+    }
+
+    /**
+     * @return int the number of compiled style sheets in the registry.
+     */
+    public int getCount()
+    {
+        return items.size();
+    }
+
+    /**
+     * Returns a one line summary of the statistics of the registry.
+     *
+     * @return String that describes the compiles, compile time and reuses.
+     */
+    public synchronized String getStatistics()
+    {
+        return "Style sheet registry: " + compiles + " compiles in " + (compileTime / 1000000) + " ms, " +
+               reuses + " reuses, " + items.size() + " style sheets";
+    }
+
+    /**
+     * Records a compiled style sheet.
+     *
+     * @param nanos long that is the number of nanoseconds the compile took.
+     */
+    private synchronized void compiled(long nanos)
+    {
+        compiles++;
+        compileTime += nanos;
+    }
+
+    /**
+     * Records a request answered with a style sheet that was already compiled.
+     */
+    private synchronized void reused()
+    {
+        reuses++;
+        CommandMetrics.cacheHit();
+    }
+
+    /**
+     * Returns the last modified time of a style sheet that is a file.
+     *
+     * @param url URL of the style sheet.
+     * @return long the last modified time of the file, or 0 if the style
+     * sheet is not a file, such as one in a jar file.
+     */
+    private static long getLastModified(URL url)
+    {
+        if (!"file".equals(url.getProtocol()))
+        {
+            return 0;
+        }
+        try
+        {
+            return new File(url.toURI()).lastModified();
+        }
+        catch (URISyntaxException e)
+        {
+            return 0;
+        }
+        catch (IllegalArgumentException e)
+        {
+            return 0;
+        }
+    }
+
+    /**
+     * A style sheet that is compiled the first time it is asked for.
+     */
+    private class Item
+    {
+        /**
+         * URL the style sheet is read from.
+         */
+        URL url;
+
+        /**
+         * Last modified time of the file the style sheet is compiled from,
+         * or 0 if it is not a file.
+         */
+        long lastModified;
+
+        /**
+         * The compiled style sheet, or null if it is not compiled yet.
+         */
+        Templates templates;
+
+        /**
+         * Constructor
+         *
+         * @param iUrl URL the style sheet is read from.
+         * @param iLastModified long that is the last modified time of the
+         * file, or 0 if it is not a file.
+         */
+        Item(URL iUrl, long iLastModified)
+        {
+            url = iUrl;
+            lastModified = iLastModified;
+        }
+
+        /**
+         * Returns the compiled style sheet, compiling it if this is the first
+         * request.  Threads asking for the same style sheet while it is being
+         * compiled wait for the compile to finish.
+         *
+         * @return Templates that is the compiled style sheet.
+         * @throws TransformerConfigurationException if the style sheet can
+         * not be read or compiled.
+         */
+        synchronized Templates compile() throws TransformerConfigurationException
+        {
+            if (templates != null)
+            {
+                reused();
+                return templates;
+            }
+            long start = System.nanoTime();
+            TransformerFactory tFactory = TransformerFactory.newInstance();
+            //no system id is set so that the relative document() calls of the
+            //style sheets are still resolved against the working directory
+            try
+            {
+                InputStream in = url.openStream();
+                try
+                {
+                    templates = tFactory.newTemplates(new StreamSource(in));
+                }
+                finally
+                {
+                    in.close();
+                }
+            }
+            catch (IOException e)
+            {
+                throw new TransformerConfigurationException("The style sheet " + url + " could not be read", e);
+            }
+            compiled(System.nanoTime() - start);
+            return templates;
+        }
+    }
+}
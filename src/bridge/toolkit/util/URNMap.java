@@ -0,0 +1,123 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.jdom.Document;
+
+/**
+ * The in memory form of the urn_resource_map.xml file that maps the URN of
+ * each file in the resource package to its target path.
+ *
+ * The map can not be changed once it is created.  When the same URN is
+ * generated for more than one file the first file is kept, the same as the
+ * first match of a search of the urn_resource_map.xml file.
+ */
+public class URNMap
+{
+    /**
+     * Prefix of all of the URNs in the map.
+     */
+    public static final String URN_PREFIX = "URN:S1000D:";
+
+    /**
+     * Target paths keyed by URN.
+     */
+    private final Map<String, String> targets;
+
+    /**
+     * Target paths keyed by URN in URN order, used for prefix lookups.
+     */
+    private final SortedMap<String, String> sortedTargets;
+
+    /**
+     * The urn_resource_map.xml document the map was built with.
+     */
+    private final Document document;
+
+    /**
+     * Constructor
+     *
+     * @param iTargets Map<String, String> of target paths keyed by URN.
+     * @param iDocument Document that represents the urn_resource_map.xml file.
+     */
+    URNMap(LinkedHashMap<String, String> iTargets, Document iDocument)
+    {
+        targets = Collections.unmodifiableMap(new HashMap<String, String>(iTargets));
+        sortedTargets = Collections.unmodifiableSortedMap(new TreeMap<String, String>(iTargets));
+        document = iDocument;
+    }
+
+    /**
+     * Returns the target path of a URN.
+     *
+     * @param urn String that is the full URN, for example URN:S1000D:DMC-...
+     * @return String that is the target path or null if the URN is not mapped.
+     */
+    public String getTarget(String urn)
+    {
+        return targets.get(urn);
+    }
+
+    /**
+     * Returns the target path of a data module or ICN by its code.
+     *
+     * @param code String that is the data module code or ICN without the
+     * URN:S1000D: prefix.
+     * @return String that is the target path or null if the code is not mapped.
+     */
+    public String getTargetByCode(String code)
+    {
+        return targets.get(URN_PREFIX + code);
+    }
+
+    /**
+     * Returns all of the URNs that start with the given prefix, which allows
+     * partial data module codes (for example without issue information) to
+     * be matched.
+     *
+     * @param prefix String that is the start of the URNs to return.
+     * @return SortedMap<String, String> of the target paths keyed by URN.
+     */
+    public SortedMap<String, String> getTargetsByPrefix(String prefix)
+    {
+        if (prefix.length() == 0)
+        {
+            return sortedTargets;
+        }
+        //the first string after all of the strings starting with prefix
+        char last = prefix.charAt(prefix.length() - 1);
+        String end = prefix.substring(0, prefix.length() - 1) + (char) (last + 1);
+        return sortedTargets.subMap(prefix, end);
+    }
+
+    /**
+     * Returns the number of URNs in the map.
+     *
+     * @return int the number of URNs.
+     */
+    public int size()
+    {
+        return targets.size();
+    }
+
+    /**
+     * Returns the urn_resource_map.xml document, which is only meant to be
+     * written out for the viewer.
+     *
+     * @return Document that represents the urn_resource_map.xml file.
+     */
+    public Document getDocument()
+    {
+        return document;
+    }
+}
@@ -7,8 +7,14 @@ package bridge.toolkit.util;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 
 import org.jdom.Attribute;
@@ -25,7 +31,9 @@ public class URNMapper
    
     /**
      * Retrieves all of the files in a specified directory and returns them
-     * in a list. 
+     * in a list sorted by URN. S1000D 4.1 SCO content data modules are 
+     * not included, they are found using the resource package index, which
+     * scans the new and changed data modules in parallel.
      * 
      * @param src_dir String that represents the location of directory.
      * @return List<File> List of all of the files found in the source directory.
@@ -36,36 +44,74 @@ public class URNMapper
     {
         File csdb_files = new File(src_dir);
 
-        List<File> src_files = new ArrayList<File>();
-        File [] testVR = csdb_files.listFiles();
+        //the resource package is empty or does not exist 
+        if(!csdb_files.isDirectory())
+        {
+            throw new NullPointerException("The resource package " + src_dir + " does not exist");
+        }
         
-        for(File file : testVR)
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(csdb_files);
+        List<File> src_files = new ArrayList<File>();
+        DirectoryStream<Path> stream = Files.newDirectoryStream(csdb_files.toPath());
+        try
         {
-            // Add the file only if is not .svn (for test in working copy)
-            // and check for s1000d 4.1 scoContent data modules
-            if (!file.getName().equals(".svn"))
+            for(Path path : stream)
             {
-                if(file.getName().endsWith(".xml"))
-                {    
-                    if(!SCOContentDMChecker.isSCOContentDM(file))
+                String name = path.getFileName().toString();
+                // Add the file only if is not .svn (for test in working copy)
+                // and check for s1000d 4.1 scoContent data modules
+                if (!name.equals(".svn"))
+                {
+                    ResourcePackageIndex.Entry entry = null;
+                    if(name.endsWith(".xml"))
                     {
-                        src_files.add(file);
+                        entry = index.getIndexedEntry(name);
+                        if (entry == null)
+                        {
+                            //added after the index was refreshed
+                            entry = index.getEntry(name);
+                        }
+                    }
+                    if(entry == null || !entry.isScoContent())
+                    {
+                        src_files.add(path.toFile());
                     }
-                }
-                else
-                {
-                    src_files.add(file);
                 }
             }
-                
-            
-            //check for s1000d 4.1 scoContent data modules
-        }            
+        }
+        finally
+        {
+            stream.close();
+        }
+        
+        //the order of the directory listing depends on the file system, so
+        //the files are sorted by URN and then by name which puts a code 
+        //before the longer codes that start with it
+        Collections.sort(src_files, new Comparator<File>()
+        {
+            public int compare(File file1, File file2)
+            {
+                int result = getURNName(file1.getName()).compareTo(getURNName(file2.getName()));
+                return result != 0 ? result : file1.getName().compareTo(file2.getName());
+            }
+        });
         return src_files;
 
     }
     
 
+    /**
+     * Returns the part of a file name that the URN of the file is made of,
+     * which is the name without the issue information and extension.
+     * 
+     * @param file_name String that represents the file name.
+     * @return String the file name up to the first '_' or '.'.
+     */
+    private static String getURNName(String file_name)
+    {
+        return file_name.split("\\.")[0].split("_")[0];
+    }
+
     /**
      * Walks through the List of files that represent all of the files in the
      * resource package and generates a urn_resource_map.xml file that is used
@@ -79,6 +125,23 @@ public class URNMapper
      */
     public static Document writeURNMap(List<File> src_files, String directoryDepth)
     {
+        return createURNMap(src_files, directoryDepth).getDocument();
+    }
+
+    /**
+     * Walks through the List of files that represent all of the files in the
+     * resource package and generates both the urn_resource_map.xml file and 
+     * the URNMap that is used to look up the files by URN in Java code. 
+     * 
+     * @param src_files List<Files> of all of the files found in the resources 
+     * package.
+     * @param directoryDepth String that add padding for the directory depth if needed.
+     * @return URNMap that holds the target of each URN and the JDOM Document 
+     * that represents the urn_resource_map.xml file. 
+     */
+    public static URNMap createURNMap(List<File> src_files, String directoryDepth)
+    {
+        LinkedHashMap<String, String> targets = new LinkedHashMap<String, String>();
         Document urn_map = new Document();
         Element urnResource = new Element("urn-resource");
         Element urn = null;
@@ -105,12 +168,19 @@ public class URNMapper
                 }
                 
                 urnResource.addContent(urn);
+                
+                //the first file with a URN is the one that is found
+                String urnName = urn.getAttributeValue("name");
+                if (!targets.containsKey(urnName))
+                {
+                    targets.put(urnName, urn.getChildText("target"));
+                }
             }
 
         }
         urn_map.addContent(urnResource);
 
-        return urn_map;
+        return new URNMap(targets, urn_map);
     }
 
     /**
@@ -125,7 +195,7 @@ public class URNMapper
     private static Element writeUrn(String name, String file_name, String directoryDepth)
     {
         Element urn = new Element("urn");
-        urn.setAttribute(new Attribute("name", "URN:S1000D:" + name));
+        urn.setAttribute(new Attribute("name", URNMap.URN_PREFIX + name));
         Element target = new Element("target");
         Attribute type = new Attribute("type", "file");
         target.setAttribute(type);
@@ -31,6 +31,11 @@ public class XMLParser
      * Builds a JDOM document from the XML file.
      */
     SAXBuilder parser;
+    
+    /**
+     * Indicates if the documents are taken from the shared DocumentCache.
+     */
+    boolean caching = true;
 
     /**
      * Constructor
@@ -42,7 +47,20 @@ public class XMLParser
     }
     
     /**
-     * Parses a File object and returns a JDOM Document object.
+     * Sets whether the documents are taken from the shared DocumentCache. 
+     * Files that are only parsed once should not be cached.
+     * 
+     * @param iCaching boolean true to use the cache.
+     */
+    public void setCaching(boolean iCaching)
+    {
+        caching = iCaching;
+    }
+    
+    /**
+     * Parses a File object and returns a JDOM Document object.  Unless 
+     * caching is turned off a file that was parsed before and did not change
+     * is taken from the DocumentCache.
      * 
      * @param anXmlDocFile File object that represents an XML file.
      * @return Document JDOM Document object that represents the DOM of the XML 
@@ -55,7 +73,15 @@ public class XMLParser
         Document doc = new Document();
         try
         {
-            doc = parser.build(anXmlDocFile);
+            if (caching)
+            {
+                doc = DocumentCache.getInstance().getDoc(anXmlDocFile, parser);
+            }
+            else
+            {
+                doc = parser.build(anXmlDocFile);
+                CommandMetrics.fileParsed(anXmlDocFile);
+            }
         }
         catch (JDOMException e)
         {
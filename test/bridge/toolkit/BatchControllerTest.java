@@ -0,0 +1,294 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.packaging.ContentPackageCreatorTest;
+
+/**
+ *
+ */
+public class BatchControllerTest
+{
+    File testDir;
+    String scpm = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                  "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+    String resourcePackage = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                             "bike_resource_package";
+    String scpm41 = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                    "bike_SCPM_4.1" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+    String resourcePackage41 = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                               "bike_resource_package_4.1";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "batchControllerTest" + System.nanoTime());
+        testDir.mkdirs();
+        System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, new File(testDir, "metrics").getPath());
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.BatchController#readJobFile(java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testReadJobFile() throws Exception
+    {
+        File jobFile = new File(testDir, "jobs.txt");
+        Files.write(jobFile.toPath(), ("# bike course\n" +
+                                       "\n" +
+                                       "scpm.xml \"resource package\" -scormhtml \"out dir\" -incremental\n" +
+                                       "  other.xml resources\n").getBytes("UTF-8"));
+        List<BatchController.Job> jobs = BatchController.readJobFile(jobFile);
+        assertEquals(2, jobs.size());
+        assertEquals(Arrays.asList("scpm.xml", "resource package", "-scormhtml", "out dir", "-incremental"),
+                     Arrays.asList(jobs.get(0).getArgs()));
+        assertEquals("-scormhtml", jobs.get(0).getType());
+        assertEquals(BatchController.DEFAULT_TYPE, jobs.get(1).getType());
+        assertEquals("WAITING", jobs.get(1).getStatus());
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.BatchController#findCourses(java.io.File, java.util.List, java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    public void testFindCourses() throws Exception
+    {
+        File bike = new File(testDir, "courses" + File.separator + "bike");
+        new File(bike, "resources").mkdirs();
+        Files.write(new File(bike, "SMC-BIKE.xml").toPath(), new byte[0]);
+        new File(testDir, "courses" + File.separator + "empty").mkdirs();
+
+        List<BatchController.Job> jobs = BatchController.findCourses(new File(testDir, "courses"),
+                Arrays.asList("-scormflash", "-mobileweb"), "out");
+        assertEquals(2, jobs.size());
+        assertEquals(Arrays.asList(new File(bike, "SMC-BIKE.xml").getPath(), new File(bike, "resources").getPath(),
+                                   "-mobileweb", "out" + File.separator + "bike" + File.separator + "mobileweb"),
+                     Arrays.asList(jobs.get(1).getArgs()));
+    }
+
+    /**
+     * Checks that the jobs run on two threads, that a job that fails does not
+     * stop the others and that each job is in the summary.
+     * Test method for {@link bridge.toolkit.BatchController#run(java.util.List)}.
+     * @throws Exception
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        File flash = new File(testDir, "flash");
+        File html = new File(testDir, "html");
+        List<BatchController.Job> jobs = Arrays.asList(
+                new BatchController.Job(new String[] { scpm, resourcePackage, "-scormflash", flash.getPath() }),
+                new BatchController.Job(new String[] { "missing.xml", resourcePackage, "-scormhtml", html.getPath() }),
+                new BatchController.Job(new String[] { scpm, resourcePackage, "-scormhtml", html.getPath() }));
+        BatchController batch = new BatchController(2);
+        batch.run(jobs);
+
+        assertTrue(jobs.get(0).isSuccessful());
+        assertFalse(jobs.get(1).isSuccessful());
+        assertTrue(jobs.get(2).isSuccessful());
+        assertEquals(1, flash.list().length);
+        assertEquals(1, html.list().length);
+
+        String summary = batch.getSummary(jobs);
+        assertTrue(summary.contains("missing.xml"));
+        assertTrue(summary.contains("3 jobs, 1 failed"));
+    }
+
+    /**
+     * Checks that the SCORM, mobile and PDF outputs of the 4.0 and the 4.1
+     * courses built at the same time are the same as each one built alone.
+     * Test method for {@link bridge.toolkit.BatchController#run(java.util.List)}.
+     * @throws Exception
+     */
+    @Test
+    public void testRunConcurrently() throws Exception
+    {
+        String[][] conversions = {
+                { "course0", scpm, resourcePackage, "-mobileCourse" },
+                { "course1", scpm, resourcePackage, "-mobileCourse" },
+                { "support", scpm, resourcePackage, "-mobilePerformanceSupport" },
+                { "html", scpm, resourcePackage, "-scormhtml" },
+                { "pdf", scpm, resourcePackage, "-pdfstudent" },
+                { "course41", scpm41, resourcePackage41, "-mobileCourse" },
+                { "html41", scpm41, resourcePackage41, "-scormhtml" },
+                { "pdf41", scpm41, resourcePackage41, "-pdfstudent" } };
+
+        File alone = new File(testDir, "alone");
+        File concurrent = new File(testDir, "concurrent");
+        List<BatchController.Job> jobs = new ArrayList<BatchController.Job>();
+        for (String[] conversion : conversions)
+        {
+            BatchController.Job job = new BatchController.Job(new String[] { conversion[1], conversion[2], conversion[3],
+                    new File(alone, conversion[0]).getPath() });
+            new BatchController(1).run(Arrays.asList(job));
+            assertTrue(conversion[0] + " " + job.getStatus(), job.isSuccessful());
+
+            jobs.add(new BatchController.Job(new String[] { conversion[1], conversion[2], conversion[3],
+                    new File(concurrent, conversion[0]).getPath() }));
+        }
+        new BatchController(jobs.size()).run(jobs);
+
+        for (int i = 0; i < conversions.length; i++)
+        {
+            assertTrue(conversions[i][0] + " " + jobs.get(i).getStatus(), jobs.get(i).isSuccessful());
+            assertSameFiles(new File(alone, conversions[i][0]), new File(concurrent, conversions[i][0]));
+        }
+    }
+
+    /**
+     * Checks that two directories hold the same files with the same content.
+     * The entries of zip files are compared rather than the zip files, and
+     * the dates and the ID of PDF files are ignored.
+     *
+     * @param expected File that is the expected directory.
+     * @param actual File that is the directory to check.
+     * @throws Exception
+     */
+    private static void assertSameFiles(File expected, File actual) throws Exception
+    {
+        String[] names = expected.list();
+        Arrays.sort(names);
+        String[] actualNames = actual.list();
+        assertNotNull(actual.getPath(), actualNames);
+        Arrays.sort(actualNames);
+        assertEquals(Arrays.asList(names), Arrays.asList(actualNames));
+        for (String name : names)
+        {
+            File file = new File(expected, name);
+            if (file.isDirectory())
+            {
+                assertSameFiles(file, new File(actual, name));
+            }
+            else if (name.endsWith(".zip"))
+            {
+                assertSameEntries(file, new File(actual, name));
+            }
+            else if (name.endsWith(".pdf"))
+            {
+                assertEquals(name, withoutPdfDates(Files.readAllBytes(file.toPath())),
+                             withoutPdfDates(Files.readAllBytes(new File(actual, name).toPath())));
+            }
+            else
+            {
+                assertTrue(name, Arrays.equals(Files.readAllBytes(file.toPath()),
+                                               Files.readAllBytes(new File(actual, name).toPath())));
+            }
+        }
+    }
+
+    /**
+     * Checks that two zip files hold the same entries with the same content.
+     *
+     * @param expected File that is the expected zip file.
+     * @param actual File that is the zip file to check.
+     * @throws Exception
+     */
+    private static void assertSameEntries(File expected, File actual) throws Exception
+    {
+        ZipFile expectedZip = new ZipFile(expected);
+        ZipFile actualZip = new ZipFile(actual);
+        try
+        {
+            List<String> names = new ArrayList<String>();
+            for (Enumeration<? extends ZipEntry> entries = expectedZip.entries(); entries.hasMoreElements();)
+            {
+                names.add(entries.nextElement().getName());
+            }
+            List<String> actualNames = new ArrayList<String>();
+            for (Enumeration<? extends ZipEntry> entries = actualZip.entries(); entries.hasMoreElements();)
+            {
+                actualNames.add(entries.nextElement().getName());
+            }
+            Collections.sort(names);
+            Collections.sort(actualNames);
+            assertEquals(names, actualNames);
+            for (String name : names)
+            {
+                assertTrue(name, Arrays.equals(read(expectedZip, name), read(actualZip, name)));
+            }
+        }
+        finally
+        {
+            expectedZip.close();
+            actualZip.close();
+        }
+    }
+
+    /**
+     * Reads an entry of a zip file.
+     *
+     * @param zip ZipFile to read from.
+     * @param name String that is the name of the entry.
+     * @return byte[] that is the content of the entry.
+     * @throws Exception
+     */
+    private static byte[] read(ZipFile zip, String name) throws Exception
+    {
+        InputStream in = zip.getInputStream(zip.getEntry(name));
+        try
+        {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[8192];
+            for (int read = in.read(buffer); read != -1; read = in.read(buffer))
+            {
+                out.write(buffer, 0, read);
+            }
+            return out.toByteArray();
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Removes the creation and modification dates and the ID of a PDF file,
+     * which change from one run to the next.
+     *
+     * @param pdf byte[] that is the PDF file.
+     * @return String that is the PDF file without its dates and ID.
+     * @throws Exception
+     */
+    private static String withoutPdfDates(byte[] pdf) throws Exception
+    {
+        return new String(pdf, "ISO-8859-1").replaceAll("\\(D:[0-9]{14}[^)]*\\)", "()")
+                                            .replaceAll("/ID ?\\[<[0-9a-f]*><[0-9a-f]*>\\]", "/ID []");
+    }
+}
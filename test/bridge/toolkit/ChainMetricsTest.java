@@ -0,0 +1,149 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+
+import org.apache.commons.chain.Command;
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.packaging.ContentPackageCreatorTest;
+import bridge.toolkit.util.CommandMetrics;
+import bridge.toolkit.util.Keys;
+
+/**
+ *
+ */
+public class ChainMetricsTest
+{
+    File testDir;
+    String metricsDir;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "chainMetricsTest" + System.nanoTime());
+        testDir.mkdirs();
+        metricsDir = System.getProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, testDir.getPath());
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        if (metricsDir == null)
+        {
+            System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        }
+        else
+        {
+            System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, metricsDir);
+        }
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Checks that the work of the commands of a run is counted for them, that
+     * the run is added to the MBean of the chain and that its summary is
+     * written.
+     * Test method for {@link bridge.toolkit.DependencyChain#execute(org.apache.commons.chain.Context)}.
+     * @throws Exception
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        final File data = new File(testDir, "data.xml");
+        Files.write(data.toPath(), "<data/>".getBytes("UTF-8"));
+        DependencyChain chain = new DependencyChain();
+        chain.setName("chainMetricsTest");
+        chain.addCommand(new Command()
+        {
+            public boolean execute(Context ctx)
+            {
+                CommandMetrics.fileParsed(data);
+                CommandMetrics.cacheHit();
+                return CONTINUE_PROCESSING;
+            }
+        });
+        ChainMetrics metrics = ChainMetrics.getInstance("chainMetricsTest");
+        metrics.reset();
+
+        Context ctx = new ContextBase();
+        ctx.put(Keys.SCPM_FILE, "course.xml");
+        assertFalse(chain.execute(ctx));
+        assertNull(CommandMetrics.current());
+
+        assertEquals(1, metrics.getRuns());
+        assertEquals(0, metrics.getFailures());
+        assertEquals(1, metrics.getCommands().size());
+        CommandMetrics command = metrics.getCommands().get(0);
+        assertEquals(1, command.getInvocations());
+        assertEquals(1, command.getFilesParsed());
+        assertEquals(7, command.getBytesRead());
+        assertEquals(1, command.getCacheHits());
+        assertEquals(Long.valueOf(1), ManagementFactory.getPlatformMBeanServer().getAttribute(
+                ChainMetrics.getObjectName("chainMetricsTest"), "Runs"));
+
+        File[] summaries = testDir.listFiles();
+        assertEquals(2, summaries.length);
+        File summary = summaries[0].equals(data) ? summaries[1] : summaries[0];
+        assertTrue(summary.getName().startsWith("metrics-chainMetricsTest-"));
+        String json = new String(Files.readAllBytes(summary.toPath()), "UTF-8");
+        assertEquals(metrics.getLastRun(), json);
+        assertTrue(json.contains("\"scpm\":\"course.xml\""));
+        assertTrue(json.contains("\"filesParsed\":1,\"bytesRead\":7"));
+    }
+
+    /**
+     * Checks that a run that fails is counted as a failure and that no
+     * summary is written when the metrics directory is not set.
+     * Test method for {@link bridge.toolkit.DependencyChain#execute(org.apache.commons.chain.Context)}.
+     * @throws Exception
+     */
+    @Test
+    public void testRunFailed() throws Exception
+    {
+        System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        DependencyChain chain = new DependencyChain();
+        chain.setName("chainMetricsFailedTest");
+        chain.addCommand(new Command()
+        {
+            public boolean execute(Context ctx)
+            {
+                throw new IllegalStateException("failed");
+            }
+        });
+        ChainMetrics metrics = ChainMetrics.getInstance("chainMetricsFailedTest");
+        metrics.reset();
+        try
+        {
+            chain.execute(new ContextBase());
+            fail("The exception of the command was not thrown");
+        }
+        catch (IllegalStateException e)
+        {
+            assertEquals("failed", e.getMessage());
+        }
+        assertEquals(1, metrics.getRuns());
+        assertEquals(1, metrics.getFailures());
+        assertTrue(metrics.getLastRun().contains("\"error\":\"java.lang.IllegalStateException: failed\""));
+        assertEquals(0, testDir.listFiles().length);
+    }
+}
@@ -17,6 +17,7 @@ import java.util.ArrayList;
  */
 public class ControllerTest
 {
+    File metricsDir;
 
     /**
      * @throws java.lang.Exception
@@ -24,6 +25,8 @@ public class ControllerTest
     @Before
     public void setUp() throws Exception
     {
+        metricsDir = new File(System.getProperty("java.io.tmpdir"), "controllerTestMetrics" + System.nanoTime());
+        System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, metricsDir.getPath());
         File output = new File(System.getProperty("user.dir") +"\\output");
         if (!(output.exists()))
         {
@@ -37,6 +40,8 @@ public class ControllerTest
     @After
     public void tearDown() throws Exception
     {
+        System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        DeleteDirectoryOnExit(metricsDir);
     	File output = new File(System.getProperty("user.dir") +"\\output");
         if (output.exists())
         {
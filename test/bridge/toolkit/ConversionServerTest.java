@@ -0,0 +1,163 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Map;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.packaging.ContentPackageCreatorTest;
+import bridge.toolkit.util.Json;
+
+/**
+ *
+ */
+public class ConversionServerTest
+{
+    File testDir;
+    ConversionServer service;
+    String scpm = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                  "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+    String resourcePackage = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                             "bike_resource_package";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "conversionServerTest" + System.nanoTime());
+        testDir.mkdirs();
+        System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, new File(testDir, "metrics").getPath());
+        service = new ConversionServer(0, 1, 1);
+        service.start();
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        service.stop();
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Checks that jobs are queued, run and polled over HTTP, and that bad
+     * requests and requests that do not fit in the queue are refused.
+     * @throws Exception
+     */
+    @Test
+    public void testJobs() throws Exception
+    {
+        assertEquals(400, request("POST", "/jobs", "{\"scpm\":\"missing.xml\"}")[0]);
+        assertEquals(400, request("POST", "/jobs", "{\"scpm\":" + Json.quote(scpm) +
+                ",\"resourcePackage\":" + Json.quote(resourcePackage) + ",\"type\":\"-word\"}")[0]);
+        assertEquals(404, request("GET", "/jobs/99", null)[0]);
+
+        Object[] first = request("POST", "/jobs", job("-scormhtml", "html"));
+        assertEquals(202, first[0]);
+        Object[] second = request("POST", "/jobs", job("pdfstudent", "pdf"));
+        assertEquals(202, second[0]);
+        //one job runs and one waits, so the queue is full
+        assertEquals(503, request("POST", "/jobs", job("-scormflash", "flash"))[0]);
+
+        Map<String, Object> html = waitFor(((Double) Json.parseObject((String) first[1]).get("id")).intValue());
+        assertEquals("OK", html.get("status"));
+        assertTrue(((String) html.get("artifact")).endsWith(".zip"));
+        assertTrue(new File((String) html.get("artifact")).isFile());
+        Map<String, Object> pdf = waitFor(((Double) Json.parseObject((String) second[1]).get("id")).intValue());
+        assertEquals("OK", pdf.get("status"));
+        assertTrue(((String) pdf.get("artifact")).endsWith(".pdf"));
+
+        String list = (String) request("GET", "/jobs", null)[1];
+        assertTrue(list.startsWith("{\"jobs\":[{\"id\":"));
+        assertTrue(list.contains("-pdfstudent"));
+    }
+
+    /**
+     * @param type String that is the output type of the job.
+     * @param output String that is the name of the output directory.
+     * @return String the JSON object of a job for the bike course.
+     */
+    private String job(String type, String output)
+    {
+        return "{\"scpm\":" + Json.quote(scpm) +
+               ",\"resourcePackage\":" + Json.quote(resourcePackage) +
+               ",\"type\":\"" + type + "\",\"output\":" + Json.quote(new File(testDir, output).getPath()) + "}";
+    }
+
+    /**
+     * Polls a job until it is finished.
+     *
+     * @param id int that is the id of the job.
+     * @return Map<String, Object> the values of the finished job.
+     * @throws Exception
+     */
+    private Map<String, Object> waitFor(int id) throws Exception
+    {
+        long end = System.currentTimeMillis() + 300000;
+        while (System.currentTimeMillis() < end)
+        {
+            Object[] answer = request("GET", "/jobs/" + id, null);
+            assertEquals(200, answer[0]);
+            Map<String, Object> values = Json.parseObject((String) answer[1]);
+            if (!values.get("status").equals("WAITING") && !values.get("status").equals("RUNNING"))
+            {
+                return values;
+            }
+            Thread.sleep(200);
+        }
+        fail("Job " + id + " did not finish");
+        return null;
+    }
+
+    /**
+     * Sends a request to the service.
+     *
+     * @param method String that is the HTTP method.
+     * @param path String that is the path of the request.
+     * @param body String that is the JSON body, or null.
+     * @return Object[] that holds the status code and the body of the answer.
+     * @throws Exception
+     */
+    private Object[] request(String method, String path, String body) throws Exception
+    {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + service.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null)
+        {
+            connection.setDoOutput(true);
+            OutputStream out = connection.getOutputStream();
+            out.write(body.getBytes("UTF-8"));
+            out.close();
+        }
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream answer = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1)
+        {
+            answer.write(buffer, 0, count);
+        }
+        in.close();
+        return new Object[] { status, new String(answer.toByteArray(), "UTF-8") };
+    }
+}
@@ -0,0 +1,106 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+
+import org.apache.commons.chain.Catalog;
+import org.apache.commons.chain.Command;
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+import org.junit.Test;
+
+import bridge.toolkit.util.ContextAccess;
+import bridge.toolkit.util.Keys;
+
+/**
+ *
+ */
+public class DependencyChainTest
+{
+    /**
+     * Checks that a command runs after the command that writes what it
+     * reads and that a command that returns true stops the chain.
+     * Test method for {@link bridge.toolkit.DependencyChain#execute(org.apache.commons.chain.Context)}.
+     * @throws Exception
+     */
+    @Test
+    public void testExecute() throws Exception
+    {
+        DependencyChain chain = new DependencyChain();
+        chain.addCommand(new Put("source", Collections.<String>emptyList(), "first"));
+        chain.addCommand(new Put("copy", Arrays.asList("source"), "second"));
+        chain.addCommand(new Command()
+        {
+            public boolean execute(Context ctx)
+            {
+                ctx.put("checked", Boolean.valueOf("second".equals(ctx.get("copy"))));
+                return PROCESSING_COMPLETE;
+            }
+        });
+        chain.addCommand(new Put("skipped", Collections.<String>emptyList(), "never"));
+
+        Context ctx = new ContextBase();
+        assertTrue(chain.execute(ctx));
+        assertEquals("first", ctx.get("source"));
+        assertEquals(Boolean.TRUE, ctx.get("checked"));
+        assertNull(ctx.get("skipped"));
+    }
+
+    /**
+     * Checks that the chains of the chain-config.xml file are DependencyChains.
+     * @throws Exception
+     */
+    @Test
+    public void testCatalog() throws Exception
+    {
+        Catalog catalog = new Controller().createCatalog();
+        assertTrue(catalog.getCommand("SCORM") instanceof DependencyChain);
+        assertTrue(catalog.getCommand("PDFOutput") instanceof DependencyChain);
+    }
+
+    /**
+     * Command that puts a value in the Context after checking that what it
+     * reads is there.
+     */
+    private static class Put implements Command, ContextAccess
+    {
+        String key;
+        Collection<String> reads;
+        String value;
+
+        Put(String iKey, Collection<String> iReads, String iValue)
+        {
+            key = iKey;
+            reads = iReads;
+            value = iValue;
+        }
+
+        public boolean execute(Context ctx)
+        {
+            for (String read : reads)
+            {
+                assertNotNull(read, ctx.get(read));
+            }
+            ctx.put(key, value);
+            return CONTINUE_PROCESSING;
+        }
+
+        public Collection<String> getReads()
+        {
+            return reads;
+        }
+
+        public Collection<String> getWrites()
+        {
+            return Arrays.asList(key, Keys.ARTIFACT);
+        }
+    }
+}
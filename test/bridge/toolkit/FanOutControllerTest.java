@@ -0,0 +1,93 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.packaging.ContentPackageCreatorTest;
+
+/**
+ *
+ */
+public class FanOutControllerTest
+{
+    File testDir;
+    String scpm = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                  "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+    String resourcePackage = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+                             "bike_resource_package";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "fanOutControllerTest" + System.nanoTime());
+        testDir.mkdirs();
+        System.setProperty(ChainMetrics.METRICS_DIR_PROPERTY, new File(testDir, "metrics").getPath());
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(ChainMetrics.METRICS_DIR_PROPERTY);
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Checks that each output type is produced in its own directory from one
+     * conversion of the input.
+     * Test method for {@link bridge.toolkit.FanOutController#run(java.lang.String, java.lang.String, java.lang.String, java.util.List)}.
+     * @throws Exception
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        FanOutController fanOut = new FanOutController(true);
+        List<BatchController.Job> jobs = fanOut.run(scpm, resourcePackage, testDir.getPath(),
+                Arrays.asList("-scormflash", "-scormhtml", "-pdfstudent", "-mobileCourse"));
+        for (BatchController.Job job : jobs)
+        {
+            assertEquals(job.getType(), "OK", job.getStatus());
+            assertTrue(job.getType(), new File(job.getArtifact()).exists());
+        }
+        assertTrue(jobs.get(0).getArtifact().startsWith(new File(testDir, "scormflash").getPath()));
+        assertTrue(jobs.get(1).getArtifact().startsWith(new File(testDir, "scormhtml").getPath()));
+        assertTrue(jobs.get(2).getArtifact().endsWith("-student.pdf"));
+        assertTrue(fanOut.getSummary(jobs).contains("4 jobs, 0 failed"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.FanOutController#getChainName(java.lang.String)}.
+     */
+    @Test
+    public void testGetChainName()
+    {
+        assertEquals("SCORM", FanOutController.getChainName("-scormHTML"));
+        assertEquals("Mobile", FanOutController.getChainName("-mobilePerformanceSupport"));
+        assertEquals("PDF", FanOutController.getChainName("-pdfinstructor"));
+        try
+        {
+            FanOutController.getChainName("-word");
+            fail("The output type is unknown");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+}
@@ -9,6 +9,8 @@ import static org.junit.Assert.*;
 
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
 
 import org.apache.commons.chain.Command;
 import org.apache.commons.chain.Context;
@@ -65,7 +67,10 @@ public class MobileBuilderTest
     @After
     public void tearDown() throws Exception
     {
-       deleteDirectory(dstPath);
+       if (dstPath != null)
+       {
+           deleteDirectory(dstPath);
+       }
     }
 
     @Test
@@ -83,6 +88,91 @@ public class MobileBuilderTest
         }
     }
 
+    /**
+     * Checks that the mobile app pages rendered on several threads are the 
+     * same and in the same order as the pages rendered on the calling thread.
+     * @throws Exception
+     */
+    @Test
+    public void testExecuteParallel() throws Exception
+    {
+        String scpm = "examples" + File.separator + "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+        String resourcePackage = "examples" + File.separator + "bike_resource_package";
+        File serialDir = new File(System.getProperty("java.io.tmpdir"), "mobileSerial");
+        File parallelDir = new File(System.getProperty("java.io.tmpdir"), "mobileParallel");
+        deleteDirectory(serialDir);
+        deleteDirectory(parallelDir);
+
+        String threads = System.getProperty(MobileBuilder.THREADS_PROPERTY);
+        try
+        {
+            MobileBuilder serial = new MobileBuilder();
+            System.setProperty(MobileBuilder.THREADS_PROPERTY, "1");
+            assertEquals(1, MobileBuilder.getConfiguredThreads());
+            ctx = new ContextBase();
+            ctx.put(Keys.SCPM_FILE, scpm);
+            ctx.put(Keys.RESOURCE_PACKAGE, resourcePackage);
+            ctx.put(Keys.OUTPUT_DIRECTORY, serialDir.getAbsolutePath());
+            serial.process(ctx);
+            assertNoURNMapLeft();
+
+            MobileBuilder parallel = new MobileBuilder();
+            System.setProperty(MobileBuilder.THREADS_PROPERTY, "3");
+            ctx = new ContextBase();
+            ctx.put(Keys.SCPM_FILE, scpm);
+            ctx.put(Keys.RESOURCE_PACKAGE, resourcePackage);
+            ctx.put(Keys.OUTPUT_DIRECTORY, parallelDir.getAbsolutePath());
+            parallel.process(ctx);
+            assertNoURNMapLeft();
+
+            assertFalse(serial.getPageTimes().isEmpty());
+            assertEquals(new ArrayList<String>(serial.getPageTimes().keySet()),
+                         new ArrayList<String>(parallel.getPageTimes().keySet()));
+
+            File serialApp = new File(serialDir, "mobile" + File.separator + "output1");
+            File parallelApp = new File(parallelDir, "mobile" + File.separator + "output1");
+            assertEquals(readFile(new File(serialApp, "list.js")), readFile(new File(parallelApp, "list.js")));
+            for (String page : serial.getPageTimes().keySet())
+            {
+                assertEquals(page, readFile(new File(serialApp, page)), readFile(new File(parallelApp, page)));
+            }
+        }
+        finally
+        {
+            if (threads == null)
+            {
+                System.clearProperty(MobileBuilder.THREADS_PROPERTY);
+            }
+            else
+            {
+                System.setProperty(MobileBuilder.THREADS_PROPERTY, threads);
+            }
+            deleteDirectory(serialDir);
+            deleteDirectory(parallelDir);
+        }
+    }
+
+    /**
+     * Checks that the MobileBuilder gave the urn map to the style sheets 
+     * without writing it to the ViewerApplication directory.
+     */
+    private static void assertNoURNMapLeft()
+    {
+        assertFalse(new File(System.getProperty("user.dir") + File.separator + "ViewerApplication" + 
+                             File.separator + "app" + File.separator + "urn_resource_map.xml").exists());
+    }
+
+    /**
+     * Reads the content of a file.
+     * @param file File to read.
+     * @return String the content of the file.
+     * @throws IOException
+     */
+    private static String readFile(File file) throws IOException
+    {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+
     static public boolean deleteDirectory(File path) {
         if( path.exists() ) {
           File[] files = path.listFiles();
@@ -0,0 +1,193 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.util.CopyDirectory;
+
+/**
+ *
+ */
+public class IncrementalPackageCreatorTest
+{
+    File testDir;
+    File resourcePackage;
+    String scpm = System.getProperty("user.dir") + File.separator + "examples" + File.separator +
+            "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml";
+    String lDMName = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-151A-A-T45C_001-00_EN-US.xml";
+    String scDMName = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-960A-T_001-00_EN-US.xml";
+    String icnName = "ICN-TEST.jpg";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "incrementalTest" + System.nanoTime());
+        resourcePackage = new File(testDir, "resource_package");
+        resourcePackage.mkdirs();
+
+        File examples = new File(System.getProperty("user.dir") + File.separator + "examples" + 
+                File.separator + "bike_resource_package_4.1");
+        CopyDirectory cd = new CopyDirectory();
+        cd.copyDirectory(new File(examples, lDMName), new File(resourcePackage, lDMName));
+        cd.copyDirectory(new File(examples, scDMName), new File(resourcePackage, scDMName));
+        write(new File(resourcePackage, icnName), "icn");
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.IncrementalPackageCreator#createPackage()}.
+     * @throws Exception 
+     */
+    @Test
+    public void testCreatePackage() throws Exception
+    {
+        IncrementalPackageCreator ipc = newCreator();
+        File workspace = ipc.createPackage();
+        File s1000d = new File(workspace, "resources" + File.separator + "s1000d");
+        assertEquals(2, ipc.getChangedFiles().size());
+        assertTrue(new File(s1000d, lDMName).exists());
+        assertTrue(new File(s1000d, icnName).exists());
+        assertFalse(new File(s1000d, scDMName).exists());
+        ipc.save();
+
+        //nothing changed so nothing is copied
+        ipc = newCreator();
+        assertEquals(workspace, ipc.createPackage());
+        assertTrue(ipc.getChangedFiles().isEmpty());
+        ipc.save();
+
+        //only the changed file is copied and removed files are removed
+        write(new File(resourcePackage, icnName), "changed icn");
+        new File(resourcePackage, lDMName).delete();
+        ipc = newCreator();
+        ipc.createPackage();
+        assertEquals(1, ipc.getChangedFiles().size());
+        assertEquals(icnName, ipc.getChangedFiles().get(0));
+        assertEquals(1, ipc.getRemovedFiles().size());
+        assertFalse(new File(s1000d, lDMName).exists());
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.IncrementalPackageCreator#save()}.
+     * @throws Exception 
+     */
+    @Test
+    public void testUnsavedWorkspaceIsRebuilt() throws Exception
+    {
+        IncrementalPackageCreator ipc = newCreator();
+        ipc.createPackage();
+        ipc.save();
+
+        //a run that does not finish leaves no state behind
+        ipc = newCreator();
+        ipc.createPackage();
+        assertFalse(ipc.getStateFile().exists());
+
+        ipc = newCreator();
+        ipc.createPackage();
+        assertEquals(2, ipc.getChangedFiles().size());
+    }
+
+    /**
+     * Checks that the data modules get the style sheet while they are copied
+     * and the other files are copied as they are.
+     * Test method for {@link bridge.toolkit.packaging.ContentPackageCreator#setStylesheet(java.lang.String, java.lang.String, java.lang.String)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testCreatePackageWithStylesheet() throws Exception
+    {
+        IncrementalPackageCreator ipc = newCreator();
+        ipc.setStylesheet("app/s1000d_4.xslt", "xsl", "");
+        assertTrue(ipc.isStylesheetApplied());
+        File s1000d = new File(ipc.createPackage(), "resources" + File.separator + "s1000d");
+
+        String dm = new String(Files.readAllBytes(new File(s1000d, lDMName).toPath()), "UTF-8");
+        String original = new String(Files.readAllBytes(new File(resourcePackage, lDMName).toPath()), "UTF-8");
+        String pi = "<?xml-stylesheet type='text/xsl' href='app/s1000d_4.xslt'\n?>";
+        assertTrue(dm.contains(pi));
+        assertEquals(original, dm.replace(pi, "").replaceFirst("\\?>\r?\n", "?>"));
+        assertEquals("icn", new String(Files.readAllBytes(new File(s1000d, icnName).toPath()), "UTF-8"));
+    }
+
+    /**
+     * Checks that the ICNs are linked to the resource package and the data
+     * modules, which get the style sheet, are copied.
+     * Test method for {@link bridge.toolkit.packaging.ContentPackageCreator#setLinking(boolean)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testCreatePackageWithLinks() throws Exception
+    {
+        IncrementalPackageCreator ipc = newCreator();
+        ipc.setStylesheet("app/s1000d_4.xslt", "xsl", "");
+        ipc.setLinking(true);
+        File s1000d = new File(ipc.createPackage(), "resources" + File.separator + "s1000d");
+        String original = new String(Files.readAllBytes(new File(resourcePackage, lDMName).toPath()), "UTF-8");
+
+        assertEquals(1, ipc.getLinkedFiles());
+        assertTrue(Files.isSameFile(new File(resourcePackage, icnName).toPath(), new File(s1000d, icnName).toPath()));
+        assertFalse(Files.isSameFile(new File(resourcePackage, lDMName).toPath(), new File(s1000d, lDMName).toPath()));
+        assertEquals(original, new String(Files.readAllBytes(new File(resourcePackage, lDMName).toPath()), "UTF-8"));
+        ipc.save();
+
+        //a changed ICN is linked again
+        new File(resourcePackage, icnName).delete();
+        write(new File(resourcePackage, icnName), "changed icn");
+        ipc = newCreator();
+        ipc.setLinking(true);
+        ipc.createPackage();
+        assertEquals("changed icn", new String(Files.readAllBytes(new File(s1000d, icnName).toPath()), "UTF-8"));
+    }
+
+    /**
+     * Creates an IncrementalPackageCreator for the test resource package.
+     * 
+     * @return IncrementalPackageCreator that stores its workspace in the test directory.
+     * @throws Exception
+     */
+    private IncrementalPackageCreator newCreator() throws Exception
+    {
+        IncrementalPackageCreator ipc = new IncrementalPackageCreator(resourcePackage.getPath(), scpm, "app/s1000d_4.xslt");
+        ipc.setWorkspacesLocation(testDir.getPath() + File.separator + "workspaces");
+        return ipc;
+    }
+
+    /**
+     * Writes a small file.
+     * 
+     * @param file File to write.
+     * @param content String to write to the file.
+     * @throws Exception
+     */
+    private void write(File file, String content) throws Exception
+    {
+        FileWriter writer = new FileWriter(file);
+        writer.write(content);
+        writer.close();
+    }
+
+}
@@ -0,0 +1,182 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.zip.ZipFile;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.util.CopyDirectory;
+
+/**
+ *
+ */
+public class PackageTreeTest
+{
+    File testDir;
+    File resourcePackage;
+    String lDMName = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-151A-A-T45C_001-00_EN-US.xml";
+    String icnName = "ICN-TEST.jpg";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "packageTreeTest" + System.nanoTime());
+        resourcePackage = new File(testDir, "resource_package");
+        resourcePackage.mkdirs();
+
+        File examples = new File(System.getProperty("user.dir") + File.separator + "examples" +
+                File.separator + "bike_resource_package_4.1");
+        new CopyDirectory().copyDirectory(new File(examples, lDMName), new File(resourcePackage, lDMName));
+        Files.write(new File(resourcePackage, icnName).toPath(), "icn".getBytes("UTF-8"));
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Checks that the parent directories are added with an entry and that an
+     * entry with the same name replaces the first one in its place.
+     * Test method for {@link bridge.toolkit.packaging.PackageTree#addBuffer(java.lang.String, byte[])}.
+     * @throws Exception
+     */
+    @Test
+    public void testAddBuffer() throws Exception
+    {
+        PackageTree tree = new PackageTree();
+        tree.addBuffer("resources/s1000d/app/list.js", "first".getBytes("UTF-8"));
+        tree.addBuffer("imsmanifest.xml", "<manifest/>".getBytes("UTF-8"));
+        tree.addBuffer("resources/s1000d/app/list.js", "second".getBytes("UTF-8"));
+
+        assertEquals(Arrays.asList("resources/", "resources/s1000d/", "resources/s1000d/app/",
+                                   "resources/s1000d/app/list.js", "imsmanifest.xml"), tree.getNames());
+        assertTrue(tree.get("resources/s1000d/").isDirectory());
+        assertEquals("second", new String(tree.get("resources/s1000d/app/list.js").getBytes(), "UTF-8"));
+        assertEquals(6, tree.get("resources/s1000d/app/list.js").getLength());
+
+        tree.remove("imsmanifest.xml");
+        assertFalse(tree.contains("imsmanifest.xml"));
+        assertEquals(4, tree.size());
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.PackageTree#addTransformed(java.lang.String, java.io.File, bridge.toolkit.packaging.PackageTree.Transformation)}.
+     * @throws Exception
+     */
+    @Test
+    public void testAddTransformed() throws Exception
+    {
+        PackageTree tree = new PackageTree();
+        File icn = new File(resourcePackage, icnName);
+        tree.addTransformed("ICN.txt", icn, new PackageTree.Transformation()
+        {
+            public void transform(File file, OutputStream out) throws IOException
+            {
+                out.write(new String(Files.readAllBytes(file.toPath()), "UTF-8").toUpperCase().getBytes("UTF-8"));
+            }
+        });
+        assertEquals("ICN", new String(tree.get("ICN.txt").getBytes(), "UTF-8"));
+        assertEquals(icn.lastModified(), tree.get("ICN.txt").getLastModified());
+        //the file is only read when the entry is written
+        Files.write(icn.toPath(), "changed".getBytes("UTF-8"));
+        assertEquals("CHANGED", new String(tree.get("ICN.txt").getBytes(), "UTF-8"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.PackageTree#addContents(java.lang.String, java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testAddContents() throws Exception
+    {
+        new File(resourcePackage, "sub").mkdir();
+        Files.write(new File(resourcePackage, "sub" + File.separator + "a.txt").toPath(), "a".getBytes("UTF-8"));
+
+        PackageTree tree = new PackageTree();
+        tree.addContents("resources/", resourcePackage);
+        assertEquals(5, tree.size());
+        assertTrue(tree.contains("resources/" + lDMName));
+        assertTrue(tree.get("resources/sub/").isDirectory());
+        assertEquals("a", new String(tree.get("resources/sub/a.txt").getBytes(), "UTF-8"));
+    }
+
+    /**
+     * Checks that the package described by the ContentPackageCreator is the
+     * same as the one it copies, and that it is written straight into the
+     * zip file.
+     * Test method for {@link bridge.toolkit.packaging.ContentPackageCreator#createPackageTree()}.
+     * @throws Exception
+     */
+    @Test
+    public void testCreatePackageTree() throws Exception
+    {
+        ContentPackageCreator cpc = new ContentPackageCreator(resourcePackage.getPath());
+        cpc.setPackagesLocation(testDir.getPath() + File.separator + "packages");
+        cpc.setStylesheet("app/s1000d_4.xslt", "xsl", "");
+        File cpPackage = cpc.createPackage();
+        PackageTree tree = cpc.createPackageTree();
+
+        String dmName = "resources/s1000d/" + lDMName;
+        assertEquals(Arrays.asList("resources/", "resources/s1000d/"), tree.getNames().subList(0, 2));
+        assertEquals(4, tree.size());
+        assertTrue(tree.contains("resources/s1000d/" + icnName));
+        byte[] copied = Files.readAllBytes(new File(cpPackage, dmName).toPath());
+        assertArrayEquals(copied, tree.get(dmName).getBytes());
+
+        File zipfile = new File(testDir, "package.zip");
+        new ZipCreator().zipTree(tree, zipfile);
+        ZipFile zip = new ZipFile(zipfile);
+        try
+        {
+            assertEquals(tree.size(), zip.size());
+            assertArrayEquals(copied, read(zip.getInputStream(zip.getEntry(dmName))));
+            assertEquals("icn", new String(read(zip.getInputStream(zip.getEntry("resources/s1000d/" + icnName))), "UTF-8"));
+        }
+        finally
+        {
+            zip.close();
+        }
+    }
+
+    /**
+     * Reads the rest of a stream.
+     *
+     * @param in InputStream to read.
+     * @return byte[] the bytes that were read.
+     * @throws Exception
+     */
+    private static byte[] read(InputStream in) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1)
+        {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,230 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.packaging;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+import java.util.zip.CRC32;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+import java.util.zip.ZipInputStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ParallelZipWriterTest
+{
+    File testDir;
+    File content;
+    PackageTree tree = new PackageTree();
+    List<String> names = new ArrayList<String>();
+    List<File> files = new ArrayList<File>();
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        testDir = new File(System.getProperty("java.io.tmpdir"), "parallelZipTest" + System.nanoTime());
+        content = new File(testDir, "content");
+        File resources = new File(content, "resources");
+        resources.mkdirs();
+
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 2000; i++)
+        {
+            text.append("<para>Remove the wheel ").append(i).append("</para>\n");
+        }
+        byte[] random = new byte[90000];
+        new Random(1).nextBytes(random);
+
+        add("imsmanifest.xml", text.toString().getBytes("UTF-8"));
+        add("resources/", null);
+        add("resources/ICN-RANDOM.jpg", random);
+        add("resources/empty.txt", new byte[0]);
+        add("resources/DMC-TEST.xml", "<dmodule/>".getBytes("UTF-8"));
+        add("resources/large.xml", (text.toString() + text.toString()).getBytes("UTF-8"));
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        ContentPackageCreatorTest.deleteDirectory(testDir);
+    }
+
+    /**
+     * Checks that the ZIP file is the same on one or several threads and can
+     * be read back with the standard ZIP classes.
+     * Test method for {@link bridge.toolkit.packaging.ParallelZipWriter#write(bridge.toolkit.packaging.PackageTree, java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testWrite() throws Exception
+    {
+        File serial = new File(testDir, "serial.zip");
+        File parallel = new File(testDir, "parallel.zip");
+        ParallelZipWriter writer = new ParallelZipWriter(1);
+        writer.streamThreshold = 100000;
+        writer.write(tree, serial);
+        writer = new ParallelZipWriter(3);
+        writer.streamThreshold = 100000;
+        writer.write(tree, parallel);
+        assertTrue(writer.getStatistics().contains("6 entries"));
+
+        assertArrayEquals(Files.readAllBytes(serial.toPath()), Files.readAllBytes(parallel.toPath()));
+
+        ZipFile zip = new ZipFile(parallel);
+        try
+        {
+            List<String> entries = new ArrayList<String>();
+            for (Enumeration<? extends ZipEntry> e = zip.entries(); e.hasMoreElements();)
+            {
+                ZipEntry entry = e.nextElement();
+                entries.add(entry.getName());
+                File file = files.get(names.indexOf(entry.getName()));
+                assertEquals(entry.getName(), file.isDirectory(), entry.isDirectory());
+                if (file.isFile())
+                {
+                    byte[] expected = Files.readAllBytes(file.toPath());
+                    assertArrayEquals(expected, read(zip.getInputStream(entry)));
+                    CRC32 crc = new CRC32();
+                    crc.update(expected);
+                    assertEquals(crc.getValue(), entry.getCrc());
+                    assertEquals(file.lastModified() / 2000, entry.getTime() / 2000);
+                }
+            }
+            assertEquals(names, entries);
+            //random data is stored
+            assertEquals(ZipEntry.STORED, zip.getEntry("resources/ICN-RANDOM.jpg").getMethod());
+            ZipEntry manifest = zip.getEntry("imsmanifest.xml");
+            assertEquals(ZipEntry.DEFLATED, manifest.getMethod());
+            assertTrue(manifest.getCompressedSize() < manifest.getSize());
+        }
+        finally
+        {
+            zip.close();
+        }
+
+        //the streamed entry with a data descriptor can be read from the start
+        ZipInputStream in = new ZipInputStream(new FileInputStream(parallel));
+        try
+        {
+            int count = 0;
+            ZipEntry entry;
+            while ((entry = in.getNextEntry()) != null)
+            {
+                File file = files.get(names.indexOf(entry.getName()));
+                if (file.isFile())
+                {
+                    assertArrayEquals(Files.readAllBytes(file.toPath()), read(in));
+                }
+                count++;
+            }
+            assertEquals(names.size(), count);
+        }
+        finally
+        {
+            in.close();
+        }
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.ParallelZipWriter#fits(bridge.toolkit.packaging.PackageTree)}.
+     */
+    @Test
+    public void testFits()
+    {
+        assertTrue(ParallelZipWriter.fits(tree));
+        PackageTree many = new PackageTree();
+        for (int i = 0; i < 70000; i++)
+        {
+            many.addFile(i + ".txt", files.get(0));
+        }
+        assertFalse(ParallelZipWriter.fits(many));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.packaging.ZipCreator#zipFiles(java.io.File, java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testZipFiles() throws Exception
+    {
+        File zipfile = new File(testDir, "package.zip");
+        new ZipCreator().zipFiles(content, zipfile);
+        ZipFile zip = new ZipFile(zipfile);
+        try
+        {
+            assertEquals(names.size(), zip.size());
+            assertArrayEquals(Files.readAllBytes(files.get(0).toPath()),
+                              read(zip.getInputStream(zip.getEntry("imsmanifest.xml"))));
+            assertTrue(zip.getEntry("resources/").isDirectory());
+        }
+        finally
+        {
+            zip.close();
+        }
+    }
+
+    /**
+     * Adds a file of the test package.
+     *
+     * @param name String that is the entry name, ending in "/" for a directory.
+     * @param data byte[] that is the content of the file, null for a directory.
+     * @throws Exception
+     */
+    private void add(String name, byte[] data) throws Exception
+    {
+        File file = new File(content, name);
+        if (data != null)
+        {
+            Files.write(file.toPath(), data);
+            tree.addFile(name, file);
+        }
+        else
+        {
+            tree.addDirectory(name, file);
+        }
+        names.add(name);
+        files.add(file);
+    }
+
+    /**
+     * Reads the rest of a stream.
+     *
+     * @param in InputStream to read.
+     * @return byte[] the bytes that were read.
+     * @throws Exception
+     */
+    private static byte[] read(InputStream in) throws Exception
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        int count;
+        while ((count = in.read(buffer)) != -1)
+        {
+            out.write(buffer, 0, count);
+        }
+        return out.toByteArray();
+    }
+}
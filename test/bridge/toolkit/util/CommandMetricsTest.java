@@ -0,0 +1,102 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class CommandMetricsTest
+{
+    /**
+     * Checks that work handed to another thread is counted for the command
+     * that handed it over.
+     * Test method for {@link bridge.toolkit.util.CommandMetrics#wrap(java.util.concurrent.Callable)}.
+     * @throws Exception
+     */
+    @Test
+    public void testWrap() throws Exception
+    {
+        final CommandMetrics metrics = new CommandMetrics("command");
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        try
+        {
+            metrics.record(new Callable<Object>()
+            {
+                public Object call() throws Exception
+                {
+                    assertSame(metrics, CommandMetrics.current());
+                    return pool.submit(CommandMetrics.wrap(new Callable<Object>()
+                    {
+                        public Object call()
+                        {
+                            assertSame(metrics, CommandMetrics.current());
+                            CommandMetrics.written(10);
+                            return null;
+                        }
+                    })).get();
+                }
+            });
+            //the thread of the pool is not working for the command anymore
+            pool.submit(new Callable<Object>()
+            {
+                public Object call()
+                {
+                    assertNull(CommandMetrics.current());
+                    CommandMetrics.written(5);
+                    return null;
+                }
+            }).get();
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+        assertNull(CommandMetrics.current());
+        assertEquals(1, metrics.getInvocations());
+        assertEquals(10, metrics.getBytesWritten());
+    }
+
+    /**
+     * Checks that the bytes read from and written to the streams are counted.
+     * Test method for {@link bridge.toolkit.util.CommandMetrics#countRead(java.io.InputStream)}.
+     * @throws Exception
+     */
+    @Test
+    public void testCountStreams() throws Exception
+    {
+        final CommandMetrics metrics = new CommandMetrics("command");
+        metrics.record(new Callable<Object>()
+        {
+            public Object call() throws Exception
+            {
+                InputStream in = CommandMetrics.countParsed(new ByteArrayInputStream(new byte[100]));
+                assertEquals(0, in.read());
+                assertEquals(60, in.read(new byte[60]));
+                in.close();
+                OutputStream out = CommandMetrics.countWritten(new ByteArrayOutputStream());
+                out.write(1);
+                out.write(new byte[40], 10, 20);
+                out.close();
+                return null;
+            }
+        });
+        assertEquals(1, metrics.getFilesParsed());
+        assertEquals(61, metrics.getBytesRead());
+        assertEquals(21, metrics.getBytesWritten());
+    }
+}
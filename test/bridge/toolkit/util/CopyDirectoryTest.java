@@ -8,7 +8,11 @@ package bridge.toolkit.util;
 import static org.junit.Assert.*;
 
 import java.io.File;
+import java.io.FileWriter;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.nio.file.attribute.PosixFilePermission;
 import java.util.ArrayList;
 import java.util.Iterator;
 import java.util.List;
@@ -112,6 +116,105 @@ public class CopyDirectoryTest
         
     }
     
+    /**
+     * Checks that a large directory is copied on the pool, and that files
+     * whose copy is up to date are not copied again.
+     * Test method for {@link bridge.toolkit.util.CopyDirectory#copyDirectory(java.io.File, java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testCopyDirectoryParallel() throws Exception
+    {
+        srcPath = new File(System.getProperty("java.io.tmpdir"), "copySource" + System.nanoTime());
+        dstPath = new File(System.getProperty("java.io.tmpdir"), "copyDest" + System.nanoTime());
+        File sub = new File(srcPath, "sub");
+        File hidden = new File(srcPath, ".svn");
+        sub.mkdirs();
+        hidden.mkdirs();
+        write(new File(hidden, "entries"), "hidden");
+        for (int i = 0; i < 100; i++)
+        {
+            write(new File(srcPath, "file" + i + ".xml"), "content " + i);
+            write(new File(sub, "file" + i + ".jpg"), "image " + i);
+        }
+
+        cd.copyDirectory(srcPath, dstPath);
+        assertEquals(200, cd.getFilesCopied());
+        assertEquals(0, cd.getFilesSkipped());
+        assertEquals("content 42", read(new File(dstPath, "file42.xml")));
+        assertEquals("image 99", read(new File(dstPath, "sub" + File.separator + "file99.jpg")));
+        assertFalse(new File(dstPath, ".svn").exists());
+        assertEquals(new File(srcPath, "file1.xml").lastModified(), new File(dstPath, "file1.xml").lastModified());
+
+        //only the changed file is copied again
+        File changed = new File(srcPath, "file7.xml");
+        write(changed, "changed content");
+        CopyDirectory again = new CopyDirectory();
+        again.copyDirectory(srcPath, dstPath);
+        assertEquals(1, again.getFilesCopied());
+        assertEquals(199, again.getFilesSkipped());
+        assertEquals("changed content".length(), again.getBytesCopied());
+        assertEquals("changed content", read(new File(dstPath, "file7.xml")));
+
+        deleteDirectory(srcPath);
+    }
+
+    /**
+     * Checks that the copy of a read only file can be written to, the way 
+     * the style sheet is added to the copied data modules.
+     * Test method for {@link bridge.toolkit.util.CopyDirectory#copyDirectory(java.io.File, java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testCopyReadOnlyFile() throws Exception
+    {
+        srcPath = new File(System.getProperty("java.io.tmpdir"), "copySource" + System.nanoTime());
+        dstPath = new File(System.getProperty("java.io.tmpdir"), "copyDest" + System.nanoTime());
+        srcPath.mkdirs();
+        File readOnly = new File(srcPath, "readOnly.xml");
+        write(readOnly, "read only");
+        assertTrue(readOnly.setReadOnly());
+
+        cd.copyDirectory(srcPath, dstPath);
+        File copy = new File(dstPath, "readOnly.xml");
+        assertEquals("read only", read(copy));
+        if (Files.getFileStore(copy.toPath()).supportsFileAttributeView(PosixFileAttributeView.class))
+        {
+            assertTrue(Files.getPosixFilePermissions(copy.toPath()).contains(PosixFilePermission.OWNER_WRITE));
+        }
+        FileWriter writer = new FileWriter(copy);
+        writer.write("written");
+        writer.close();
+        assertEquals("written", read(copy));
+
+        readOnly.setWritable(true);
+        deleteDirectory(srcPath);
+    }
+
+    /**
+     * Writes a small file.
+     * 
+     * @param file File to write.
+     * @param content String to write to the file.
+     * @throws Exception
+     */
+    private static void write(File file, String content) throws Exception
+    {
+        Files.write(file.toPath(), content.getBytes("UTF-8"));
+    }
+
+    /**
+     * Reads a small file.
+     * 
+     * @param file File to read.
+     * @return String the content of the file.
+     * @throws Exception
+     */
+    private static String read(File file) throws Exception
+    {
+        return new String(Files.readAllBytes(file.toPath()), "UTF-8");
+    }
+    
     static public boolean deleteDirectory(File path) {
         if( path.exists() ) {
           File[] files = path.listFiles();
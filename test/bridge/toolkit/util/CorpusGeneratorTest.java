@@ -0,0 +1,164 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.commons.chain.Context;
+import org.apache.commons.chain.impl.ContextBase;
+import org.jdom.Document;
+import org.jdom.Element;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.commands.PreProcess;
+
+/**
+ *
+ */
+public class CorpusGeneratorTest
+{
+    File outputDir;
+    File indexDir;
+    CorpusGenerator generator;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        File tmp = new File(System.getProperty("java.io.tmpdir"));
+        outputDir = new File(tmp, "corpusTest" + System.nanoTime());
+        indexDir = new File(tmp, "corpusTestIndexes" + System.nanoTime());
+        System.setProperty(ResourcePackageIndex.INDEX_DIR_PROPERTY, indexDir.getPath());
+
+        File examples = new File(System.getProperty("user.dir") + File.separator + "examples");
+        generator = new CorpusGenerator(new File(examples, "bike_resource_package"),
+                new File(examples, "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml"));
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(ResourcePackageIndex.INDEX_DIR_PROPERTY);
+        delete(outputDir);
+        delete(indexDir);
+    }
+
+    /**
+     * Checks that the resource package has the number of data modules that
+     * was asked for and that PreProcess finds every data module the
+     * generated SCPM references.
+     * Test method for {@link bridge.toolkit.util.CorpusGenerator#generate(java.io.File, int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testGenerate() throws Exception
+    {
+        File scpm = generator.generate(outputDir, 300);
+        File resourcePackage = CorpusGenerator.getResourcePackage(outputDir);
+
+        int dataModules = 0;
+        int scoContent = 0;
+        for (File file : resourcePackage.listFiles())
+        {
+            if (file.getName().startsWith("DMC-"))
+            {
+                dataModules++;
+                if (SCOContentDMChecker.isSCOContentDM(file))
+                {
+                    scoContent++;
+                }
+            }
+        }
+        assertEquals(300, dataModules);
+        assertEquals(15, scoContent);
+
+        //every file has its own URN
+        List<File> srcFiles = URNMapper.getSourceFiles(resourcePackage.getPath());
+        assertEquals(srcFiles.size(), URNMapper.createURNMap(srcFiles, "").size());
+
+        Context ctx = new ContextBase();
+        ctx.put(Keys.SCPM_FILE, scpm.getPath());
+        ctx.put(Keys.RESOURCE_PACKAGE, resourcePackage.getPath());
+        assertFalse(new PreProcess().execute(ctx));
+
+        //the three copies of the course each have the SCOs of the bike course
+        Element resources = ((Document) ctx.get(Keys.XML_SOURCE)).getRootElement().getChild("resources", null);
+        assertTrue(resources.getChildren().size() > srcFiles.size());
+    }
+
+    /**
+     * Checks that the same seed generates the same files.
+     * Test method for {@link bridge.toolkit.util.CorpusGenerator#generate(java.io.File, int)}.
+     * @throws Exception
+     */
+    @Test
+    public void testGenerateSeed() throws Exception
+    {
+        File first = new File(outputDir, "first");
+        File second = new File(outputDir, "second");
+        generator.generate(first, 200);
+        generator.generate(second, 200);
+
+        String[] names = CorpusGenerator.getResourcePackage(first).list();
+        Arrays.sort(names);
+        String[] secondNames = CorpusGenerator.getResourcePackage(second).list();
+        Arrays.sort(secondNames);
+        assertEquals(Arrays.asList(names), Arrays.asList(secondNames));
+        for (String name : names)
+        {
+            if (name.startsWith("DMC-"))
+            {
+                assertTrue(name, Arrays.equals(
+                        Files.readAllBytes(new File(CorpusGenerator.getResourcePackage(first), name).toPath()),
+                        Files.readAllBytes(new File(CorpusGenerator.getResourcePackage(second), name).toPath())));
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.CorpusGenerator#rename(java.lang.String, java.lang.String, int)}.
+     */
+    @Test
+    public void testRename()
+    {
+        assertEquals("DMC-S1000DBIKE-Z00A-D00-00-00-00AA-041A-A",
+                     CorpusGenerator.rename("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A", "Z", 10));
+        assertEquals("ICN-S1000DBIKE-Z001-D000000-A-06RT9-00060-A-001-01",
+                     CorpusGenerator.rename("ICN-S1000DBIKE-AAA-D000000-A-06RT9-00060-A-001-01", "Z", 1));
+        assertEquals("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A",
+                     CorpusGenerator.rename("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A", "Z", 0));
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param file File that is the directory or file to delete.
+     */
+    private static void delete(File file)
+    {
+        File[] files = file.listFiles();
+        if (files != null)
+        {
+            for (File inner : files)
+            {
+                delete(inner);
+            }
+        }
+        file.delete();
+    }
+}
@@ -0,0 +1,105 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class DependencyGraphTest
+{
+    DependencyGraph graph;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        //DMC-A -> DMC-B -> DMC-C -> DMC-A, DMC-A -> DMC-D, DMC-X is not in the package
+        graph = new DependencyGraph();
+        graph.addDataModule("DMC-A", Arrays.asList("DMC-B", "DMC-D"), Arrays.asList("ICN-A"));
+        graph.addDataModule("DMC-B", Arrays.asList("DMC-C", "DMC-X"), Arrays.asList("ICN-B", "ICN-A"));
+        graph.addDataModule("DMC-C", Arrays.asList("DMC-A"), Arrays.asList("ICN-C"));
+        graph.addDataModule("DMC-D", new ArrayList<String>(), Arrays.asList("ICN-D"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.DependencyGraph#getDependencies(java.lang.String, int)}.
+     */
+    @Test
+    public void testGetDependencies()
+    {
+        assertEquals(Arrays.asList("ICN-A"), graph.getDependencies("DMC-A", 0));
+        assertEquals(Arrays.asList("ICN-A", "DMC-B", "ICN-B", "DMC-D", "ICN-D"),
+                     graph.getDependencies("DMC-A", 1));
+        assertEquals(Arrays.asList("ICN-A", "DMC-B", "ICN-B", "DMC-C", "ICN-C", "DMC-X", "DMC-D", "ICN-D"),
+                     graph.getDependencies("DMC-A", DependencyGraph.UNLIMITED_DEPTH));
+
+        //the cycle back to DMC-B is not followed and DMC-B is not its own dependency
+        List<String> dependencies = graph.getDependencies("DMC-B", DependencyGraph.UNLIMITED_DEPTH);
+        assertEquals(Arrays.asList("ICN-B", "ICN-A", "DMC-C", "ICN-C", "DMC-A", "DMC-D", "ICN-D", "DMC-X"),
+                     dependencies);
+
+        //the memoized result is the same
+        assertEquals(dependencies, graph.getDependencies("DMC-B", DependencyGraph.UNLIMITED_DEPTH));
+
+        assertTrue(graph.getDependencies("DMC-X", 1).isEmpty());
+        assertTrue(graph.getDependencies("DMC-Y", 1).isEmpty());
+    }
+
+    /**
+     * Checks that a data module reached first through a longer path is still
+     * followed as deep as the shorter path allows.
+     */
+    @Test
+    public void testGetDependenciesShorterPath()
+    {
+        graph.addDataModule("DMC-R", Arrays.asList("DMC-S", "DMC-T"), new ArrayList<String>());
+        graph.addDataModule("DMC-S", Arrays.asList("DMC-T"), new ArrayList<String>());
+        graph.addDataModule("DMC-T", Arrays.asList("DMC-U"), new ArrayList<String>());
+        graph.addDataModule("DMC-U", new ArrayList<String>(), new ArrayList<String>());
+
+        assertEquals(Arrays.asList("DMC-S", "DMC-T", "DMC-U"), graph.getDependencies("DMC-R", 2));
+        assertEquals(Arrays.asList("DMC-S", "DMC-T"), graph.getDependencies("DMC-R", 1));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.DependencyGraph#hasCycle(java.lang.String)}.
+     */
+    @Test
+    public void testHasCycle()
+    {
+        assertTrue(graph.hasCycle("DMC-A"));
+        assertTrue(graph.hasCycle("DMC-C"));
+        assertFalse(graph.hasCycle("DMC-D"));
+        assertFalse(graph.hasCycle("DMC-X"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.DependencyGraph#isDataModule(java.lang.String)}.
+     */
+    @Test
+    public void testIsDataModule()
+    {
+        assertTrue(graph.isDataModule("DMC-A"));
+        assertFalse(graph.isDataModule("DMC-X"));
+        assertFalse(graph.isDataModule("ICN-A"));
+        assertEquals(9, graph.size());
+
+        //the first data module with a code is kept
+        graph.addDataModule("DMC-D", Arrays.asList("DMC-A"), new ArrayList<String>());
+        assertEquals(Arrays.asList("ICN-D"), graph.getDependencies("DMC-D", 1));
+    }
+}
@@ -0,0 +1,115 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class DocumentCacheTest
+{
+    File first;
+    File second;
+    SAXBuilder parser;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        first = File.createTempFile("cacheTest", ".xml");
+        second = File.createTempFile("cacheTest", ".xml");
+        write(first, "<first/>");
+        write(second, "<other/>");
+        parser = new SAXBuilder();
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        first.delete();
+        second.delete();
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.DocumentCache#getDoc(java.io.File, org.jdom.input.SAXBuilder)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testGetDoc() throws Exception
+    {
+        DocumentCache cache = new DocumentCache(1024 * 1024);
+        Document doc = cache.getDoc(first, parser);
+        assertEquals("first", doc.getRootElement().getName());
+        assertEquals(0, cache.getHits());
+        assertEquals(1, cache.getMisses());
+
+        //changes to a returned document do not reach the cache
+        doc.getRootElement().addContent(new Element("added"));
+        doc = cache.getDoc(first, parser);
+        assertEquals(1, cache.getHits());
+        assertTrue(doc.getRootElement().getChildren().isEmpty());
+
+        //a changed file is parsed again
+        write(first, "<changed/>");
+        doc = cache.getDoc(first, parser);
+        assertEquals("changed", doc.getRootElement().getName());
+        assertEquals(2, cache.getMisses());
+        assertEquals(1, cache.getCount());
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.DocumentCache#getEvictions()}.
+     * @throws Exception 
+     */
+    @Test
+    public void testEviction() throws Exception
+    {
+        //room for a single document
+        DocumentCache cache = new DocumentCache(first.length() * 8);
+        cache.getDoc(first, parser);
+        cache.getDoc(second, parser);
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getCount());
+
+        //the least recently used document was evicted
+        cache.getDoc(second, parser);
+        assertEquals(1, cache.getHits());
+        cache.getDoc(first, parser);
+        assertEquals(3, cache.getMisses());
+    }
+
+    /**
+     * Writes a small file.
+     * 
+     * @param file File to write.
+     * @param content String to write to the file.
+     * @throws IOException
+     */
+    private void write(File file, String content) throws IOException
+    {
+        FileWriter writer = new FileWriter(file);
+        writer.write(content);
+        writer.close();
+    }
+
+}
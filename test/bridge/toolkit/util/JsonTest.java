@@ -0,0 +1,54 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+/**
+ *
+ */
+public class JsonTest
+{
+    /**
+     * Test method for {@link bridge.toolkit.util.Json#quote(java.lang.String)}.
+     */
+    @Test
+    public void testQuote()
+    {
+        assertEquals("\"C:\\\\bike\\\\SMC.xml\"", Json.quote("C:\\bike\\SMC.xml"));
+        assertEquals("\"\\\"a\\u000a\"", Json.quote("\"a\n"));
+        assertEquals("null", Json.quote(null));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.Json#parseObject(java.lang.String)}.
+     */
+    @Test
+    public void testParseObject()
+    {
+        Map<String, Object> values = Json.parseObject(
+                " { \"scpm\" : \"C:\\\\bike\\\\SMC.xml\", \"incremental\":true, \"n\":2, \"none\":null, \"q\":\"\\\"\\u0041\" } ");
+        assertEquals("C:\\bike\\SMC.xml", values.get("scpm"));
+        assertEquals(Boolean.TRUE, values.get("incremental"));
+        assertEquals(2.0, values.get("n"));
+        assertTrue(values.containsKey("none"));
+        assertEquals("\"A", values.get("q"));
+        assertEquals("\"a\n", Json.parseObject("{\"q\":" + Json.quote("\"a\n") + "}").get("q"));
+        assertTrue(Json.parseObject("{}").isEmpty());
+        try
+        {
+            Json.parseObject("{\"scpm\":}");
+            fail("The value is missing");
+        }
+        catch (IllegalArgumentException e)
+        {
+        }
+    }
+}
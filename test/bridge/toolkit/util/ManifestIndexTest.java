@@ -0,0 +1,89 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.StringReader;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.input.SAXBuilder;
+import org.jdom.xpath.XPath;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ManifestIndexTest
+{
+    Document manifest;
+    ManifestIndex index;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        String xml = "<manifest xmlns='http://www.imsglobal.org/xsd/imscp_v1p1' " +
+                "xmlns:adlcp='http://www.adlnet.org/xsd/adlcp_v1p3'><resources>" +
+                "<resource identifier='RES-1' adlcp:scormType='sco' href='TODO'>" +
+                "<dependency identifierref='DMC-A'/><dependency identifierref='DMC-B'/></resource>" +
+                "<resource identifier='DMC-A' adlcp:scormType='asset' href='resources/s1000d/DMC-A_001.xml'/>" +
+                "<resource identifier='RES-2' adlcp:scormType='sco' href='TODO'/>" +
+                "<resource identifier='DMC-A' adlcp:scormType='asset' href='resources/s1000d/duplicate.xml'/>" +
+                "</resources></manifest>";
+        manifest = new SAXBuilder().build(new StringReader(xml));
+        index = new ManifestIndex(manifest);
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ManifestIndex#getResource(java.lang.String)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testGetResource() throws Exception
+    {
+        //the index finds the same resource as the XPath it replaces
+        XPath xp = XPath.newInstance("//ns:resource[@identifier='DMC-A']");
+        xp.addNamespace("ns", "http://www.imsglobal.org/xsd/imscp_v1p1");
+        assertSame(xp.selectSingleNode(manifest), index.getResource("DMC-A"));
+
+        assertEquals("DMC-A_001.xml", index.getResourceFileName("DMC-A"));
+        assertNull(index.getResource("DMC-C"));
+        assertNull(index.getResourceFileName("DMC-C"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ManifestIndex#getSCOResources()}.
+     */
+    @Test
+    public void testGetSCOResources()
+    {
+        assertEquals(2, index.getSCOResources().size());
+        assertEquals("RES-1", index.getSCOResources().get(0).getAttributeValue("identifier"));
+        assertEquals("RES-2", index.getSCOResources().get(1).getAttributeValue("identifier"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ManifestIndex#addDependency(org.jdom.Element, java.lang.String)}.
+     */
+    @Test
+    public void testAddDependency()
+    {
+        assertEquals(2, index.getDependencies("RES-1").size());
+        assertTrue(index.getDependencies("RES-2").isEmpty());
+
+        Element sco = index.getResource("RES-2");
+        index.addDependency(sco, "DMC-A");
+        assertTrue(index.getDependencies("RES-2").contains("DMC-A"));
+        Element dependency = sco.getChild("dependency", ManifestIndex.IMSCP_NS);
+        assertEquals("DMC-A", dependency.getAttributeValue("identifierref"));
+    }
+
+}
@@ -0,0 +1,169 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.jdom.Document;
+import org.jdom.Element;
+import org.jdom.xpath.XPath;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ReferenceExtractorTest
+{
+    File dm;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        dm = File.createTempFile("DMC-TEST", ".xml");
+        FileWriter writer = new FileWriter(dm);
+        writer.write("<dmodule><identAndStatusSection><dmAddress>" +
+                "<dmIdent><dmCode modelIdentCode='BIKE' systemDiffCode='A' systemCode='D00' " +
+                "subSystemCode='0' subSubSystemCode='0' assyCode='00' disassyCode='00' " +
+                "disassyCodeVariant='AA' infoCode='041' infoCodeVariant='A' itemLocationCode='A'/></dmIdent>" +
+                "<dmAddressItems><dmTitle><techName>  Bicycle\n  parts </techName>" +
+                "<infoName>Description</infoName></dmTitle></dmAddressItems>" +
+                "</dmAddress></identAndStatusSection><content>" +
+                "<para><dmRef><dmRefIdent><dmCode modelIdentCode='BIKE' systemDiffCode='A' systemCode='D00' " +
+                "subSystemCode='0' subSubSystemCode='0' assyCode='00' disassyCode='00' " +
+                "disassyCodeVariant='AA' infoCode='042' infoCodeVariant='A' itemLocationCode='A'/>" +
+                "</dmRefIdent></dmRef></para>" +
+                "<figure><graphic infoEntityIdent='ICN-1'/></figure>" +
+                "<multimedia><multimediaObject infoEntityIdent='ICN-2'/></multimedia>" +
+                "<figure><graphic infoEntityIdent='ICN-1'/></figure>" +
+                "<para><dmRef><dmRefIdent><dmCode modelIdentCode='BIKE' systemDiffCode='A' systemCode='D00' " +
+                "subSystemCode='0' subSubSystemCode='0' assyCode='00' disassyCode='00' " +
+                "disassyCodeVariant='AA' infoCode='042' infoCodeVariant='A' itemLocationCode='A'/>" +
+                "</dmRefIdent></dmRef></para>" +
+                "</content></dmodule>");
+        writer.close();
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        dm.delete();
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ReferenceExtractor#extract(java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testExtract() throws Exception
+    {
+        ReferenceExtractor extractor = new ReferenceExtractor();
+        extractor.extract(dm);
+
+        assertEquals(Arrays.asList("DMC-BIKE-A-D00-00-00-00AA-042A-A"), extractor.getDmRefs());
+        assertEquals(Arrays.asList("ICN-1", "ICN-2"), extractor.getIcnRefs());
+        assertEquals(Arrays.asList("ICN-1"), extractor.getGraphics());
+        assertEquals("DMC-BIKE-A-D00-00-00-00AA-041A-A", DMParser.formatDmCode(extractor.getDmCode()));
+        assertEquals("Bicycle parts - Description", extractor.getTitle());
+    }
+
+    /**
+     * Checks that the extractor finds the same references as the XPath
+     * searches it replaces for the data modules of the bike example.
+     * @throws Exception
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtractMatchesXPath() throws Exception
+    {
+        DMParser dmParser = new DMParser();
+        ReferenceExtractor extractor = new ReferenceExtractor();
+        File[] files = new File("examples" + File.separator + "bike_resource_package").listFiles();
+        assertNotNull(files);
+        for (File file : files)
+        {
+            if (!file.getName().toLowerCase().endsWith(".xml"))
+            {
+                continue;
+            }
+            Document doc = dmParser.getDoc(file);
+            extractor.extract(file);
+
+            List<String> dmRefs = new ArrayList<String>(new LinkedHashSet<String>(dmParser.searchForDmRefs(doc)));
+            assertEquals(file.getName(), dmRefs, extractor.getDmRefs());
+
+            Set<String> icnRefs = new LinkedHashSet<String>();
+            List<Element> els = XPath.selectNodes(doc, "//*[@infoEntityIdent]");
+            for (Element el : els)
+            {
+                icnRefs.add(el.getAttributeValue("infoEntityIdent"));
+            }
+            assertEquals(file.getName(), new ArrayList<String>(icnRefs), extractor.getIcnRefs());
+
+            Element dmCode = (Element) XPath.selectSingleNode(doc, "//identAndStatusSection/dmAddress/dmIdent/dmCode");
+            if (dmCode != null)
+            {
+                assertEquals(file.getName(), dmParser.formatDmCode(dmCode),
+                             DMParser.formatDmCode(extractor.getDmCode()));
+            }
+            else
+            {
+                assertNull(file.getName(), extractor.getDmCode());
+            }
+
+            Element dmTitle = (Element) XPath.selectSingleNode(doc, "//identAndStatusSection/dmAddress/dmAddressItems/dmTitle");
+            if (dmTitle != null)
+            {
+                String title = dmTitle.getChildTextNormalize("techName");
+                String infoName = dmTitle.getChildTextNormalize("infoName");
+                if (infoName != null && infoName.length() > 0)
+                {
+                    title = title + " - " + infoName;
+                }
+                assertEquals(file.getName(), title, extractor.getTitle());
+            }
+        }
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ReferenceExtractor#extractSCOEntries(java.io.File, java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testExtractSCOEntries() throws Exception
+    {
+        File scpm = new File("examples" + File.separator + "bike_SCPM" + File.separator +
+                             "SMC-S1000DBIKE-06RT9-00001-00.xml");
+        List<List<String>> entries = ReferenceExtractor.extractSCOEntries(scpm, "scot01");
+
+        DMParser dmParser = new DMParser();
+        List<Element> scos = XPath.selectNodes(dmParser.getDoc(scpm), "//scoEntry[@scoEntryType='scot01']");
+        assertEquals(scos.size(), entries.size());
+        for (int i = 0; i < scos.size(); i++)
+        {
+            Element sco = scos.get(i);
+            sco.detach();
+            List<String> dmRefs = dmParser.searchForDmRefs(new Document(sco));
+            assertEquals(new ArrayList<String>(new LinkedHashSet<String>(dmRefs)), entries.get(i));
+        }
+    }
+}
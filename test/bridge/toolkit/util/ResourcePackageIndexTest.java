@@ -0,0 +1,222 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.Callable;
+
+import org.jdom.JDOMException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class ResourcePackageIndexTest
+{
+    File packageDir;
+    File indexDir;
+    String lDMName = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-151A-A-T45C_001-00_EN-US.xml";
+    String scDMName = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-960A-T_001-00_EN-US.xml";
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        File tmp = new File(System.getProperty("java.io.tmpdir"));
+        packageDir = new File(tmp, "indexTestPackage" + System.nanoTime());
+        indexDir = new File(tmp, "indexTestIndexes" + System.nanoTime());
+        packageDir.mkdirs();
+        System.setProperty(ResourcePackageIndex.INDEX_DIR_PROPERTY, indexDir.getPath());
+
+        File examples = new File(System.getProperty("user.dir") + File.separator + "examples" + 
+                File.separator + "bike_resource_package_4.1");
+        CopyDirectory cd = new CopyDirectory();
+        cd.copyDirectory(new File(examples, lDMName), new File(packageDir, lDMName));
+        cd.copyDirectory(new File(examples, scDMName), new File(packageDir, scDMName));
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        System.clearProperty(ResourcePackageIndex.INDEX_DIR_PROPERTY);
+        System.clearProperty(ResourcePackageIndex.MAX_INDEXES_PROPERTY);
+        delete(packageDir);
+        delete(indexDir);
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ResourcePackageIndex#getEntry(java.lang.String)}.
+     * @throws IOException 
+     * @throws JDOMException 
+     */
+    @Test
+    public void testGetEntry() throws JDOMException, IOException
+    {
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(packageDir);
+        assertEquals(2, index.getScanCount());
+
+        ResourcePackageIndex.Entry lDM = index.getEntry(lDMName);
+        assertTrue(lDM.isDataModule());
+        assertFalse(lDM.isScoContent());
+        assertEquals("151", lDM.getInfoCode());
+        assertEquals("T45", lDM.getLearnCode());
+        assertEquals("C", lDM.getLearnEventCode());
+        assertTrue(lDM.getIcnRefs().contains("ICN-S1000DBIKE-AAA-D000000-A-06RT9-00173-A-001-01"));
+
+        ResourcePackageIndex.Entry scDM = index.getEntry(scDMName);
+        assertTrue(scDM.isScoContent());
+        assertEquals(scDM, index.getEntryByDmc(scDM.getDmc()));
+
+        //the entries match what DMParser finds in the data module
+        DMParser dmp = new DMParser();
+        assertEquals(dmp.searchForDmRefs(dmp.getDoc(new File(packageDir, scDMName))), scDM.getDmRefs());
+    }
+
+    /**
+     * Checks that only the most recently used indexes are kept in memory and
+     * that a dropped index is loaded again from its index file.
+     * Test method for {@link bridge.toolkit.util.ResourcePackageIndex#getIndex(java.io.File)}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetIndexEvicted() throws Exception
+    {
+        System.setProperty(ResourcePackageIndex.MAX_INDEXES_PROPERTY, "1");
+        File otherDir = new File(packageDir.getPath() + "Other");
+        otherDir.mkdirs();
+        try
+        {
+            new CopyDirectory().copyDirectory(new File(packageDir, lDMName), new File(otherDir, lDMName));
+            ResourcePackageIndex index = ResourcePackageIndex.getIndex(packageDir);
+            assertSame(index, ResourcePackageIndex.getIndex(packageDir));
+            ResourcePackageIndex.getIndex(otherDir);
+            assertEquals(1, ResourcePackageIndex.getLoadedCount());
+
+            ResourcePackageIndex reloaded = ResourcePackageIndex.getIndex(packageDir);
+            assertNotSame(index, reloaded);
+            assertEquals(0, reloaded.getScanCount());
+            assertTrue(reloaded.getEntry(scDMName).isScoContent());
+        }
+        finally
+        {
+            delete(otherDir);
+        }
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.ResourcePackageIndex#refresh()}.
+     * @throws Exception 
+     */
+    @Test
+    public void testRefresh() throws Exception
+    {
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(packageDir);
+        assertEquals(2, index.getScanCount());
+
+        //unchanged files are not scanned again, and the refresh that found
+        //nothing to scan and the entries read after it count as one cache hit
+        CommandMetrics metrics = new CommandMetrics("testRefresh");
+        index = CommandMetrics.runAs(metrics, new Callable<ResourcePackageIndex>()
+        {
+            public ResourcePackageIndex call() throws Exception
+            {
+                ResourcePackageIndex current = ResourcePackageIndex.getIndex(packageDir);
+                current.getEntry(lDMName);
+                current.getEntry(scDMName);
+                return current;
+            }
+        });
+        assertEquals(2, index.getScanCount());
+        assertEquals(1, metrics.getCacheHits());
+
+        //new and removed files are picked up
+        File dm = new File(packageDir, "DMC-TEST.xml");
+        FileWriter writer = new FileWriter(dm);
+        writer.write("<dmodule/>");
+        writer.close();
+        new File(packageDir, lDMName).delete();
+        index.refresh();
+        assertEquals(3, index.getScanCount());
+        assertEquals(2, index.getEntries().size());
+        assertFalse(index.getEntry("DMC-TEST.xml").isDataModule());
+
+        //a second index loaded from disk does not scan the files again
+        File canonical = packageDir.getCanonicalFile();
+        ResourcePackageIndex loaded = new ResourcePackageIndex(canonical, 
+                ResourcePackageIndex.getIndexFile(canonical));
+        loaded.load();
+        loaded.refresh();
+        assertEquals(0, loaded.getScanCount());
+        assertEquals(2, loaded.getEntries().size());
+        assertTrue(loaded.getEntry(scDMName).isScoContent());
+    }
+
+    /**
+     * Checks that the files scanned in parallel by a refresh are indexed the
+     * same as files that are scanned one at a time.
+     * @throws Exception 
+     */
+    @Test
+    public void testRefreshParallel() throws Exception
+    {
+        File examples = new File(System.getProperty("user.dir") + File.separator + "examples" + 
+                File.separator + "bike_resource_package");
+        CopyDirectory cd = new CopyDirectory();
+        for (File file : examples.listFiles())
+        {
+            if (file.getName().toLowerCase().endsWith(".xml"))
+            {
+                cd.copyDirectory(file, new File(packageDir, file.getName()));
+            }
+        }
+        int count = packageDir.listFiles().length;
+
+        ResourcePackageIndex index = ResourcePackageIndex.getIndex(packageDir);
+        assertEquals(count, index.getScanCount());
+        assertEquals(count, index.getEntries().size());
+
+        ReferenceExtractor extractor = new ReferenceExtractor();
+        for (ResourcePackageIndex.Entry entry : index.getEntries())
+        {
+            extractor.extract(new File(packageDir, entry.getFileName()));
+            assertSame(entry, index.getIndexedEntry(entry.getFileName()));
+            assertEquals(entry.getFileName(), extractor.getDmRefs(), entry.getDmRefs());
+            assertEquals(entry.getFileName(), extractor.getIcnRefs(), entry.getIcnRefs());
+            assertEquals(entry.getFileName(), extractor.getTitle(), entry.getTitle());
+        }
+        assertNull(index.getIndexedEntry("DMC-MISSING.xml"));
+    }
+
+    /**
+     * Deletes a directory and its contents.
+     * 
+     * @param file File to delete.
+     */
+    private void delete(File file)
+    {
+        File[] children = file.listFiles();
+        if (children != null)
+        {
+            for (File child : children)
+            {
+                delete(child);
+            }
+        }
+        file.delete();
+    }
+
+}
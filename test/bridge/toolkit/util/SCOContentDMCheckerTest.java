@@ -60,4 +60,26 @@ public class SCOContentDMCheckerTest
         assertTrue(checker.isSCOContentDM(scDM));
     }
 
+    /**
+     * Test method for {@link bridge.toolkit.util.SCOContentDMChecker#readInfoCode(java.io.File)}.
+     * @throws Exception 
+     */
+    @Test
+    public void testReadInfoCode() throws Exception
+    {
+        File packageDir = new File(System.getProperty("user.dir") + File.separator + "examples" + 
+                File.separator + "bike_resource_package_4.1");
+        
+        File lDM = new File(packageDir, "DMC-S1000DBIKE-AAA-D00-00-00-00AA-151A-A-T45C_001-00_EN-US.xml");
+        assertEquals("151", SCOContentDMChecker.readInfoCode(lDM));
+        
+        File scDM = new File(packageDir, "DMC-S1000DBIKE-AAA-D00-00-00-00AA-960A-T_001-00_EN-US.xml");
+        assertEquals("960", SCOContentDMChecker.readInfoCode(scDM));
+        
+        //the SCPM does not have a data module code
+        File scpm = new File(System.getProperty("user.dir") + File.separator + "examples" + 
+                File.separator + "bike_SCPM" + File.separator + "SMC-S1000DBIKE-06RT9-00001-00.xml");
+        assertNull(SCOContentDMChecker.readInfoCode(scpm));
+    }
+
 }
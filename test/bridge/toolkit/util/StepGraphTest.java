@@ -0,0 +1,209 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class StepGraphTest
+{
+    String threads;
+    List<String> none = Collections.emptyList();
+    List<String> ran = Collections.synchronizedList(new ArrayList<String>());
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        threads = System.getProperty(StepGraph.THREADS_PROPERTY);
+        System.setProperty(StepGraph.THREADS_PROPERTY, "4");
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        if (threads == null)
+        {
+            System.clearProperty(StepGraph.THREADS_PROPERTY);
+        }
+        else
+        {
+            System.setProperty(StepGraph.THREADS_PROPERTY, threads);
+        }
+    }
+
+    /**
+     * Checks that a path that ends with a "/" covers the paths in it and that
+     * a step that does not declare what it touches waits for all of the
+     * steps before it.
+     * Test method for {@link bridge.toolkit.util.StepGraph#getDependencies()}.
+     */
+    @Test
+    public void testGetDependencies()
+    {
+        StepGraph graph = new StepGraph();
+        graph.add("copy", none, Arrays.asList("resources/s1000d/app/"), record("copy"));
+        graph.add("style", Arrays.asList("resources/s1000d/DMC-A.xml"), Arrays.asList("resources/s1000d/DMC-A.xml"), record("style"));
+        graph.add("list", Arrays.asList(Keys.XML_SOURCE), Arrays.asList("resources/s1000d/app/list.js"), record("list"));
+        graph.add("manifest", none, Arrays.asList(Keys.XML_SOURCE), record("manifest"));
+        graph.add("save", null, null, record("save"));
+        graph.add("zip", none, Arrays.asList(Keys.ARTIFACT), record("zip"));
+
+        assertEquals(Arrays.asList("copy", "style", "list", "manifest", "save", "zip"), graph.getNames());
+        List<List<Integer>> dependencies = graph.getDependencies();
+        assertEquals(Collections.emptyList(), dependencies.get(1));
+        assertEquals(Arrays.asList(0), dependencies.get(2));
+        assertEquals(Arrays.asList(2), dependencies.get(3));
+        assertEquals(Arrays.asList(0, 1, 2, 3), dependencies.get(4));
+        assertEquals(Arrays.asList(4), dependencies.get(5));
+    }
+
+    /**
+     * Checks that steps that do not depend on each other run at the same
+     * time and that the others keep their order.
+     * Test method for {@link bridge.toolkit.util.StepGraph#run()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRun() throws Exception
+    {
+        final CountDownLatch both = new CountDownLatch(2);
+        StepGraph.Action meet = new StepGraph.Action()
+        {
+            public boolean run() throws Exception
+            {
+                both.countDown();
+                assertTrue(both.await(10, TimeUnit.SECONDS));
+                ran.add("meet");
+                return false;
+            }
+        };
+        StepGraph graph = new StepGraph();
+        graph.add("first", none, Arrays.asList("a"), meet);
+        graph.add("second", none, Arrays.asList("b"), meet);
+        graph.add("after", Arrays.asList("a", "b"), Arrays.asList("c"), record("after"));
+        graph.add("last", null, null, record("last"));
+
+        assertFalse(graph.run());
+        assertEquals(Arrays.asList("meet", "meet", "after", "last"), ran);
+    }
+
+    /**
+     * Checks that a step that returns true keeps the steps that depend on
+     * it from running.
+     * Test method for {@link bridge.toolkit.util.StepGraph#run()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRunStopped() throws Exception
+    {
+        StepGraph graph = new StepGraph();
+        graph.add("stop", none, Arrays.asList("a"), new StepGraph.Action()
+        {
+            public boolean run()
+            {
+                return true;
+            }
+        });
+        graph.add("after", Arrays.asList("a"), none, record("after"));
+        assertTrue(graph.run());
+        assertTrue(ran.isEmpty());
+    }
+
+    /**
+     * Checks that the exception of a step is thrown by the graph.
+     * Test method for {@link bridge.toolkit.util.StepGraph#run()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRunFailed() throws Exception
+    {
+        StepGraph graph = new StepGraph();
+        graph.add("fail", none, Arrays.asList("a"), new StepGraph.Action()
+        {
+            public boolean run() throws IOException
+            {
+                throw new IOException("failed");
+            }
+        });
+        graph.add("after", Arrays.asList("a"), none, record("after"));
+        try
+        {
+            graph.run();
+            fail("The exception of the step was not thrown");
+        }
+        catch (IOException e)
+        {
+            assertEquals("failed", e.getMessage());
+        }
+        assertTrue(ran.isEmpty());
+    }
+
+    /**
+     * Checks that the steps run in the order they were added on the calling
+     * thread when the pool has one thread.
+     * Test method for {@link bridge.toolkit.util.StepGraph#run()}.
+     * @throws Exception
+     */
+    @Test
+    public void testRunSequentially() throws Exception
+    {
+        System.setProperty(StepGraph.THREADS_PROPERTY, "1");
+        final Thread caller = Thread.currentThread();
+        StepGraph graph = new StepGraph();
+        for (final String name : Arrays.asList("c", "b", "a"))
+        {
+            graph.add(name, none, Arrays.asList(name), new StepGraph.Action()
+            {
+                public boolean run()
+                {
+                    assertSame(caller, Thread.currentThread());
+                    ran.add(name);
+                    return false;
+                }
+            });
+        }
+        assertFalse(graph.run());
+        assertEquals(Arrays.asList("c", "b", "a"), ran);
+    }
+
+    /**
+     * Returns an action that adds its name to the list of steps that ran.
+     *
+     * @param name String that is the name of the step.
+     * @return StepGraph.Action that records the step.
+     */
+    private StepGraph.Action record(final String name)
+    {
+        return new StepGraph.Action()
+        {
+            public boolean run()
+            {
+                ran.add(name);
+                return false;
+            }
+        };
+    }
+}
@@ -0,0 +1,234 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileWriter;
+import java.nio.file.Files;
+import java.util.Map;
+
+import org.jdom.JDOMException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class StylesheetApplierTest
+{
+    File serialDir;
+    File parallelDir;
+    String threads;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        threads = System.getProperty(StylesheetApplier.THREADS_PROPERTY);
+        serialDir = createPackage("serial");
+        parallelDir = createPackage("parallel");
+    }
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @After
+    public void tearDown() throws Exception
+    {
+        if (threads == null)
+        {
+            System.clearProperty(StylesheetApplier.THREADS_PROPERTY);
+        }
+        else
+        {
+            System.setProperty(StylesheetApplier.THREADS_PROPERTY, threads);
+        }
+        deleteDirectory(serialDir);
+        deleteDirectory(parallelDir);
+    }
+
+    /**
+     * Checks that the style sheet applied on several threads gives the same
+     * files as on the calling thread, and that a file that fails does not
+     * stop the other files.
+     * Test method for {@link bridge.toolkit.util.StylesheetApplier#applyStylesheetToDMCs(java.io.File, java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    public void testApplyStylesheetToDMCs() throws Exception
+    {
+        System.setProperty(StylesheetApplier.THREADS_PROPERTY, "1");
+        StylesheetApplier serial = new StylesheetApplier();
+        try
+        {
+            serial.applyStylesheetToDMCs(serialDir, "app/dmStylesheet.xsl");
+            fail("The broken file should be reported");
+        }
+        catch (JDOMException e)
+        {
+            //the other files are still processed
+        }
+
+        System.setProperty(StylesheetApplier.THREADS_PROPERTY, "3");
+        StylesheetApplier parallel = new StylesheetApplier();
+        try
+        {
+            parallel.applyStylesheetToDMCs(parallelDir, "app/dmStylesheet.xsl");
+            fail("The broken file should be reported");
+        }
+        catch (JDOMException e)
+        {
+            //the other files are still processed
+        }
+
+        Map<File, Exception> failures = parallel.getFailures();
+        assertEquals(1, failures.size());
+        assertEquals("DMC-BROKEN.xml", failures.keySet().iterator().next().getName());
+        assertEquals(1, serial.getFailures().size());
+        assertTrue(parallel.getStatistics().contains("files/s"));
+
+        File[] files = new File(serialDir, "resources" + File.separator + "s1000d").listFiles();
+        assertTrue(files.length > 2);
+        for (File file : files)
+        {
+            String expected = new String(Files.readAllBytes(file.toPath()), "UTF-8");
+            File other = new File(parallelDir, "resources" + File.separator + "s1000d" + File.separator + file.getName());
+            assertEquals(file.getName(), expected, new String(Files.readAllBytes(other.toPath()), "UTF-8"));
+            if (!file.getName().equals("DMC-BROKEN.xml") && !file.getName().contains("ICN"))
+            {
+                assertTrue(file.getName(), expected.contains("<?xml-stylesheet type='text/xsl' href='app/dmStylesheet.xsl'"));
+            }
+        }
+    }
+
+    /**
+     * Checks that the processing instruction is added after the XML 
+     * declaration and the rest of the file is copied byte for byte.
+     * Test method for {@link bridge.toolkit.util.StylesheetApplier#copyWithStylesheet(java.io.File, java.io.File, java.lang.String, java.lang.String, java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    public void testCopyWithStylesheet() throws Exception
+    {
+        StylesheetApplier applier = new StylesheetApplier();
+        File source = new File(serialDir, "source.xml");
+        File dest = new File(serialDir, "dest.xml");
+        String pi = "<?xml-stylesheet type='text/css' media='all' href='s1000d.css'\n?>";
+
+        //byte order mark, declaration, CRLF and a DOCTYPE with entities
+        String body = "<!DOCTYPE dmodule [\r\n<!ENTITY ICN-1 SYSTEM \"ICN-1.jpg\" NDATA jpg>\r\n]>\r\n" +
+                      "<dmodule>caf\u00e9 &amp; &#x2019;</dmodule>\r\n";
+        byte[] bom = { (byte) 0xEF, (byte) 0xBB, (byte) 0xBF };
+        writeBytes(source, bom, ("<?xml version='1.0' encoding='UTF-8'?>\r\n" + body).getBytes("UTF-8"));
+        long written = applier.copyWithStylesheet(source, dest, "s1000d.css", "css", " media='all'");
+        byte[] copy = Files.readAllBytes(dest.toPath());
+        assertEquals(copy.length, written);
+        assertArrayEquals(concat(bom, ("<?xml version='1.0' encoding='UTF-8'?>\r\n" + pi + "\r\n" + body).getBytes("UTF-8")), copy);
+
+        //no declaration, copied to a directory
+        writeBytes(source, body.getBytes("UTF-8"));
+        File dir = new File(serialDir, "copy");
+        dir.mkdir();
+        applier.copyWithStylesheet(source, dir, "s1000d.css", "css", " media='all'");
+        assertEquals(pi + "\n" + body, new String(Files.readAllBytes(new File(dir, "source.xml").toPath()), "UTF-8"));
+
+        //UTF-16 with a byte order mark
+        byte[] utf16 = { (byte) 0xFF, (byte) 0xFE };
+        writeBytes(source, utf16, ("<?xml version='1.0' encoding='UTF-16'?>\n" + body).getBytes("UTF-16LE"));
+        applier.copyWithStylesheet(source, dest, "s1000d.css", "css", " media='all'");
+        assertArrayEquals(concat(utf16, ("<?xml version='1.0' encoding='UTF-16'?>\n" + pi + "\n" + body).getBytes("UTF-16LE")),
+                          Files.readAllBytes(dest.toPath()));
+    }
+
+    /**
+     * Writes bytes to a file.
+     *
+     * @param file File to write.
+     * @param parts byte[]s that are written one after the other.
+     * @throws Exception
+     */
+    private static void writeBytes(File file, byte[]... parts) throws Exception
+    {
+        Files.write(file.toPath(), concat(parts));
+    }
+
+    /**
+     * Joins byte arrays.
+     *
+     * @param parts byte[]s to join.
+     * @return byte[] the bytes of all of the parts.
+     */
+    private static byte[] concat(byte[]... parts)
+    {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] part : parts)
+        {
+            out.write(part, 0, part.length);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Creates a package with a few data modules of the bike example and a
+     * data module that is not well formed.
+     *
+     * @param name String that is the name of the package.
+     * @return File the base directory of the package.
+     * @throws Exception
+     */
+    private File createPackage(String name) throws Exception
+    {
+        File base = new File(System.getProperty("java.io.tmpdir"), "stylesheetApplier-" + name);
+        deleteDirectory(base);
+        File dm = new File(base, "resources" + File.separator + "s1000d");
+        dm.mkdirs();
+
+        File[] examples = new File("examples" + File.separator + "bike_resource_package").listFiles();
+        int count = 0;
+        for (File example : examples)
+        {
+            if (example.getName().startsWith("DMC-S1000DBIKE") && example.getName().endsWith(".xml") && count < 8)
+            {
+                Files.copy(example.toPath(), new File(dm, example.getName()).toPath());
+                count++;
+            }
+            else if (example.getName().startsWith("ICN") && count == 8)
+            {
+                Files.copy(example.toPath(), new File(dm, example.getName()).toPath());
+                count++;
+            }
+        }
+
+        FileWriter writer = new FileWriter(new File(dm, "DMC-BROKEN.xml"));
+        writer.write("<dmodule><content></dmodule>");
+        writer.close();
+        return base;
+    }
+
+    /**
+     * Deletes a directory and everything in it.
+     *
+     * @param path File that is the directory.
+     */
+    private static void deleteDirectory(File path)
+    {
+        File[] files = path.listFiles();
+        if (files != null)
+        {
+            for (File file : files)
+            {
+                deleteDirectory(file);
+            }
+        }
+        path.delete();
+    }
+}
@@ -0,0 +1,166 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.net.URL;
+import java.nio.file.Files;
+
+import javax.xml.transform.Templates;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerConfigurationException;
+import javax.xml.transform.stream.StreamResult;
+import javax.xml.transform.stream.StreamSource;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import bridge.toolkit.commands.PreProcess;
+
+/**
+ *
+ */
+public class TemplatesRegistryTest
+{
+    TemplatesRegistry registry;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        registry = new TemplatesRegistry();
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.TemplatesRegistry#newTransformer(java.lang.Class, java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    public void testNewTransformer() throws Exception
+    {
+        Transformer first = registry.newTransformer(PreProcess.class, "preProcessTransform.xsl");
+        Transformer second = registry.newTransformer(PreProcess.class, "preProcessTransform.xsl");
+        assertNotSame(first, second);
+
+        //the style sheet is compiled once and then reused
+        assertEquals(1, registry.getCompiles());
+        assertEquals(1, registry.getReuses());
+        assertEquals(1, registry.getCount());
+        assertSame(registry.getTemplates(PreProcess.class, "preProcessTransform.xsl"),
+                   registry.getTemplates(PreProcess.class, "/bridge/toolkit/commands/preProcessTransform.xsl"));
+
+        //each transformer can be used on its own
+        StringWriter out = new StringWriter();
+        second.transform(new StreamSource(new StringReader("<scormContentPackage/>")), new StreamResult(out));
+        assertTrue(out.toString().length() > 0);
+
+        registry.resetStatistics();
+        assertEquals(0, registry.getCompiles());
+        assertEquals(1, registry.getCount());
+    }
+
+    /**
+     * Checks that the registry is safe to use from several threads and only
+     * compiles the style sheet once.
+     * @throws Exception
+     */
+    @Test
+    public void testGetTemplatesConcurrently() throws Exception
+    {
+        final Templates[] results = new Templates[8];
+        Thread[] threads = new Thread[results.length];
+        for (int i = 0; i < threads.length; i++)
+        {
+            final int n = i;
+            threads[i] = new Thread()
+            {
+                public void run()
+                {
+                    try
+                    {
+                        results[n] = registry.getTemplates(PreProcess.class, "preProcessTransform.xsl");
+                    }
+                    catch (TransformerConfigurationException e)
+                    {
+                        e.printStackTrace();
+                    }
+                }
+            };
+            threads[i].start();
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        for (Templates templates : results)
+        {
+            assertSame(results[0], templates);
+        }
+        assertEquals(1, registry.getCompiles());
+        assertEquals(results.length - 1, registry.getReuses());
+    }
+
+    /**
+     * Checks that a style sheet file is only compiled again once its last
+     * modified time changes.
+     * Test method for {@link bridge.toolkit.util.TemplatesRegistry#getTemplates(java.net.URL)}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetTemplatesModified() throws Exception
+    {
+        File xsl = File.createTempFile("templatesRegistryTest", ".xsl");
+        try
+        {
+            String stylesheet = "<xsl:stylesheet version=\"1.0\" xmlns:xsl=\"http://www.w3.org/1999/XSL/Transform\">" +
+                                "<xsl:template match=\"/\">%s</xsl:template></xsl:stylesheet>";
+            Files.write(xsl.toPath(), String.format(stylesheet, "first").getBytes("UTF-8"));
+            xsl.setLastModified(1000000000000L);
+            URL url = xsl.toURI().toURL();
+            Templates first = registry.getTemplates(url);
+            assertSame(first, registry.getTemplates(url));
+            assertEquals(1, registry.getCompiles());
+
+            Files.write(xsl.toPath(), String.format(stylesheet, "second").getBytes("UTF-8"));
+            xsl.setLastModified(1000000010000L);
+            Templates second = registry.getTemplates(url);
+            assertNotSame(first, second);
+            assertEquals(2, registry.getCompiles());
+            assertEquals(1, registry.getCount());
+
+            StringWriter out = new StringWriter();
+            second.newTransformer().transform(new StreamSource(new StringReader("<a/>")), new StreamResult(out));
+            assertTrue(out.toString().endsWith("second"));
+        }
+        finally
+        {
+            xsl.delete();
+        }
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.TemplatesRegistry#getTemplates(java.lang.Class, java.lang.String)}.
+     */
+    @Test
+    public void testGetTemplatesMissing()
+    {
+        try
+        {
+            registry.getTemplates(PreProcess.class, "missing.xsl");
+            fail("A missing style sheet should not be compiled");
+        }
+        catch (TransformerConfigurationException e)
+        {
+            assertEquals(0, registry.getCount());
+        }
+    }
+}
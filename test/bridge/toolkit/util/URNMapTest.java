@@ -0,0 +1,89 @@
+/**
+ * This file is part of the S1000D Transformation Toolkit 
+ * project hosted on Sourceforge.net. See the accompanying 
+ * license.txt file for applicable licenses.
+ */
+package bridge.toolkit.util;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SortedMap;
+
+import org.jdom.Element;
+import org.jdom.Text;
+import org.jdom.xpath.XPath;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ *
+ */
+public class URNMapTest
+{
+    URNMap map;
+
+    /**
+     * @throws java.lang.Exception
+     */
+    @Before
+    public void setUp() throws Exception
+    {
+        List<File> files = new ArrayList<File>();
+        files.add(new File("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A_004-00_EN-US.xml"));
+        files.add(new File("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A_005-00_EN-US.xml"));
+        files.add(new File("DMC-S1000DBIKE-AAA-DA0-10-00-00AA-041A-A_003-00_EN-US.xml"));
+        files.add(new File("ICN-S1000DBIKE-AAA-D000000-0-U8025-00536-A-04-1.jpg"));
+        map = URNMapper.createURNMap(files, "../");
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.URNMap#getTargetByCode(java.lang.String)}.
+     * @throws Exception
+     */
+    @Test
+    public void testGetTargetByCode() throws Exception
+    {
+        assertEquals(3, map.size());
+
+        //the map finds the same target as the XPath it replaces
+        String code = "DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A";
+        XPath xp = XPath.newInstance("//target[parent::urn[@name='URN:S1000D:" + code + "']]/text()");
+        String expected = ((Text) xp.selectSingleNode(map.getDocument())).getText();
+        assertEquals(expected, map.getTargetByCode(code));
+        assertEquals("DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A_004-00_EN-US.xml", map.getTargetByCode(code));
+
+        assertEquals("../ICN-S1000DBIKE-AAA-D000000-0-U8025-00536-A-04-1.jpg",
+                     map.getTarget("URN:S1000D:ICN-S1000DBIKE-AAA-D000000-0-U8025-00536-A-04-1"));
+        assertNull(map.getTargetByCode("DMC-S1000DBIKE-AAA-D00-00-00-00AA-040A-A"));
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.URNMap#getTargetsByPrefix(java.lang.String)}.
+     */
+    @Test
+    public void testGetTargetsByPrefix()
+    {
+        SortedMap<String, String> targets = map.getTargetsByPrefix("URN:S1000D:DMC-S1000DBIKE-AAA-D");
+        assertEquals(2, targets.size());
+        assertEquals("URN:S1000D:DMC-S1000DBIKE-AAA-D00-00-00-00AA-041A-A", targets.firstKey());
+        assertEquals("URN:S1000D:DMC-S1000DBIKE-AAA-DA0-10-00-00AA-041A-A", targets.lastKey());
+
+        assertTrue(map.getTargetsByPrefix("URN:S1000D:PMC").isEmpty());
+        assertEquals(3, map.getTargetsByPrefix("").size());
+    }
+
+    /**
+     * Test method for {@link bridge.toolkit.util.URNMap#getDocument()}.
+     */
+    @Test
+    public void testGetDocument()
+    {
+        //every file is still written to the urn_resource_map.xml file
+        Element root = map.getDocument().getRootElement();
+        assertEquals("urn-resource", root.getName());
+        assertEquals(4, root.getChildren("urn").size());
+    }
+}